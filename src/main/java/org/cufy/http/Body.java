@@ -24,7 +24,9 @@ import org.jetbrains.annotations.Range;
 import java.io.IOError;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * <b>Implementation Specific</b>
@@ -36,6 +38,14 @@ import java.io.Serializable;
  * @since 0.0.1 ~2021.03.22
  */
 public abstract class Body implements Cloneable, Serializable {
+	/**
+	 * The length reported by bodies that cannot know their length without reading or
+	 * encoding their content.
+	 *
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	public static final long UNKNOWN_LENGTH = -1;
+
 	@SuppressWarnings("JavaDoc")
 	private static final long serialVersionUID = -1025252346759680508L;
 
@@ -65,30 +75,20 @@ public abstract class Body implements Cloneable, Serializable {
 
 	/**
 	 * The length of this body (the length of the bytes).
+	 * <br>
+	 * Implementations should only return the length when it can be known without
+	 * reading or encoding the content. Otherwise, {@link #UNKNOWN_LENGTH} is returned and
+	 * engines send the body with chunked transfer encoding.
 	 *
-	 * @return the length of this body.
+	 * @return the length of this body, or {@link #UNKNOWN_LENGTH} if unknown.
 	 * @throws IOError when any I/O error occurs while attempting to read the length of
 	 *                 the content.
 	 * @since 0.0.1 ~2021.03.23
 	 */
 	@Contract(pure = true)
-	@Range(from = 0, to = Long.MAX_VALUE)
+	@Range(from = -1, to = Long.MAX_VALUE)
 	public long getContentLength() {
-		byte[] buffer = new byte[1024];
-		long length = 0;
-
-		try (InputStream is = this.openInputStream()) {
-			while (true) {
-				long read = is.read(buffer, 0, buffer.length);
-
-				if (read < 0)
-					return length;
-
-				length += read;
-			}
-		} catch (IOException e) {
-			throw new IOError(e);
-		}
+		return Body.UNKNOWN_LENGTH;
 	}
 
 	/**
@@ -172,4 +172,32 @@ public abstract class Body implements Cloneable, Serializable {
 	@NotNull
 	@Contract(pure = true)
 	public abstract InputStream openInputStream();
+
+	/**
+	 * Write the bytes of this body to the given {@code stream}. The stream will not be
+	 * closed.
+	 * <br>
+	 * By default, this copies the bytes from {@link #openInputStream()}. Bodies that can
+	 * encode their content directly should override this.
+	 *
+	 * @param stream the stream to write to.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	public void writeTo(@NotNull OutputStream stream) throws IOException {
+		Objects.requireNonNull(stream, "stream");
+		byte[] buffer = new byte[8192];
+
+		try (InputStream is = this.openInputStream()) {
+			while (true) {
+				int read = is.read(buffer, 0, buffer.length);
+
+				if (read < 0)
+					return;
+
+				stream.write(buffer, 0, read);
+			}
+		}
+	}
 }
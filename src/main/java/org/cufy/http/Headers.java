@@ -15,19 +15,20 @@
  */
 package org.cufy.http;
 
-import org.cufy.http.internal.syntax.AbnfPattern;
-import org.cufy.http.internal.syntax.HttpPattern;
 import org.cufy.http.internal.syntax.HttpRegExp;
+import org.cufy.http.internal.syntax.HttpScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.jetbrains.annotations.UnmodifiableView;
+import org.jetbrains.annotations.Range;
+import org.jetbrains.annotations.Unmodifiable;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * <b>Mappings</b> (No Encode)
@@ -796,16 +797,76 @@ public class Headers implements Cloneable, Serializable {
 	 */
 	public static final String X_FRAME_OPTIONS = "X-Frame-Options";
 
+	/**
+	 * The mask of the indices of the known names table.
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	private static final int KNOWN_MASK = 0xFF;
+	/**
+	 * The hashes of the known names. (parallel to {@link #KNOWN_NAMES})
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	private static final int @NotNull [] KNOWN_HASHES = new int[Headers.KNOWN_MASK + 1];
+	/**
+	 * The header name constants of this class, placed by their identity hash code. Used
+	 * to skip hashing the constants.
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Nullable
+	private static final String @NotNull [] KNOWN_NAMES = new String[Headers.KNOWN_MASK + 1];
+
 	@SuppressWarnings("JavaDoc")
-	private static final long serialVersionUID = -3881735342601146869L;
+	private static final long serialVersionUID = 5417036948261702354L;
+
+	static {
+		for (Field field : Headers.class.getFields()) {
+			int modifiers = field.getModifiers();
+
+			if (Modifier.isStatic(modifiers) && field.getType() == String.class)
+				try {
+					String name = (String) field.get(null);
+					int i = System.identityHashCode(name) & Headers.KNOWN_MASK;
+
+					while (Headers.KNOWN_NAMES[i] != null)
+						i = i + 1 & Headers.KNOWN_MASK;
 
+					Headers.KNOWN_NAMES[i] = name;
+					Headers.KNOWN_HASHES[i] = Headers.computeHash(name);
+				} catch (IllegalAccessException e) {
+					throw new InternalError(e);
+				}
+		}
+	}
+
+	/**
+	 * The case-insensitive hashes of the names. (parallel to {@link #names})
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	protected int @NotNull [] hashes;
+	/**
+	 * The names in insertion order. A name might occur more than once.
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@NotNull
+	protected String @NotNull [] names;
+	/**
+	 * The number of entries.
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	protected int size;
 	/**
-	 * The headers.
+	 * The values. (parallel to {@link #names})
 	 *
 	 * @since 0.0.1 ~2021.03.21
 	 */
 	@NotNull
-	protected Map<@NotNull String, @NotNull String> values;
+	protected String @NotNull [] values;
 
 	/**
 	 * Construct a new headers.
@@ -813,12 +874,13 @@ public class Headers implements Cloneable, Serializable {
 	 * @since 0.3.0 ~2021.11.26
 	 */
 	public Headers() {
-		this.values = new LinkedHashMap<>();
+		this.hashes = new int[8];
+		this.names = new String[8];
+		this.values = new String[8];
 	}
 
 	/**
-	 * Construct a new headers from combining the given {@code values} with the crlf
-	 * "\r\n" as the delimiter.
+	 * Construct a new headers with the entries of the given {@code values}.
 	 * <br>
 	 * Note: No validation will be applied.
 	 *
@@ -828,8 +890,13 @@ public class Headers implements Cloneable, Serializable {
 	 */
 	public Headers(@NotNull Map<@NotNull String, @NotNull String> values) {
 		Objects.requireNonNull(values, "values");
-		//noinspection AssignmentOrReturnOfFieldWithMutableType
-		this.values = values;
+		int capacity = Math.max(8, values.size());
+		this.hashes = new int[capacity];
+		this.names = new String[capacity];
+		this.values = new String[capacity];
+
+		for (Map.Entry<String, String> entry : values.entrySet())
+			this.append(entry.getKey(), entry.getValue());
 	}
 
 	/**
@@ -841,13 +908,16 @@ public class Headers implements Cloneable, Serializable {
 	 */
 	public Headers(@NotNull Consumer<@NotNull Headers> builder) {
 		Objects.requireNonNull(builder, "builder");
-		this.values = new LinkedHashMap<>();
+		this.hashes = new int[8];
+		this.names = new String[8];
+		this.values = new String[8];
 		//noinspection ThisEscapedInObjectConstruction
 		builder.accept(this);
 	}
 
 	/**
-	 * Construct a new headers from parsing the given {@code source}.
+	 * Construct a new headers from parsing the given {@code source}. Repeated fields are
+	 * kept as separate entries and folded lines are joined with a single space.
 	 *
 	 * @param source the source of the constructed headers.
 	 * @return a new headers from parsing the given {@code source}.
@@ -860,22 +930,156 @@ public class Headers implements Cloneable, Serializable {
 	@Contract(value = "_->new", pure = true)
 	public static Headers parse(@NotNull @Pattern(HttpRegExp.HEADERS) String source) {
 		Objects.requireNonNull(source, "source");
+		Headers headers = new Headers();
+		int length = source.length();
+		int i = 0;
+
+		while (i < length) {
+			int end = i;
+
+			//find the end of the field (line breaks followed by a space or a tab are folds)
+			while (true) {
+				while (end < length && source.charAt(end) != '\r' && source.charAt(end) != '\n')
+					end++;
+
+				int next = end;
+
+				if (next < length && source.charAt(next) == '\r')
+					next++;
+				if (next < length && source.charAt(next) == '\n' && (next == end || source.charAt(end) == '\r'))
+					next++;
+				if (next < length && (source.charAt(next) == ' ' || source.charAt(next) == '\t')) {
+					end = next;
+					continue;
+				}
+
+				break;
+			}
+
+			int colon = source.indexOf(':', i);
+
+			if (end == length || colon < 0 || colon > end || !HttpScanner.isToken(source, i, colon))
+				throw new IllegalArgumentException("invalid headers: " + source);
+
+			String value = source.substring(colon + 1, end);
+
+			if (!HttpScanner.isFieldValue(value))
+				throw new IllegalArgumentException("invalid headers: " + source);
+
+			headers.append(
+					source.substring(i, colon),
+					Headers.trim(Headers.unfold(value))
+			);
+
+			//skip the line break
+			i = end;
+
+			if (i < length && source.charAt(i) == '\r')
+				i++;
+			if (i < length && source.charAt(i) == '\n' && source.charAt(i - 1) != '\n')
+				i++;
+		}
 
-		if (!HttpPattern.HEADERS.matcher(source).matches())
-			throw new IllegalArgumentException("invalid headers: " + source);
-
-		//noinspection DynamicRegexReplaceableByCompiledPattern
-		Map<String, String> values =
-				Arrays.stream(AbnfPattern.CRLF.split(source))
-					  .map(v -> v.split("\\: ?", 2))
-					  .collect(Collectors.toMap(
-							  v -> v[0],
-							  v -> v.length == 2 ? v[1] : "",
-							  (f, s) -> s,
-							  LinkedHashMap::new
-					  ));
-
-		return new Headers(values);
+		return headers;
+	}
+
+	/**
+	 * Compute the case-insensitive hash of the given {@code name}.
+	 *
+	 * @param name the name to be hashed.
+	 * @return the hash of the given {@code name}.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	private static int computeHash(@NotNull String name) {
+		int length = name.length();
+		int hash = 0;
+
+		for (int i = 0; i < length; i++) {
+			char c = name.charAt(i);
+			hash = 31 * hash + (c >= 'A' && c <= 'Z' ? c + 0x20 : c);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Return the case-insensitive hash of the given {@code name}. The hashes of the
+	 * constants of this class are not computed.
+	 *
+	 * @param name the name to be hashed.
+	 * @return the hash of the given {@code name}.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	private static int hash(@NotNull String name) {
+		int i = System.identityHashCode(name) & Headers.KNOWN_MASK;
+
+		while (true) {
+			String known = Headers.KNOWN_NAMES[i];
+
+			if (known == name)
+				return Headers.KNOWN_HASHES[i];
+			if (known == null)
+				return Headers.computeHash(name);
+
+			i = i + 1 & Headers.KNOWN_MASK;
+		}
+	}
+
+	/**
+	 * Remove the leading and trailing spaces and tabs of the given {@code value}.
+	 *
+	 * @param value the value to be trimmed.
+	 * @return the trimmed value.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String trim(@NotNull String value) {
+		int start = 0;
+		int end = value.length();
+
+		while (start < end && (value.charAt(start) == ' ' || value.charAt(start) == '\t'))
+			start++;
+		while (end > start && (value.charAt(end - 1) == ' ' || value.charAt(end - 1) == '\t'))
+			end--;
+
+		return value.substring(start, end);
+	}
+
+	/**
+	 * Replace each line break and the spaces and tabs following it in the given {@code
+	 * value} with a single space.
+	 *
+	 * @param value the value to be unfolded.
+	 * @return the unfolded value.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String unfold(@NotNull String value) {
+		if (value.indexOf('\r') < 0 && value.indexOf('\n') < 0)
+			return value;
+
+		int length = value.length();
+		StringBuilder builder = new StringBuilder(length);
+
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+
+			if (c != '\r' && c != '\n') {
+				builder.append(c);
+				continue;
+			}
+
+			while (i + 1 < length && " \t\r\n".indexOf(value.charAt(i + 1)) >= 0)
+				i++;
+
+			builder.append(' ');
+		}
+
+		return builder.toString();
 	}
 
 	/**
@@ -886,10 +1090,13 @@ public class Headers implements Cloneable, Serializable {
 	 */
 	@NotNull
 	@Contract(value = "->new", pure = true)
+	@Override
 	public Headers clone() {
 		try {
 			Headers clone = (Headers) super.clone();
-			clone.values = new HashMap<>(this.values);
+			clone.hashes = this.hashes.clone();
+			clone.names = this.names.clone();
+			clone.values = this.values.clone();
 			return clone;
 		} catch (CloneNotSupportedException e) {
 			throw new InternalError(e);
@@ -897,8 +1104,8 @@ public class Headers implements Cloneable, Serializable {
 	}
 
 	/**
-	 * Two headers are equal when they are the same instance or have an equal {@link
-	 * #values()}.
+	 * Two headers are equal when they are the same instance or have the same values for
+	 * each name (case-insensitive) in the same order.
 	 *
 	 * @param object the object to be checked.
 	 * @return if the given {@code object} is a headers and equals this.
@@ -912,15 +1119,37 @@ public class Headers implements Cloneable, Serializable {
 		if (object instanceof Headers) {
 			Headers headers = (Headers) object;
 
-			return Objects.equals(this.values(), headers.values());
+			if (this.size != headers.size)
+				return false;
+
+			for (int i = 0; i < this.size; i++) {
+				if (this.indexOf(this.names[i], this.hashes[i], 0) != i)
+					//already compared
+					continue;
+
+				int j = this.indexOf(this.names[i], this.hashes[i], i);
+				int k = headers.indexOf(this.names[i], this.hashes[i], 0);
+
+				while (j >= 0 && k >= 0) {
+					if (!this.values[j].equals(headers.values[k]))
+						return false;
+
+					j = this.indexOf(this.names[i], this.hashes[i], j + 1);
+					k = headers.indexOf(this.names[i], this.hashes[i], k + 1);
+				}
+
+				if (j != k)
+					return false;
+			}
+
+			return true;
 		}
 
 		return false;
 	}
 
 	/**
-	 * The hash code of a headers is the {@code xor} of the hash codes of its values.
-	 * (optional)
+	 * The hash code of a headers is the sum of the hash codes of its entries.
 	 *
 	 * @return the hash code of this headers.
 	 * @since 0.0.1 ~2021.03.23
@@ -928,7 +1157,12 @@ public class Headers implements Cloneable, Serializable {
 	@Override
 	@Contract(pure = true)
 	public int hashCode() {
-		return this.values.hashCode();
+		int hash = 0;
+
+		for (int i = 0; i < this.size; i++)
+			hash += this.hashes[i] * 31 ^ this.values[i].hashCode();
+
+		return hash;
 	}
 
 	/**
@@ -953,14 +1187,72 @@ public class Headers implements Cloneable, Serializable {
 	@Pattern(HttpRegExp.HEADERS)
 	@Override
 	public String toString() {
-		return this.values.entrySet()
-						  .stream()
-						  .map(entry -> entry.getKey() + ": " + entry.getValue() + "\r\n")
-						  .collect(Collectors.joining());
+		StringBuilder builder = new StringBuilder();
+
+		for (int i = 0; i < this.size; i++)
+			builder.append(this.names[i])
+				   .append(": ")
+				   .append(this.values[i])
+				   .append("\r\n");
+
+		return builder.toString();
 	}
 
 	/**
-	 * Get the value assigned to the given {@code name}.
+	 * Add the given {@code value} to the given {@code name}. Unlike {@link #put(String,
+	 * String)}, the existing values of the given {@code name} are kept.
+	 *
+	 * @param name  the name of the attribute.
+	 * @param value the value to be added.
+	 * @throws NullPointerException          if the given {@code name} or {@code value} is
+	 *                                       null.
+	 * @throws IllegalArgumentException      if the given {@code name} does not match
+	 *                                       {@link HttpRegExp#FIELD_NAME}; if the given
+	 *                                       {@code value} does not match {@link
+	 *                                       HttpRegExp#FIELD_VALUE}.
+	 * @throws UnsupportedOperationException if this headers is unmodifiable.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(mutates = "this")
+	public void add(@NotNull @Pattern(HttpRegExp.FIELD_NAME) String name, @NotNull @Pattern(HttpRegExp.FIELD_VALUE) String value) {
+		Headers.checkName(name);
+		Headers.checkValue(value);
+		this.append(name, value);
+	}
+
+	/**
+	 * Add the given {@code value} to the given {@code name} keeping the existing values.
+	 * <br>
+	 * Note: No validation will be applied. (meant for engines adding received headers)
+	 *
+	 * @param name  the name of the attribute.
+	 * @param value the value to be added.
+	 * @throws NullPointerException          if the given {@code name} or {@code value} is
+	 *                                       null.
+	 * @throws UnsupportedOperationException if this headers is unmodifiable.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(mutates = "this")
+	public void append(@NotNull String name, @NotNull String value) {
+		Objects.requireNonNull(name, "name");
+		Objects.requireNonNull(value, "value");
+
+		if (this.size == this.names.length) {
+			int capacity = Math.max(8, this.size << 1);
+			this.hashes = Arrays.copyOf(this.hashes, capacity);
+			this.names = Arrays.copyOf(this.names, capacity);
+			this.values = Arrays.copyOf(this.values, capacity);
+		}
+
+		this.hashes[this.size] = Headers.hash(name);
+		this.names[this.size] = name;
+		this.values[this.size] = value;
+		this.size++;
+	}
+
+	/**
+	 * Get the value assigned to the given {@code name}. If the given {@code name} has
+	 * more than one value, the last one is returned.
 	 *
 	 * @param name the name of the value to be returned.
 	 * @return the value assigned to the given {@code name}. Or {@code null} if no such
@@ -974,15 +1266,59 @@ public class Headers implements Cloneable, Serializable {
 	@Contract(pure = true)
 	@Pattern(HttpRegExp.FIELD_VALUE)
 	public String get(@NotNull @Pattern(HttpRegExp.FIELD_NAME) String name) {
-		Objects.requireNonNull(name, "name");
-		if (!HttpPattern.FIELD_NAME.matcher(name).matches())
-			throw new IllegalArgumentException("invalid field name: " + name);
-		return this.values.get(name);
+		Headers.checkName(name);
+		int hash = Headers.hash(name);
+
+		for (int i = this.size - 1; i >= 0; i--)
+			if (this.hashes[i] == hash && this.names[i].equalsIgnoreCase(name))
+				return this.values[i];
+
+		return null;
+	}
+
+	/**
+	 * Get all the values assigned to the given {@code name} in order.
+	 *
+	 * @param name the name of the values to be returned.
+	 * @return a new list of the values assigned to the given {@code name}.
+	 * @throws NullPointerException     if the given {@code name} is null.
+	 * @throws IllegalArgumentException if the given {@code name} does not match {@link
+	 *                                  HttpRegExp#FIELD_NAME}.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	public List<@NotNull String> getAll(@NotNull @Pattern(HttpRegExp.FIELD_NAME) String name) {
+		Headers.checkName(name);
+		int hash = Headers.hash(name);
+		List<String> list = new ArrayList<>(1);
+
+		for (int i = this.indexOf(name, hash, 0); i >= 0; i = this.indexOf(name, hash, i + 1))
+			list.add(this.values[i]);
+
+		return list;
+	}
+
+	/**
+	 * Return the name of the entry at the given {@code index}.
+	 *
+	 * @param index the index of the entry.
+	 * @return the name of the entry.
+	 * @throws IndexOutOfBoundsException if the given {@code index} is out of bounds.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public String nameAt(@Range(from = 0, to = Integer.MAX_VALUE) int index) {
+		if (index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+
+		return this.names[index];
 	}
 
 	/**
 	 * Set the value of the attribute with the given {@code name} to the given {@code
-	 * value}.
+	 * value}. All the previous values of the given {@code name} are replaced.
 	 *
 	 * @param name  the name of the attribute to be set.
 	 * @param value the new value for to set to the attribute.
@@ -997,18 +1333,23 @@ public class Headers implements Cloneable, Serializable {
 	 */
 	@Contract(mutates = "this")
 	public void put(@NotNull @Pattern(HttpRegExp.FIELD_NAME) String name, @NotNull @Pattern(HttpRegExp.FIELD_VALUE) String value) {
-		Objects.requireNonNull(name, "name");
-		Objects.requireNonNull(value, "value");
-		if (!HttpPattern.FIELD_NAME.matcher(name).matches())
-			throw new IllegalArgumentException("invalid field name: " + name);
-		if (!HttpPattern.FIELD_VALUE.matcher(value).matches())
-			throw new IllegalArgumentException("invalid field value: " + value);
+		Headers.checkName(name);
+		Headers.checkValue(value);
+		int hash = Headers.hash(name);
+		int index = this.indexOf(name, hash, 0);
 
-		this.values.put(name, value);
+		if (index < 0) {
+			this.append(name, value);
+			return;
+		}
+
+		this.names[index] = name;
+		this.values[index] = value;
+		this.removeFrom(name, hash, index + 1);
 	}
 
 	/**
-	 * Remove the attribute with the given {@code name}.
+	 * Remove the attribute with the given {@code name}. (all of its values)
 	 *
 	 * @param name the name of the attribute to be removed.
 	 * @throws NullPointerException          if the given {@code name} is null.
@@ -1019,23 +1360,138 @@ public class Headers implements Cloneable, Serializable {
 	 */
 	@Contract(mutates = "this")
 	public void remove(@NotNull @Pattern(HttpRegExp.FIELD_NAME) String name) {
-		Objects.requireNonNull(name, "name");
-		if (!HttpPattern.FIELD_NAME.matcher(name).matches())
-			throw new IllegalArgumentException("invalid field name: " + name);
+		Headers.checkName(name);
+		this.removeFrom(name, Headers.hash(name), 0);
+	}
+
+	/**
+	 * Return the number of entries in this headers. (counting repeated names)
+	 *
+	 * @return the number of entries.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	@Range(from = 0, to = Integer.MAX_VALUE)
+	public int size() {
+		return this.size;
+	}
 
-		this.values.remove(name);
+	/**
+	 * Return the value of the entry at the given {@code index}.
+	 *
+	 * @param index the index of the entry.
+	 * @return the value of the entry.
+	 * @throws IndexOutOfBoundsException if the given {@code index} is out of bounds.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public String valueAt(@Range(from = 0, to = Integer.MAX_VALUE) int index) {
+		if (index < 0 || index >= this.size)
+			throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+
+		return this.values[index];
 	}
 
 	/**
-	 * Return an unmodifiable view of the values of this query.
+	 * Return an unmodifiable snapshot of the values of this headers. Names are compared
+	 * case-insensitively; each name is mapped (in its first spelling) to its last value.
+	 * Use {@link #getAll(String)} or {@link #size()} with {@link #nameAt(int)} and {@link
+	 * #valueAt(int)} to get repeated values.
 	 *
-	 * @return an unmodifiable view of the values of this.
+	 * @return an unmodifiable snapshot of the values of this.
 	 * @since 0.0.1 ~2021.03.21
 	 */
 	@NotNull
-	@UnmodifiableView
-	@Contract(pure = true)
+	@Unmodifiable
+	@Contract(value = "->new", pure = true)
 	public Map<@NotNull String, @NotNull String> values() {
-		return Collections.unmodifiableMap(this.values);
+		Map<String, String> map = new LinkedHashMap<>();
+
+		for (int i = 0; i < this.size; i++) {
+			int first = this.indexOf(this.names[i], this.hashes[i], 0);
+			map.put(this.names[first], this.values[i]);
+		}
+
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Throw if the given {@code name} is not a valid field name.
+	 *
+	 * @param name the name to be checked.
+	 * @throws NullPointerException     if the given {@code name} is null.
+	 * @throws IllegalArgumentException if the given {@code name} does not match {@link
+	 *                                  HttpRegExp#FIELD_NAME}.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	private static void checkName(@NotNull String name) {
+		Objects.requireNonNull(name, "name");
+		if (!HttpScanner.isToken(name))
+			throw new IllegalArgumentException("invalid field name: " + name);
+	}
+
+	/**
+	 * Throw if the given {@code value} is not a valid field value.
+	 *
+	 * @param value the value to be checked.
+	 * @throws NullPointerException     if the given {@code value} is null.
+	 * @throws IllegalArgumentException if the given {@code value} does not match {@link
+	 *                                  HttpRegExp#FIELD_VALUE}.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	private static void checkValue(@NotNull String value) {
+		Objects.requireNonNull(value, "value");
+		if (!HttpScanner.isFieldValue(value))
+			throw new IllegalArgumentException("invalid field value: " + value);
+	}
+
+	/**
+	 * Return the index of the first entry at or after the given {@code from} index with
+	 * the given {@code name}.
+	 *
+	 * @param name the name to look for.
+	 * @param hash the hash of the given {@code name}.
+	 * @param from the index to start from.
+	 * @return the index of the entry, or {@code -1} if not found.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	private int indexOf(@NotNull String name, int hash, int from) {
+		for (int i = from; i < this.size; i++)
+			if (this.hashes[i] == hash && this.names[i].equalsIgnoreCase(name))
+				return i;
+
+		return -1;
+	}
+
+	/**
+	 * Remove the entries at or after the given {@code from} index with the given {@code
+	 * name}.
+	 *
+	 * @param name the name of the entries to be removed.
+	 * @param hash the hash of the given {@code name}.
+	 * @param from the index to start from.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(mutates = "this")
+	private void removeFrom(@NotNull String name, int hash, int from) {
+		int j = from;
+
+		for (int i = from; i < this.size; i++) {
+			if (this.hashes[i] == hash && this.names[i].equalsIgnoreCase(name))
+				continue;
+
+			this.hashes[j] = this.hashes[i];
+			this.names[j] = this.names[i];
+			this.values[j] = this.values[i];
+			j++;
+		}
+
+		Arrays.fill(this.names, j, this.size, null);
+		Arrays.fill(this.values, j, this.size, null);
+		this.size = j;
 	}
 }
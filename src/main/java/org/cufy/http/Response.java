@@ -16,16 +16,21 @@
 package org.cufy.http;
 
 import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.FileBody;
 import org.cufy.http.internal.syntax.AbnfPattern;
 import org.cufy.http.internal.syntax.HttpParse;
 import org.cufy.http.internal.syntax.HttpPattern;
 import org.cufy.http.internal.syntax.HttpRegExp;
+import org.cufy.http.internal.util.WireWriter;
 import org.cufy.http.mime.Mime;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -279,4 +284,62 @@ public class Response extends Message {
 		Objects.requireNonNull(statusLine, "statusLine");
 		this.statusLine = statusLine;
 	}
+
+	/**
+	 * Write the http/1.1 wire form of this response to the given {@code stream}. The
+	 * status-line and the headers are written as they are (no header is added) followed by
+	 * an empty line and the raw bytes of the body. The given stream will be flushed but
+	 * not closed.
+	 *
+	 * @param stream the stream to write to.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "param")
+	public void writeTo(@NotNull OutputStream stream) throws IOException {
+		Objects.requireNonNull(stream, "stream");
+		this.writeTo(new WireWriter(stream));
+	}
+
+	/**
+	 * Write the http/1.1 wire form of this response to the given {@code channel}. The
+	 * given channel will not be closed. File bodies are transferred with {@link
+	 * FileBody#transferTo(WritableByteChannel)}.
+	 * <br>
+	 * The given channel is expected to be in blocking mode.
+	 *
+	 * @param channel the channel to write to.
+	 * @throws NullPointerException if the given {@code channel} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @see #writeTo(OutputStream)
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "param")
+	public void writeTo(@NotNull WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(channel, "channel");
+		this.writeTo(new WireWriter(channel));
+	}
+
+	/**
+	 * Write the wire form of this response using the given {@code writer}.
+	 *
+	 * @param writer the writer to write with.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "param")
+	private void writeTo(@NotNull WireWriter writer) throws IOException {
+		StatusLine statusLine = this.statusLine;
+
+		writer.append(statusLine.getHttpVersion());
+		writer.append(' ');
+		writer.append(statusLine.getStatusCode());
+		writer.append(' ');
+		writer.append(statusLine.getReasonPhrase());
+		writer.append("\r\n");
+		writer.writeHeaders(this.headers);
+		writer.writeBody(this.body);
+		writer.flush();
+	}
 }
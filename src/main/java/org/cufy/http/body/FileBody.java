@@ -21,9 +21,15 @@ import org.cufy.http.mime.Mime;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
 
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 import java.util.function.Consumer;
 
@@ -135,6 +141,24 @@ public class FileBody extends Body {
 		return false;
 	}
 
+	/**
+	 * Return the size of the file. The file is not read.
+	 *
+	 * @return {@inheritDoc}
+	 * @throws IOError if the file does not exist or any I/O exception occurs while
+	 *                 reading its attributes.
+	 * @since 1.0.0 ~2022.01.26
+	 */
+	@Override
+	@Range(from = 0, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		try {
+			return Files.size(this.file.toPath());
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+	}
+
 	@Override
 	public int hashCode() {
 		return this.file.hashCode();
@@ -163,6 +187,81 @@ public class FileBody extends Body {
 		}
 	}
 
+	/**
+	 * Map the content of the file into memory. The returned buffer is read-only and
+	 * stays valid after the underlying channel is closed.
+	 *
+	 * @return a read-only buffer mapping the content of the file.
+	 * @throws IllegalArgumentException if the file is larger than {@link
+	 *                                  Integer#MAX_VALUE} bytes.
+	 * @throws IOError                  if any I/O exception occurs while mapping the
+	 *                                  file.
+	 * @since 1.0.0 ~2022.01.26
+	 */
+	@NotNull
+	@Contract(value = "->new", pure = true)
+	public MappedByteBuffer map() {
+		try (FileChannel channel = this.openChannel()) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+	}
+
+	/**
+	 * Open a new channel for reading the file. Engines can use {@link
+	 * FileChannel#transferTo(long, long, WritableByteChannel)} on the returned channel to
+	 * let the kernel copy the content directly to a socket.
+	 *
+	 * @return a new read-only channel over the file.
+	 * @throws IOError if any I/O exception occurs while opening the file.
+	 * @since 1.0.0 ~2022.01.26
+	 */
+	@NotNull
+	@Contract(value = "->new", pure = true)
+	public FileChannel openChannel() {
+		try {
+			return FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+	}
+
+	/**
+	 * Transfer the content of the file to the given {@code channel} using {@link
+	 * FileChannel#transferTo(long, long, WritableByteChannel)}. The given channel will
+	 * not be closed.
+	 * <br>
+	 * The given channel is expected to be in blocking mode.
+	 *
+	 * @param channel the channel to transfer to.
+	 * @return the number of transferred bytes.
+	 * @throws NullPointerException if the given {@code channel} is null.
+	 * @throws EOFException         if the file got truncated while being transferred.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.26
+	 */
+	@Contract(mutates = "param")
+	public long transferTo(@NotNull WritableByteChannel channel) throws IOException {
+		Objects.requireNonNull(channel, "channel");
+
+		try (FileChannel source = this.openChannel()) {
+			long size = source.size();
+			long position = 0;
+
+			while (position < size) {
+				long count = source.transferTo(position, size - position, channel);
+
+				if (count == 0 && position >= source.size())
+					throw new EOFException("File truncated: " + this.file);
+
+				position += count;
+			}
+
+			return position;
+		}
+	}
+
 	/**
 	 * Return the file object.
 	 *
@@ -16,10 +16,11 @@
 package org.cufy.http.body;
 
 import org.cufy.http.Body;
-import org.cufy.http.internal.util.StreamUtil;
 import org.cufy.http.json.JsonElement;
 import org.cufy.http.json.JsonObject;
 import org.cufy.http.json.JsonPath;
+import org.cufy.http.json.JsonReader;
+import org.cufy.http.json.JsonWriter;
 import org.cufy.http.mime.Mime;
 import org.cufy.http.mime.MimeSubtype;
 import org.cufy.http.mime.MimeType;
@@ -28,12 +29,14 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOError;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.Consumer;
@@ -137,13 +140,18 @@ public class JsonBody extends Body {
 	@Contract(value = "_->new", pure = true)
 	public static JsonBody from(@NotNull Body body) {
 		Objects.requireNonNull(body, "body");
-		try (InputStream is = body.openInputStream()) {
-			String string = new String(StreamUtil.readAllBytes(is));
-			JsonObject object = JsonObject.parse(string);
+		try (JsonReader reader = new JsonReader(body.openInputStream())) {
+			if (reader.peek() != JsonReader.BEGIN_OBJECT)
+				throw new IllegalArgumentException("Expected: {");
+
+			JsonElement element = reader.nextElement();
+
+			//reject trailing tokens
+			reader.peek();
 
 			return new JsonBody(
 					body.getMime(),
-					object
+					(JsonObject) element
 			);
 		} catch (IOException e) {
 			throw new IOError(e);
@@ -190,6 +198,12 @@ public class JsonBody extends Body {
 		return false;
 	}
 
+	@Override
+	@Range(from = 0, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		return JsonWriter.length(this.object);
+	}
+
 	@Override
 	public int hashCode() {
 		return this.object.hashCode();
@@ -198,9 +212,9 @@ public class JsonBody extends Body {
 	@NotNull
 	@Override
 	public InputStream openInputStream() {
-		return new ByteArrayInputStream(
-				this.object.json().getBytes(StandardCharsets.UTF_8)
-		);
+		byte[] bytes = new byte[Math.toIntExact(JsonWriter.length(this.object))];
+		JsonWriter.write(this.object, ByteBuffer.wrap(bytes));
+		return new ByteArrayInputStream(bytes);
 	}
 
 	@NotNull
@@ -209,6 +223,14 @@ public class JsonBody extends Body {
 		return this.object.json();
 	}
 
+	@Override
+	public void writeTo(@NotNull OutputStream stream) throws IOException {
+		Objects.requireNonNull(stream, "stream");
+		JsonWriter writer = new JsonWriter(stream);
+		writer.write(this.object);
+		writer.flush();
+	}
+
 	/**
 	 * Return the element at the given {@code path}.
 	 *
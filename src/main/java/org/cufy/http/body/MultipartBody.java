@@ -17,6 +17,7 @@ package org.cufy.http.body;
 
 import org.cufy.http.Body;
 import org.cufy.http.Headers;
+import org.cufy.http.internal.util.StreamUtil;
 import org.cufy.http.mime.Mime;
 import org.cufy.http.mime.MimeParameters;
 import org.cufy.http.mime.MimeSubtype;
@@ -27,7 +28,9 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
@@ -43,6 +46,13 @@ import java.util.stream.IntStream;
  * @since 0.3.0 ~2021.11.18
  */
 public class MultipartBody extends Body {
+	/**
+	 * The bytes that end each part.
+	 *
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	private static final byte @NotNull [] PART_END = {'\r', '\n'};
+
 	@SuppressWarnings("JavaDoc")
 	private static final long serialVersionUID = 5200102396365014555L;
 
@@ -54,6 +64,14 @@ public class MultipartBody extends Body {
 	@NotNull
 	protected List<@NotNull BodyPart> parts;
 
+	/**
+	 * The boundary generated for this body when its mime has none. (lazily initialized)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	private transient String boundary;
+
 	/**
 	 * Construct a new multipart body.
 	 *
@@ -158,47 +176,55 @@ public class MultipartBody extends Body {
 		return this.parts.hashCode();
 	}
 
-	@NotNull
+	/**
+	 * Return the sum of the lengths of the parts and the delimiters. The content of the
+	 * parts is not read.
+	 *
+	 * @return the length of this body, or {@link #UNKNOWN_LENGTH} if the
+	 * 		length of any part is unknown.
+	 * @since 1.0.0 ~2022.01.27
+	 */
 	@Override
-	public InputStream openInputStream() {
-		List<InputStream> streams = new ArrayList<>();
-
-		String boundaryString =
-				this.mime == null ?
-				UUID.randomUUID().toString() :
-				this.mime.getMimeParameters().get("boundary");
-		byte[] partStartBytes = ("--" + boundaryString + "\r\n")
-				.getBytes(StandardCharsets.UTF_8);
-		byte[] partEndBytes = "\r\n"
-				.getBytes(StandardCharsets.UTF_8);
-		byte[] endBytes = ("--" + boundaryString + "---")
-				.getBytes(StandardCharsets.UTF_8);
+	@Range(from = -1, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		String boundary = this.boundary();
+		long length = StreamUtil.utf8Length(MultipartBody.end(boundary));
 
 		for (BodyPart part : this.parts) {
-			Headers headers = part.getHeaders().clone();
 			Body body = part.getBody();
+			long bodyLength = body == null ? 0 : body.getContentLength();
 
-			// if not set, set Content-Type header from the body content type
-			if (body != null && headers.get(Headers.CONTENT_TYPE) == null) {
-				Mime mime = body.getMime();
+			if (bodyLength < 0)
+				return Body.UNKNOWN_LENGTH;
 
-				if (mime != null) {
-					String mimeString = mime.toString();
+			length += StreamUtil.utf8Length(MultipartBody.head(boundary, part)) +
+					  bodyLength +
+					  MultipartBody.PART_END.length;
+		}
 
-					headers.put(Headers.CONTENT_TYPE, mimeString);
-				}
-			}
+		return length;
+	}
+
+	@NotNull
+	@Override
+	public InputStream openInputStream() {
+		List<InputStream> streams = new ArrayList<>();
+		String boundary = this.boundary();
 
-			byte[] headersBytes = (headers + "\r\n").getBytes(StandardCharsets.UTF_8);
+		for (BodyPart part : this.parts) {
+			Body body = part.getBody();
 
-			streams.add(new ByteArrayInputStream(partStartBytes));
-			streams.add(new ByteArrayInputStream(headersBytes));
+			streams.add(new ByteArrayInputStream(
+					MultipartBody.head(boundary, part).getBytes(StandardCharsets.UTF_8)
+			));
 			if (body != null)
 				streams.add(body.openInputStream());
-			streams.add(new ByteArrayInputStream(partEndBytes));
+			streams.add(new ByteArrayInputStream(MultipartBody.PART_END));
 		}
 
-		streams.add(new ByteArrayInputStream(endBytes));
+		streams.add(new ByteArrayInputStream(
+				MultipartBody.end(boundary).getBytes(StandardCharsets.UTF_8)
+		));
 
 		return new SequenceInputStream(Collections.enumeration(streams));
 	}
@@ -208,10 +234,7 @@ public class MultipartBody extends Body {
 	public String toString() {
 		StringBuilder builder = new StringBuilder();
 
-		String boundaryString =
-				this.mime == null ?
-				UUID.randomUUID().toString() :
-				this.mime.getMimeParameters().get("boundary");
+		String boundaryString = this.boundary();
 		String partStartString = "--" + boundaryString + "\r\n";
 		String partEndString = "\r\n";
 		String endString = "--" + boundaryString + "--";
@@ -245,6 +268,32 @@ public class MultipartBody extends Body {
 		return builder.toString();
 	}
 
+	/**
+	 * Write the parts one after the other, each through its own {@link
+	 * Body#writeTo(OutputStream)}.
+	 *
+	 * @param stream the stream to write to.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	@Override
+	public void writeTo(@NotNull OutputStream stream) throws IOException {
+		Objects.requireNonNull(stream, "stream");
+		String boundary = this.boundary();
+
+		for (BodyPart part : this.parts) {
+			Body body = part.getBody();
+
+			stream.write(MultipartBody.head(boundary, part).getBytes(StandardCharsets.UTF_8));
+			if (body != null)
+				body.writeTo(stream);
+			stream.write(MultipartBody.PART_END);
+		}
+
+		stream.write(MultipartBody.end(boundary).getBytes(StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Add the given {@code part} to the end of the parts list.
 	 *
@@ -315,4 +364,64 @@ public class MultipartBody extends Body {
 
 		this.parts.subList(Math.min(index, size), size).clear();
 	}
+
+	/**
+	 * Return the boundary to be used when writing this body. If the mime has no
+	 * boundary, a random boundary is generated once and used from then on. So, the
+	 * length and the content of this body agree.
+	 *
+	 * @return the boundary of this body.
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	private String boundary() {
+		String boundary = this.mime == null ? null : this.mime.getMimeParameters().get("boundary");
+
+		if (boundary != null)
+			return boundary;
+		if (this.boundary == null)
+			this.boundary = UUID.randomUUID().toString();
+
+		return this.boundary;
+	}
+
+	/**
+	 * Return the delimiter that ends a multipart body with the given {@code boundary}.
+	 *
+	 * @param boundary the boundary.
+	 * @return the close delimiter.
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String end(@NotNull String boundary) {
+		return "--" + boundary + "---";
+	}
+
+	/**
+	 * Return the delimiter and the headers that precede the body of the given {@code part}.
+	 * The {@code Content-Type} header is set from the body if not set.
+	 *
+	 * @param boundary the boundary.
+	 * @param part     the part.
+	 * @return the head of the given {@code part}.
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String head(@NotNull String boundary, @NotNull BodyPart part) {
+		Headers headers = part.getHeaders().clone();
+		Body body = part.getBody();
+
+		// if not set, set Content-Type header from the body content type
+		if (body != null && headers.get(Headers.CONTENT_TYPE) == null) {
+			Mime mime = body.getMime();
+
+			if (mime != null)
+				headers.put(Headers.CONTENT_TYPE, mime.toString());
+		}
+
+		return "--" + boundary + "\r\n" + headers + "\r\n";
+	}
 }
@@ -26,6 +26,7 @@ import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOError;
@@ -192,6 +193,12 @@ public class ParametersBody extends Body {
 		return false;
 	}
 
+	@Override
+	@Range(from = 0, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		return StreamUtil.utf8Length(this.query.toString());
+	}
+
 	@Override
 	public int hashCode() {
 		return this.query.hashCode();
@@ -0,0 +1,299 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.body;
+
+import org.cufy.http.Body;
+import org.cufy.http.internal.util.StreamUtil;
+import org.cufy.http.mime.Mime;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+
+/**
+ * A body implementation that is backed by a live stream (typically the stream of a
+ * connection). The bytes are not held in memory and can only be read once.
+ * <br>
+ * The stream is handed over to the first caller of {@link #openInputStream()}. Any
+ * operation that needs the whole content (like {@link #toString()}, {@link #clone()} or
+ * serializing this body) will {@link #buffer() buffer} the remaining bytes of the stream
+ * into memory first.
+ * <br>
+ * A stream body must be {@link #close() closed} when no longer needed. When received by a
+ * client, the response context closes it once the pipeline completes.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.19
+ */
+public class StreamBody extends Body implements Closeable {
+	@SuppressWarnings("JavaDoc")
+	private static final long serialVersionUID = -2839116584407271905L;
+
+	/**
+	 * The buffered bytes. (null if not buffered)
+	 *
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	protected byte @Nullable [] bytes;
+	/**
+	 * The length of the content. (-1 if unknown)
+	 *
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	protected long contentLength;
+	/**
+	 * The live stream after being handed over by {@link #openInputStream()}. (closed when
+	 * this body is closed)
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@Nullable
+	protected transient InputStream handed;
+	/**
+	 * The live stream. (null if consumed or buffered)
+	 *
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@Nullable
+	protected transient InputStream stream;
+
+	/**
+	 * Construct a new stream body with the given {@code stream}.
+	 *
+	 * @param stream the stream of the constructed body.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	public StreamBody(@NotNull InputStream stream) {
+		Objects.requireNonNull(stream, "stream");
+		this.mime = null;
+		this.contentLength = Body.UNKNOWN_LENGTH;
+		this.stream = stream;
+	}
+
+	/**
+	 * Construct a new stream body with the given parameters.
+	 *
+	 * @param mime          the mime of the constructed body.
+	 * @param contentLength the length of the content. (-1 if unknown)
+	 * @param stream        the stream of the constructed body.
+	 * @throws NullPointerException     if the given {@code stream} is null.
+	 * @throws IllegalArgumentException if the given {@code contentLength} is less than
+	 *                                  -1.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	public StreamBody(@Nullable Mime mime, @Range(from = -1, to = Long.MAX_VALUE) long contentLength, @NotNull InputStream stream) {
+		Objects.requireNonNull(stream, "stream");
+		if (contentLength < -1)
+			throw new IllegalArgumentException("contentLength < -1");
+		this.mime = mime;
+		this.contentLength = contentLength;
+		this.stream = stream;
+	}
+
+	/**
+	 * Construct a new stream body with the given parameters.
+	 *
+	 * @param mime          the mime of the constructed body.
+	 * @param contentLength the length of the content. (-1 if unknown)
+	 * @param channel       the channel of the constructed body.
+	 * @throws NullPointerException     if the given {@code channel} is null.
+	 * @throws IllegalArgumentException if the given {@code contentLength} is less than
+	 *                                  -1.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	public StreamBody(@Nullable Mime mime, @Range(from = -1, to = Long.MAX_VALUE) long contentLength, @NotNull ReadableByteChannel channel) {
+		this(mime, contentLength, Channels.newInputStream(Objects.requireNonNull(channel, "channel")));
+	}
+
+	/**
+	 * Read the remaining bytes of the stream into memory (if not already) and return
+	 * them. After invoking this method, this body behaves like a {@link BytesBody}.
+	 *
+	 * @return the bytes of this body.
+	 * @throws IllegalStateException if the stream has already been handed over by {@link
+	 *                               #openInputStream()}.
+	 * @throws IOError               if any I/O exception occurs while reading the
+	 *                               stream.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@Contract(mutates = "this")
+	public byte @NotNull [] buffer() {
+		if (this.bytes != null)
+			//noinspection AssignmentOrReturnOfFieldWithMutableType
+			return this.bytes;
+
+		InputStream stream = this.stream;
+
+		if (stream == null)
+			throw new IllegalStateException("Stream already consumed");
+
+		this.stream = null;
+
+		try (InputStream is = stream) {
+			byte[] bytes = StreamUtil.readAllBytes(is);
+			this.bytes = bytes;
+			this.contentLength = bytes.length;
+			return bytes;
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+	}
+
+	@NotNull
+	@Override
+	public StreamBody clone() {
+		byte[] bytes = this.buffer();
+		StreamBody clone = (StreamBody) super.clone();
+		if (this.mime != null)
+			clone.mime = this.mime.clone();
+		clone.bytes = bytes.clone();
+		return clone;
+	}
+
+	/**
+	 * Close the underlying stream (if not buffered). A stream already handed over by
+	 * {@link #openInputStream()} gets closed too.
+	 *
+	 * @throws IOException if any I/O exception occurs while closing the stream.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@Override
+	@Contract(mutates = "this")
+	public void close() throws IOException {
+		InputStream stream = this.stream != null ? this.stream : this.handed;
+		this.stream = null;
+		this.handed = null;
+
+		if (stream != null)
+			stream.close();
+	}
+
+	/**
+	 * Two stream bodies are equal only if they are the same object.
+	 *
+	 * @param object {@inheritDoc}
+	 * @return {@inheritDoc}
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@Override
+	public boolean equals(@Nullable Object object) {
+		return object == this;
+	}
+
+	/**
+	 * Return the length of the content. The stream is never read to compute the length.
+	 *
+	 * @return {@inheritDoc}
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@Override
+	@Range(from = -1, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		return this.contentLength;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	/**
+	 * Hand over the live stream of this body. This can only be done once, unless the
+	 * content has been {@link #buffer() buffered}. The handed-over stream is still closed
+	 * when this body is {@link #close() closed}. Closing it more than once has no effect.
+	 *
+	 * @return {@inheritDoc}
+	 * @throws IllegalStateException if the stream has already been handed over.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@NotNull
+	@Override
+	@Contract(mutates = "this")
+	public InputStream openInputStream() {
+		if (this.bytes != null)
+			return new ByteArrayInputStream(this.bytes);
+
+		InputStream stream = this.stream;
+
+		if (stream == null)
+			throw new IllegalStateException("Stream already consumed");
+
+		InputStream handed = new FilterInputStream(stream) {
+			/**
+			 * True, if this stream has been closed.
+			 */
+			private boolean closed;
+
+			@Override
+			public void close() throws IOException {
+				if (!this.closed) {
+					this.closed = true;
+					super.close();
+				}
+			}
+		};
+
+		this.stream = null;
+		this.handed = handed;
+		return handed;
+	}
+
+	/**
+	 * Hand over the live stream of this body as a channel.
+	 *
+	 * @return a channel over the content of this body.
+	 * @throws IllegalStateException if the stream has already been handed over.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	public ReadableByteChannel openChannel() {
+		return Channels.newChannel(this.openInputStream());
+	}
+
+	/**
+	 * Return the content of this body as a string. This {@link #buffer() buffers} the
+	 * remaining bytes of the stream.
+	 *
+	 * @return {@inheritDoc}
+	 * @throws IllegalStateException if the stream has already been handed over.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@NotNull
+	@Override
+	public String toString() {
+		return new String(this.buffer());
+	}
+
+	/**
+	 * Buffer the content before serializing.
+	 *
+	 * @param stream the output stream.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	private void writeObject(@NotNull ObjectOutputStream stream) throws IOException {
+		this.buffer();
+		stream.defaultWriteObject();
+	}
+}
@@ -23,6 +23,7 @@ import org.cufy.http.mime.MimeType;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOError;
@@ -163,6 +164,12 @@ public class TextBody extends Body {
 		return false;
 	}
 
+	@Override
+	@Range(from = 0, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		return StreamUtil.utf8Length(this.value);
+	}
+
 	@Override
 	public int hashCode() {
 		return this.value.hashCode();
@@ -0,0 +1,882 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.cache;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.client.ClientEngine;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.pipeline.Next;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * An engine wrapping another engine and caching the responses of {@code GET} requests
+ * following the semantics of a private cache. (RFC 9111)
+ * <br>
+ * A fresh stored response is served without invoking the wrapped engine. A stale stored
+ * response is revalidated with {@code If-None-Match} and/or {@code If-Modified-Since}
+ * and a {@code 304 Not Modified} answer is turned into the stored response. Successful
+ * unsafe requests invalidate the stored response of their target.
+ * <br>
+ * Only the latest variant (see {@code Vary}) of a target is stored. The credentials of
+ * a request ({@code Authorization}, {@code Proxy-Authorization} and {@code Cookie})
+ * always select its variant, so a cache shared by many users never serves the response
+ * of one to another. Only digests of the credentials are stored. Requests that are
+ * already conditional or ranged bypass the cache. A store failing with a runtime
+ * exception degrades to a miss. Errors are not caught.
+ * <br>
+ * Since compiled engines cannot skip the stages after them, this engine wraps the engine
+ * it caches instead of being combined with it:
+ * <pre>
+ *     req.engine(e -&gt; new CacheEngine(e, store))
+ * </pre>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.03
+ */
+public class CacheEngine implements ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> {
+	/**
+	 * The obsolete asctime date format.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private static final DateTimeFormatter ASCTIME =
+			DateTimeFormatter.ofPattern("EEE MMM ppd HH:mm:ss yyyy", Locale.US).withZone(ZoneOffset.UTC);
+	/**
+	 * The names of the request headers that always select the variant of a request.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	private static final String @NotNull [] CREDENTIALS = {
+			Headers.AUTHORIZATION,
+			Headers.PROXY_AUTHORIZATION,
+			Headers.COOKIE
+	};
+	/**
+	 * The status codes that are cacheable by default.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private static final Set<String> HEURISTIC = new HashSet<>(Arrays.asList(
+			"200", "203", "204", "300", "301", "308", "404", "405", "410", "414", "501"
+	));
+	/**
+	 * The obsolete RFC 850 date format.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private static final DateTimeFormatter RFC_850 =
+			DateTimeFormatter.ofPattern("EEEE, dd-MMM-yy HH:mm:ss zzz", Locale.US);
+
+	/**
+	 * The wrapped engine.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	protected final ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine;
+	/**
+	 * The maximum length of a stored body.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	protected final int maxEntryLength;
+	/**
+	 * The store.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	protected final CacheStore store;
+
+	/**
+	 * Construct a new engine caching the responses of the given {@code engine} with
+	 * bodies of at most 8MiB into the given {@code store}.
+	 *
+	 * @param engine the engine to be wrapped.
+	 * @param store  the store.
+	 * @throws NullPointerException if the given {@code engine} or {@code store} is null.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	public CacheEngine(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull CacheStore store
+	) {
+		this(engine, store, 8 << 20);
+	}
+
+	/**
+	 * Construct a new engine caching the responses of the given {@code engine} into the
+	 * given {@code store}.
+	 *
+	 * @param engine         the engine to be wrapped.
+	 * @param store          the store.
+	 * @param maxEntryLength the maximum length of a stored body.
+	 * @throws NullPointerException     if the given {@code engine} or {@code store} is
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given {@code maxEntryLength} is negative.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	public CacheEngine(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull CacheStore store,
+			@Range(from = 0, to = Integer.MAX_VALUE - 8) int maxEntryLength
+	) {
+		Objects.requireNonNull(engine, "engine");
+		Objects.requireNonNull(store, "store");
+		if (maxEntryLength < 0 || maxEntryLength > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("maxEntryLength: " + maxEntryLength);
+		this.engine = engine;
+		this.store = store;
+		this.maxEntryLength = maxEntryLength;
+	}
+
+	@Override
+	public void connect(@NotNull ClientRequestContext<? extends Endpoint> input, @NotNull Next<ClientResponseContext<? extends Endpoint>> next) throws Throwable {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(next, "next");
+		Request request = input.request();
+		Headers headers = request.getHeaders();
+		String method = request.getRequestLine().getMethod();
+		String key = CacheEngine.key(request);
+
+		if (!method.equals(Method.GET)) {
+			if (method.equals(Method.HEAD) || method.equals(Method.OPTIONS) || method.equals(Method.TRACE)) {
+				this.engine.connect(input, next);
+				return;
+			}
+
+			//unsafe methods invalidate the stored response of their target
+			this.engine.connect(input, error -> {
+				if (error == null) {
+					char c = input.res().statusCode().charAt(0);
+
+					if (c == '2' || c == '3')
+						this.invalidate(key);
+				}
+
+				next.invoke(error);
+			});
+			return;
+		}
+
+		if (CacheEngine.directive(headers, "no-store") != null ||
+			headers.get(Headers.IF_NONE_MATCH) != null ||
+			headers.get(Headers.IF_MODIFIED_SINCE) != null ||
+			headers.get(Headers.IF_MATCH) != null ||
+			headers.get(Headers.IF_UNMODIFIED_SINCE) != null ||
+			headers.get(Headers.RANGE) != null) {
+			this.engine.connect(input, next);
+			return;
+		}
+
+		long now = this.currentTimeMillis();
+		CacheEntry entry = this.lookup(key);
+
+		if (entry != null && !CacheEngine.isSelected(entry, request))
+			entry = null;
+
+		if (entry != null && this.isFresh(entry, request, now)) {
+			CacheEngine.fill(input.res(), entry, now);
+			next.invoke();
+			return;
+		}
+
+		if (CacheEngine.directive(headers, "only-if-cached") != null) {
+			input.res()
+				 .statusCode(StatusCode.GATEWAY_TIMEOUT)
+				 .reasonPhrase(ReasonPhrase.GATEWAY_TIMEOUT)
+				 .headers(new Headers())
+				 .body((Body) null);
+			next.invoke();
+			return;
+		}
+
+		String etag = entry == null ? null : entry.getHeaders().get(Headers.ETAG);
+		String lastModified = entry == null ? null : entry.getHeaders().get(Headers.LAST_MODIFIED);
+		CacheEntry stale = etag != null || lastModified != null ? entry : null;
+
+		if (etag != null)
+			headers.put(Headers.IF_NONE_MATCH, etag);
+		if (lastModified != null)
+			headers.put(Headers.IF_MODIFIED_SINCE, lastModified);
+
+		boolean connected = false;
+
+		try {
+			this.engine.connect(input, error -> {
+				//the request is left as the caller built it
+				headers.remove(Headers.IF_NONE_MATCH);
+				headers.remove(Headers.IF_MODIFIED_SINCE);
+
+				if (error != null) {
+					next.invoke(error);
+					return;
+				}
+
+				try {
+					this.update(key, request, input.res(), stale, now);
+				} catch (IOException | RuntimeException e) {
+					next.invoke(e);
+					return;
+				}
+
+				next.invoke();
+			});
+			connected = true;
+		} finally {
+			if (!connected) {
+				headers.remove(Headers.IF_NONE_MATCH);
+				headers.remove(Headers.IF_MODIFIED_SINCE);
+			}
+		}
+	}
+
+	/**
+	 * Return the current time in milliseconds.
+	 *
+	 * @return the current time.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Return the current age (in milliseconds) of the given {@code entry}. (RFC 9111
+	 * 4.2.3)
+	 *
+	 * @param entry the entry.
+	 * @param now   the current time.
+	 * @return the age of the entry.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static long age(@NotNull CacheEntry entry, long now) {
+		Headers headers = entry.getHeaders();
+		long responseTime = entry.getResponseTime();
+		long date = CacheEngine.date(headers.get(Headers.DATE));
+		long age = CacheEngine.seconds(headers.get(Headers.AGE));
+
+		if (date < 0)
+			date = responseTime;
+
+		long apparentAge = Math.max(0, responseTime - date);
+		long correctedAge = Math.max(0, age) * 1000 + responseTime - entry.getRequestTime();
+
+		return Math.max(apparentAge, correctedAge) + now - responseTime;
+	}
+
+	/**
+	 * Parse the given http {@code date}.
+	 *
+	 * @param date the date to be parsed.
+	 * @return the date in milliseconds. Or {@code -1} if the given {@code date} is null
+	 * 		or invalid.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static long date(@Nullable String date) {
+		if (date == null)
+			return -1;
+
+		for (DateTimeFormatter format : new DateTimeFormatter[]{
+				DateTimeFormatter.RFC_1123_DATE_TIME,
+				CacheEngine.RFC_850,
+				CacheEngine.ASCTIME
+		})
+			try {
+				return ZonedDateTime.parse(date.trim(), format).toInstant().toEpochMilli();
+			} catch (DateTimeParseException ignored) {
+			}
+
+		return -1;
+	}
+
+	/**
+	 * Return the argument of the cache directive with the given {@code name} in the
+	 * {@code Cache-Control} headers of the given {@code headers}.
+	 *
+	 * @param headers the headers to look in.
+	 * @param name    the name of the directive.
+	 * @return the (unquoted) argument of the directive. Or an empty string if it has no
+	 * 		argument. Or null if the directive is not present.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Nullable
+	@Contract(pure = true)
+	private static String directive(@NotNull Headers headers, @NotNull String name) {
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			if (!headers.nameAt(i).equalsIgnoreCase(Headers.CACHE_CONTROL))
+				continue;
+
+			String value = headers.valueAt(i);
+			int length = value.length();
+			int start = 0;
+
+			while (start < length) {
+				char c = value.charAt(start);
+
+				if (c == ' ' || c == '\t' || c == ',') {
+					start++;
+					continue;
+				}
+
+				int end = start;
+
+				while (end < length && (c = value.charAt(end)) != '=' && c != ',' && c != ' ' && c != '\t')
+					end++;
+
+				boolean match = end - start == name.length() &&
+								value.regionMatches(true, start, name, 0, name.length());
+				int position = CacheEngine.skipWhitespace(value, end);
+				String argument = "";
+
+				if (position < length && value.charAt(position) == '=') {
+					position = CacheEngine.skipWhitespace(value, position + 1);
+
+					if (position < length && value.charAt(position) == '"') {
+						StringBuilder builder = new StringBuilder();
+
+						for (position++; position < length && (c = value.charAt(position)) != '"'; position++)
+							builder.append(c == '\\' && position + 1 < length ? value.charAt(++position) : c);
+
+						argument = builder.toString();
+					} else {
+						int from = position;
+
+						while (position < length && (c = value.charAt(position)) != ',' && c != ' ' && c != '\t')
+							position++;
+
+						argument = value.substring(from, position);
+					}
+				}
+
+				if (match)
+					return argument;
+
+				while (position < length && value.charAt(position) != ',')
+					position++;
+
+				start = position + 1;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Set the response of the given {@code res} to the response of the given {@code
+	 * entry} with its current age.
+	 *
+	 * @param res   the response context to be filled.
+	 * @param entry the entry.
+	 * @param now   the current time.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "param1")
+	private static void fill(@NotNull ClientResponseContext<? extends Endpoint> res, @NotNull CacheEntry entry, long now) {
+		Response response = entry.toResponse();
+
+		response.getHeaders().put(Headers.AGE, Long.toString(CacheEngine.age(entry, now) / 1000));
+
+		res.httpVersion(response.getStatusLine().getHttpVersion())
+		   .statusCode(response.getStatusLine().getStatusCode())
+		   .reasonPhrase(response.getStatusLine().getReasonPhrase())
+		   .headers(response.getHeaders())
+		   .body(response.getBody());
+	}
+
+	/**
+	 * Return the digests of the given credential {@code values}.
+	 *
+	 * @param values the values of a credential header.
+	 * @return the digests of the values.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	private static List<String> digest(@NotNull List<String> values) {
+		List<String> digests = new ArrayList<>(values.size());
+
+		for (String value : values)
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				byte[] bytes = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+				digests.add(Base64.getEncoder().encodeToString(bytes));
+			} catch (NoSuchAlgorithmException e) {
+				//every platform supports SHA-256
+				throw new InternalError(e);
+			}
+
+		return digests;
+	}
+
+	/**
+	 * Return true if the given {@code name} is the name of a credential header.
+	 *
+	 * @param name the name of a header.
+	 * @return true, if the header is a credential.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static boolean isCredential(@NotNull String name) {
+		for (String credential : CacheEngine.CREDENTIALS)
+			if (credential.equalsIgnoreCase(name))
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * Return true if the given {@code entry} was stored from a response to a request with
+	 * the same credentials and the same values of the headers nominated by its {@code
+	 * Vary} as the given {@code request}.
+	 *
+	 * @param entry   the entry.
+	 * @param request the request.
+	 * @return true, if the entry can be selected for the request.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static boolean isSelected(@NotNull CacheEntry entry, @NotNull Request request) {
+		Headers headers = request.getHeaders();
+		Headers varying = entry.getVarying();
+
+		for (String name : CacheEngine.CREDENTIALS)
+			if (!CacheEngine.digest(headers.getAll(name)).equals(varying.getAll(name)))
+				return false;
+		for (String name : CacheEngine.vary(entry.getHeaders()))
+			if (!CacheEngine.isCredential(name) && !headers.getAll(name).equals(varying.getAll(name)))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Return the storage key of the given {@code request}. (its uri without the
+	 * fragment)
+	 *
+	 * @param request the request.
+	 * @return the key of the request.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String key(@NotNull Request request) {
+		String uri = request.getRequestLine().getUri().toString();
+		int fragment = uri.indexOf('#');
+		return fragment < 0 ? uri : uri.substring(0, fragment);
+	}
+
+	/**
+	 * Return the freshness lifetime (in milliseconds) of a response with the given
+	 * {@code headers} and the given status {@code code}. (RFC 9111 4.2.1)
+	 *
+	 * @param headers      the headers of the response.
+	 * @param code         the status code of the response.
+	 * @param responseTime the time the response was received at.
+	 * @return the freshness lifetime.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static long lifetime(@NotNull Headers headers, @NotNull String code, long responseTime) {
+		String maxAge = CacheEngine.directive(headers, "max-age");
+
+		if (maxAge != null)
+			return Math.max(0, CacheEngine.seconds(maxAge)) * 1000;
+
+		long date = CacheEngine.date(headers.get(Headers.DATE));
+
+		if (date < 0)
+			date = responseTime;
+
+		String expires = headers.get(Headers.EXPIRES);
+
+		if (expires != null)
+			//an invalid date represents a time in the past
+			return Math.max(0, CacheEngine.date(expires) - date);
+
+		long lastModified = CacheEngine.date(headers.get(Headers.LAST_MODIFIED));
+
+		if (lastModified >= 0 && lastModified < date && CacheEngine.HEURISTIC.contains(code))
+			return (date - lastModified) / 10;
+
+		return 0;
+	}
+
+	/**
+	 * Parse the given delta-seconds {@code value}.
+	 *
+	 * @param value the value to be parsed.
+	 * @return the number of seconds. (clamped to {@link Integer#MAX_VALUE}) Or {@code -1}
+	 * 		if the given {@code value} is null or invalid.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static long seconds(@Nullable String value) {
+		if (value == null || value.isEmpty())
+			return -1;
+
+		long seconds = 0;
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c < '0' || c > '9')
+				return -1;
+
+			seconds = Math.min(seconds * 10 + c - '0', Integer.MAX_VALUE);
+		}
+
+		return seconds;
+	}
+
+	/**
+	 * Return the index of the first non-whitespace character in the given {@code value}
+	 * at or after the given {@code index}.
+	 *
+	 * @param value the value.
+	 * @param index the index to start from.
+	 * @return the index of the first non-whitespace character.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private static int skipWhitespace(@NotNull String value, int index) {
+		while (index < value.length() && (value.charAt(index) == ' ' || value.charAt(index) == '\t'))
+			index++;
+
+		return index;
+	}
+
+	/**
+	 * Return the field names listed in the {@code Vary} headers of the given {@code
+	 * headers}.
+	 *
+	 * @param headers the headers of a response.
+	 * @return the names nominated by the response.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	private static List<String> vary(@NotNull Headers headers) {
+		List<String> names = new ArrayList<>();
+
+		for (String value : headers.getAll(Headers.VARY))
+			for (String name : value.split(","))
+				if (!(name = name.trim()).isEmpty())
+					names.add(name);
+
+		return names;
+	}
+
+	/**
+	 * Read the body of the given {@code response} if it is not longer than {@link
+	 * #maxEntryLength}. The body of the response is replaced with a body that can still
+	 * be read.
+	 *
+	 * @param response the response.
+	 * @return the body bytes. Or null if the body is too long to be stored.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "param")
+	private byte @Nullable [] buffer(@NotNull Response response) throws IOException {
+		Body body = response.getBody();
+
+		if (body == null)
+			//noinspection ZeroLengthArrayAllocation
+			return new byte[0];
+		if (body.getContentLength() > this.maxEntryLength)
+			return null;
+		if (body instanceof BytesBody)
+			return ((BytesBody) body).getBytes().clone();
+
+		long contentLength = body.getContentLength();
+		InputStream stream = body.openInputStream();
+		ByteArrayOutputStream output = new ByteArrayOutputStream(
+				contentLength < 0 ? 8192 : (int) contentLength
+		);
+		byte[] buffer = new byte[8192];
+
+		while (true) {
+			int read = stream.read(buffer);
+
+			if (read < 0)
+				break;
+
+			output.write(buffer, 0, read);
+
+			if (output.size() > this.maxEntryLength) {
+				//too long; give back what was read followed by the rest of the stream
+				response.setBody(new StreamBody(body.getMime(), contentLength, new SequenceInputStream(
+						new ByteArrayInputStream(output.toByteArray()),
+						stream
+				)));
+				return null;
+			}
+		}
+
+		stream.close();
+
+		if (body instanceof Closeable)
+			((Closeable) body).close();
+
+		byte[] bytes = output.toByteArray();
+		response.setBody(new BytesBody(body.getMime(), bytes));
+		return bytes;
+	}
+
+	/**
+	 * Remove the entry stored with the given {@code key}. A failing store is ignored.
+	 *
+	 * @param key the key of the entry.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "this")
+	private void invalidate(@NotNull String key) {
+		try {
+			this.store.remove(key);
+		} catch (RuntimeException ignored) {
+			//the cache degrades to a miss
+		}
+	}
+
+	/**
+	 * Return true if the given {@code entry} can be served to the given {@code request}
+	 * without revalidation.
+	 *
+	 * @param entry   the entry.
+	 * @param request the request.
+	 * @param now     the current time.
+	 * @return true, if the entry is fresh enough for the request.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private boolean isFresh(@NotNull CacheEntry entry, @NotNull Request request, long now) {
+		Headers requestHeaders = request.getHeaders();
+		Headers headers = entry.getHeaders();
+
+		if (CacheEngine.directive(requestHeaders, "no-cache") != null ||
+			CacheEngine.directive(headers, "no-cache") != null)
+			return false;
+
+		if (requestHeaders.get(Headers.CACHE_CONTROL) == null) {
+			String pragma = requestHeaders.get(Headers.PRAGMA);
+
+			if (pragma != null && pragma.trim().equalsIgnoreCase("no-cache"))
+				return false;
+		}
+
+		long age = CacheEngine.age(entry, now);
+		long lifetime = CacheEngine.lifetime(headers, entry.getStatusLine().getStatusCode(), entry.getResponseTime());
+		long maxAge = CacheEngine.seconds(CacheEngine.directive(requestHeaders, "max-age"));
+		long minFresh = CacheEngine.seconds(CacheEngine.directive(requestHeaders, "min-fresh"));
+
+		if (maxAge >= 0 && age > maxAge * 1000)
+			return false;
+		if (age + Math.max(0, minFresh) * 1000 < lifetime)
+			return true;
+
+		String maxStale = CacheEngine.directive(requestHeaders, "max-stale");
+
+		if (maxStale == null || CacheEngine.directive(headers, "must-revalidate") != null)
+			return false;
+
+		return maxStale.isEmpty() || age - lifetime <= CacheEngine.seconds(maxStale) * 1000;
+	}
+
+	/**
+	 * Return true if the given {@code response} to the given {@code request} can be
+	 * stored. (RFC 9111 3)
+	 *
+	 * @param request  the request.
+	 * @param response the response.
+	 * @param now      the time the response was received at.
+	 * @return true, if the response can be stored.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	private boolean isStorable(@NotNull Request request, @NotNull Response response, long now) {
+		Headers headers = response.getHeaders();
+		String code = response.getStatusLine().getStatusCode();
+
+		if (code.charAt(0) == '1' || code.equals("206") || code.equals(StatusCode.NOT_MODIFIED))
+			return false;
+		if (CacheEngine.directive(request.getHeaders(), "no-store") != null ||
+			CacheEngine.directive(headers, "no-store") != null ||
+			CacheEngine.vary(headers).contains("*"))
+			return false;
+
+		boolean explicit = headers.get(Headers.EXPIRES) != null ||
+						   CacheEngine.directive(headers, "max-age") != null ||
+						   CacheEngine.directive(headers, "public") != null ||
+						   CacheEngine.directive(headers, "private") != null;
+
+		if (!explicit && !CacheEngine.HEURISTIC.contains(code))
+			return false;
+
+		return CacheEngine.lifetime(headers, code, now) > 0 ||
+			   headers.get(Headers.ETAG) != null ||
+			   headers.get(Headers.LAST_MODIFIED) != null;
+	}
+
+	/**
+	 * Return the entry stored with the given {@code key}. A failing store is treated as
+	 * a miss.
+	 *
+	 * @param key the key of the entry.
+	 * @return the entry. Or null if none or the store failed.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Nullable
+	@Contract(pure = true)
+	private CacheEntry lookup(@NotNull String key) {
+		try {
+			return this.store.get(key);
+		} catch (RuntimeException ignored) {
+			return null;
+		}
+	}
+
+	/**
+	 * Store the given {@code entry} with the given {@code key}. A failing store is
+	 * ignored.
+	 *
+	 * @param key   the key of the entry.
+	 * @param entry the entry to be stored.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "this")
+	private void save(@NotNull String key, @NotNull CacheEntry entry) {
+		try {
+			this.store.put(key, entry);
+		} catch (RuntimeException ignored) {
+			//the cache degrades to a miss
+		}
+	}
+
+	/**
+	 * Update the store with the response of the given {@code res}.
+	 *
+	 * @param key         the key of the request.
+	 * @param request     the request.
+	 * @param res         the response context.
+	 * @param stale       the entry that was revalidated. (null if the request was not
+	 *                    conditional)
+	 * @param requestTime the time the request was sent at.
+	 * @throws IOException if any I/O exception occurs while reading the body.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "this,param3")
+	private void update(
+			@NotNull String key,
+			@NotNull Request request,
+			@NotNull ClientResponseContext<? extends Endpoint> res,
+			@Nullable CacheEntry stale,
+			long requestTime
+	) throws IOException {
+		long responseTime = this.currentTimeMillis();
+		Response response = res.response();
+		Headers headers = response.getHeaders();
+
+		if (stale != null && response.getStatusLine().getStatusCode().equals(StatusCode.NOT_MODIFIED)) {
+			//freshen the stored headers with the headers of the 304 (RFC 9111 4.3.4)
+			Headers freshened = stale.getHeaders().clone();
+			Set<String> replaced = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+			for (int i = 0, size = headers.size(); i < size; i++) {
+				String name = headers.nameAt(i);
+
+				if (name.equalsIgnoreCase(Headers.CONTENT_LENGTH))
+					continue;
+				if (replaced.add(name))
+					freshened.remove(name);
+
+				freshened.append(name, headers.valueAt(i));
+			}
+
+			CacheEntry entry = new CacheEntry(
+					stale.getStatusLine(),
+					freshened,
+					stale.getMime(),
+					stale.getBody(),
+					stale.getVarying(),
+					requestTime,
+					responseTime
+			);
+
+			this.save(key, entry);
+			CacheEngine.fill(res, entry, responseTime);
+			return;
+		}
+
+		if (!this.isStorable(request, response, responseTime)) {
+			if (CacheEngine.directive(headers, "no-store") != null)
+				this.invalidate(key);
+
+			return;
+		}
+
+		byte[] bytes = this.buffer(response);
+
+		if (bytes == null)
+			return;
+
+		Headers varying = new Headers();
+
+		//the credentials are never stored as is
+		for (String name : CacheEngine.CREDENTIALS)
+			for (String value : CacheEngine.digest(request.getHeaders().getAll(name)))
+				varying.append(name, value);
+		for (String name : CacheEngine.vary(headers))
+			if (!CacheEngine.isCredential(name))
+				for (String value : request.getHeaders().getAll(name))
+					varying.append(name, value);
+
+		Body body = response.getBody();
+
+		this.save(key, new CacheEntry(
+				response.getStatusLine(),
+				headers,
+				body == null ? null : body.getMime(),
+				body == null ? null : bytes,
+				varying,
+				requestTime,
+				responseTime
+		));
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.cache;
+
+import org.cufy.http.Headers;
+import org.cufy.http.Response;
+import org.cufy.http.StatusLine;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.mime.Mime;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * <b>Immutable</b>
+ * <br>
+ * A stored response and the information needed to calculate its age and to select it
+ * for a request.
+ * <br>
+ * The components of an entry are shared with the store. So, the instances returned from
+ * its getters must not be modified.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.03
+ */
+public final class CacheEntry {
+	/**
+	 * The body bytes. (null if the response had no body)
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	private final byte @Nullable [] body;
+	/**
+	 * The headers of the response.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private final Headers headers;
+	/**
+	 * The mime of the body.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Nullable
+	private final Mime mime;
+	/**
+	 * The time (in milliseconds) the request was sent at.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	private final long requestTime;
+	/**
+	 * The time (in milliseconds) the response was received at.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	private final long responseTime;
+	/**
+	 * The status line of the response.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private final StatusLine statusLine;
+	/**
+	 * The values of the request headers nominated by the {@code Vary} header of the
+	 * response. (and the digests of the credentials of the request)
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private final Headers varying;
+
+	/**
+	 * Construct a new entry with the given components. The given status line and headers
+	 * are copied. The given {@code body} is not.
+	 *
+	 * @param statusLine   the status line of the response.
+	 * @param headers      the headers of the response.
+	 * @param mime         the mime of the body.
+	 * @param body         the body bytes. (null if the response had no body)
+	 * @param varying      the values of the request headers nominated by the {@code
+	 *                     Vary} header of the response. (and the digests of the
+	 *                     credentials of the request)
+	 * @param requestTime  the time (in milliseconds) the request was sent at.
+	 * @param responseTime the time (in milliseconds) the response was received at.
+	 * @throws NullPointerException if the given {@code statusLine} or {@code headers} or
+	 *                              {@code varying} is null.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	public CacheEntry(
+			@NotNull StatusLine statusLine,
+			@NotNull Headers headers,
+			@Nullable Mime mime,
+			byte @Nullable [] body,
+			@NotNull Headers varying,
+			long requestTime,
+			long responseTime
+	) {
+		Objects.requireNonNull(statusLine, "statusLine");
+		Objects.requireNonNull(headers, "headers");
+		Objects.requireNonNull(varying, "varying");
+		this.statusLine = statusLine.clone();
+		this.headers = headers.clone();
+		this.mime = mime == null ? null : mime.clone();
+		//noinspection AssignmentOrReturnOfFieldWithMutableType
+		this.body = body;
+		this.varying = varying.clone();
+		this.requestTime = requestTime;
+		this.responseTime = responseTime;
+	}
+
+	/**
+	 * Return the body bytes of this entry.
+	 *
+	 * @return the body bytes. Or null if the response had no body.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	public byte @Nullable [] getBody() {
+		//noinspection AssignmentOrReturnOfFieldWithMutableType
+		return this.body;
+	}
+
+	/**
+	 * Return the headers of the response of this entry.
+	 *
+	 * @return the headers of this.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Headers getHeaders() {
+		return this.headers;
+	}
+
+	/**
+	 * Return the mime of the body of this entry.
+	 *
+	 * @return the mime of this. Or null if none.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Nullable
+	@Contract(pure = true)
+	public Mime getMime() {
+		return this.mime;
+	}
+
+	/**
+	 * Return the time (in milliseconds) the request of this entry was sent at.
+	 *
+	 * @return the request time of this.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	public long getRequestTime() {
+		return this.requestTime;
+	}
+
+	/**
+	 * Return the time (in milliseconds) the response of this entry was received at.
+	 *
+	 * @return the response time of this.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(pure = true)
+	public long getResponseTime() {
+		return this.responseTime;
+	}
+
+	/**
+	 * Return the status line of the response of this entry.
+	 *
+	 * @return the status line of this.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public StatusLine getStatusLine() {
+		return this.statusLine;
+	}
+
+	/**
+	 * Return the values of the request headers nominated by the {@code Vary} header of
+	 * the response of this entry. (and the digests of the credentials of the request)
+	 *
+	 * @return the varying request headers of this.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Headers getVarying() {
+		return this.varying;
+	}
+
+	/**
+	 * Construct a new response from this entry. The returned response is independent
+	 * from this entry.
+	 *
+	 * @return a new response.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	@Contract(value = "->new", pure = true)
+	public Response toResponse() {
+		return new Response(
+				this.statusLine.clone(),
+				this.headers.clone(),
+				this.body == null ? null : new BytesBody(this.mime == null ? null : this.mime.clone(), this.body)
+		);
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.cache;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The storage of a {@link CacheEngine}. A store is free to drop any entry at any time.
+ * <br>
+ * Stores are used concurrently. So, implementations must be thread-safe.
+ * A store that fails should throw a runtime exception (for example an
+ * {@link java.io.UncheckedIOException}) that the engine treats as a miss.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.03
+ */
+public interface CacheStore {
+	/**
+	 * Return the entry stored with the given {@code key}.
+	 *
+	 * @param key the key of the entry.
+	 * @return the entry. Or null if none.
+	 * @throws NullPointerException if the given {@code key} is null.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Nullable
+	@Contract(pure = true)
+	CacheEntry get(@NotNull String key);
+
+	/**
+	 * Store the given {@code entry} with the given {@code key} replacing any previous
+	 * entry with the same key.
+	 *
+	 * @param key   the key of the entry.
+	 * @param entry the entry to be stored.
+	 * @throws NullPointerException if the given {@code key} or {@code entry} is null.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "this")
+	void put(@NotNull String key, @NotNull CacheEntry entry);
+
+	/**
+	 * Remove the entry stored with the given {@code key}, if any.
+	 *
+	 * @param key the key of the entry.
+	 * @throws NullPointerException if the given {@code key} is null.
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@Contract(mutates = "this")
+	void remove(@NotNull String key);
+}
@@ -0,0 +1,791 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.cache;
+
+import org.cufy.http.Headers;
+import org.cufy.http.StatusLine;
+import org.cufy.http.mime.Mime;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * A store keeping its entries in append-only segment files in a directory. So, the
+ * entries survive restarts and do not occupy the heap.
+ * <br>
+ * Each segment is a memory-mapped file of a fixed capacity. Entries and removals are
+ * appended to the newest segment as checksummed records and read back directly from the
+ * mapping. When a segment is full a new one is started, and the older segments that are
+ * mostly overwritten or removed entries are compacted by copying their live records to
+ * the newest segment. When the segments exceed the budget, the oldest segment is
+ * dropped.
+ * <br>
+ * When opened, the records of the existing segments are replayed to rebuild the index. A
+ * record torn by a crash ends the replay of its segment.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.04
+ */
+public class DiskCacheStore implements CacheStore, Closeable {
+	/**
+	 * The type of a record storing an entry.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static final byte PUT = 1;
+	/**
+	 * The type of a record removing an entry.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static final byte REMOVE = 0;
+	/**
+	 * The suffix of the segment files.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	private static final String SUFFIX = ".segment";
+
+	/**
+	 * The directory of the segments.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	protected final File directory;
+	/**
+	 * The maximum total length of the segments.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	protected final long maxBytes;
+	/**
+	 * The capacity of a segment.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	protected final int segmentCapacity;
+
+	/**
+	 * The locations of the live entries. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	private final Map<String, Location> index = new HashMap<>();
+	/**
+	 * The segments from the oldest to the newest. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	private final List<Segment> segments = new ArrayList<>();
+
+	/**
+	 * True, when this store is closed. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private boolean closed;
+	/**
+	 * True, when a segment was sealed since the last compaction. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private boolean sealed;
+
+	/**
+	 * Open a store in the given {@code directory} with a budget of 1GiB and segments of
+	 * 64MiB.
+	 *
+	 * @param directory the directory of the segments.
+	 * @throws NullPointerException if the given {@code directory} is null.
+	 * @throws IOException          if any I/O exception occurs while opening the
+	 *                              segments.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	public DiskCacheStore(@NotNull File directory) throws IOException {
+		this(directory, 1L << 30, 64 << 20);
+	}
+
+	/**
+	 * Open a store in the given {@code directory}. The directory is created if it does
+	 * not exist.
+	 *
+	 * @param directory       the directory of the segments.
+	 * @param maxBytes        the maximum total length of the segments.
+	 * @param segmentCapacity the capacity of a segment. (also the maximum length of an
+	 *                        entry)
+	 * @throws NullPointerException     if the given {@code directory} is null.
+	 * @throws IllegalArgumentException if the given {@code maxBytes} is less than the
+	 *                                  given {@code segmentCapacity} or the given {@code
+	 *                                  segmentCapacity} is not positive.
+	 * @throws IOException              if any I/O exception occurs while opening the
+	 *                                  segments.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	public DiskCacheStore(
+			@NotNull File directory,
+			@Range(from = 1, to = Long.MAX_VALUE) long maxBytes,
+			@Range(from = 1, to = Integer.MAX_VALUE) int segmentCapacity
+	) throws IOException {
+		Objects.requireNonNull(directory, "directory");
+		if (segmentCapacity <= 0)
+			throw new IllegalArgumentException("segmentCapacity: " + segmentCapacity);
+		if (maxBytes < segmentCapacity)
+			throw new IllegalArgumentException("maxBytes < segmentCapacity");
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Cannot create directory: " + directory);
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		this.segmentCapacity = segmentCapacity;
+
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(DiskCacheStore.SUFFIX));
+		List<Long> ids = new ArrayList<>();
+
+		if (files != null)
+			for (File file : files) {
+				String name = file.getName();
+
+				try {
+					ids.add(Long.parseLong(name.substring(0, name.length() - DiskCacheStore.SUFFIX.length())));
+				} catch (NumberFormatException ignored) {
+				}
+			}
+
+		Collections.sort(ids);
+
+		synchronized (this) {
+			for (long id : ids) {
+				Segment segment = this.open(id);
+				this.segments.add(segment);
+				this.replay(segment);
+			}
+
+			if (this.segments.isEmpty())
+				this.segments.add(this.open(0));
+
+			this.maintain();
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+		if (this.closed)
+			return;
+
+		this.closed = true;
+		this.index.clear();
+
+		for (Segment segment : this.segments)
+			segment.buffer.force();
+	}
+
+	/**
+	 * Compact all the segments (except the newest) that have any overwritten or removed
+	 * records.
+	 *
+	 * @throws UncheckedIOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this")
+	public synchronized void compact() {
+		if (this.closed)
+			return;
+
+		try {
+			for (Segment segment : this.segments.subList(0, this.segments.size() - 1).toArray(new Segment[0]))
+				if (segment.garbage > 0)
+					this.compact(segment);
+
+			this.trim();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Nullable
+	@Override
+	public CacheEntry get(@NotNull String key) {
+		Objects.requireNonNull(key, "key");
+		Location location;
+
+		synchronized (this) {
+			location = this.index.get(key);
+		}
+
+		if (location == null)
+			return null;
+
+		//records are never overwritten; the mapping outlives a dropped segment
+		ByteBuffer buffer = location.segment.buffer.duplicate();
+		buffer.limit(location.position + 8 + location.length);
+		buffer.position(location.position + 8);
+
+		try {
+			return DiskCacheStore.decode(new DataInputStream(new BufferInputStream(buffer.slice())));
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UncheckedIOException if any I/O exception occurs.
+	 */
+	@Override
+	public synchronized void put(@NotNull String key, @NotNull CacheEntry entry) {
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(entry, "entry");
+
+		if (this.closed)
+			return;
+
+		byte[] payload;
+
+		try {
+			payload = DiskCacheStore.encode(key, entry);
+		} catch (UTFDataFormatException e) {
+			//a string too long to be stored
+			this.remove(key);
+			return;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		if (payload.length + 8 > this.segmentCapacity) {
+			this.remove(key);
+			return;
+		}
+
+		try {
+			Location location = this.write(payload);
+			Location previous = this.index.put(key, location);
+
+			if (previous != null)
+				previous.segment.garbage += 8 + previous.length;
+
+			this.maintain();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UncheckedIOException if any I/O exception occurs.
+	 */
+	@Override
+	public synchronized void remove(@NotNull String key) {
+		Objects.requireNonNull(key, "key");
+
+		if (this.closed)
+			return;
+
+		Location previous = this.index.remove(key);
+
+		if (previous == null)
+			return;
+
+		previous.segment.garbage += 8 + previous.length;
+
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream output = new DataOutputStream(bytes);
+			output.writeByte(DiskCacheStore.REMOVE);
+			output.writeUTF(key);
+			output.flush();
+
+			byte[] payload = bytes.toByteArray();
+			Location location = this.write(payload);
+
+			//a removal is garbage as soon as it is written
+			location.segment.garbage += 8 + payload.length;
+			this.maintain();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Decode the payload of a {@link #PUT} record from the given {@code input}.
+	 *
+	 * @param input the input to read from.
+	 * @return the decoded entry.
+	 * @throws IOException              if the payload is malformed.
+	 * @throws IllegalArgumentException if the status line of the entry is invalid.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	@Contract(value = "_->new", mutates = "param")
+	private static CacheEntry decode(@NotNull DataInputStream input) throws IOException {
+		if (input.readByte() != DiskCacheStore.PUT)
+			throw new IOException("Not an entry");
+
+		input.readUTF();
+		long requestTime = input.readLong();
+		long responseTime = input.readLong();
+		StatusLine statusLine = new StatusLine(input.readUTF(), input.readUTF(), input.readUTF());
+		Headers headers = DiskCacheStore.readHeaders(input);
+		Headers varying = DiskCacheStore.readHeaders(input);
+		String source = input.readUTF();
+		Mime mime = null;
+		int length = input.readInt();
+		byte[] body = null;
+
+		if (length >= 0) {
+			body = new byte[length];
+			input.readFully(body);
+		}
+
+		if (!source.isEmpty())
+			try {
+				mime = Mime.parse(source);
+			} catch (IllegalArgumentException ignored) {
+			}
+
+		return new CacheEntry(
+				statusLine,
+				headers,
+				mime,
+				body,
+				varying,
+				requestTime,
+				responseTime
+		);
+	}
+
+	/**
+	 * Encode the payload of a {@link #PUT} record of the given {@code entry}.
+	 *
+	 * @param key   the key of the entry.
+	 * @param entry the entry.
+	 * @return the payload.
+	 * @throws UTFDataFormatException if a string is too long to be encoded.
+	 * @throws IOException            if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static byte @NotNull [] encode(@NotNull String key, @NotNull CacheEntry entry) throws IOException {
+		byte[] body = entry.getBody();
+		Mime mime = entry.getMime();
+		StatusLine statusLine = entry.getStatusLine();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(512 + (body == null ? 0 : body.length));
+		DataOutputStream output = new DataOutputStream(bytes);
+
+		output.writeByte(DiskCacheStore.PUT);
+		output.writeUTF(key);
+		output.writeLong(entry.getRequestTime());
+		output.writeLong(entry.getResponseTime());
+		output.writeUTF(statusLine.getHttpVersion());
+		output.writeUTF(statusLine.getStatusCode());
+		output.writeUTF(statusLine.getReasonPhrase());
+		DiskCacheStore.writeHeaders(output, entry.getHeaders());
+		DiskCacheStore.writeHeaders(output, entry.getVarying());
+		output.writeUTF(mime == null ? "" : mime.toString());
+		output.writeInt(body == null ? -1 : body.length);
+
+		if (body != null)
+			output.write(body);
+
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Read headers written by {@link #writeHeaders(DataOutputStream, Headers)}.
+	 *
+	 * @param input the input to read from.
+	 * @return the read headers.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	@Contract(value = "_->new", mutates = "param")
+	private static Headers readHeaders(@NotNull DataInputStream input) throws IOException {
+		Headers headers = new Headers();
+
+		for (int i = 0, size = input.readInt(); i < size; i++)
+			headers.append(input.readUTF(), input.readUTF());
+
+		return headers;
+	}
+
+	/**
+	 * Write the given {@code headers} to the given {@code output}.
+	 *
+	 * @param output  the output to write to.
+	 * @param headers the headers to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "param1")
+	private static void writeHeaders(@NotNull DataOutputStream output, @NotNull Headers headers) throws IOException {
+		output.writeInt(headers.size());
+
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			output.writeUTF(headers.nameAt(i));
+			output.writeUTF(headers.valueAt(i));
+		}
+	}
+
+	/**
+	 * Copy the live records of the given {@code segment} to the newest segment and delete
+	 * it.
+	 *
+	 * @param segment the segment to be compacted. (not the newest)
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this")
+	private void compact(@NotNull Segment segment) throws IOException {
+		boolean oldest = this.segments.get(0) == segment;
+		int position = 0;
+
+		while (position < segment.size) {
+			int length = segment.buffer.getInt(position);
+			byte[] payload = new byte[length];
+			ByteBuffer buffer = segment.buffer.duplicate();
+			buffer.position(position + 8);
+			buffer.get(payload);
+
+			DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+			byte type = input.readByte();
+			String key = input.readUTF();
+			Location location = this.index.get(key);
+
+			if (type == DiskCacheStore.PUT) {
+				if (location != null && location.segment == segment && location.position == position)
+					this.index.put(key, this.write(payload));
+			} else if (location == null && !oldest) {
+				//the removal still hides an entry in an older segment
+				Location removal = this.write(payload);
+				removal.segment.garbage += 8 + length;
+			}
+
+			position += 8 + length;
+		}
+
+		this.drop(segment);
+	}
+
+	/**
+	 * Remove the given {@code segment} and the entries in it and delete its file.
+	 *
+	 * @param segment the segment to be dropped.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this")
+	private void drop(@NotNull Segment segment) {
+		this.segments.remove(segment);
+		this.index.values().removeIf(location -> location.segment == segment);
+
+		if (!segment.file.delete())
+			segment.file.deleteOnExit();
+	}
+
+	/**
+	 * Compact the segments that are mostly garbage if a segment was sealed and drop the
+	 * oldest segments while exceeding the budget.
+	 *
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this")
+	private void maintain() throws IOException {
+		if (this.sealed) {
+			this.sealed = false;
+
+			for (Segment segment : this.segments.subList(0, this.segments.size() - 1).toArray(new Segment[0]))
+				if (segment.garbage * 2 > segment.size)
+					this.compact(segment);
+		}
+
+		this.trim();
+	}
+
+	/**
+	 * Open (or create) the segment with the given {@code id}.
+	 *
+	 * @param id the id of the segment.
+	 * @return the opened segment.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	@Contract("_->new")
+	private Segment open(long id) throws IOException {
+		File file = new File(this.directory, id + DiskCacheStore.SUFFIX);
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			long length = Math.min(Integer.MAX_VALUE, Math.max(raf.length(), this.segmentCapacity));
+			MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+			return new Segment(id, file, buffer);
+		}
+	}
+
+	/**
+	 * Replay the records of the given {@code segment} into the index.
+	 *
+	 * @param segment the segment to be replayed.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this,param")
+	private void replay(@NotNull Segment segment) throws IOException {
+		MappedByteBuffer mapped = segment.buffer;
+		CRC32 crc = new CRC32();
+		int position = 0;
+
+		while (position + 8 <= mapped.capacity()) {
+			int length = mapped.getInt(position);
+
+			if (length <= 0 || length > mapped.capacity() - position - 8)
+				break;
+
+			byte[] payload = new byte[length];
+			ByteBuffer buffer = mapped.duplicate();
+			buffer.position(position + 8);
+			buffer.get(payload);
+			crc.reset();
+			crc.update(payload, 0, length);
+
+			if ((int) crc.getValue() != mapped.getInt(position + 4))
+				//torn
+				break;
+
+			DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+			byte type = input.readByte();
+			String key = input.readUTF();
+			Location previous = type == DiskCacheStore.PUT ?
+								this.index.put(key, new Location(segment, position, length)) :
+								this.index.remove(key);
+
+			if (previous != null)
+				previous.segment.garbage += 8 + previous.length;
+			if (type != DiskCacheStore.PUT)
+				segment.garbage += 8 + length;
+
+			position += 8 + length;
+		}
+
+		segment.size = position;
+	}
+
+	/**
+	 * Drop the oldest segments while the segments exceed the budget.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this")
+	private void trim() {
+		long total = 0;
+
+		for (Segment segment : this.segments)
+			total += segment.buffer.capacity();
+
+		while (total > this.maxBytes && this.segments.size() > 1) {
+			Segment oldest = this.segments.get(0);
+			total -= oldest.buffer.capacity();
+			this.drop(oldest);
+		}
+	}
+
+	/**
+	 * Append a record with the given {@code payload} to the newest segment. Starting a
+	 * new segment if the newest segment is full.
+	 *
+	 * @param payload the payload of the record. (fits in a segment)
+	 * @return the location of the written record.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	private Location write(byte @NotNull [] payload) throws IOException {
+		Segment segment = this.segments.get(this.segments.size() - 1);
+
+		if (segment.size + 8 + payload.length > segment.buffer.capacity()) {
+			segment.buffer.force();
+			segment = this.open(segment.id + 1);
+			this.segments.add(segment);
+			this.sealed = true;
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+
+		int position = segment.size;
+		ByteBuffer buffer = segment.buffer.duplicate();
+		buffer.position(position + 8);
+		buffer.put(payload);
+		//the length is written last; so, a torn record reads as the end of the segment
+		segment.buffer.putInt(position + 4, (int) crc.getValue());
+		segment.buffer.putInt(position, payload.length);
+		segment.size = position + 8 + payload.length;
+		return new Location(segment, position, payload.length);
+	}
+
+	/**
+	 * An input stream reading the remaining bytes of a buffer.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static final class BufferInputStream extends InputStream {
+		/**
+		 * The buffer to read from.
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		@NotNull
+		private final ByteBuffer buffer;
+
+		/**
+		 * Construct a new stream reading the given {@code buffer}.
+		 *
+		 * @param buffer the buffer to read from.
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private BufferInputStream(@NotNull ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte @NotNull [] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!this.buffer.hasRemaining())
+				return -1;
+
+			int read = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, read);
+			return read;
+		}
+	}
+
+	/**
+	 * The location of a record.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static final class Location {
+		/**
+		 * The length of the payload of the record.
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private final int length;
+		/**
+		 * The position of the record in its segment.
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private final int position;
+		/**
+		 * The segment of the record.
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		@NotNull
+		private final Segment segment;
+
+		/**
+		 * Construct a new location.
+		 *
+		 * @param segment  the segment of the record.
+		 * @param position the position of the record in its segment.
+		 * @param length   the length of the payload of the record.
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private Location(@NotNull Segment segment, int position, int length) {
+			this.segment = segment;
+			this.position = position;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * A segment file and its mapping.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static final class Segment {
+		/**
+		 * The mapping of the file.
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		@NotNull
+		private final MappedByteBuffer buffer;
+		/**
+		 * The file of the segment.
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		@NotNull
+		private final File file;
+		/**
+		 * The id of the segment. (ascending by age)
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private final long id;
+
+		/**
+		 * The number of bytes of the overwritten or removed records. (guarded by the
+		 * store)
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private long garbage;
+		/**
+		 * The number of bytes written. (guarded by the store)
+		 *
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private int size;
+
+		/**
+		 * Construct a new segment.
+		 *
+		 * @param id     the id of the segment.
+		 * @param file   the file of the segment.
+		 * @param buffer the mapping of the file.
+		 * @since 1.0.0 ~2022.02.04
+		 */
+		private Segment(long id, @NotNull File file, @NotNull MappedByteBuffer buffer) {
+			this.id = id;
+			this.file = file;
+			this.buffer = buffer;
+		}
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.cache;
+
+import org.cufy.http.Headers;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An in-heap store keeping entries up to a budget of (approximate) bytes.
+ * <br>
+ * When full, the least recently used entries are evicted to make room for a new entry.
+ * Unless the new entry was requested less frequently than any of the entries to be
+ * evicted (TinyLFU admission), in which case the new entry is dropped instead and none is
+ * evicted. So, a burst of
+ * one-time requests does not flush the entries that are requested over and over.
+ * <br>
+ * The frequencies are estimated by a count-min sketch of 4-bit counters that are halved
+ * periodically. So, old popularity fades.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.03
+ */
+public class MemoryCacheStore implements CacheStore {
+	/**
+	 * The seeds of the rows of the sketch.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private static final int @NotNull [] SEEDS = {0x97cb3127, 0xb3a5b5a7, 0x9e3779b9, 0xc2b2ae35};
+
+	/**
+	 * The entries in access order. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	@NotNull
+	private final LinkedHashMap<String, CacheEntry> entries;
+	/**
+	 * The maximum total weight of the entries.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private final long maxWeight;
+	/**
+	 * The number of increments after which the counters are halved.
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private final int sampleSize;
+	/**
+	 * The frequency counters. (4 rows; guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private final byte @NotNull [] sketch;
+
+	/**
+	 * The number of increments since the last halving. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private int additions;
+	/**
+	 * The total weight of the entries. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	private long weight;
+
+	/**
+	 * Construct a new store with a budget of 64MiB.
+	 *
+	 * @since 1.0.0 ~2022.02.03
+	 */
+	public MemoryCacheStore() {
+		this(64L << 20);
+	}
+
+	/**
+	 * Construct a new store with the given budget.
+	 *
+	 * @param maxWeight the maximum total (approximate) bytes of the entries.
+	 * @throws IllegalArgumentException if the given {@code maxWeight} is not positive.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	public MemoryCacheStore(@Range(from = 1, to = Long.MAX_VALUE) long maxWeight) {
+		if (maxWeight <= 0)
+			throw new IllegalArgumentException("maxWeight: " + maxWeight);
+		int width = Integer.highestOneBit((int) Math.max(64, Math.min(1 << 22, maxWeight >>> 12)));
+		this.maxWeight = maxWeight;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+		this.sketch = new byte[width << 2];
+		this.sampleSize = width * 10;
+	}
+
+	@Nullable
+	@Override
+	public synchronized CacheEntry get(@NotNull String key) {
+		Objects.requireNonNull(key, "key");
+		this.increment(key);
+		return this.entries.get(key);
+	}
+
+	@Override
+	public synchronized void put(@NotNull String key, @NotNull CacheEntry entry) {
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(entry, "entry");
+		CacheEntry previous = this.entries.remove(key);
+		long weight = MemoryCacheStore.weight(key, entry);
+
+		if (previous != null)
+			this.weight -= MemoryCacheStore.weight(key, previous);
+		if (weight > this.maxWeight)
+			return;
+
+		int frequency = this.frequency(key);
+		long freed = 0;
+		int victims = 0;
+
+		//pick the victims first; nothing is evicted unless the entry is admitted
+		for (Map.Entry<String, CacheEntry> victim : this.entries.entrySet()) {
+			if (this.weight - freed + weight <= this.maxWeight)
+				break;
+
+			//updates are always admitted
+			if (previous == null && this.frequency(victim.getKey()) > frequency)
+				return;
+
+			freed += MemoryCacheStore.weight(victim.getKey(), victim.getValue());
+			victims++;
+		}
+
+		Iterator<Map.Entry<String, CacheEntry>> iterator = this.entries.entrySet().iterator();
+
+		for (int i = 0; i < victims; i++) {
+			iterator.next();
+			iterator.remove();
+		}
+
+		this.weight -= freed;
+
+		this.entries.put(key, entry);
+		this.weight += weight;
+	}
+
+	@Override
+	public synchronized void remove(@NotNull String key) {
+		Objects.requireNonNull(key, "key");
+		CacheEntry entry = this.entries.remove(key);
+
+		if (entry != null)
+			this.weight -= MemoryCacheStore.weight(key, entry);
+	}
+
+	/**
+	 * Return the approximate number of bytes the given {@code entry} occupies.
+	 *
+	 * @param key   the key of the entry.
+	 * @param entry the entry.
+	 * @return the weight of the entry.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(pure = true)
+	private static long weight(@NotNull String key, @NotNull CacheEntry entry) {
+		byte[] body = entry.getBody();
+		long weight = 256 + key.length() * 2L + (body == null ? 0 : body.length);
+
+		for (Headers headers : new Headers[]{entry.getHeaders(), entry.getVarying()})
+			for (int i = 0, size = headers.size(); i < size; i++)
+				weight += 64 + (headers.nameAt(i).length() + headers.valueAt(i).length()) * 2L;
+
+		return weight;
+	}
+
+	/**
+	 * Return the estimated frequency of the given {@code key}.
+	 *
+	 * @param key the key.
+	 * @return the frequency. (0 to 15)
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(pure = true)
+	private int frequency(@NotNull String key) {
+		int width = this.sketch.length >> 2;
+		int hash = key.hashCode();
+		int frequency = 15;
+
+		for (int row = 0; row < 4; row++)
+			frequency = Math.min(frequency, this.sketch[row * width + this.index(hash, row)]);
+
+		return frequency;
+	}
+
+	/**
+	 * Increment the counters of the given {@code key}.
+	 *
+	 * @param key the key.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(mutates = "this")
+	private void increment(@NotNull String key) {
+		int width = this.sketch.length >> 2;
+		int hash = key.hashCode();
+
+		for (int row = 0; row < 4; row++) {
+			int i = row * width + this.index(hash, row);
+
+			if (this.sketch[i] < 15)
+				this.sketch[i]++;
+		}
+
+		if (++this.additions >= this.sampleSize) {
+			//aging
+			for (int i = 0; i < this.sketch.length; i++)
+				this.sketch[i] >>= 1;
+
+			this.additions = 0;
+		}
+	}
+
+	/**
+	 * Return the index of the counter of the given {@code hash} in the given {@code row}.
+	 *
+	 * @param hash the hash of the key.
+	 * @param row  the row.
+	 * @return the index in the row.
+	 * @since 1.0.0 ~2022.02.04
+	 */
+	@Contract(pure = true)
+	private int index(int hash, int row) {
+		int h = (hash ^ hash >>> 16) * MemoryCacheStore.SEEDS[row];
+		return (h ^ h >>> 15) & (this.sketch.length >> 2) - 1;
+	}
+}
@@ -20,8 +20,6 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -42,6 +40,9 @@ public interface ClientEngine<I, O> {
 	 * <br>
 	 * The engines will be invoked in this form: the first engine will be invoked with a
 	 * next function that invokes the next engine with itself when invoked.
+	 * <br>
+	 * The returned engine is a {@link CompiledEngine}. So, combining an already combined
+	 * engine flattens it instead of nesting it.
 	 *
 	 * @param engines the engines to be combined.
 	 * @param <I>     the type of the input parameter (the request).
@@ -55,34 +56,7 @@ public interface ClientEngine<I, O> {
 	@SafeVarargs
 	static <I, O> ClientEngine<I, O> combine(@Nullable ClientEngine<I, O> @NotNull ... engines) {
 		Objects.requireNonNull(engines, "engines");
-		return (input, next) -> {
-			Iterator<ClientEngine<I, O>> iterator = Arrays
-					.stream(engines)
-					.filter(Objects::nonNull)
-					.iterator();
-
-			new Next<O>() {
-				@Override
-				public void invoke(@Nullable Throwable error) {
-					if (error != null) {
-						next.invoke(error);
-						return;
-					}
-					if (!iterator.hasNext()) {
-						next.invoke();
-						return;
-					}
-
-					ClientEngine<I, O> engine = iterator.next();
-
-					try {
-						engine.connect(input, this);
-					} catch (Throwable e) {
-						next.invoke(e);
-					}
-				}
-			}.invoke();
-		};
+		return CompiledEngine.compile(engines);
 	}
 
 	/**
@@ -0,0 +1,359 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.client;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.internal.util.StreamUtil;
+import org.cufy.http.pipeline.Next;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An engine wrapping another engine and coalescing identical concurrent {@code GET} and
+ * {@code HEAD} requests (single-flight).
+ * <br>
+ * Two requests are identical when they have the same method, the same uri (without the
+ * fragment), the same credentials ({@code Authorization}, {@code Proxy-Authorization}
+ * and {@code Cookie}) and the same values of the headers nominated when constructing the
+ * engine. So, requests of different users never share a response.
+ * While a request is in flight, the identical requests wait for it instead of invoking
+ * the wrapped engine. When it completes, its response (or error) is delivered to each of
+ * them with its own copy of the status line, the headers and the body.
+ * <br>
+ * Requests with a body are never coalesced.
+ * <pre>
+ *     req.engine(e -&gt; new CoalescingEngine(e, Headers.ACCEPT))
+ * </pre>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public class CoalescingEngine implements ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> {
+	/**
+	 * The names of the request headers that always distinguish requests.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static final String @NotNull [] CREDENTIALS = {
+			Headers.AUTHORIZATION,
+			Headers.PROXY_AUTHORIZATION,
+			Headers.COOKIE
+	};
+
+	/**
+	 * The wrapped engine.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine;
+	/**
+	 * The names of the request headers that distinguish requests in addition to the
+	 * credentials.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final String @NotNull [] headers;
+
+	/**
+	 * The requests in flight mapped by their keys.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+	/**
+	 * Construct a new engine coalescing the requests to the given {@code engine}.
+	 *
+	 * @param engine  the engine to be wrapped.
+	 * @param headers the names of the request headers that distinguish requests in
+	 *                addition to the credentials. (e.g. {@code Accept})
+	 * @throws NullPointerException if the given {@code engine} or {@code headers} is
+	 *                              null.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public CoalescingEngine(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull String @NotNull ... headers
+	) {
+		Objects.requireNonNull(engine, "engine");
+		Objects.requireNonNull(headers, "headers");
+		for (String header : headers)
+			Objects.requireNonNull(header, "headers[]");
+		this.engine = engine;
+		this.headers = headers.clone();
+	}
+
+	@Override
+	public void connect(@NotNull ClientRequestContext<? extends Endpoint> input, @NotNull Next<ClientResponseContext<? extends Endpoint>> next) throws Throwable {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(next, "next");
+		Request request = input.request();
+		String method = request.getRequestLine().getMethod();
+
+		if (!method.equals(Method.GET) && !method.equals(Method.HEAD) || request.getBody() != null) {
+			this.engine.connect(input, next);
+			return;
+		}
+
+		String key = this.key(request);
+		Flight flight = new Flight();
+
+		while (true) {
+			Flight current = this.flights.putIfAbsent(key, flight);
+
+			if (current == null)
+				break;
+			if (current.join(input.res(), next))
+				return;
+
+			//landed right now
+			this.flights.remove(key, current);
+		}
+
+		try {
+			this.engine.connect(input, error -> {
+				this.flights.remove(key, flight);
+				CoalescingEngine.land(flight, input.res(), next, error);
+			});
+		} catch (Throwable e) {
+			this.flights.remove(key, flight);
+			CoalescingEngine.land(flight, input.res(), error -> {
+			}, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Append the values of the header with the given {@code name} of the given {@code
+	 * request} to the given {@code builder}.
+	 *
+	 * @param builder the builder of the key.
+	 * @param request the request.
+	 * @param name    the name of the header.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(mutates = "param1")
+	private static void key(@NotNull StringBuilder builder, @NotNull Request request, @NotNull String name) {
+		for (String value : request.getHeaders().getAll(name))
+			builder.append('\n')
+				   .append(name)
+				   .append(':')
+				   .append(value);
+	}
+
+	/**
+	 * Complete the given {@code flight} and deliver the response of the given {@code
+	 * res} (or the given {@code error}) to the requests waiting for it then invoke the
+	 * given {@code next}.
+	 *
+	 * @param flight the flight.
+	 * @param res    the response context of the request that was sent.
+	 * @param next   the next function of the request that was sent.
+	 * @param error  the error the request was completed with.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static void land(
+			@NotNull Flight flight,
+			@NotNull ClientResponseContext<? extends Endpoint> res,
+			@NotNull Next<ClientResponseContext<? extends Endpoint>> next,
+			@Nullable Throwable error
+	) {
+		List<Waiter> waiters = flight.land();
+		Response response = null;
+
+		if (error == null && !waiters.isEmpty())
+			try {
+				response = CoalescingEngine.snapshot(res);
+			} catch (IOException | RuntimeException e) {
+				error = e;
+			}
+
+		for (Waiter waiter : waiters)
+			if (response == null)
+				waiter.next.invoke(error);
+			else {
+				Body body = response.getBody();
+
+				try {
+					waiter.res.httpVersion(response.getStatusLine().getHttpVersion())
+							  .statusCode(response.getStatusLine().getStatusCode())
+							  .reasonPhrase(response.getStatusLine().getReasonPhrase())
+							  .headers(response.getHeaders().clone())
+							  .body(body == null ? null : body.clone());
+				} catch (RuntimeException e) {
+					waiter.next.invoke(e);
+					continue;
+				}
+
+				waiter.next.invoke();
+			}
+
+		next.invoke(error);
+	}
+
+	/**
+	 * Read the response of the given {@code res} into a response with a body that can be
+	 * copied. The body of the given {@code res} is replaced if it can only be read once.
+	 *
+	 * @param res the response context.
+	 * @return a snapshot of the response.
+	 * @throws IOException if any I/O exception occurs while reading the body.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(value = "_->new", mutates = "param")
+	private static Response snapshot(@NotNull ClientResponseContext<? extends Endpoint> res) throws IOException {
+		Response response = res.response();
+		Body body = response.getBody();
+
+		if (body != null && !(body instanceof BytesBody)) {
+			byte[] bytes;
+
+			try (InputStream stream = body.openInputStream()) {
+				bytes = StreamUtil.readAllBytes(stream);
+			}
+
+			if (body instanceof Closeable)
+				((Closeable) body).close();
+
+			body = new BytesBody(body.getMime(), bytes);
+			response.setBody(body);
+		}
+
+		return new Response(response.getStatusLine().clone(), response.getHeaders().clone(), body);
+	}
+
+	/**
+	 * Return the key of the given {@code request}. (including its credentials)
+	 *
+	 * @param request the request.
+	 * @return the key of the request.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private String key(@NotNull Request request) {
+		String uri = request.getRequestLine().getUri().toString();
+		int fragment = uri.indexOf('#');
+		StringBuilder builder = new StringBuilder()
+				.append(request.getRequestLine().getMethod())
+				.append(' ')
+				.append(fragment < 0 ? uri : uri.substring(0, fragment));
+
+		for (String name : CoalescingEngine.CREDENTIALS)
+			CoalescingEngine.key(builder, request, name);
+		for (String name : this.headers)
+			CoalescingEngine.key(builder, request, name);
+
+		return builder.toString();
+	}
+
+	/**
+	 * A request in flight and the requests waiting for it.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static final class Flight {
+		/**
+		 * The waiting requests. (null once landed; guarded by this)
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@Nullable
+		private List<Waiter> waiters = new ArrayList<>();
+
+		/**
+		 * Wait for this flight with the given response context and next function.
+		 *
+		 * @param res  the response context of the waiting request.
+		 * @param next the next function of the waiting request.
+		 * @return true, if joined. False, if this flight has already landed.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private synchronized boolean join(@NotNull ClientResponseContext<? extends Endpoint> res, @NotNull Next<ClientResponseContext<? extends Endpoint>> next) {
+			if (this.waiters == null)
+				return false;
+
+			this.waiters.add(new Waiter(res, next));
+			return true;
+		}
+
+		/**
+		 * Stop accepting waiters.
+		 *
+		 * @return the waiters.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private synchronized List<Waiter> land() {
+			List<Waiter> waiters = this.waiters;
+			this.waiters = null;
+			return waiters == null ? Collections.emptyList() : waiters;
+		}
+	}
+
+	/**
+	 * A request waiting for a flight.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static final class Waiter {
+		/**
+		 * The next function of the request.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final Next<ClientResponseContext<? extends Endpoint>> next;
+		/**
+		 * The response context of the request.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final ClientResponseContext<? extends Endpoint> res;
+
+		/**
+		 * Construct a new waiter.
+		 *
+		 * @param res  the response context of the request.
+		 * @param next the next function of the request.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private Waiter(@NotNull ClientResponseContext<? extends Endpoint> res, @NotNull Next<ClientResponseContext<? extends Endpoint>> next) {
+			this.res = res;
+			this.next = next;
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.client;
+
+import org.cufy.http.internal.util.Trampoline;
+import org.cufy.http.pipeline.Next;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An engine that invokes a flat array of engines one after the other.
+ * <br>
+ * Compiling an engine that is itself a compiled engine will inline its stages instead of
+ * nesting it. So, no matter how many engines get added before or after an engine,
+ * connecting is done by a single index-based loop with a constant stack depth.
+ *
+ * @param <I> the type of the input parameter (the request).
+ * @param <O> the type of the output parameter (the response).
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.20
+ */
+public final class CompiledEngine<I, O> implements ClientEngine<I, O> {
+	/**
+	 * The stages of this engine.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@NotNull
+	private final ClientEngine<I, O> @NotNull [] stages;
+
+	/**
+	 * Construct a new engine with the given {@code stages}.
+	 *
+	 * @param stages the flattened non-null stages.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private CompiledEngine(@NotNull ClientEngine<I, O> @NotNull [] stages) {
+		this.stages = stages;
+	}
+
+	/**
+	 * Compile the given {@code engines} into a single flat engine. Null engines are
+	 * ignored and compiled engines are inlined.
+	 *
+	 * @param engines the engines to be compiled.
+	 * @param <I>     the type of the input parameter (the request).
+	 * @param <O>     the type of the output parameter (the response).
+	 * @return an engine invoking the given engines.
+	 * @throws NullPointerException if the given {@code engines} is null.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	@SafeVarargs
+	public static <I, O> CompiledEngine<I, O> compile(@Nullable ClientEngine<I, O> @NotNull ... engines) {
+		Objects.requireNonNull(engines, "engines");
+		List<ClientEngine<I, O>> stages = new ArrayList<>(engines.length);
+
+		for (ClientEngine<I, O> engine : engines)
+			if (engine instanceof CompiledEngine)
+				Collections.addAll(stages, ((CompiledEngine<I, O>) engine).stages);
+			else if (engine != null)
+				stages.add(engine);
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		ClientEngine<I, O>[] array = stages.toArray(new ClientEngine[0]);
+		return new CompiledEngine<>(array);
+	}
+
+	@Override
+	public void connect(@NotNull I input, @NotNull Next<O> next) {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(next, "next");
+
+		if (this.stages.length == 0) {
+			next.invoke();
+			return;
+		}
+
+		new Cursor<>(this.stages, input, next).invoke();
+	}
+
+	/**
+	 * Return an unmodifiable view of the stages of this engine.
+	 *
+	 * @return the stages of this engine.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@NotNull
+	@UnmodifiableView
+	@Contract(pure = true)
+	public List<@NotNull ClientEngine<I, O>> stages() {
+		return Collections.unmodifiableList(Arrays.asList(this.stages));
+	}
+
+	/**
+	 * The state of a single connection of a compiled engine.
+	 *
+	 * @param <I> the type of the input parameter (the request).
+	 * @param <O> the type of the output parameter (the response).
+	 * @author LSafer
+	 * @version 1.0.0
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private static final class Cursor<I, O> extends Trampoline<O> {
+		@SuppressWarnings("JavaDoc")
+		private static final long serialVersionUID = 3561937510841632574L;
+
+		/**
+		 * The input parameter.
+		 *
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		@NotNull
+		private final I input;
+		/**
+		 * The next function to be invoked after the stages.
+		 *
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		@NotNull
+		private final Next<O> next;
+		/**
+		 * The stages.
+		 *
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		@NotNull
+		private final ClientEngine<I, O> @NotNull [] stages;
+
+		/**
+		 * Construct a new cursor.
+		 *
+		 * @param stages the stages.
+		 * @param input  the input parameter.
+		 * @param next   the next function to be invoked after the stages.
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		private Cursor(@NotNull ClientEngine<I, O> @NotNull [] stages, @NotNull I input, @NotNull Next<O> next) {
+			this.stages = stages;
+			this.input = input;
+			this.next = next;
+		}
+
+		@Override
+		protected void complete(@Nullable Throwable error) {
+			this.next.invoke(error);
+		}
+
+		@Override
+		protected int size() {
+			return this.stages.length;
+		}
+
+		@Override
+		protected void stage(int index) throws Throwable {
+			this.stages[index].connect(this.input, this);
+		}
+	}
+}
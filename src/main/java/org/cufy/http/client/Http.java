@@ -31,6 +31,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A class containing constructor shortcuts for http components.
@@ -204,6 +205,332 @@ public final class Http {
 				   .res();
 	}
 
+	// Streamed Custom Fetch
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * keeping the response attached to the connection. The body of the response can be
+	 * streamed after this method returns. The caller is then responsible for consuming or
+	 * {@link ClientResponseContext#release() releasing} it.
+	 *
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a response wrapper.
+	 * @throws NullPointerException if the given {@code middlewares} is null.
+	 * @see ClientRequestContext#connect(boolean)
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_->new")
+	public static ClientResponseContext<Endpoint> fetchStream(
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(middlewares)
+				   .connect(false)
+				   .res();
+	}
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * keeping the response attached to the connection. The body of the response can be
+	 * streamed after this method returns. The caller is then responsible for consuming or
+	 * {@link ClientResponseContext#release() releasing} it.
+	 *
+	 * @param engine      the connection engine.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a response wrapper.
+	 * @throws NullPointerException if the given {@code engine} or {@code middlewares} is
+	 *                              null.
+	 * @see ClientRequestContext#connect(boolean)
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_->new")
+	public static ClientResponseContext<Endpoint> fetchStream(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(middlewares)
+				   .engine(engine)
+				   .connect(false)
+				   .res();
+	}
+
+	// Streamed Fetch with Endpoint
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * keeping the response attached to the connection. The body of the response can be
+	 * streamed after this method returns. The caller is then responsible for consuming or
+	 * {@link ClientResponseContext#release() releasing} it.
+	 *
+	 * @param endpoint    the endpoint to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @param <E>         the type of the endpoint.
+	 * @return a response wrapper.
+	 * @throws NullPointerException if the given {@code endpoint} or {@code middlewares}
+	 *                              is null.
+	 * @see ClientRequestContext#connect(boolean)
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_->new")
+	public static <E extends Endpoint> ClientResponseContext<E> fetchStream(
+			@NotNull E endpoint,
+			@Nullable Middleware<? super ClientRequestContext<E>> @NotNull ... middlewares
+	) {
+		return Http.open(endpoint, middlewares)
+				   .connect(false)
+				   .res();
+	}
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * keeping the response attached to the connection. The body of the response can be
+	 * streamed after this method returns. The caller is then responsible for consuming or
+	 * {@link ClientResponseContext#release() releasing} it.
+	 *
+	 * @param engine      the connection engine.
+	 * @param endpoint    the endpoint to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @param <E>         the type of the endpoint.
+	 * @return a response wrapper.
+	 * @throws NullPointerException if the given {@code engine} or {@code endpoint} or
+	 *                              {@code middlewares} is null.
+	 * @see ClientRequestContext#connect(boolean)
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_,_->new")
+	public static <E extends Endpoint> ClientResponseContext<E> fetchStream(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull E endpoint,
+			@Nullable Middleware<? super ClientRequestContext<E>> @NotNull ... middlewares
+	) {
+		return Http.open(endpoint, middlewares)
+				   .engine(engine)
+				   .connect(false)
+				   .res();
+	}
+
+	// Streamed Quick Fetch
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * keeping the response attached to the connection. The body of the response can be
+	 * streamed after this method returns. The caller is then responsible for consuming or
+	 * {@link ClientResponseContext#release() releasing} it.
+	 *
+	 * @param method      the method to be set.
+	 * @param uri         the uri to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a response wrapper.
+	 * @throws NullPointerException if the given {@code method} or {@code uri} or {@code
+	 *                              middlewares} is null.
+	 * @see ClientRequestContext#connect(boolean)
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_,_->new")
+	public static ClientResponseContext<Endpoint> fetchStream(
+			@NotNull @Pattern(HttpRegExp.METHOD) String method,
+			@NotNull @Pattern(UriRegExp.URI_REFERENCE) String uri,
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(method, uri, middlewares)
+				   .connect(false)
+				   .res();
+	}
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * keeping the response attached to the connection. The body of the response can be
+	 * streamed after this method returns. The caller is then responsible for consuming or
+	 * {@link ClientResponseContext#release() releasing} it.
+	 *
+	 * @param engine      the connection engine.
+	 * @param method      the method to be set.
+	 * @param uri         the uri to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a response wrapper.
+	 * @throws NullPointerException if the given {@code engine} or {@code method} or
+	 *                              {@code uri} or {@code middlewares} is null.
+	 * @see ClientRequestContext#connect(boolean)
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_,_,_->new")
+	public static ClientResponseContext<Endpoint> fetchStream(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull @Pattern(HttpRegExp.METHOD) String method,
+			@NotNull @Pattern(UriRegExp.URI_REFERENCE) String uri,
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(method, uri, middlewares)
+				   .engine(engine)
+				   .connect(false)
+				   .res();
+	}
+
+	// Async Custom Fetch
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * asynchronously returning a future of the response.
+	 *
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a future of the response wrapper.
+	 * @throws NullPointerException if the given {@code middlewares} is null.
+	 * @see ClientRequestContext#connectAsync()
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_->new")
+	public static CompletableFuture<ClientResponseContext<Endpoint>> fetchAsync(
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(middlewares)
+				   .connectAsync();
+	}
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * asynchronously returning a future of the response.
+	 *
+	 * @param engine      the connection engine.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a future of the response wrapper.
+	 * @throws NullPointerException if the given {@code engine} or {@code middlewares} is
+	 *                              null.
+	 * @see ClientRequestContext#connectAsync()
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_->new")
+	public static CompletableFuture<ClientResponseContext<Endpoint>> fetchAsync(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(middlewares)
+				   .engine(engine)
+				   .connectAsync();
+	}
+
+	// Async Fetch with Endpoint
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * asynchronously returning a future of the response.
+	 *
+	 * @param endpoint    the endpoint to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @param <E>         the type of the endpoint.
+	 * @return a future of the response wrapper.
+	 * @throws NullPointerException if the given {@code endpoint} or {@code middlewares}
+	 *                              is null.
+	 * @see ClientRequestContext#connectAsync()
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_->new")
+	public static <E extends Endpoint> CompletableFuture<ClientResponseContext<E>> fetchAsync(
+			@NotNull E endpoint,
+			@Nullable Middleware<? super ClientRequestContext<E>> @NotNull ... middlewares
+	) {
+		return Http.open(endpoint, middlewares)
+				   .connectAsync();
+	}
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * asynchronously returning a future of the response.
+	 *
+	 * @param engine      the connection engine.
+	 * @param endpoint    the endpoint to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @param <E>         the type of the endpoint.
+	 * @return a future of the response wrapper.
+	 * @throws NullPointerException if the given {@code engine} or {@code endpoint} or
+	 *                              {@code middlewares} is null.
+	 * @see ClientRequestContext#connectAsync()
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_,_->new")
+	public static <E extends Endpoint> CompletableFuture<ClientResponseContext<E>> fetchAsync(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull E endpoint,
+			@Nullable Middleware<? super ClientRequestContext<E>> @NotNull ... middlewares
+	) {
+		return Http.open(endpoint, middlewares)
+				   .engine(engine)
+				   .connectAsync();
+	}
+
+	// Async Quick Fetch
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * asynchronously returning a future of the response.
+	 *
+	 * @param method      the method to be set.
+	 * @param uri         the uri to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a future of the response wrapper.
+	 * @throws NullPointerException if the given {@code method} or {@code uri} or {@code
+	 *                              middlewares} is null.
+	 * @see ClientRequestContext#connectAsync()
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_,_->new")
+	public static CompletableFuture<ClientResponseContext<Endpoint>> fetchAsync(
+			@NotNull @Pattern(HttpRegExp.METHOD) String method,
+			@NotNull @Pattern(UriRegExp.URI_REFERENCE) String uri,
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(method, uri, middlewares)
+				   .connectAsync();
+	}
+
+	/**
+	 * Open a new request wrapper with the given parameters and perform the connection
+	 * asynchronously returning a future of the response.
+	 *
+	 * @param engine      the connection engine.
+	 * @param method      the method to be set.
+	 * @param uri         the uri to be set.
+	 * @param middlewares the middlewares to be injected into the wrapper.
+	 * @return a future of the response wrapper.
+	 * @throws NullPointerException if the given {@code engine} or {@code method} or
+	 *                              {@code uri} or {@code middlewares} is null.
+	 * @see ClientRequestContext#connectAsync()
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@SafeVarargs
+	@NotNull
+	@Contract("_,_,_,_->new")
+	public static CompletableFuture<ClientResponseContext<Endpoint>> fetchAsync(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@NotNull @Pattern(HttpRegExp.METHOD) String method,
+			@NotNull @Pattern(UriRegExp.URI_REFERENCE) String uri,
+			@Nullable Middleware<? super ClientRequestContext<Endpoint>> @NotNull ... middlewares
+	) {
+		return Http.open(method, uri, middlewares)
+				   .engine(engine)
+				   .connectAsync();
+	}
+
 	// Performed Custom Fetch
 
 	/**
@@ -0,0 +1,40 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.client
+
+/**
+ * A client engine that can perform the connection by suspending instead of
+ * invoking a callback.
+ *
+ * @param I the type of the input parameter (the request).
+ * @param O the type of the output parameter (the response).
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+interface SuspendClientEngine<I, O> : ClientEngine<I, O> {
+    /**
+     * A suspend version of [connect].
+     *
+     * Suspends (without blocking the thread) until the connection is done and
+     * throws any error instead of passing it to a next function. Cancelling the
+     * calling coroutine aborts the connection.
+     *
+     * @param input the input instance.
+     * @since 1.0.0 ~2022.02.05
+     */
+    suspend fun connectSuspend(input: I)
+}
@@ -18,6 +18,7 @@ package org.cufy.http.client
 import org.cufy.http.Endpoint
 import org.cufy.http.client.wrapper.ClientRequestContext
 import org.cufy.http.client.wrapper.ClientResponseContext
+import org.cufy.http.client.wrapper.connectAwait
 import org.cufy.http.client.wrapper.connectSuspend
 import org.cufy.http.concurrent.SuspendPerformer
 import org.cufy.http.pipeline.Middleware
@@ -34,7 +35,7 @@ object SuspendHttp {
 
     /**
      * Open a new request wrapper with the given parameters and perform the connection
-     * asynchronously.
+     * asynchronously. Suspends until the connection is done without blocking a thread.
      *
      * @param middlewares the middlewares to be injected into the wrapper.
      * @return a response wrapper.
@@ -44,12 +45,12 @@ object SuspendHttp {
     suspend fun fetchSuspend(
         vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
     ) = Http.open(*middlewares)
-        .connectSuspend()
+        .connectAwait()
         .res()
 
     /**
      * Open a new request wrapper with the given parameters and perform the connection
-     * asynchronously.
+     * asynchronously. Suspends until the connection is done without blocking a thread.
      *
      * @param engine      the connection engine.
      * @param middlewares the middlewares to be injected into the wrapper.
@@ -62,14 +63,14 @@ object SuspendHttp {
         vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
     ) = Http.open(*middlewares)
         .engine(engine)
-        .connectSuspend()
+        .connectAwait()
         .res()
 
     // Suspended Fetch with Endpoint
 
     /**
      * Open a new request wrapper with the given parameters and perform the connection
-     * asynchronously.
+     * asynchronously. Suspends until the connection is done without blocking a thread.
      *
      * @param endpoint    the endpoint to be set.
      * @param middlewares the middlewares to be injected into the wrapper.
@@ -82,12 +83,12 @@ object SuspendHttp {
         endpoint: E,
         vararg middlewares: Middleware<in ClientRequestContext<E>>
     ) = Http.open(endpoint, *middlewares)
-        .connectSuspend()
+        .connectAwait()
         .res()
 
     /**
      * Open a new request wrapper with the given parameters and perform the connection
-     * asynchronously.
+     * asynchronously. Suspends until the connection is done without blocking a thread.
      *
      * @param engine      the connection engine.
      * @param endpoint    the endpoint to be set.
@@ -103,14 +104,14 @@ object SuspendHttp {
         vararg middlewares: Middleware<in ClientRequestContext<E>>
     ) = Http.open(endpoint, *middlewares)
         .engine(engine)
-        .connectSuspend()
+        .connectAwait()
         .res()
 
     // Suspended Quick Fetch
 
     /**
      * Open a new request wrapper with the given parameters and perform the connection
-     * asynchronously.
+     * asynchronously. Suspends until the connection is done without blocking a thread.
      *
      * @param method      the method to be set.
      * @param uri         the uri to be set.
@@ -124,12 +125,12 @@ object SuspendHttp {
         uri: String,
         vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
     ) = Http.open(method, uri, *middlewares)
-        .connectSuspend()
+        .connectAwait()
         .res()
 
     /**
      * Open a new request wrapper with the given parameters and perform the connection
-     * asynchronously.
+     * asynchronously. Suspends until the connection is done without blocking a thread.
      *
      * @param engine      the connection engine.
      * @param method      the method to be set.
@@ -146,7 +147,150 @@ object SuspendHttp {
         vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
     ) = Http.open(method, uri, *middlewares)
         .engine(engine)
-        .connectSuspend()
+        .connectAwait()
+        .res()
+
+    // Streamed Suspended Custom Fetch
+
+    /**
+     * Open a new request wrapper with the given parameters and perform the connection
+     * asynchronously. Suspends until the connection is done without blocking a thread.
+     * Unlike [fetchSuspend], the response is kept attached to the connection so its body
+     * can be streamed with [bodyFlow][org.cufy.http.client.wrapper.bodyFlow] or
+     * [decodeFlow][org.cufy.http.client.wrapper.decodeFlow]. The caller is then
+     * responsible for consuming or [releasing][ClientResponseContext.release] it.
+     *
+     * @param middlewares the middlewares to be injected into the wrapper.
+     * @return a response wrapper.
+     * @since 1.0.0 ~2022.02.05
+     */
+    @JvmStatic
+    suspend fun fetchStream(
+        vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
+    ) = Http.open(*middlewares)
+        .connectAwait(release = false)
+        .res()
+
+    /**
+     * Open a new request wrapper with the given parameters and perform the connection
+     * asynchronously. Suspends until the connection is done without blocking a thread.
+     * Unlike [fetchSuspend], the response is kept attached to the connection so its body
+     * can be streamed with [bodyFlow][org.cufy.http.client.wrapper.bodyFlow] or
+     * [decodeFlow][org.cufy.http.client.wrapper.decodeFlow]. The caller is then
+     * responsible for consuming or [releasing][ClientResponseContext.release] it.
+     *
+     * @param engine      the connection engine.
+     * @param middlewares the middlewares to be injected into the wrapper.
+     * @return a response wrapper.
+     * @since 1.0.0 ~2022.02.05
+     */
+    @JvmStatic
+    suspend fun fetchStream(
+        engine: ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>>,
+        vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
+    ) = Http.open(*middlewares)
+        .engine(engine)
+        .connectAwait(release = false)
+        .res()
+
+    // Streamed Suspended Fetch with Endpoint
+
+    /**
+     * Open a new request wrapper with the given parameters and perform the connection
+     * asynchronously. Suspends until the connection is done without blocking a thread.
+     * Unlike [fetchSuspend], the response is kept attached to the connection so its body
+     * can be streamed with [bodyFlow][org.cufy.http.client.wrapper.bodyFlow] or
+     * [decodeFlow][org.cufy.http.client.wrapper.decodeFlow]. The caller is then
+     * responsible for consuming or [releasing][ClientResponseContext.release] it.
+     *
+     * @param endpoint    the endpoint to be set.
+     * @param middlewares the middlewares to be injected into the wrapper.
+     * @param E           the type of the endpoint.
+     * @return a response wrapper.
+     * @since 1.0.0 ~2022.02.05
+     */
+    @JvmStatic
+    suspend fun <E : Endpoint> fetchStream(
+        endpoint: E,
+        vararg middlewares: Middleware<in ClientRequestContext<E>>
+    ) = Http.open(endpoint, *middlewares)
+        .connectAwait(release = false)
+        .res()
+
+    /**
+     * Open a new request wrapper with the given parameters and perform the connection
+     * asynchronously. Suspends until the connection is done without blocking a thread.
+     * Unlike [fetchSuspend], the response is kept attached to the connection so its body
+     * can be streamed with [bodyFlow][org.cufy.http.client.wrapper.bodyFlow] or
+     * [decodeFlow][org.cufy.http.client.wrapper.decodeFlow]. The caller is then
+     * responsible for consuming or [releasing][ClientResponseContext.release] it.
+     *
+     * @param engine      the connection engine.
+     * @param endpoint    the endpoint to be set.
+     * @param middlewares the middlewares to be injected into the wrapper.
+     * @param E           the type of the endpoint.
+     * @return a response wrapper.
+     * @since 1.0.0 ~2022.02.05
+     */
+    @JvmStatic
+    suspend fun <E : Endpoint> fetchStream(
+        engine: ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>>,
+        endpoint: E,
+        vararg middlewares: Middleware<in ClientRequestContext<E>>
+    ) = Http.open(endpoint, *middlewares)
+        .engine(engine)
+        .connectAwait(release = false)
+        .res()
+
+    // Streamed Suspended Quick Fetch
+
+    /**
+     * Open a new request wrapper with the given parameters and perform the connection
+     * asynchronously. Suspends until the connection is done without blocking a thread.
+     * Unlike [fetchSuspend], the response is kept attached to the connection so its body
+     * can be streamed with [bodyFlow][org.cufy.http.client.wrapper.bodyFlow] or
+     * [decodeFlow][org.cufy.http.client.wrapper.decodeFlow]. The caller is then
+     * responsible for consuming or [releasing][ClientResponseContext.release] it.
+     *
+     * @param method      the method to be set.
+     * @param uri         the uri to be set.
+     * @param middlewares the middlewares to be injected into the wrapper.
+     * @return a response wrapper.
+     * @since 1.0.0 ~2022.02.05
+     */
+    @JvmStatic
+    suspend fun fetchStream(
+        method: String,
+        uri: String,
+        vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
+    ) = Http.open(method, uri, *middlewares)
+        .connectAwait(release = false)
+        .res()
+
+    /**
+     * Open a new request wrapper with the given parameters and perform the connection
+     * asynchronously. Suspends until the connection is done without blocking a thread.
+     * Unlike [fetchSuspend], the response is kept attached to the connection so its body
+     * can be streamed with [bodyFlow][org.cufy.http.client.wrapper.bodyFlow] or
+     * [decodeFlow][org.cufy.http.client.wrapper.decodeFlow]. The caller is then
+     * responsible for consuming or [releasing][ClientResponseContext.release] it.
+     *
+     * @param engine      the connection engine.
+     * @param method      the method to be set.
+     * @param uri         the uri to be set.
+     * @param middlewares the middlewares to be injected into the wrapper.
+     * @return a response wrapper.
+     * @since 1.0.0 ~2022.02.05
+     */
+    @JvmStatic
+    suspend fun fetchStream(
+        engine: ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>>,
+        method: String,
+        uri: String,
+        vararg middlewares: Middleware<in ClientRequestContext<Endpoint>>
+    ) = Http.open(method, uri, *middlewares)
+        .engine(engine)
+        .connectAwait(release = false)
         .res()
 
     // Performed Suspended Custom Fetch
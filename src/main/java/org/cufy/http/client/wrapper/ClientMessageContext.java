@@ -18,6 +18,7 @@ package org.cufy.http.client.wrapper;
 import org.cufy.http.Endpoint;
 import org.cufy.http.Message;
 import org.cufy.http.client.ClientEngine;
+import org.cufy.http.concurrent.Cancellation;
 import org.cufy.http.concurrent.wrapper.PerformerContext;
 import org.cufy.http.pipeline.Catcher;
 import org.cufy.http.pipeline.Interceptor;
@@ -28,6 +29,8 @@ import org.cufy.http.wrapper.MessageContext;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A multipurpose client-side message wrapper.
  *
@@ -49,6 +52,10 @@ public interface ClientMessageContext<
 		PerformerContext<Self> {
 	/**
 	 * Perform the connection.
+	 * <br>
+	 * Once the pipeline completes, the response is {@link ClientResponseContext#detach()
+	 * detached} from the connection. So, its body can still be read after this method
+	 * returns.
 	 *
 	 * @return this.
 	 * @since 0.3.0 ~2021.12.23
@@ -56,6 +63,26 @@ public interface ClientMessageContext<
 	@NotNull
 	@Contract("->this")
 	default Self connect() {
+		return this.connect(true);
+	}
+
+	/**
+	 * Perform the connection.
+	 * <br>
+	 * If {@code release} is true, this behaves like {@link #connect()}. Otherwise, the
+	 * response is kept attached to the connection once the pipeline completes. So, its
+	 * body can be streamed after this method returns. The caller is then responsible for
+	 * consuming or {@link ClientResponseContext#release() releasing} it. Either way, the
+	 * response is released if the connection fails.
+	 *
+	 * @param release false, to keep the response attached to the connection instead of
+	 *                {@link ClientResponseContext#detach() detaching} it.
+	 * @return this.
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@NotNull
+	@Contract("_->this")
+	default Self connect(boolean release) {
 		return this.perform((context, callback) -> {
 			ClientEngine<ClientRequestContext<?>, ClientResponseContext<?>> engine = context.engine();
 			ClientRequestContext<E> req = context.req();
@@ -71,12 +98,16 @@ public interface ClientMessageContext<
 						} catch (Throwable e) {
 							next.invoke(e);
 						} finally {
+							if (release)
+								res.detach();
+
 							callback.run();
 						}
 					else
 						try {
 							next.invoke(error);
 						} finally {
+							res.release();
 							callback.run();
 						}
 				});
@@ -90,6 +121,79 @@ public interface ClientMessageContext<
 		});
 	}
 
+	/**
+	 * Perform the connection asynchronously regardless of the performer and return a
+	 * future of the response.
+	 * <br>
+	 * The future is completed by the thread invoking the callback of the engine right
+	 * after the pipeline. Cancelling the future cancels the {@link Cancellation} of this
+	 * context. (engines supporting cancellation, like {@code OkEngine}, abort the call)
+	 * <br>
+	 * Unlike {@link #connect()}, the response is not released after the pipeline. The
+	 * receiver of the future is responsible for {@link ClientResponseContext#release()
+	 * releasing} it. A response arriving after the future was cancelled is released
+	 * immediately.
+	 *
+	 * @return a future of the response.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract("->new")
+	default CompletableFuture<ClientResponseContext<E>> connectAsync() {
+		ClientEngine<ClientRequestContext<?>, ClientResponseContext<?>> engine = this.engine();
+		ClientRequestContext<E> req = this.req();
+		ClientResponseContext<E> res = this.res();
+		Pipe<ClientResponseContext<E>> pipe = this.pipe();
+		Next<ClientResponseContext<E>> next = this.next();
+		Cancellation cancellation = new Cancellation();
+		CompletableFuture<ClientResponseContext<E>> future = new CompletableFuture<ClientResponseContext<E>>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+				if (cancelled)
+					cancellation.cancel();
+
+				return cancelled;
+			}
+		};
+
+		this.extra(Cancellation.EXTRA, cancellation);
+
+		try {
+			engine.connect(req, error -> {
+				if (error == null)
+					try {
+						pipe.invoke(res, next);
+					} catch (Throwable e) {
+						try {
+							next.invoke(e);
+						} finally {
+							future.completeExceptionally(e);
+						}
+					} finally {
+						if (!future.complete(res))
+							res.release();
+					}
+				else
+					try {
+						next.invoke(error);
+					} finally {
+						res.release();
+						future.completeExceptionally(error);
+					}
+			});
+		} catch (Throwable e) {
+			try {
+				next.invoke(e);
+			} finally {
+				future.completeExceptionally(e);
+			}
+		}
+
+		return future;
+	}
+
 	/**
 	 * Intercept the response with the given {@code interceptor}.
 	 * <br>
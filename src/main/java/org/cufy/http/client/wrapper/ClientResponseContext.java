@@ -15,9 +15,17 @@
  */
 package org.cufy.http.client.wrapper;
 
+import org.cufy.http.Body;
 import org.cufy.http.Endpoint;
 import org.cufy.http.Response;
+import org.cufy.http.body.StreamBody;
 import org.cufy.http.wrapper.ResponseContext;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOError;
+import java.io.IOException;
 
 /**
  * An extended version of the interface {@link ResponseContext} containing additional
@@ -31,4 +39,58 @@ import org.cufy.http.wrapper.ResponseContext;
 public interface ClientResponseContext<E extends Endpoint> extends
 		ClientMessageContext<E, Response, ClientResponseContext<E>>,
 		ResponseContext<E, ClientRequestContext<E>, ClientResponseContext<E>> {
+	/**
+	 * Detach the response of this context from its connection so it can still be read
+	 * after the connection is done. If the body of the response is a {@link StreamBody
+	 * streaming body} nobody has consumed yet, its remaining content gets buffered into
+	 * memory. If buffering fails or the body has already been handed over to a consumer,
+	 * the response gets {@link #release() released}.
+	 * <br>
+	 * This is invoked automatically by {@link #connect()} after the pipeline completes.
+	 * So, a streaming body not consumed within the pipeline is still readable after it.
+	 * To stream a body after the pipeline, use {@link #connect(boolean) connect(false)}
+	 * instead.
+	 *
+	 * @return this.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(value = "->this", mutates = "this")
+	default ClientResponseContext<E> detach() {
+		Body body = this.body();
+
+		if (body instanceof StreamBody)
+			try {
+				((StreamBody) body).buffer();
+				return this;
+			} catch (IllegalStateException | IOError ignored) {
+				//handed over to a consumer, or broken
+			}
+
+		return this.release();
+	}
+
+	/**
+	 * Release the resources held by the response of this context. If the body of the
+	 * response is {@link Closeable closeable} (like a {@link StreamBody streaming body}
+	 * still attached to its connection) it will be closed without being read.
+	 * <br>
+	 * This is invoked automatically by {@link #connect()} when the connection fails.
+	 *
+	 * @return this.
+	 * @since 1.0.0 ~2022.01.19
+	 */
+	@NotNull
+	@Contract(value = "->this", mutates = "this")
+	default ClientResponseContext<E> release() {
+		Body body = this.body();
+
+		if (body instanceof Closeable)
+			try {
+				((Closeable) body).close();
+			} catch (IOException ignored) {
+			}
+
+		return this;
+	}
 }
@@ -15,9 +15,30 @@
  */
 package org.cufy.http.client.wrapper
 
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.serialization.DeserializationStrategy
+import kotlinx.serialization.ExperimentalSerializationApi
+import kotlinx.serialization.json.DecodeSequenceMode
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.decodeToSequence
+import kotlinx.serialization.serializer
 import org.cufy.http.Endpoint
 import org.cufy.http.Message
+import org.cufy.http.client.SuspendClientEngine
+import org.cufy.http.concurrent.Cancellation
 import org.cufy.http.concurrent.wrapper.performSuspend
+import java.nio.ByteBuffer
+import kotlin.coroutines.coroutineContext
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
 
 // Type Aliases
 
@@ -61,12 +82,14 @@ suspend fun <
                     } catch (e: Throwable) {
                         next.invoke(e)
                     } finally {
+                        res.detach()
                         callback.run()
                     }
                 else
                     try {
                         next.invoke(error)
                     } finally {
+                        res.release()
                         callback.run()
                     }
             }
@@ -78,3 +101,168 @@ suspend fun <
             }
         }
     }
+
+/**
+ * A non-blocking suspend version of [ClientMessageContext.connect].
+ *
+ * The performer is ignored. If the engine is a [SuspendClientEngine], it gets
+ * suspended on directly. Otherwise, the coroutine suspends until the engine
+ * invokes its callback and cancelling the coroutine cancels the
+ * [Cancellation] of this context. Either way, no thread is parked while
+ * waiting and the pipeline runs in the calling coroutine.
+ *
+ * @param release false, to keep the response attached to the connection
+ *                after a successful pipeline instead of
+ *                [detaching][ClientResponseContext.detach] it. (to stream it
+ *                with [bodyFlow] or [decodeFlow]) The caller is then
+ *                responsible for releasing it.
+ */
+suspend fun <
+        E : Endpoint,
+        M : Message,
+        Self : ClientMessageContext<E, M, *>
+        >
+        Self.connectAwait(release: Boolean = true): Self {
+    val engine = this.engine()
+    val req = this.req()
+    val res = this.res()
+    val pipe = this.pipe()
+    val next = this.next()
+
+    val error = try {
+        if (engine is SuspendClientEngine)
+            engine.connectSuspend(req)
+        else
+            suspendCancellableCoroutine<Unit> { continuation ->
+                val cancellation = Cancellation()
+
+                req.extra(Cancellation.EXTRA, cancellation)
+                continuation.invokeOnCancellation { cancellation.cancel() }
+
+                engine.connect(req) { error: Throwable? ->
+                    if (error == null)
+                        continuation.resume(Unit)
+                    else
+                        continuation.resumeWithException(error)
+                }
+            }
+
+        null
+    } catch (e: Throwable) {
+        // an engine may fail with a CancellationException of its own
+        if (e is CancellationException && coroutineContext[Job]?.isCancelled == true) {
+            res.release()
+            throw e
+        }
+
+        e
+    }
+
+    if (error == null)
+        try {
+            pipe.invoke(res, next)
+        } catch (e: Throwable) {
+            next.invoke(e)
+        } finally {
+            if (release)
+                res.detach()
+        }
+    else
+        try {
+            next.invoke(error)
+        } finally {
+            res.release()
+        }
+
+    return this
+}
+
+// Client Response Streaming
+
+/**
+ * Stream the body of the receiver as a cold flow of buffers of up to
+ * [bufferSize] bytes without buffering the whole body.
+ *
+ * The body is read (on [Dispatchers.IO]) only as fast as the collector
+ * consumes the buffers, and it is closed when the flow completes, fails or
+ * gets cancelled. Each emitted buffer is a new buffer the collector can keep.
+ *
+ * The response must not be released before collecting. (see
+ * [ClientMessageContext.connectAsync], [connectAwait] and
+ * [SuspendHttp.fetchStream][org.cufy.http.client.SuspendHttp.fetchStream])
+ * A live body can only be collected once. A detached body (e.g. after
+ * [SuspendHttp.fetchSuspend][org.cufy.http.client.SuspendHttp.fetchSuspend])
+ * is already buffered and can be collected any number of times.
+ *
+ * @param bufferSize the maximum size of each buffer.
+ * @since 1.0.0 ~2022.02.05
+ */
+fun ClientResponseContext<*>.bodyFlow(bufferSize: Int = 8192): Flow<ByteBuffer> {
+    require(bufferSize > 0) { "bufferSize: $bufferSize" }
+    val body = this.body()
+
+    return flow {
+        body?.openInputStream()?.use { stream ->
+            while (true) {
+                val bytes = ByteArray(bufferSize)
+                val read = stream.read(bytes)
+
+                if (read < 0)
+                    break
+                if (read > 0)
+                    emit(ByteBuffer.wrap(bytes, 0, read))
+            }
+        }
+    }.flowOn(Dispatchers.IO).buffer(Channel.RENDEZVOUS)
+}
+
+/**
+ * Decode the body of the receiver as a cold flow of the elements of a
+ * newline-delimited json (NDJSON) stream or a top level json array (detected
+ * by [mode]) without buffering the whole body.
+ *
+ * The body is read and decoded (on [Dispatchers.IO]) only as fast as the
+ * collector consumes the elements, and it is closed when the flow completes,
+ * fails or gets cancelled.
+ *
+ * The response must not be released before collecting. (see
+ * [ClientMessageContext.connectAsync], [connectAwait] and
+ * [SuspendHttp.fetchStream][org.cufy.http.client.SuspendHttp.fetchStream])
+ * A live body can only be collected once. A detached body (e.g. after
+ * [SuspendHttp.fetchSuspend][org.cufy.http.client.SuspendHttp.fetchSuspend])
+ * is already buffered and can be collected any number of times.
+ *
+ * @param deserializer the deserializer of the elements.
+ * @param format the json format.
+ * @param mode the layout of the elements.
+ * @since 1.0.0 ~2022.02.05
+ */
+@OptIn(ExperimentalSerializationApi::class)
+fun <T> ClientResponseContext<*>.decodeFlow(
+    deserializer: DeserializationStrategy<T>,
+    format: Json = Json,
+    mode: DecodeSequenceMode = DecodeSequenceMode.AUTO_DETECT
+): Flow<T> {
+    val body = this.body()
+
+    return flow {
+        body?.openInputStream()?.use { stream ->
+            for (element in format.decodeToSequence(stream, deserializer, mode))
+                emit(element)
+        }
+    }.flowOn(Dispatchers.IO).buffer(Channel.RENDEZVOUS)
+}
+
+/**
+ * Decode the body of the receiver as a cold flow of the elements of a
+ * newline-delimited json (NDJSON) stream or a top level json array.
+ *
+ * @see decodeFlow
+ * @since 1.0.0 ~2022.02.05
+ */
+@OptIn(ExperimentalSerializationApi::class)
+inline fun <reified T> ClientResponseContext<*>.decodeFlow(
+    format: Json = Json,
+    mode: DecodeSequenceMode = DecodeSequenceMode.AUTO_DETECT
+): Flow<T> =
+    decodeFlow(format.serializersModule.serializer(), format, mode)
@@ -0,0 +1,88 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.codec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A content coding. (like {@code gzip} or {@code br})
+ * <br>
+ * Codecs are used concurrently. So, implementations must be thread-safe.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public interface ContentCodec {
+	/**
+	 * Return the name of this coding as it appears in the {@code Content-Encoding} and
+	 * {@code Accept-Encoding} headers.
+	 *
+	 * @return the name of this coding. (lowercase)
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(pure = true)
+	String getName();
+
+	/**
+	 * Return true if this codec can encode. Some codecs are only capable of decoding.
+	 *
+	 * @return true, if {@link #encode(OutputStream)} is supported.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(pure = true)
+	default boolean canEncode() {
+		return true;
+	}
+
+	/**
+	 * Return a stream decoding the bytes read from the given {@code stream}. Closing the
+	 * returned stream closes the given stream.
+	 *
+	 * @param stream the encoded stream.
+	 * @return a stream of the decoded bytes.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @throws IOException          if any I/O exception occurs while reading the header
+	 *                              of the coding.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(value = "_->new", mutates = "param")
+	InputStream decode(@NotNull InputStream stream) throws IOException;
+
+	/**
+	 * Return a stream encoding the bytes written to it into the given {@code stream}.
+	 * Closing the returned stream finishes the coding and closes the given stream.
+	 *
+	 * @param stream the stream to write the encoded bytes to.
+	 * @return a stream encoding the bytes written to it.
+	 * @throws NullPointerException          if the given {@code stream} is null.
+	 * @throws UnsupportedOperationException if this codec cannot {@link #canEncode()
+	 *                                       encode}.
+	 * @throws IOException                   if any I/O exception occurs while writing the
+	 *                                       header of the coding.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(value = "_->new", mutates = "param")
+	OutputStream encode(@NotNull OutputStream stream) throws IOException;
+}
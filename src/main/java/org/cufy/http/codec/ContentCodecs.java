@@ -0,0 +1,348 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.codec;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The standard content codecs.
+ * <br>
+ * {@code gzip} and {@code deflate} are backed by {@code java.util.zip}. {@code zstd} and
+ * {@code br} have no JDK implementation. They are backed by the first library found in
+ * the classpath (if any) and are null otherwise:
+ * <ul>
+ *     <li>{@code zstd}: {@code com.github.luben:zstd-jni} or {@code io.airlift:aircompressor} (pure java)</li>
+ *     <li>{@code br}: {@code org.brotli:dec} (pure java, decoding only) or {@code com.aayushatharva.brotli4j:brotli4j}</li>
+ * </ul>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public final class ContentCodecs {
+	/**
+	 * The {@code gzip} coding.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	public static final ContentCodec GZIP = new ContentCodec() {
+		@NotNull
+		@Override
+		public String getName() {
+			return "gzip";
+		}
+
+		@NotNull
+		@Override
+		public InputStream decode(@NotNull InputStream stream) throws IOException {
+			Objects.requireNonNull(stream, "stream");
+			return new GZIPInputStream(stream, 8192);
+		}
+
+		@NotNull
+		@Override
+		public OutputStream encode(@NotNull OutputStream stream) throws IOException {
+			Objects.requireNonNull(stream, "stream");
+			return new GZIPOutputStream(stream, 8192);
+		}
+	};
+	/**
+	 * The {@code deflate} coding. (zlib wrapped deflate)
+	 * <br>
+	 * Some servers send raw deflate instead. So, the decoder accepts both.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	public static final ContentCodec DEFLATE = new ContentCodec() {
+		@NotNull
+		@Override
+		public String getName() {
+			return "deflate";
+		}
+
+		@NotNull
+		@Override
+		public InputStream decode(@NotNull InputStream stream) throws IOException {
+			Objects.requireNonNull(stream, "stream");
+			PushbackInputStream pushback = new PushbackInputStream(stream, 2);
+			byte[] header = new byte[2];
+			int length = 0;
+
+			while (length < 2) {
+				int read = pushback.read(header, length, 2 - length);
+
+				if (read < 0)
+					break;
+
+				length += read;
+			}
+
+			pushback.unread(header, 0, length);
+
+			//CMF (method 8) and FLG (CMF * 256 + FLG multiple of 31)
+			boolean zlib = length == 2 &&
+						   (header[0] & 0x0F) == 8 &&
+						   ((header[0] & 0xFF) << 8 | header[1] & 0xFF) % 31 == 0;
+			Inflater inflater = new Inflater(!zlib);
+
+			return new InflaterInputStream(pushback, inflater, 8192) {
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					} finally {
+						inflater.end();
+					}
+				}
+			};
+		}
+
+		@NotNull
+		@Override
+		public OutputStream encode(@NotNull OutputStream stream) {
+			Objects.requireNonNull(stream, "stream");
+			return new DeflaterOutputStream(stream);
+		}
+	};
+	/**
+	 * The {@code zstd} coding. (null if no implementation is in the classpath)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	public static final ContentCodec ZSTD = ContentCodecs.reflective(
+			"zstd",
+			new String[]{"com.github.luben.zstd.ZstdInputStream", "io.airlift.compress.zstd.ZstdInputStream"},
+			new String[]{"com.github.luben.zstd.ZstdOutputStream", "io.airlift.compress.zstd.ZstdOutputStream"}
+	);
+	/**
+	 * The {@code br} (brotli) coding. (null if no implementation is in the classpath)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	public static final ContentCodec BROTLI = ContentCodecs.reflective(
+			"br",
+			ContentCodecs.isBrotli4jAvailable() ?
+			new String[]{"org.brotli.dec.BrotliInputStream", "com.aayushatharva.brotli4j.decoder.BrotliInputStream"} :
+			new String[]{"org.brotli.dec.BrotliInputStream"},
+			ContentCodecs.isBrotli4jAvailable() ?
+			new String[]{"com.aayushatharva.brotli4j.encoder.BrotliOutputStream"} :
+			new String[0]
+	);
+
+	/**
+	 * The available codecs in the order of preference.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private static final List<@NotNull ContentCodec> AVAILABLE;
+
+	static {
+		List<ContentCodec> available = new ArrayList<>(4);
+
+		if (ContentCodecs.ZSTD != null)
+			available.add(ContentCodecs.ZSTD);
+		if (ContentCodecs.BROTLI != null)
+			available.add(ContentCodecs.BROTLI);
+
+		available.add(ContentCodecs.GZIP);
+		available.add(ContentCodecs.DEFLATE);
+		AVAILABLE = Collections.unmodifiableList(available);
+	}
+
+	/**
+	 * Utility classes must not be initialized.
+	 *
+	 * @throws AssertionError when called.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private ContentCodecs() {
+		throw new AssertionError("No instance for you!");
+	}
+
+	/**
+	 * Return the available codecs in the order of preference.
+	 *
+	 * @return an unmodifiable list of the available codecs.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public static List<@NotNull ContentCodec> available() {
+		return ContentCodecs.AVAILABLE;
+	}
+
+	/**
+	 * Return the available codec with the given {@code name}.
+	 *
+	 * @param name the name of the coding. (case-insensitive)
+	 * @return the codec. Or null if not available.
+	 * @throws NullPointerException if the given {@code name} is null.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	@Contract(pure = true)
+	public static ContentCodec get(@NotNull String name) {
+		Objects.requireNonNull(name, "name");
+		String lowercase = name.toLowerCase(Locale.ROOT);
+
+		//x-gzip is an alias (RFC 9110 section 8.4.1.3)
+		if (lowercase.equals("x-gzip"))
+			return ContentCodecs.GZIP;
+
+		for (ContentCodec codec : ContentCodecs.AVAILABLE)
+			if (codec.getName().equals(lowercase))
+				return codec;
+
+		return null;
+	}
+
+	/**
+	 * Return true if the native library of brotli4j is in the classpath and loads.
+	 *
+	 * @return true, if brotli4j is available.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(pure = true)
+	private static boolean isBrotli4jAvailable() {
+		try {
+			Class<?> loader = Class.forName("com.aayushatharva.brotli4j.Brotli4jLoader");
+			return Boolean.TRUE.equals(loader.getMethod("isAvailable").invoke(null));
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Return the constructor taking a parameter of the given {@code type} of the first
+	 * class of the given {@code classes} that can be loaded.
+	 *
+	 * @param classes the names of the candidate classes.
+	 * @param type    the type of the parameter.
+	 * @return the constructor. Or null if none.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	@Contract(pure = true)
+	private static Constructor<?> lookup(@NotNull String @NotNull [] classes, @NotNull Class<?> type) {
+		for (String name : classes)
+			try {
+				return Class.forName(name, true, ContentCodecs.class.getClassLoader())
+							.getConstructor(type);
+			} catch (ReflectiveOperationException | LinkageError ignored) {
+			}
+
+		return null;
+	}
+
+	/**
+	 * Construct a codec backed by the stream classes found in the classpath.
+	 *
+	 * @param name     the name of the coding.
+	 * @param decoders the names of the candidate decoding input stream classes.
+	 * @param encoders the names of the candidate encoding output stream classes.
+	 * @return the codec. Or null if no decoder is found.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	@Contract(pure = true)
+	private static ContentCodec reflective(@NotNull String name, @NotNull String @NotNull [] decoders, @NotNull String @NotNull [] encoders) {
+		Constructor<?> decoder = ContentCodecs.lookup(decoders, InputStream.class);
+		Constructor<?> encoder = ContentCodecs.lookup(encoders, OutputStream.class);
+
+		if (decoder == null)
+			return null;
+
+		return new ContentCodec() {
+			@Override
+			public boolean canEncode() {
+				return encoder != null;
+			}
+
+			@NotNull
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@NotNull
+			@Override
+			public InputStream decode(@NotNull InputStream stream) throws IOException {
+				Objects.requireNonNull(stream, "stream");
+				return (InputStream) ContentCodecs.newInstance(decoder, stream);
+			}
+
+			@NotNull
+			@Override
+			public OutputStream encode(@NotNull OutputStream stream) throws IOException {
+				Objects.requireNonNull(stream, "stream");
+				if (encoder == null)
+					throw new UnsupportedOperationException("No " + name + " encoder in the classpath");
+				return (OutputStream) ContentCodecs.newInstance(encoder, stream);
+			}
+		};
+	}
+
+	/**
+	 * Invoke the given {@code constructor} with the given {@code argument} and unwrap
+	 * any exception it throws.
+	 *
+	 * @param constructor the constructor.
+	 * @param argument    the argument.
+	 * @return the constructed instance.
+	 * @throws IOException if the constructor throws an I/O exception.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private static Object newInstance(@NotNull Constructor<?> constructor, @NotNull Object argument) throws IOException {
+		try {
+			return constructor.newInstance(argument);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+
+			throw new IOException(cause);
+		} catch (ReflectiveOperationException e) {
+			throw new InternalError(e);
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.codec;
+
+import org.cufy.http.Body;
+import org.cufy.http.body.BytesBody;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.Objects;
+
+/**
+ * A body encoding another body with a content codec on the fly.
+ * <br>
+ * The length of an encoded body is unknown. The content is encoded while being
+ * {@link #writeTo(OutputStream) written} without buffering it. Other operations (like
+ * {@link #openInputStream()} or {@link #toString()}) encode the whole content into
+ * memory first.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public class EncodedBody extends Body {
+	@SuppressWarnings("JavaDoc")
+	private static final long serialVersionUID = 4389712506153385409L;
+
+	/**
+	 * The encoded body.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final Body body;
+	/**
+	 * The codec.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final transient ContentCodec codec;
+
+	/**
+	 * Construct a new body encoding the given {@code body} with the given {@code codec}.
+	 *
+	 * @param codec the codec.
+	 * @param body  the body to be encoded.
+	 * @throws NullPointerException     if the given {@code codec} or {@code body} is
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given {@code codec} cannot encode.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public EncodedBody(@NotNull ContentCodec codec, @NotNull Body body) {
+		Objects.requireNonNull(codec, "codec");
+		Objects.requireNonNull(body, "body");
+		if (!codec.canEncode())
+			throw new IllegalArgumentException("Decoding only codec: " + codec.getName());
+		this.mime = body.getMime();
+		this.codec = codec;
+		this.body = body;
+	}
+
+	@NotNull
+	@Override
+	public EncodedBody clone() {
+		EncodedBody clone = new EncodedBody(this.codec, this.body.clone());
+		if (this.mime != null)
+			clone.mime = this.mime.clone();
+		return clone;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object object) {
+		if (object == this)
+			return true;
+		if (object instanceof EncodedBody) {
+			EncodedBody body = (EncodedBody) object;
+
+			return Objects.equals(this.mime, body.mime) &&
+				   this.codec.getName().equals(body.codec.getName()) &&
+				   this.body.equals(body.body);
+		}
+
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.codec.getName().hashCode() * 31 + this.body.hashCode();
+	}
+
+	/**
+	 * Encode the whole content into memory and return a stream over it.
+	 *
+	 * @return {@inheritDoc}
+	 * @throws IOError if any I/O exception occurs while encoding.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Override
+	public InputStream openInputStream() {
+		return new ByteArrayInputStream(this.encode());
+	}
+
+	/**
+	 * Return the encoded content as a string. This encodes the whole content into
+	 * memory.
+	 *
+	 * @return {@inheritDoc}
+	 * @throws IOError if any I/O exception occurs while encoding.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Override
+	public String toString() {
+		return new String(this.encode());
+	}
+
+	/**
+	 * Encode the content while writing it to the given {@code stream}. The given stream
+	 * is not closed.
+	 *
+	 * @param stream the output stream.
+	 * @throws IOException {@inheritDoc}
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Override
+	public void writeTo(@NotNull OutputStream stream) throws IOException {
+		Objects.requireNonNull(stream, "stream");
+		OutputStream shield = new FilterOutputStream(stream) {
+			@Override
+			public void write(byte @NotNull [] b, int off, int len) throws IOException {
+				this.out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				this.out.flush();
+			}
+		};
+
+		try (OutputStream encoder = this.codec.encode(shield)) {
+			this.body.writeTo(encoder);
+		}
+	}
+
+	/**
+	 * Return the encoded body.
+	 *
+	 * @return the encoded body.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Body getBody() {
+		return this.body;
+	}
+
+	/**
+	 * Return the codec.
+	 *
+	 * @return the codec.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public ContentCodec getCodec() {
+		return this.codec;
+	}
+
+	/**
+	 * Encode the whole content into memory.
+	 *
+	 * @return the encoded bytes.
+	 * @throws IOError if any I/O exception occurs while encoding.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private byte @NotNull [] encode() {
+		try {
+			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			this.writeTo(stream);
+			return stream.toByteArray();
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+	}
+
+	/**
+	 * Codecs are not serializable. So, the encoded content is serialized instead.
+	 *
+	 * @return a bytes body with the encoded content.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private Object writeReplace() {
+		return new BytesBody(this.mime, this.encode());
+	}
+}
@@ -0,0 +1,375 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.codec;
+
+import org.cufy.http.*;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.client.ClientEngine;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.pipeline.Next;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An engine wrapping another engine and negotiating content codings transparently.
+ * <ul>
+ *     <li>The requests without an {@code Accept-Encoding} header get one advertising
+ *     the codecs of this engine.</li>
+ *     <li>The responses encoded with the codecs of this engine are decoded as a stream
+ *     while being read. The {@code Content-Encoding} and {@code Content-Length} headers
+ *     are removed from them. Responses encoded with an unknown coding are left
+ *     untouched.</li>
+ *     <li>The request bodies not shorter than the threshold (or with an unknown length)
+ *     are encoded with the request codec (if any) while being written.</li>
+ * </ul>
+ * <pre>
+ *     req.engine(e -&gt; new EncodingEngine(e, ContentCodecs.GZIP, 1024))
+ * </pre>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public class EncodingEngine implements ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> {
+	/**
+	 * The value of the {@code Accept-Encoding} header.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final String accept;
+	/**
+	 * The codecs to be accepted.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final List<@NotNull ContentCodec> codecs;
+	/**
+	 * The wrapped engine.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine;
+	/**
+	 * The codec to encode the request bodies with. (null to not encode)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	protected final ContentCodec requestCodec;
+	/**
+	 * The minimum length of the request bodies to be encoded.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	protected final long threshold;
+
+	/**
+	 * Construct a new engine accepting the {@link ContentCodecs#available() available}
+	 * codecs and not encoding the request bodies.
+	 *
+	 * @param engine the engine to be wrapped.
+	 * @throws NullPointerException if the given {@code engine} is null.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public EncodingEngine(@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine) {
+		this(engine, null, 0);
+	}
+
+	/**
+	 * Construct a new engine accepting the {@link ContentCodecs#available() available}
+	 * codecs and encoding the request bodies with the given {@code requestCodec}.
+	 *
+	 * @param engine       the engine to be wrapped.
+	 * @param requestCodec the codec to encode the request bodies with. (null to not
+	 *                     encode)
+	 * @param threshold    the minimum length of the request bodies to be encoded.
+	 * @throws NullPointerException     if the given {@code engine} is null.
+	 * @throws IllegalArgumentException if the given {@code threshold} is negative or the
+	 *                                  given {@code requestCodec} cannot encode.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public EncodingEngine(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@Nullable ContentCodec requestCodec,
+			@Range(from = 0, to = Long.MAX_VALUE) long threshold
+	) {
+		this(engine, requestCodec, threshold, ContentCodecs.available());
+	}
+
+	/**
+	 * Construct a new engine accepting the given {@code codecs} and encoding the request
+	 * bodies with the given {@code requestCodec}.
+	 *
+	 * @param engine       the engine to be wrapped.
+	 * @param requestCodec the codec to encode the request bodies with. (null to not
+	 *                     encode)
+	 * @param threshold    the minimum length of the request bodies to be encoded.
+	 * @param codecs       the codecs to be accepted in the order of preference.
+	 * @throws NullPointerException     if the given {@code engine} or {@code codecs} is
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given {@code threshold} is negative or the
+	 *                                  given {@code requestCodec} cannot encode.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public EncodingEngine(
+			@NotNull ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine,
+			@Nullable ContentCodec requestCodec,
+			@Range(from = 0, to = Long.MAX_VALUE) long threshold,
+			@NotNull List<@NotNull ContentCodec> codecs
+	) {
+		Objects.requireNonNull(engine, "engine");
+		Objects.requireNonNull(codecs, "codecs");
+		if (threshold < 0)
+			throw new IllegalArgumentException("threshold: " + threshold);
+		if (requestCodec != null && !requestCodec.canEncode())
+			throw new IllegalArgumentException("Decoding only codec: " + requestCodec.getName());
+		StringBuilder accept = new StringBuilder();
+
+		for (ContentCodec codec : codecs) {
+			Objects.requireNonNull(codec, "codecs[]");
+
+			if (accept.length() != 0)
+				accept.append(", ");
+
+			accept.append(codec.getName());
+		}
+
+		this.engine = engine;
+		this.requestCodec = requestCodec;
+		this.threshold = threshold;
+		this.codecs = Collections.unmodifiableList(new ArrayList<>(codecs));
+		this.accept = accept.toString();
+	}
+
+	@Override
+	public void connect(@NotNull ClientRequestContext<? extends Endpoint> input, @NotNull Next<ClientResponseContext<? extends Endpoint>> next) throws Throwable {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(next, "next");
+		Request request = input.request();
+		Headers headers = request.getHeaders();
+		Body body = request.getBody();
+
+		if (!this.accept.isEmpty() && headers.get(Headers.ACCEPT_ENCODING) == null)
+			headers.put(Headers.ACCEPT_ENCODING, this.accept);
+
+		if (this.requestCodec != null && body != null && !(body instanceof EncodedBody) &&
+			headers.get(Headers.CONTENT_ENCODING) == null) {
+			long length = body.getContentLength();
+
+			if (length < 0 || length >= this.threshold) {
+				request.setBody(new EncodedBody(this.requestCodec, body));
+				headers.put(Headers.CONTENT_ENCODING, this.requestCodec.getName());
+				headers.remove(Headers.CONTENT_LENGTH);
+			}
+		}
+
+		this.engine.connect(input, error -> {
+			if (error == null)
+				this.decode(input.res().response());
+
+			next.invoke(error);
+		});
+	}
+
+	/**
+	 * Replace the body of the given {@code response} with a body decoding it (if it was
+	 * encoded with the codecs of this engine).
+	 *
+	 * @param response the response.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(mutates = "param")
+	protected void decode(@NotNull Response response) {
+		Headers headers = response.getHeaders();
+		Body body = response.getBody();
+
+		if (body == null || body.getContentLength() == 0)
+			return;
+
+		List<ContentCodec> codecs = new ArrayList<>(2);
+
+		for (String value : headers.getAll(Headers.CONTENT_ENCODING))
+			for (String coding : value.split(",")) {
+				String name = coding.trim();
+
+				if (name.isEmpty() || name.equalsIgnoreCase("identity"))
+					continue;
+
+				ContentCodec codec = this.codec(name);
+
+				if (codec == null)
+					return;
+
+				codecs.add(codec);
+			}
+
+		if (codecs.isEmpty())
+			return;
+
+		response.setBody(new StreamBody(body.getMime(), Body.UNKNOWN_LENGTH, new DecodingInputStream(body, codecs)));
+		headers.remove(Headers.CONTENT_ENCODING);
+		headers.remove(Headers.CONTENT_LENGTH);
+	}
+
+	/**
+	 * Return the codec of this engine with the given {@code name}.
+	 *
+	 * @param name the name of the coding. (case-insensitive)
+	 * @return the codec. Or null if this engine does not accept the coding.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	@Contract(pure = true)
+	private ContentCodec codec(@NotNull String name) {
+		String normal = name.equalsIgnoreCase("x-gzip") ? "gzip" : name;
+
+		for (ContentCodec codec : this.codecs)
+			if (codec.getName().equalsIgnoreCase(normal))
+				return codec;
+
+		return null;
+	}
+
+	/**
+	 * A stream decoding a body. The decoders are created on the first read, so a body
+	 * that is never read is never decoded.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static final class DecodingInputStream extends InputStream {
+		/**
+		 * The encoded body.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final Body body;
+		/**
+		 * The codecs in the order they were applied.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final List<@NotNull ContentCodec> codecs;
+
+		/**
+		 * True, if this stream was closed.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private boolean closed;
+		/**
+		 * The decoding stream. (null if not opened yet)
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@Nullable
+		private InputStream stream;
+
+		/**
+		 * Construct a new stream decoding the given {@code body}.
+		 *
+		 * @param body   the encoded body.
+		 * @param codecs the codecs in the order they were applied.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private DecodingInputStream(@NotNull Body body, @NotNull List<@NotNull ContentCodec> codecs) {
+			this.body = body;
+			this.codecs = codecs;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return this.open().available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed)
+				return;
+
+			this.closed = true;
+
+			if (this.stream != null)
+				this.stream.close();
+			else if (this.body instanceof Closeable)
+				((Closeable) this.body).close();
+		}
+
+		@Override
+		public int read() throws IOException {
+			return this.open().read();
+		}
+
+		@Override
+		public int read(byte @NotNull [] b, int off, int len) throws IOException {
+			return this.open().read(b, off, len);
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			return this.open().skip(n);
+		}
+
+		/**
+		 * Return the decoding stream, opening it if not opened yet.
+		 *
+		 * @return the decoding stream.
+		 * @throws IOException if this stream was closed or any I/O exception occurs while
+		 *                     opening the decoders.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private InputStream open() throws IOException {
+			if (this.closed)
+				throw new IOException("Stream closed");
+			if (this.stream != null)
+				return this.stream;
+
+			InputStream stream = this.body.openInputStream();
+
+			try {
+				for (int i = this.codecs.size() - 1; i >= 0; i--)
+					stream = this.codecs.get(i).decode(stream);
+			} catch (IOException | RuntimeException e) {
+				try {
+					stream.close();
+				} catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+
+				throw e;
+			}
+
+			this.stream = stream;
+			return stream;
+		}
+	}
+}
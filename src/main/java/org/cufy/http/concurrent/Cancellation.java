@@ -0,0 +1,135 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.concurrent;
+
+import org.cufy.http.wrapper.ExtrasWrapper;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A thread-safe cancellation signal engines can register hooks to. (like cancelling the
+ * underlying call)
+ * <br>
+ * An asynchronous caller puts a cancellation in the {@link #EXTRA extras} of the context
+ * before connecting. Engines supporting cancellation {@link #of(ExtrasWrapper) look it
+ * up} and {@link #register(Runnable) register} a hook to it. Each hook is invoked exactly
+ * once; immediately if registered after the cancellation.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public final class Cancellation {
+	/**
+	 * The name of the extra holding the cancellation of a context.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	public static final String EXTRA = "cancellation";
+
+	/**
+	 * The updater of the state.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private static final AtomicIntegerFieldUpdater<Cancellation> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(Cancellation.class, "state");
+
+	/**
+	 * The hooks not invoked yet.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private final Queue<Runnable> hooks = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * 1 if cancelled. 0 otherwise.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private volatile int state;
+
+	/**
+	 * Return the cancellation in the extras of the given {@code context}.
+	 *
+	 * @param context the context.
+	 * @return the cancellation of the context. Or null if none.
+	 * @throws NullPointerException if the given {@code context} is null.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	@Contract(pure = true)
+	public static Cancellation of(@NotNull ExtrasWrapper<?> context) {
+		Objects.requireNonNull(context, "context");
+		Object extra = context.extra(Cancellation.EXTRA);
+		return extra instanceof Cancellation ? (Cancellation) extra : null;
+	}
+
+	/**
+	 * Cancel and invoke the registered hooks.
+	 *
+	 * @return true, if this invocation cancelled. False, if already cancelled.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(mutates = "this")
+	public boolean cancel() {
+		if (!Cancellation.STATE.compareAndSet(this, 0, 1))
+			return false;
+
+		for (Runnable hook = this.hooks.poll(); hook != null; hook = this.hooks.poll())
+			hook.run();
+
+		return true;
+	}
+
+	/**
+	 * Return true if cancelled.
+	 *
+	 * @return true, if cancelled.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(pure = true)
+	public boolean isCancelled() {
+		return this.state != 0;
+	}
+
+	/**
+	 * Register the given {@code hook} to be invoked when cancelled. If already cancelled,
+	 * the hook is invoked immediately.
+	 *
+	 * @param hook the hook.
+	 * @throws NullPointerException if the given {@code hook} is null.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(mutates = "this")
+	public void register(@NotNull Runnable hook) {
+		Objects.requireNonNull(hook, "hook");
+		this.hooks.add(hook);
+
+		//cancelled while registering, whoever removes it invokes it
+		if (this.state != 0 && this.hooks.remove(hook))
+			hook.run();
+	}
+}
@@ -0,0 +1,349 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.concurrent;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * A performer implementation that runs the blocks on an executor.
+ * <br>
+ * This performer does not wait. The caller is released as soon as the block is handed to
+ * the executor (or queued) and the outcome is delivered through the callbacks of the
+ * block. (like the {@code next} of a client pipeline) This allows fanning out many calls
+ * from a single thread.
+ * <br>
+ * The number of blocks running concurrently can be capped. A block is considered running
+ * from the moment it is handed to the executor until its callback is invoked. The blocks
+ * exceeding the cap wait in a queue bounded by a maximum depth. A block exceeding the
+ * maximum depth is rejected immediately with a {@link RejectedExecutionException}. A
+ * block rejected by the executor while being given to this performer is rejected the
+ * same way. A queued block rejected by the executor when a permit is released is run on
+ * the releasing thread as a last resort, so that an accepted block is never dropped.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public class ExecutorPerformer extends Performer {
+	/**
+	 * The executor to run the blocks on.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	protected final Executor executor;
+	/**
+	 * The maximum number of blocks waiting for a permit.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	protected final int maxQueue;
+
+	/**
+	 * The permits of running blocks.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private final Semaphore permits;
+	/**
+	 * The blocks waiting for a permit.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private final Deque<Job> queue = new ConcurrentLinkedDeque<>();
+	/**
+	 * The number of blocks in the queue. (including the ones being enqueued)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private final AtomicInteger queued = new AtomicInteger();
+	/**
+	 * Set on the threads running a rejected block of this performer.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	private final ThreadLocal<Boolean> inline = new ThreadLocal<>();
+
+	/**
+	 * Construct a new performer running the blocks on the given {@code executor} with no
+	 * concurrency cap.
+	 *
+	 * @param executor the executor to run the blocks on.
+	 * @throws NullPointerException if the given {@code executor} is null.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public ExecutorPerformer(@NotNull Executor executor) {
+		this(executor, Integer.MAX_VALUE, 0);
+	}
+
+	/**
+	 * Construct a new performer running the blocks on the given {@code executor}.
+	 *
+	 * @param executor       the executor to run the blocks on.
+	 * @param maxConcurrency the maximum number of blocks running concurrently.
+	 * @param maxQueue       the maximum number of blocks waiting for others to finish.
+	 *                       (0 to reject immediately when the cap is reached)
+	 * @throws NullPointerException     if the given {@code executor} is null.
+	 * @throws IllegalArgumentException if the given {@code maxConcurrency} is not
+	 *                                  positive or the given {@code maxQueue} is
+	 *                                  negative.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public ExecutorPerformer(
+			@NotNull Executor executor,
+			@Range(from = 1, to = Integer.MAX_VALUE) int maxConcurrency,
+			@Range(from = 0, to = Integer.MAX_VALUE) int maxQueue
+	) {
+		Objects.requireNonNull(executor, "executor");
+		if (maxConcurrency <= 0)
+			throw new IllegalArgumentException("maxConcurrency: " + maxConcurrency);
+		if (maxQueue < 0)
+			throw new IllegalArgumentException("maxQueue: " + maxQueue);
+		this.executor = executor;
+		this.maxQueue = maxQueue;
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	/**
+	 * Hand the given {@code block} to the executor (or queue it) and return immediately.
+	 *
+	 * @param block            {@inheritDoc}
+	 * @param callbackConsumer {@inheritDoc}
+	 * @throws NullPointerException       {@inheritDoc}
+	 * @throws RejectedExecutionException if the concurrency cap is reached and the queue
+	 *                                    is full, or the executor rejected the block.
+	 *                                    (the callback given is then completed)
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Override
+	public void execute(@NotNull Runnable block, @NotNull Consumer<@NotNull Runnable> callbackConsumer) {
+		Objects.requireNonNull(block, "block");
+		Objects.requireNonNull(callbackConsumer, "callbackConsumer");
+		Job job = new Job(this, block);
+		callbackConsumer.accept(job::complete);
+
+		if (this.queue.isEmpty() && this.permits.tryAcquire()) {
+			try {
+				this.executor.execute(job);
+			} catch (RuntimeException | Error e) {
+				job.complete();
+				throw e;
+			}
+
+			return;
+		}
+
+		if (this.queued.incrementAndGet() > this.maxQueue) {
+			this.queued.decrementAndGet();
+			//it never held a permit
+			job.completed = 1;
+			throw new RejectedExecutionException("Performer saturated");
+		}
+
+		this.queue.add(job);
+		//a permit might have been released while enqueuing
+		this.drain(job);
+	}
+
+	/**
+	 * Return the number of blocks waiting for a permit.
+	 *
+	 * @return the number of queued blocks.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(pure = true)
+	public int getQueued() {
+		return this.queue.size();
+	}
+
+	/**
+	 * Hand the queued blocks to the executor while permits are available. The blocks
+	 * rejected by the executor (other than the given {@code submitted} job) are run on the
+	 * current thread instead.
+	 *
+	 * @param submitted the job being given to this performer. (null when releasing)
+	 * @throws RejectedExecutionException if the executor rejected the given {@code
+	 *                                    submitted} job.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private void drain(@Nullable Job submitted) {
+		RejectedExecutionException rejection = null;
+
+		while (!this.queue.isEmpty() && this.permits.tryAcquire()) {
+			Job job = this.queue.poll();
+
+			if (job == null) {
+				this.permits.release();
+				continue;
+			}
+
+			this.queued.decrementAndGet();
+
+			try {
+				this.executor.execute(job);
+			} catch (RejectedExecutionException e) {
+				if (job == submitted) {
+					//its submitter is told instead
+					job.abandon();
+					rejection = e;
+					continue;
+				}
+				if (this.inline.get() != null) {
+					//a rejected block is running below; its loop will pick this up
+					this.queue.addFirst(job);
+					this.queued.incrementAndGet();
+					this.permits.release();
+					break;
+				}
+
+				this.runInline(job);
+			}
+		}
+
+		if (rejection != null)
+			throw rejection;
+	}
+
+	/**
+	 * Run the given rejected {@code job} on the current thread. A failure of the block is
+	 * reported to the uncaught exception handler of the current thread, as the executor
+	 * would have done.
+	 *
+	 * @param job the job to run.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private void runInline(@NotNull Job job) {
+		this.inline.set(Boolean.TRUE);
+
+		try {
+			job.run();
+		} catch (RuntimeException e) {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+		} finally {
+			this.inline.remove();
+		}
+	}
+
+	/**
+	 * Release a permit and hand the next queued block (if any) to the executor.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private void release() {
+		this.permits.release();
+		this.drain(null);
+	}
+
+	/**
+	 * A block and its completion state.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static final class Job implements Runnable {
+		/**
+		 * The updater of the completion state.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private static final AtomicIntegerFieldUpdater<Job> COMPLETED =
+				AtomicIntegerFieldUpdater.newUpdater(Job.class, "completed");
+
+		/**
+		 * The block.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final Runnable block;
+		/**
+		 * The performer of this job.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final ExecutorPerformer performer;
+
+		/**
+		 * 1 if completed. 0 otherwise.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private volatile int completed;
+
+		/**
+		 * Construct a new job for the given {@code block}.
+		 *
+		 * @param performer the performer of the job.
+		 * @param block     the block.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private Job(@NotNull ExecutorPerformer performer, @NotNull Runnable block) {
+			this.performer = performer;
+			this.block = block;
+		}
+
+		@Override
+		public void run() {
+			try {
+				this.block.run();
+			} catch (RuntimeException | Error e) {
+				//the callback will never be invoked
+				this.complete();
+				throw e;
+			}
+		}
+
+		/**
+		 * Complete this job without running it and without draining the queue. (no
+		 * effect if already completed)
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private void abandon() {
+			if (Job.COMPLETED.compareAndSet(this, 0, 1))
+				this.performer.permits.release();
+		}
+
+		/**
+		 * Release the permit of this job. (only the first invocation has an effect)
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private void complete() {
+			if (Job.COMPLETED.compareAndSet(this, 0, 1))
+				this.performer.release();
+		}
+	}
+}
@@ -0,0 +1,244 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.concurrent;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A performer implementation that blocks the caller using {@link LockSupport#park()}.
+ * <br>
+ * The caller spins briefly before parking. So, a callback invoked by a fast (local)
+ * engine shortly after the block returns does not cost a park and unpark. Parking does
+ * not pin virtual threads like {@code synchronized} does.
+ * <br>
+ * Unlike {@link Performer#WAIT}, waiting is interruptible and can be bounded by a
+ * timeout. When the waiting thread is interrupted or the timeout elapses before the
+ * callback is invoked, the performer stops waiting and throws a {@link
+ * CancellationException} (keeping the interrupt status). A callback invoked after that is
+ * ignored.
+ * <br>
+ * Each invocation allocates a single signal object that is also the callback.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public class ParkPerformer extends Performer {
+	/**
+	 * The default number of spins before parking on a multiprocessor. (no spins on a
+	 * uniprocessor)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public static final int DEFAULT_SPINS = 256;
+
+	/**
+	 * The number of spins before parking.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	protected final int spins;
+	/**
+	 * The maximum time to wait in nanoseconds. (0 for no limit)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	protected final long timeout;
+
+	/**
+	 * Construct a new performer with the {@link #DEFAULT_SPINS default spins} (none on a
+	 * uniprocessor) and no timeout.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public ParkPerformer() {
+		//a constant; Performer.PARK is constructed while this class may still be initialising
+		this(Runtime.getRuntime().availableProcessors() > 1 ? ParkPerformer.DEFAULT_SPINS : 0, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Construct a new performer with the given parameters.
+	 *
+	 * @param spins   the number of spins before parking.
+	 * @param timeout the maximum time to wait. (0 for no limit)
+	 * @param unit    the unit of the timeout.
+	 * @throws NullPointerException     if the given {@code unit} is null.
+	 * @throws IllegalArgumentException if the given {@code spins} or {@code timeout} is
+	 *                                  negative.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public ParkPerformer(@Range(from = 0, to = Integer.MAX_VALUE) int spins, @Range(from = 0, to = Long.MAX_VALUE) long timeout, @NotNull TimeUnit unit) {
+		Objects.requireNonNull(unit, "unit");
+		if (spins < 0)
+			throw new IllegalArgumentException("spins: " + spins);
+		if (timeout < 0)
+			throw new IllegalArgumentException("timeout: " + timeout);
+		this.spins = spins;
+		this.timeout = unit.toNanos(timeout);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param block {@inheritDoc}
+	 * @throws NullPointerException  {@inheritDoc}
+	 * @throws CancellationException if interrupted or timed out while waiting.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Override
+	public void execute(@NotNull Consumer<@NotNull Runnable> block) {
+		Objects.requireNonNull(block, "block");
+		Signal signal = new Signal(Thread.currentThread());
+		block.accept(signal);
+		this.await(signal);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @param block            {@inheritDoc}
+	 * @param callbackConsumer {@inheritDoc}
+	 * @throws NullPointerException  {@inheritDoc}
+	 * @throws CancellationException if interrupted or timed out while waiting.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Override
+	public void execute(@NotNull Runnable block, @NotNull Consumer<@NotNull Runnable> callbackConsumer) {
+		Objects.requireNonNull(block, "block");
+		Objects.requireNonNull(callbackConsumer, "callbackConsumer");
+		Signal signal = new Signal(Thread.currentThread());
+		callbackConsumer.accept(signal);
+		block.run();
+		this.await(signal);
+	}
+
+	/**
+	 * Block the current thread until the given {@code signal} is invoked.
+	 *
+	 * @param signal the signal to wait for.
+	 * @throws CancellationException if interrupted or timed out while waiting.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(mutates = "param")
+	private void await(@NotNull Signal signal) {
+		for (int i = this.spins; i > 0; i--)
+			if (signal.state != Signal.WAITING)
+				return;
+
+		long deadline = this.timeout == 0 ? 0 : System.nanoTime() + this.timeout;
+
+		while (signal.state == Signal.WAITING) {
+			if (Thread.interrupted()) {
+				Thread.currentThread().interrupt();
+
+				if (Signal.STATE.compareAndSet(signal, Signal.WAITING, Signal.ABANDONED))
+					throw new CancellationException("Interrupted while waiting");
+
+				return;
+			}
+
+			if (this.timeout == 0)
+				LockSupport.park(this);
+			else {
+				long remaining = deadline - System.nanoTime();
+
+				if (remaining <= 0) {
+					if (Signal.STATE.compareAndSet(signal, Signal.WAITING, Signal.ABANDONED))
+						throw new CancellationException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(this.timeout) + "ms");
+
+					return;
+				}
+
+				LockSupport.parkNanos(this, remaining);
+			}
+		}
+	}
+
+	/**
+	 * The state of a single execution. Invoking it completes the execution.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	private static final class Signal implements Runnable {
+		/**
+		 * The callback was invoked.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private static final int COMPLETED = 1;
+		/**
+		 * The waiting thread gave up.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private static final int ABANDONED = 2;
+		/**
+		 * The callback was not invoked yet.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private static final int WAITING = 0;
+
+		/**
+		 * The updater of the state.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private static final AtomicIntegerFieldUpdater<Signal> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Signal.class, "state");
+
+		/**
+		 * The waiting thread.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		@NotNull
+		private final Thread thread;
+
+		/**
+		 * The state.
+		 *
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private volatile int state;
+
+		/**
+		 * Construct a new signal for the given waiting {@code thread}.
+		 *
+		 * @param thread the waiting thread.
+		 * @since 1.0.0 ~2022.02.05
+		 */
+		private Signal(@NotNull Thread thread) {
+			this.thread = thread;
+		}
+
+		@Override
+		public void run() {
+			if (Signal.STATE.compareAndSet(this, Signal.WAITING, Signal.COMPLETED))
+				LockSupport.unpark(this.thread);
+		}
+	}
+}
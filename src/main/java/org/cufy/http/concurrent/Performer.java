@@ -62,6 +62,14 @@ public abstract class Performer {
 			}
 		}
 	};
+	/**
+	 * A performer implementation that parks the caller (without locks) until the callback
+	 * is invoked. Waiting is interruptible.
+	 *
+	 * @see ParkPerformer
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public static final Performer PARK = new ParkPerformer();
 
 	/**
 	 * Invoke the given {@code block} with a callback to be invoked when the operation is
@@ -0,0 +1,131 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.concurrent;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A performer implementation that starts a new virtual thread for each block.
+ * <br>
+ * Virtual threads are only available on Java 21+. On older runtimes, the constructors
+ * throw an {@link UnsupportedOperationException} instead of falling back to an unbounded
+ * number of platform threads. (see {@link #isSupported()}) Use an {@link
+ * ExecutorPerformer} with an explicit executor there.
+ * <br>
+ * Like {@link ExecutorPerformer}, this performer does not wait and can cap the number of
+ * blocks running concurrently.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.05
+ */
+public class VirtualThreadPerformer extends ExecutorPerformer {
+	/**
+	 * The factory of virtual threads. (null if not supported)
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	private static final ThreadFactory FACTORY = VirtualThreadPerformer.lookupFactory();
+
+	/**
+	 * Construct a new performer with no concurrency cap.
+	 *
+	 * @throws UnsupportedOperationException if the runtime does not support virtual
+	 *                                       threads.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public VirtualThreadPerformer() {
+		super(VirtualThreadPerformer.executor());
+	}
+
+	/**
+	 * Construct a new performer with the given concurrency cap.
+	 *
+	 * @param maxConcurrency the maximum number of blocks running concurrently.
+	 * @param maxQueue       the maximum number of blocks waiting for others to finish.
+	 *                       (0 to reject immediately when the cap is reached)
+	 * @throws IllegalArgumentException      if the given {@code maxConcurrency} is not
+	 *                                       positive or the given {@code maxQueue} is
+	 *                                       negative.
+	 * @throws UnsupportedOperationException if the runtime does not support virtual
+	 *                                       threads.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	public VirtualThreadPerformer(
+			@Range(from = 1, to = Integer.MAX_VALUE) int maxConcurrency,
+			@Range(from = 0, to = Integer.MAX_VALUE) int maxQueue
+	) {
+		super(VirtualThreadPerformer.executor(), maxConcurrency, maxQueue);
+	}
+
+	/**
+	 * Return true if the runtime supports virtual threads.
+	 *
+	 * @return true, if blocks run on virtual threads.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(pure = true)
+	public static boolean isSupported() {
+		return VirtualThreadPerformer.FACTORY != null;
+	}
+
+	/**
+	 * Return an executor starting a new virtual thread for each block.
+	 *
+	 * @return the executor.
+	 * @throws UnsupportedOperationException if the runtime does not support virtual
+	 *                                       threads.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static Executor executor() {
+		ThreadFactory factory = VirtualThreadPerformer.FACTORY;
+
+		if (factory == null)
+			throw new UnsupportedOperationException("Virtual threads require Java 21+");
+
+		return runnable -> factory.newThread(runnable).start();
+	}
+
+	/**
+	 * Lookup the factory of virtual threads.
+	 *
+	 * @return the factory. Or null if not supported.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Nullable
+	@Contract(pure = true)
+	private static ThreadFactory lookupFactory() {
+		try {
+			//java 21+
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> type = Class.forName("java.lang.Thread$Builder");
+			builder = type.getMethod("name", String.class, long.class)
+						  .invoke(builder, "VirtualThreadPerformer-", 0L);
+			return (ThreadFactory) type.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException ignored) {
+			return null;
+		}
+	}
+}
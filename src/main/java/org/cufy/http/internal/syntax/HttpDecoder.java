@@ -0,0 +1,903 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.internal.syntax;
+
+import org.cufy.http.Body;
+import org.cufy.http.Headers;
+import org.cufy.http.RequestLine;
+import org.cufy.http.StatusLine;
+import org.cufy.http.uri.Uri;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A resumable decoder of http/1.1 messages. The decoder is fed partial reads (in any
+ * size) and reports what it has decoded through the events {@link #HEAD}, {@link
+ * #CONTENT} and {@link #END}. After {@link #END}, the next invocation of {@link
+ * #decode(ByteBuffer)} starts decoding the next message on the same connection.
+ * <br>
+ * The body is framed by {@code Transfer-Encoding: chunked}, {@code Content-Length} or
+ * (responses only) the end of the input. Chunked bodies are de-chunked and their trailers
+ * are appended to the headers. The content is never copied: each {@link #CONTENT} event
+ * exposes a view of the fed buffer.
+ * <pre>
+ *     while (true) {
+ *         int event = decoder.decode(buffer);
+ *
+ *         if (event == HttpDecoder.NEED_INPUT) {
+ *             //compact then read more into the buffer
+ *         } else if (event == HttpDecoder.HEAD) {
+ *             //decoder.getRequestLine() and decoder.getHeaders()
+ *         } else if (event == HttpDecoder.CONTENT) {
+ *             //decoder.getContent()
+ *         } else if (event == HttpDecoder.END) {
+ *             //the message is complete
+ *         }
+ *     }
+ * </pre>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.30
+ */
+@ApiStatus.Internal
+public final class HttpDecoder {
+	/**
+	 * The event of a part of the body being available at {@link #getContent()}.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	public static final int CONTENT = 2;
+	/**
+	 * The event of the current message being completely decoded.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	public static final int END = 3;
+	/**
+	 * The event of the start-line and the headers being decoded.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	public static final int HEAD = 1;
+	/**
+	 * The event of all the given input being consumed without completing anything.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	public static final int NEED_INPUT = 0;
+
+	/**
+	 * Reading the line ending a chunk.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_CHUNK_END = 6;
+	/**
+	 * Reading the data of a chunk.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_CHUNK_DATA = 5;
+	/**
+	 * Reading the size line of a chunk.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_CHUNK_SIZE = 4;
+	/**
+	 * Reading a body delimited by the end of the input.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_CLOSE = 8;
+	/**
+	 * The message has no (more) body. The next event is {@link #END}.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_EMPTY = 9;
+	/**
+	 * Reading the header lines.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_HEADER = 2;
+	/**
+	 * Reading a body with a known length.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_LENGTH = 3;
+	/**
+	 * Reading the start-line. (skipping leading empty lines)
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_START = 1;
+	/**
+	 * Reading the trailer lines of a chunked body.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private static final int S_TRAILER = 7;
+
+	/**
+	 * The line being read.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	private final StringBuilder line = new StringBuilder();
+	/**
+	 * The maximum length of the body of a message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private final long maxContentLength;
+	/**
+	 * The maximum total length of the start-line, the headers and the trailers of a
+	 * message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private final int maxHeadLength;
+	/**
+	 * The maximum length of a single line.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private final int maxLineLength;
+	/**
+	 * True, if decoding responses. False, if decoding requests.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private final boolean response;
+
+	/**
+	 * The current content view.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	private ByteBuffer content;
+	/**
+	 * The declared content length of the current message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private long contentLength;
+	/**
+	 * The number of bytes of the body of the current message decoded so far.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private long contentRead;
+	/**
+	 * The name of the last field. (not appended yet, waiting for folded lines)
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	private String fieldName;
+	/**
+	 * The value of the last field.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	private String fieldValue;
+	/**
+	 * The total length of the head lines of the current message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private int headLength;
+	/**
+	 * The headers of the current message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	private Headers headers;
+	/**
+	 * The number of bytes remaining in the current chunk or body.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private long remaining;
+	/**
+	 * The request-line of the current message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	private RequestLine requestLine;
+	/**
+	 * If the current message has started (at least a byte of its start-line was read).
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private boolean started;
+	/**
+	 * The current state.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	private int state = HttpDecoder.S_START;
+	/**
+	 * The status-line of the current message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	private StatusLine statusLine;
+
+	/**
+	 * Construct a new decoder with the default limits. (8K per line, 64K per head and no
+	 * limit for the body)
+	 *
+	 * @param response true, to decode responses. False, to decode requests.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	public HttpDecoder(boolean response) {
+		this(response, 8192, 65536, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Construct a new decoder with the given limits.
+	 *
+	 * @param response         true, to decode responses. False, to decode requests.
+	 * @param maxLineLength    the maximum length of a single line. (start-line, header or
+	 *                         chunk-size line)
+	 * @param maxHeadLength    the maximum total length of the start-line, the headers and
+	 *                         the trailers of a message.
+	 * @param maxContentLength the maximum length of the body of a message.
+	 * @throws IllegalArgumentException if any of the given limits is not positive.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	public HttpDecoder(
+			boolean response,
+			@Range(from = 1, to = Integer.MAX_VALUE) int maxLineLength,
+			@Range(from = 1, to = Integer.MAX_VALUE) int maxHeadLength,
+			@Range(from = 1, to = Long.MAX_VALUE) long maxContentLength
+	) {
+		if (maxLineLength <= 0)
+			throw new IllegalArgumentException("maxLineLength: " + maxLineLength);
+		if (maxHeadLength <= 0)
+			throw new IllegalArgumentException("maxHeadLength: " + maxHeadLength);
+		if (maxContentLength <= 0)
+			throw new IllegalArgumentException("maxContentLength: " + maxContentLength);
+		this.response = response;
+		this.maxLineLength = maxLineLength;
+		this.maxHeadLength = maxHeadLength;
+		this.maxContentLength = maxContentLength;
+	}
+
+	/**
+	 * Decode from the given {@code input} until an event occurs. The consumed bytes are
+	 * skipped (the position of the given buffer is advanced). Partial lines are kept
+	 * internally, so the consumed bytes can be discarded.
+	 *
+	 * @param input the input to decode from.
+	 * @return the event. ({@link #NEED_INPUT}, {@link #HEAD}, {@link #CONTENT} or {@link
+	 *        #END})
+	 * @throws NullPointerException if the given {@code input} is null.
+	 * @throws ProtocolException    if the input is not a valid message or a limit was
+	 *                              exceeded. The decoder cannot be used after that.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this,param")
+	public int decode(@NotNull ByteBuffer input) throws ProtocolException {
+		Objects.requireNonNull(input, "input");
+		this.content = null;
+
+		while (true) {
+			switch (this.state) {
+				case HttpDecoder.S_START: {
+					if (input.hasRemaining())
+						this.started = true;
+
+					String line = this.readLine(input);
+
+					if (line == null)
+						return HttpDecoder.NEED_INPUT;
+					if (line.isEmpty()) {
+						//ignore leading empty lines
+						this.headLength = 0;
+						continue;
+					}
+
+					if (this.response)
+						this.statusLine = HttpDecoder.parseStatusLine(line);
+					else
+						this.requestLine = HttpDecoder.parseRequestLine(line);
+
+					this.headers = new Headers();
+					this.state = HttpDecoder.S_HEADER;
+					continue;
+				}
+				case HttpDecoder.S_HEADER: {
+					String line = this.readLine(input);
+
+					if (line == null)
+						return HttpDecoder.NEED_INPUT;
+					if (!line.isEmpty()) {
+						this.field(line);
+						continue;
+					}
+
+					this.flushField();
+					this.frame();
+					return HttpDecoder.HEAD;
+				}
+				case HttpDecoder.S_LENGTH:
+				case HttpDecoder.S_CHUNK_DATA: {
+					if (this.remaining == 0) {
+						if (this.state == HttpDecoder.S_LENGTH) {
+							this.state = HttpDecoder.S_EMPTY;
+						} else
+							this.state = HttpDecoder.S_CHUNK_END;
+						continue;
+					}
+					if (!input.hasRemaining())
+						return HttpDecoder.NEED_INPUT;
+
+					int count = (int) Math.min(this.remaining, input.remaining());
+					this.content(input, count);
+					this.remaining -= count;
+					return HttpDecoder.CONTENT;
+				}
+				case HttpDecoder.S_CHUNK_SIZE: {
+					String line = this.readLine(input);
+
+					if (line == null)
+						return HttpDecoder.NEED_INPUT;
+
+					long size = HttpDecoder.parseChunkSize(line);
+
+					if (size > this.maxContentLength - this.contentRead)
+						throw new ProtocolException("content too long");
+
+					this.remaining = size;
+					this.state = size == 0 ? HttpDecoder.S_TRAILER : HttpDecoder.S_CHUNK_DATA;
+					continue;
+				}
+				case HttpDecoder.S_CHUNK_END: {
+					String line = this.readLine(input);
+
+					if (line == null)
+						return HttpDecoder.NEED_INPUT;
+					if (!line.isEmpty())
+						throw new ProtocolException("invalid chunk end: " + line);
+
+					this.state = HttpDecoder.S_CHUNK_SIZE;
+					continue;
+				}
+				case HttpDecoder.S_TRAILER: {
+					String line = this.readLine(input);
+
+					if (line == null)
+						return HttpDecoder.NEED_INPUT;
+					if (!line.isEmpty()) {
+						this.field(line);
+						continue;
+					}
+
+					this.flushField();
+					this.state = HttpDecoder.S_EMPTY;
+					continue;
+				}
+				case HttpDecoder.S_CLOSE: {
+					int count = input.remaining();
+
+					if (count == 0)
+						return HttpDecoder.NEED_INPUT;
+					if (count > this.maxContentLength - this.contentRead)
+						throw new ProtocolException("content too long");
+
+					this.content(input, count);
+					return HttpDecoder.CONTENT;
+				}
+				case HttpDecoder.S_EMPTY: {
+					this.reset();
+					return HttpDecoder.END;
+				}
+				default:
+					throw new IllegalStateException("decoder failed");
+			}
+		}
+	}
+
+	/**
+	 * Signal that the input has ended. (the connection was closed)
+	 *
+	 * @return {@link #END} if the current message ends with the input, {@link
+	 * 		#NEED_INPUT} if no message was started.
+	 * @throws ProtocolException if the input ended in the middle of a message.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this")
+	public int finish() throws ProtocolException {
+		this.content = null;
+
+		if (this.state == HttpDecoder.S_CLOSE || this.state == HttpDecoder.S_EMPTY) {
+			this.reset();
+			return HttpDecoder.END;
+		}
+		if (this.state == HttpDecoder.S_START && !this.started)
+			return HttpDecoder.NEED_INPUT;
+
+		this.state = 0;
+		throw new ProtocolException("unexpected end of message");
+	}
+
+	/**
+	 * Return true if the decoder is between messages. (no byte of the next message was
+	 * read yet) A connection at a message boundary can be closed without cutting a message
+	 * in the middle.
+	 *
+	 * @return true, if at a message boundary.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(pure = true)
+	public boolean isAtBoundary() {
+		return this.state == HttpDecoder.S_START && !this.started;
+	}
+
+	/**
+	 * Return the content decoded by the last {@link #CONTENT} event. The returned buffer
+	 * is a view of the input and is only valid until the input is modified.
+	 *
+	 * @return the last content.
+	 * @throws IllegalStateException if the last event was not {@link #CONTENT}.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public ByteBuffer getContent() {
+		if (this.content == null)
+			throw new IllegalStateException("no content");
+
+		return this.content;
+	}
+
+	/**
+	 * Return the declared content length of the current message. ({@link
+	 * Body#UNKNOWN_LENGTH} for chunked bodies and bodies delimited by the end of the
+	 * input)
+	 *
+	 * @return the content length of the current message.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(pure = true)
+	@Range(from = -1, to = Long.MAX_VALUE)
+	public long getContentLength() {
+		return this.contentLength;
+	}
+
+	/**
+	 * Return the headers of the current message. When the body is chunked, its trailers
+	 * are appended to the same headers at the end of the body.
+	 *
+	 * @return the headers of the current message.
+	 * @throws IllegalStateException if no head was decoded.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Headers getHeaders() {
+		if (this.headers == null)
+			throw new IllegalStateException("no head");
+
+		return this.headers;
+	}
+
+	/**
+	 * Return the request-line of the current message.
+	 *
+	 * @return the request-line of the current message.
+	 * @throws IllegalStateException if no request head was decoded.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public RequestLine getRequestLine() {
+		if (this.requestLine == null)
+			throw new IllegalStateException("no request head");
+
+		return this.requestLine;
+	}
+
+	/**
+	 * Return the status-line of the current message.
+	 *
+	 * @return the status-line of the current message.
+	 * @throws IllegalStateException if no response head was decoded.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public StatusLine getStatusLine() {
+		if (this.statusLine == null)
+			throw new IllegalStateException("no response head");
+
+		return this.statusLine;
+	}
+
+	/**
+	 * Declare that the current message has no body regardless of its headers. (e.g. a
+	 * response to a {@code HEAD} request) Must be invoked right after the {@link #HEAD}
+	 * event.
+	 *
+	 * @throws IllegalStateException if the last event was not {@link #HEAD}.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this")
+	public void skipContent() {
+		if (this.headers == null || this.contentRead != 0 ||
+			this.state == HttpDecoder.S_START || this.state == HttpDecoder.S_HEADER)
+			throw new IllegalStateException("not at the head");
+
+		this.contentLength = 0;
+		this.state = HttpDecoder.S_EMPTY;
+	}
+
+	/**
+	 * Return true if the given {@code value} is a valid value of a single header line.
+	 * (the line breaks were already split, so none is left)
+	 *
+	 * @param value the value.
+	 * @return true, if the value is valid.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(pure = true)
+	private static boolean isFieldValue(@NotNull String value) {
+		return value.indexOf('\r') < 0 && HttpScanner.isFieldValue(value);
+	}
+
+	/**
+	 * Parse the given chunk-size {@code line}. (chunk extensions are ignored)
+	 *
+	 * @param line the line to be parsed.
+	 * @return the size of the chunk.
+	 * @throws ProtocolException if the given {@code line} is invalid.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(pure = true)
+	private static long parseChunkSize(@NotNull String line) throws ProtocolException {
+		int end = line.indexOf(';');
+		String size = (end < 0 ? line : line.substring(0, end)).trim();
+
+		if (size.isEmpty() || size.length() > 15)
+			throw new ProtocolException("invalid chunk size: " + line);
+
+		long value = 0;
+
+		for (int i = 0; i < size.length(); i++) {
+			int digit = Character.digit(size.charAt(i), 16);
+
+			if (digit < 0)
+				throw new ProtocolException("invalid chunk size: " + line);
+
+			value = value << 4 | digit;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Parse the given request {@code line}.
+	 *
+	 * @param line the line to be parsed.
+	 * @return the parsed request-line.
+	 * @throws ProtocolException if the given {@code line} is not a valid request-line.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	private static RequestLine parseRequestLine(@NotNull String line) throws ProtocolException {
+		int first = line.indexOf(' ');
+		int last = line.lastIndexOf(' ');
+
+		if (first <= 0 || last == first ||
+			!HttpScanner.isToken(line, 0, first) ||
+			!line.startsWith("HTTP/", last + 1))
+			throw new ProtocolException("invalid request line: " + line);
+
+		try {
+			return new RequestLine(
+					line.substring(0, first),
+					Uri.parse(line.substring(first + 1, last)),
+					line.substring(last + 1)
+			);
+		} catch (IllegalArgumentException e) {
+			throw new ProtocolException("invalid request line: " + line);
+		}
+	}
+
+	/**
+	 * Parse the given status {@code line}.
+	 *
+	 * @param line the line to be parsed.
+	 * @return the parsed status-line.
+	 * @throws ProtocolException if the given {@code line} is not a valid status-line.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	private static StatusLine parseStatusLine(@NotNull String line) throws ProtocolException {
+		int first = line.indexOf(' ');
+
+		if (first < 0 || !line.startsWith("HTTP/"))
+			throw new ProtocolException("invalid status line: " + line);
+
+		int second = line.indexOf(' ', first + 1);
+		String httpVersion = line.substring(0, first);
+		String statusCode = second < 0 ? line.substring(first + 1) : line.substring(first + 1, second);
+		String reasonPhrase = second < 0 ? "" : line.substring(second + 1);
+
+		if (statusCode.length() != 3 ||
+			!Character.isDigit(statusCode.charAt(0)) ||
+			!Character.isDigit(statusCode.charAt(1)) ||
+			!Character.isDigit(statusCode.charAt(2)))
+			throw new ProtocolException("invalid status line: " + line);
+
+		try {
+			return new StatusLine(httpVersion, statusCode, reasonPhrase);
+		} catch (IllegalArgumentException e) {
+			throw new ProtocolException("invalid status line: " + line);
+		}
+	}
+
+	/**
+	 * Expose the next {@code count} bytes of the given {@code input} as the content.
+	 *
+	 * @param input the input.
+	 * @param count the number of bytes.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this,param1")
+	private void content(@NotNull ByteBuffer input, int count) {
+		ByteBuffer content = input.slice();
+		content.limit(count);
+		input.position(input.position() + count);
+		this.content = content;
+		this.contentRead += count;
+	}
+
+	/**
+	 * Decode the given header (or trailer) {@code line}. Obsolete line folding is only
+	 * accepted in responses. (RFC 7230 3.2.4)
+	 *
+	 * @param line the line to be decoded.
+	 * @throws ProtocolException if the given {@code line} is invalid.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this")
+	private void field(@NotNull String line) throws ProtocolException {
+		char first = line.charAt(0);
+
+		if (first == ' ' || first == '\t') {
+			//obsolete line folding
+			String value = HttpDecoder.trim(line);
+
+			if (!this.response || this.fieldName == null || !HttpDecoder.isFieldValue(value))
+				throw new ProtocolException("invalid header: " + line);
+
+			this.fieldValue += " " + value;
+			return;
+		}
+
+		int colon = line.indexOf(':');
+
+		if (colon <= 0 || !HttpScanner.isToken(line, 0, colon))
+			throw new ProtocolException("invalid header: " + line);
+
+		String value = HttpDecoder.trim(line.substring(colon + 1));
+
+		if (!HttpDecoder.isFieldValue(value))
+			throw new ProtocolException("invalid header: " + line);
+
+		this.flushField();
+		this.fieldName = line.substring(0, colon);
+		this.fieldValue = value;
+	}
+
+	/**
+	 * Append the pending field to the headers.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this")
+	private void flushField() {
+		if (this.fieldName != null && this.fieldValue != null && this.headers != null)
+			this.headers.append(this.fieldName, this.fieldValue);
+
+		this.fieldName = null;
+		this.fieldValue = null;
+	}
+
+	/**
+	 * Determine how the body of the current message is framed.
+	 *
+	 * @throws ProtocolException if the framing headers are invalid.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this")
+	private void frame() throws ProtocolException {
+		Headers headers = Objects.requireNonNull(this.headers, "headers");
+
+		if (this.statusLine != null) {
+			String code = this.statusLine.getStatusCode();
+
+			if (code.charAt(0) == '1' || code.equals("204") || code.equals("304")) {
+				this.contentLength = 0;
+				this.state = HttpDecoder.S_EMPTY;
+				return;
+			}
+		}
+
+		String transferEncoding = null;
+		String contentLength = null;
+
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			String name = headers.nameAt(i);
+			String value = headers.valueAt(i);
+
+			if (name.equalsIgnoreCase(Headers.TRANSFER_ENCODING))
+				transferEncoding = transferEncoding == null ? value : transferEncoding + ", " + value;
+			else if (name.equalsIgnoreCase(Headers.CONTENT_LENGTH))
+				if (contentLength == null)
+					contentLength = value;
+				else if (!contentLength.equals(value))
+					throw new ProtocolException("conflicting content-length: " + contentLength + ", " + value);
+		}
+
+		if (transferEncoding != null) {
+			if (contentLength != null)
+				//RFC 7230 3.3.3 (a possible request smuggling)
+				throw new ProtocolException("both transfer-encoding and content-length");
+
+			this.contentLength = Body.UNKNOWN_LENGTH;
+
+			int comma = transferEncoding.lastIndexOf(',');
+			String last = HttpDecoder.trim(transferEncoding.substring(comma + 1));
+
+			if (last.equalsIgnoreCase("chunked"))
+				this.state = HttpDecoder.S_CHUNK_SIZE;
+			else if (this.response)
+				this.state = HttpDecoder.S_CLOSE;
+			else
+				throw new ProtocolException("unsupported transfer-encoding: " + transferEncoding);
+
+			return;
+		}
+
+		if (contentLength != null) {
+			long length;
+
+			try {
+				length = Long.parseLong(contentLength);
+			} catch (NumberFormatException e) {
+				length = -1;
+			}
+
+			if (length < 0 || !Character.isDigit(contentLength.charAt(0)))
+				throw new ProtocolException("invalid content-length: " + contentLength);
+			if (length > this.maxContentLength)
+				throw new ProtocolException("content too long: " + contentLength);
+
+			this.contentLength = length;
+			this.remaining = length;
+			this.state = HttpDecoder.S_LENGTH;
+			return;
+		}
+
+		if (this.response) {
+			this.contentLength = Body.UNKNOWN_LENGTH;
+			this.state = HttpDecoder.S_CLOSE;
+		} else {
+			this.contentLength = 0;
+			this.state = HttpDecoder.S_EMPTY;
+		}
+	}
+
+	/**
+	 * Read a line from the given {@code input}. The line is accumulated across
+	 * invocations until a line feed is found.
+	 *
+	 * @param input the input to read from.
+	 * @return the line without the line break. Or null if the input ended before the end
+	 * 		of the line.
+	 * @throws ProtocolException if a limit was exceeded.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Nullable
+	@Contract(mutates = "this,param")
+	private String readLine(@NotNull ByteBuffer input) throws ProtocolException {
+		StringBuilder line = this.line;
+
+		while (input.hasRemaining()) {
+			byte b = input.get();
+
+			if (b == '\n') {
+				int length = line.length();
+
+				if (length > 0 && line.charAt(length - 1) == '\r')
+					line.setLength(length - 1);
+
+				String string = line.toString();
+				line.setLength(0);
+				return string;
+			}
+
+			if (line.length() >= this.maxLineLength)
+				throw new ProtocolException("line too long");
+			if (this.state != HttpDecoder.S_CHUNK_SIZE && this.state != HttpDecoder.S_CHUNK_END)
+				if (++this.headLength > this.maxHeadLength)
+					throw new ProtocolException("head too long");
+
+			line.append((char) (b & 0xFF));
+		}
+
+		return null;
+	}
+
+	/**
+	 * Clear the state of the current message.
+	 *
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@Contract(mutates = "this")
+	private void reset() {
+		this.state = HttpDecoder.S_START;
+		this.started = false;
+		this.contentLength = 0;
+		this.contentRead = 0;
+		this.remaining = 0;
+		this.headLength = 0;
+	}
+
+	/**
+	 * Remove the leading and trailing spaces and tabs of the given {@code value}.
+	 *
+	 * @param value the value to be trimmed.
+	 * @return the trimmed value.
+	 * @since 1.0.0 ~2022.01.30
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String trim(@NotNull String value) {
+		int start = 0;
+		int end = value.length();
+
+		while (start < end && (value.charAt(start) == ' ' || value.charAt(start) == '\t'))
+			start++;
+		while (end > start && (value.charAt(end - 1) == ' ' || value.charAt(end - 1) == '\t'))
+			end--;
+
+		return value.substring(start, end);
+	}
+}
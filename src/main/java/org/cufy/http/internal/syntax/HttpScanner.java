@@ -0,0 +1,145 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.internal.syntax;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Table-driven validators for the http syntax (RFC 2616) used on hot paths instead of
+ * the equivalent RegExp-s in {@link HttpRegExp}.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.28
+ */
+@ApiStatus.Internal
+public final class HttpScanner {
+	/**
+	 * token chars = any CHAR except CTLs or separators
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	private static final int C_TOKEN = 1;
+	/**
+	 * field-value chars = any OCTET except CTLs, but including SP and HT
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	private static final int C_VALUE = 1 << 1;
+
+	/**
+	 * The classes of each latin-1 char.
+	 *
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	private static final byte @NotNull [] TABLE = new byte[256];
+
+	static {
+		for (char c = 0x21; c < 0x7F; c++)
+			HttpScanner.TABLE[c] |= C_TOKEN | C_VALUE;
+		for (char c : "()<>@,;:\\\"/[]?={}".toCharArray())
+			HttpScanner.TABLE[c] &= ~C_TOKEN;
+		for (char c = 0x80; c <= 0xFF; c++)
+			HttpScanner.TABLE[c] |= C_VALUE;
+
+		HttpScanner.TABLE[' '] |= C_VALUE;
+		HttpScanner.TABLE['\t'] |= C_VALUE;
+	}
+
+	/**
+	 * Utility classes shall have no instances.
+	 *
+	 * @throws AssertionError when called.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	private HttpScanner() {
+		throw new AssertionError("No instance for you!");
+	}
+
+	/**
+	 * Return true if the given {@code source} matches {@link HttpRegExp#FIELD_VALUE}.
+	 * Line breaks are only accepted when followed by a space or a tab. (folding)
+	 *
+	 * @param source the source.
+	 * @return true, if the given {@code source} is a valid field value.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	public static boolean isFieldValue(@NotNull String source) {
+		int length = source.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = source.charAt(i);
+
+			if (c <= 0xFF && (HttpScanner.TABLE[c] & C_VALUE) != 0)
+				continue;
+
+			if (c == '\r' && i + 1 < length && source.charAt(i + 1) == '\n')
+				i++;
+			else if (c != '\r' && c != '\n')
+				return false;
+
+			//a line break must be followed by a space or a tab
+			if (i + 1 >= length)
+				return false;
+
+			char next = source.charAt(i + 1);
+
+			if (next != ' ' && next != '\t')
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Return true if the given {@code source} matches {@link HttpRegExp#TOKEN}.
+	 *
+	 * @param source the source.
+	 * @return true, if the given {@code source} is a valid token.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	public static boolean isToken(@NotNull String source) {
+		return HttpScanner.isToken(source, 0, source.length());
+	}
+
+	/**
+	 * Return true if the given range matches {@link HttpRegExp#TOKEN}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid token.
+	 * @since 1.0.0 ~2022.01.28
+	 */
+	@Contract(pure = true)
+	public static boolean isToken(@NotNull CharSequence source, int from, int to) {
+		if (from >= to)
+			return false;
+
+		for (int i = from; i < to; i++) {
+			char c = source.charAt(i);
+
+			if (c >= 0x80 || (HttpScanner.TABLE[c] & C_TOKEN) == 0)
+				return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,862 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.internal.syntax;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A hand-written single-pass scanner for the uri syntax (RFC 3986).
+ * <br>
+ * The scanner accepts exactly the inputs accepted by the equivalent RegExp-s in {@link
+ * UriRegExp} (including their quirks) and splits the components exactly like {@link
+ * UriParse}. The boundaries of the components are written into a marks array: for each
+ * component, the start index at its offset and the end index at its offset plus one. An
+ * absent component has both its marks set to {@code -1}.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.21
+ */
+@ApiStatus.Internal
+public final class UriScanner {
+	/**
+	 * The offset of the scheme marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int SCHEME = 0;
+	/**
+	 * The offset of the authority marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int AUTHORITY = 2;
+	/**
+	 * The offset of the user info marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int USERINFO = 4;
+	/**
+	 * The offset of the host marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int HOST = 6;
+	/**
+	 * The offset of the port marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int PORT = 8;
+	/**
+	 * The offset of the path marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int PATH = 10;
+	/**
+	 * The offset of the query marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int QUERY = 12;
+	/**
+	 * The offset of the fragment marks.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int FRAGMENT = 14;
+	/**
+	 * The length of a marks array.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	public static final int MARKS = 16;
+
+	/**
+	 * ALPHA = %x41-5A / %x61-7A
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final int C_ALPHA = 1;
+	/**
+	 * DIGIT = %x30-39
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final int C_DIGIT = 1 << 1;
+	/**
+	 * HEXDIG = DIGIT / "A" / "B" / "C" / "D" / "E" / "F" (case-insensitive)
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final int C_HEXDIG = 1 << 2;
+	/**
+	 * scheme chars after the first = ALPHA / DIGIT / "+" / "," / "-" / "."
+	 * <br>
+	 * Note: the comma is there because {@link UriRegExp#SCHEME} uses the class {@code
+	 * [+-.]} which is a range from "+" to ".".
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final int C_SCHEME = 1 << 3;
+	/**
+	 * sub-delims = "!" / "$" / "&" / "'" / "(" / ")" / "*" / "+" / "," / ";" / "="
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final int C_SUB_DELIMS = 1 << 4;
+	/**
+	 * unreserved = ALPHA / DIGIT / "-" / "." / "_" / "~"
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final int C_UNRESERVED = 1 << 5;
+
+	/**
+	 * The classes of each ascii char.
+	 *
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private static final byte @NotNull [] TABLE = new byte[128];
+
+	static {
+		for (char c = 'A'; c <= 'Z'; c++)
+			UriScanner.TABLE[c] |= C_ALPHA | C_SCHEME | C_UNRESERVED;
+		for (char c = 'a'; c <= 'z'; c++)
+			UriScanner.TABLE[c] |= C_ALPHA | C_SCHEME | C_UNRESERVED;
+		for (char c = '0'; c <= '9'; c++)
+			UriScanner.TABLE[c] |= C_DIGIT | C_HEXDIG | C_SCHEME | C_UNRESERVED;
+		for (char c = 'A'; c <= 'F'; c++)
+			UriScanner.TABLE[c] |= C_HEXDIG;
+		for (char c = 'a'; c <= 'f'; c++)
+			UriScanner.TABLE[c] |= C_HEXDIG;
+		for (char c : "+,-.".toCharArray())
+			UriScanner.TABLE[c] |= C_SCHEME;
+		for (char c : "-._~".toCharArray())
+			UriScanner.TABLE[c] |= C_UNRESERVED;
+		for (char c : "!$&'()*+,;=".toCharArray())
+			UriScanner.TABLE[c] |= C_SUB_DELIMS;
+	}
+
+	/**
+	 * Utility classes shall have no instances.
+	 *
+	 * @throws AssertionError when called.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	private UriScanner() {
+		throw new AssertionError("No instance for you!");
+	}
+
+	// Scan
+
+	/**
+	 * Validate the given {@code source} against {@link UriRegExp#AUTHORITY} and write the
+	 * boundaries of its user info, host and port into the given {@code marks}.
+	 *
+	 * @param source the source to be scanned.
+	 * @param from   the start index of the authority. (inclusive)
+	 * @param to     the end index of the authority. (exclusive)
+	 * @param marks  the array to write the marks to. (at least {@link #MARKS} long)
+	 * @return true, if the given range is a valid authority.
+	 * @throws NullPointerException      if the given {@code source} or {@code marks} is
+	 *                                   null.
+	 * @throws IndexOutOfBoundsException if the given range is out of bounds.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(mutates = "param4")
+	public static boolean scanAuthority(@NotNull String source, int from, int to, int @NotNull [] marks) {
+		Objects.requireNonNull(source, "source");
+		Objects.requireNonNull(marks, "marks");
+		//neither the user info nor the host can contain "@"
+		int at = source.lastIndexOf('@', to - 1);
+		int hostStart = from;
+
+		if (at >= from) {
+			if (!UriScanner.isUserInfo(source, from, at))
+				return false;
+
+			marks[USERINFO] = from;
+			marks[USERINFO + 1] = at;
+			hostStart = at + 1;
+		} else {
+			marks[USERINFO] = -1;
+			marks[USERINFO + 1] = -1;
+		}
+
+		int hostEnd;
+
+		if (hostStart < to && source.charAt(hostStart) == '[') {
+			int close = source.indexOf(']', hostStart);
+
+			if (close < 0 || close >= to || !UriScanner.isIpLiteral(source, hostStart, close + 1))
+				return false;
+
+			hostEnd = close + 1;
+		} else {
+			hostEnd = hostStart;
+
+			while (hostEnd < to && source.charAt(hostEnd) != ':')
+				hostEnd++;
+
+			if (!UriScanner.isRegName(source, hostStart, hostEnd))
+				return false;
+		}
+
+		marks[HOST] = hostStart;
+		marks[HOST + 1] = hostEnd;
+
+		if (hostEnd == to) {
+			marks[PORT] = -1;
+			marks[PORT + 1] = -1;
+			return true;
+		}
+		if (source.charAt(hostEnd) != ':' || !UriScanner.isPort(source, hostEnd + 1, to))
+			return false;
+
+		marks[PORT] = hostEnd + 1;
+		marks[PORT + 1] = to;
+		return true;
+	}
+
+	/**
+	 * Validate the given {@code source} against {@link UriRegExp#URI_REFERENCE} and write
+	 * the boundaries of its components into the given {@code marks}.
+	 *
+	 * @param source the source to be scanned.
+	 * @param marks  the array to write the marks to. (at least {@link #MARKS} long)
+	 * @return true, if the given {@code source} is a valid uri reference.
+	 * @throws NullPointerException if the given {@code source} or {@code marks} is null.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(mutates = "param2")
+	public static boolean scanUriReference(@NotNull String source, int @NotNull [] marks) {
+		Objects.requireNonNull(source, "source");
+		Objects.requireNonNull(marks, "marks");
+		Arrays.fill(marks, 0, UriScanner.MARKS, -1);
+		int length = source.length();
+		int i = 0;
+
+		//scheme ":" (the only way a ":" can appear before the first "/", "?" or "#")
+		if (length > 0 && UriScanner.is(source.charAt(0), C_ALPHA)) {
+			int j = 1;
+
+			while (j < length && UriScanner.is(source.charAt(j), C_SCHEME))
+				j++;
+
+			if (j < length && source.charAt(j) == ':') {
+				marks[SCHEME] = 0;
+				marks[SCHEME + 1] = j;
+				i = j + 1;
+			}
+		}
+
+		boolean relative = marks[SCHEME] < 0;
+
+		//"//" authority path-abempty
+		if (i + 1 < length && source.charAt(i) == '/' && source.charAt(i + 1) == '/') {
+			int start = i + 2;
+			int end = start;
+
+			while (end < length) {
+				char c = source.charAt(end);
+
+				if (c == '/' || c == '?' || c == '#')
+					break;
+
+				end++;
+			}
+
+			if (!UriScanner.scanAuthority(source, start, end, marks))
+				return false;
+
+			marks[AUTHORITY] = start;
+			marks[AUTHORITY + 1] = end;
+			i = end;
+		}
+
+		//path
+		int pathStart = i;
+		boolean segment = true;
+
+		while (i < length) {
+			char c = source.charAt(i);
+
+			if (c == '?' || c == '#')
+				break;
+			if (c == '/') {
+				segment = false;
+				i++;
+				continue;
+			}
+			//path-noscheme: the first segment cannot contain ":"
+			if (c == ':' && segment && relative)
+				return false;
+
+			int next = UriScanner.pchar(source, i, length);
+
+			if (next < 0)
+				return false;
+
+			i = next;
+		}
+
+		marks[PATH] = pathStart;
+		marks[PATH + 1] = i;
+
+		//"?" query
+		if (i < length && source.charAt(i) == '?') {
+			int start = ++i;
+
+			while (i < length && source.charAt(i) != '#')
+				if ((i = UriScanner.qchar(source, i, length)) < 0)
+					return false;
+
+			marks[QUERY] = start;
+			marks[QUERY + 1] = i;
+		}
+
+		//"#" fragment
+		if (i < length) {
+			int start = ++i;
+
+			while (i < length)
+				if ((i = UriScanner.qchar(source, i, length)) < 0)
+					return false;
+
+			marks[FRAGMENT] = start;
+			marks[FRAGMENT + 1] = i;
+		}
+
+		return true;
+	}
+
+	// Validate
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#FRAGMENT}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid fragment.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isFragment(@NotNull String source, int from, int to) {
+		//same syntax as query
+		return UriScanner.isQuery(source, from, to);
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#HOST}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid host.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isHost(@NotNull String source, int from, int to) {
+		//IPv4address is a subset of reg-name
+		if (from < to && source.charAt(from) == '[')
+			return UriScanner.isIpLiteral(source, from, to);
+
+		return UriScanner.isRegName(source, from, to);
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#PATH}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid path.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isPath(@NotNull String source, int from, int to) {
+		//the union of all the path forms is *( pchar / "/" )
+		int i = from;
+
+		while (i < to)
+			if (source.charAt(i) == '/')
+				i++;
+			else if ((i = UriScanner.pchar(source, i, to)) < 0)
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#PORT}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid port.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isPort(@NotNull String source, int from, int to) {
+		for (int i = from; i < to; i++)
+			if (!UriScanner.is(source.charAt(i), C_DIGIT))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#QUERY}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid query.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isQuery(@NotNull String source, int from, int to) {
+		int i = from;
+
+		while (i < to)
+			if ((i = UriScanner.qchar(source, i, to)) < 0)
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#SCHEME}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid scheme.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isScheme(@NotNull String source, int from, int to) {
+		if (from >= to || !UriScanner.is(source.charAt(from), C_ALPHA))
+			return false;
+
+		for (int i = from + 1; i < to; i++)
+			if (!UriScanner.is(source.charAt(i), C_SCHEME))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#USERINFO}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid user info.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	public static boolean isUserInfo(@NotNull String source, int from, int to) {
+		int i = from;
+
+		while (i < to) {
+			char c = source.charAt(i);
+
+			if (c == ':' || UriScanner.is(c, C_UNRESERVED | C_SUB_DELIMS))
+				i++;
+			else if ((i = UriScanner.pct(source, i, to)) < 0)
+				return false;
+		}
+
+		return true;
+	}
+
+	// Split
+
+	/**
+	 * Return the component at the given {@code offset} in the given {@code marks}.
+	 *
+	 * @param source the scanned source.
+	 * @param marks  the marks written when scanning the source.
+	 * @param offset the offset of the component. (e.g. {@link #PATH})
+	 * @return the component, or null if absent.
+	 * @throws NullPointerException if the given {@code source} or {@code marks} is null.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Nullable
+	@Contract(pure = true)
+	public static String group(@NotNull String source, int @NotNull [] marks, int offset) {
+		Objects.requireNonNull(source, "source");
+		Objects.requireNonNull(marks, "marks");
+		int start = marks[offset];
+
+		if (start < 0)
+			return null;
+
+		return source.substring(start, marks[offset + 1]);
+	}
+
+	/**
+	 * Split the given query {@code source} into its attributes. Attributes are separated
+	 * by "&amp;" and the name and value of an attribute are separated by the first "=".
+	 * Trailing empty attributes are dropped and the last duplicate wins.
+	 * <br>
+	 * Note: No validation will be applied.
+	 *
+	 * @param source the query source.
+	 * @return a new map of the attributes in the given {@code source}.
+	 * @throws NullPointerException if the given {@code source} is null.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	public static Map<@NotNull String, @NotNull String> splitQuery(@NotNull String source) {
+		Objects.requireNonNull(source, "source");
+		Map<String, String> values = new LinkedHashMap<>();
+		int end = source.length();
+
+		//trailing empty attributes are dropped
+		while (end > 0 && source.charAt(end - 1) == '&')
+			end--;
+
+		if (end == 0 && !source.isEmpty())
+			return values;
+
+		int start = 0;
+
+		while (true) {
+			int amp = source.indexOf('&', start);
+			int stop = amp < 0 || amp > end ? end : amp;
+			int eq = source.indexOf('=', start);
+
+			if (eq >= 0 && eq < stop)
+				values.put(source.substring(start, eq), source.substring(eq + 1, stop));
+			else
+				values.put(source.substring(start, stop), "");
+
+			if (stop >= end)
+				return values;
+
+			start = stop + 1;
+		}
+	}
+
+	/**
+	 * Split the given user info {@code source} by ":". Trailing empty values are
+	 * dropped.
+	 * <br>
+	 * Note: No validation will be applied.
+	 *
+	 * @param source the user info source.
+	 * @return a new list of the values in the given {@code source}.
+	 * @throws NullPointerException if the given {@code source} is null.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	public static List<@NotNull String> splitUserInfo(@NotNull String source) {
+		Objects.requireNonNull(source, "source");
+		List<String> values = new ArrayList<>();
+		int end = source.length();
+
+		//trailing empty values are dropped
+		while (end > 0 && source.charAt(end - 1) == ':')
+			end--;
+
+		if (end == 0 && !source.isEmpty())
+			return values;
+
+		int start = 0;
+
+		while (true) {
+			int colon = source.indexOf(':', start);
+			int stop = colon < 0 || colon > end ? end : colon;
+
+			values.add(source.substring(start, stop));
+
+			if (stop >= end)
+				return values;
+
+			start = stop + 1;
+		}
+	}
+
+	// Internal
+
+	/**
+	 * Return true if the given {@code c} is an ascii char of any of the given {@code
+	 * classes}.
+	 *
+	 * @param c       the char.
+	 * @param classes the classes.
+	 * @return true, if the char is of any of the classes.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static boolean is(char c, int classes) {
+		return c < 128 && (UriScanner.TABLE[c] & classes) != 0;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#IPV4ADDRESS}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid IPv4 address.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static boolean isIpv4(@NotNull String source, int from, int to) {
+		int i = from;
+
+		for (int octet = 0; octet < 4; octet++) {
+			if (octet != 0) {
+				if (i >= to || source.charAt(i) != '.')
+					return false;
+
+				i++;
+			}
+
+			int start = i;
+			int value = 0;
+
+			while (i < to && i - start < 3 && UriScanner.is(source.charAt(i), C_DIGIT))
+				value = value * 10 + source.charAt(i++) - '0';
+
+			int digits = i - start;
+
+			//dec-octet: no leading zeros and at most 255
+			if (digits == 0 || digits > 1 && source.charAt(start) == '0' || value > 255)
+				return false;
+		}
+
+		return i == to;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#IPV6ADDRESS}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid IPv6 address.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static boolean isIpv6(@NotNull String source, int from, int to) {
+		int i = from;
+		int groups = 0;
+		boolean compressed = false;
+
+		if (i + 1 < to && source.charAt(i) == ':' && source.charAt(i + 1) == ':') {
+			compressed = true;
+			i += 2;
+
+			if (i == to)
+				return true;
+		}
+
+		while (true) {
+			int start = i;
+
+			while (i < to && UriScanner.is(source.charAt(i), C_HEXDIG))
+				i++;
+
+			if (i < to && source.charAt(i) == '.') {
+				//ls32 as IPv4address: must be the last piece
+				if (!UriScanner.isIpv4(source, start, to))
+					return false;
+
+				groups += 2;
+				break;
+			}
+
+			int digits = i - start;
+
+			if (digits == 0 || digits > 4)
+				return false;
+
+			groups++;
+
+			if (i == to)
+				break;
+			if (source.charAt(i) != ':' || ++i == to)
+				return false;
+
+			if (source.charAt(i) == ':') {
+				if (compressed)
+					return false;
+
+				compressed = true;
+
+				if (++i == to)
+					break;
+			}
+		}
+
+		//"::" stands for at least one group
+		return compressed ? groups <= 7 : groups == 8;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#IPVFUTURE}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid IPvFuture.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static boolean isIpvFuture(@NotNull String source, int from, int to) {
+		int i = from;
+
+		if (i >= to || source.charAt(i) != 'v' && source.charAt(i) != 'V')
+			return false;
+
+		int start = ++i;
+
+		while (i < to && UriScanner.is(source.charAt(i), C_HEXDIG))
+			i++;
+
+		if (i == start || i >= to || source.charAt(i) != '.')
+			return false;
+
+		if (++i == to)
+			return false;
+
+		for (; i < to; i++) {
+			char c = source.charAt(i);
+
+			if (c != ':' && !UriScanner.is(c, C_UNRESERVED | C_SUB_DELIMS))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#IP_LITERAL}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid IP literal.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static boolean isIpLiteral(@NotNull String source, int from, int to) {
+		if (to - from < 2 || source.charAt(from) != '[' || source.charAt(to - 1) != ']')
+			return false;
+
+		return UriScanner.isIpv6(source, from + 1, to - 1) ||
+			   UriScanner.isIpvFuture(source, from + 1, to - 1);
+	}
+
+	/**
+	 * Return true if the given range matches {@link UriRegExp#REG_NAME}.
+	 *
+	 * @param source the source.
+	 * @param from   the start index. (inclusive)
+	 * @param to     the end index. (exclusive)
+	 * @return true, if the given range is a valid reg-name.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static boolean isRegName(@NotNull String source, int from, int to) {
+		int i = from;
+
+		while (i < to)
+			if (UriScanner.is(source.charAt(i), C_UNRESERVED | C_SUB_DELIMS))
+				i++;
+			else if ((i = UriScanner.pct(source, i, to)) < 0)
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Scan a single pchar (unreserved / pct-encoded / sub-delims / ":" / "@") at the
+	 * given index.
+	 *
+	 * @param source the source.
+	 * @param i      the index of the char.
+	 * @param to     the end index. (exclusive)
+	 * @return the index after the pchar, or {@code -1} if there is no pchar at the given
+	 * 		index.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static int pchar(@NotNull String source, int i, int to) {
+		char c = source.charAt(i);
+
+		if (c == ':' || c == '@' || UriScanner.is(c, C_UNRESERVED | C_SUB_DELIMS))
+			return i + 1;
+
+		return UriScanner.pct(source, i, to);
+	}
+
+	/**
+	 * Scan a single pct-encoded ("%" HEXDIG HEXDIG) at the given index.
+	 *
+	 * @param source the source.
+	 * @param i      the index of the "%".
+	 * @param to     the end index. (exclusive)
+	 * @return the index after the pct-encoded, or {@code -1} if there is no pct-encoded at
+	 * 		the given index.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static int pct(@NotNull String source, int i, int to) {
+		if (i + 2 < to &&
+			source.charAt(i) == '%' &&
+			UriScanner.is(source.charAt(i + 1), C_HEXDIG) &&
+			UriScanner.is(source.charAt(i + 2), C_HEXDIG))
+			return i + 3;
+
+		return -1;
+	}
+
+	/**
+	 * Scan a single query/fragment char (pchar / "/" / "?") at the given index.
+	 *
+	 * @param source the source.
+	 * @param i      the index of the char.
+	 * @param to     the end index. (exclusive)
+	 * @return the index after the char, or {@code -1} if there is no query char at the
+	 * 		given index.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@Contract(pure = true)
+	private static int qchar(@NotNull String source, int i, int to) {
+		char c = source.charAt(i);
+
+		if (c == '/' || c == '?')
+			return i + 1;
+
+		return UriScanner.pchar(source, i, to);
+	}
+}
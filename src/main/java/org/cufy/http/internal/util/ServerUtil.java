@@ -0,0 +1,291 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.internal.util;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.mime.Mime;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Internal utilities shared by the server engines.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.31
+ */
+@ApiStatus.Internal
+public final class ServerUtil {
+	/**
+	 * Utility classes shall have no instances.
+	 *
+	 * @throws AssertionError when called.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private ServerUtil() {
+		throw new AssertionError("No instance for you!");
+	}
+
+	/**
+	 * Construct the body of the given {@code request} from the given received {@code
+	 * bytes}. The mime of the body is parsed from the {@code Content-Type} of the request
+	 * (an invalid mime is ignored).
+	 *
+	 * @param request the request.
+	 * @param bytes   the received bytes.
+	 * @return a new body.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@NotNull
+	@Contract(value = "_,_->new", pure = true)
+	public static Body body(@NotNull Request request, byte @NotNull [] bytes) {
+		String contentType = request.getHeaders().get(Headers.CONTENT_TYPE);
+		Mime mime = null;
+
+		if (contentType != null)
+			try {
+				mime = Mime.parse(contentType);
+			} catch (IllegalArgumentException ignored) {
+			}
+
+		return new BytesBody(mime, bytes);
+	}
+
+	/**
+	 * Return true if the given {@code request} expects a {@code 100 Continue} interim
+	 * response before sending its body.
+	 *
+	 * @param request the request.
+	 * @return true, if the request expects {@code 100-continue}.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@Contract(pure = true)
+	public static boolean isExpectContinue(@NotNull Request request) {
+		String expect = request.getHeaders().get(Headers.EXPECT);
+		return expect != null && expect.equalsIgnoreCase("100-continue");
+	}
+
+	/**
+	 * Return true if the given {@code response} is not allowed to have a body. (1xx, 204
+	 * and 304 responses and responses to {@code HEAD} requests)
+	 *
+	 * @param request  the request.
+	 * @param response the response to the request.
+	 * @return true, if no body is sent with the response.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Contract(pure = true)
+	public static boolean isBodiless(@NotNull Request request, @NotNull Response response) {
+		String code = response.getStatusLine().getStatusCode();
+		return Method.HEAD.equals(request.getRequestLine().getMethod()) ||
+			   code.charAt(0) == '1' || code.equals("204") || code.equals("304");
+	}
+
+	/**
+	 * Return true if the last transfer coding in the given {@code headers} is {@code
+	 * chunked}. (case-insensitive)
+	 *
+	 * @param headers the headers.
+	 * @return true, if the message is chunked.
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@Contract(pure = true)
+	public static boolean isChunked(@NotNull Headers headers) {
+		String transferEncoding = null;
+
+		for (int i = 0, size = headers.size(); i < size; i++)
+			if (headers.nameAt(i).equalsIgnoreCase(Headers.TRANSFER_ENCODING))
+				transferEncoding = headers.valueAt(i);
+
+		if (transferEncoding == null)
+			return false;
+
+		int comma = transferEncoding.lastIndexOf(',');
+		return transferEncoding.substring(comma + 1).trim().equalsIgnoreCase("chunked");
+	}
+
+	/**
+	 * Return true if the connection the given {@code request} was received on can be
+	 * reused after responding. (http/1.1 without {@code Connection: close} or http/1.0
+	 * with {@code Connection: keep-alive})
+	 *
+	 * @param request the request.
+	 * @return true, if the connection can be kept alive.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Contract(pure = true)
+	public static boolean isKeepAlive(@NotNull Request request) {
+		Headers headers = request.getHeaders();
+		boolean http11 = HttpVersion.HTTP1_1.equals(request.getRequestLine().getHttpVersion());
+
+		for (int i = 0, size = headers.size(); i < size; i++)
+			if (headers.nameAt(i).equalsIgnoreCase(Headers.CONNECTION)) {
+				String value = headers.valueAt(i);
+
+				if (ServerUtil.containsToken(value, "close"))
+					return false;
+				if (ServerUtil.containsToken(value, "keep-alive"))
+					http11 = true;
+			}
+
+		return http11;
+	}
+
+	/**
+	 * Add the headers framing the body of the given {@code response} that the pipe did
+	 * not set. ({@code Content-Type}, {@code Content-Length} or {@code Transfer-Encoding}
+	 * and {@code Connection})
+	 * <br>
+	 * The bodies are never chunk encoded by the pipe; the engines frame them. So, a
+	 * trailing {@code chunked} transfer coding set by the pipe is removed and the body is
+	 * framed by its length or, if its length is unknown, by {@code Transfer-Encoding:
+	 * chunked}. If other transfer codings are left (the pipe encoded the body itself, e.g.
+	 * {@code gzip}), they are kept and {@code chunked} is appended after them (on http/1.0
+	 * the body is delimited by closing the connection instead) as a body with transfer
+	 * codings shall not be framed by its length.
+	 *
+	 * @param request   the request.
+	 * @param response  the response to be prepared.
+	 * @param keepAlive true, if the connection is to be kept alive.
+	 * @return true, if the connection can still be kept alive after sending the response.
+	 * 		(the pipe might have set {@code Connection: close})
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Contract(mutates = "param2")
+	public static boolean prepare(@NotNull Request request, @NotNull Response response, boolean keepAlive) {
+		Headers headers = response.getHeaders();
+		Body body = response.getBody();
+		boolean coded = false;
+		boolean length = false;
+		boolean type = false;
+
+		if (ServerUtil.isChunked(headers))
+			ServerUtil.removeChunked(headers);
+
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			String name = headers.nameAt(i);
+
+			if (name.equalsIgnoreCase(Headers.TRANSFER_ENCODING))
+				coded = true;
+			else if (name.equalsIgnoreCase(Headers.CONTENT_LENGTH))
+				length = true;
+			else if (name.equalsIgnoreCase(Headers.CONTENT_TYPE))
+				type = true;
+			else if (name.equalsIgnoreCase(Headers.CONNECTION) &&
+					 ServerUtil.containsToken(headers.valueAt(i), "close"))
+				keepAlive = false;
+		}
+
+		String code = response.getStatusLine().getStatusCode();
+
+		if (body != null) {
+			Mime mime = body.getMime();
+
+			if (!type && mime != null)
+				headers.append(Headers.CONTENT_TYPE, mime.toString());
+		}
+		if (coded && code.charAt(0) != '1' && !code.equals("204") && !code.equals("304")) {
+			headers.remove(Headers.CONTENT_LENGTH);
+
+			if (HttpVersion.HTTP1_1.equals(request.getRequestLine().getHttpVersion()))
+				headers.append(Headers.TRANSFER_ENCODING, "chunked");
+			else
+				//delimited by closing the connection
+				keepAlive = false;
+		} else if (!coded && !length && code.charAt(0) != '1' && !code.equals("204") && !code.equals("304")) {
+			long contentLength = body == null ? 0 : body.getContentLength();
+
+			if (contentLength >= 0)
+				headers.append(Headers.CONTENT_LENGTH, Long.toString(contentLength));
+			else if (HttpVersion.HTTP1_1.equals(request.getRequestLine().getHttpVersion()))
+				headers.append(Headers.TRANSFER_ENCODING, "chunked");
+			else
+				//delimited by closing the connection
+				keepAlive = false;
+		}
+
+		if (!keepAlive)
+			headers.put(Headers.CONNECTION, "close");
+		else if (!HttpVersion.HTTP1_1.equals(request.getRequestLine().getHttpVersion()))
+			headers.put(Headers.CONNECTION, "keep-alive");
+
+		return keepAlive;
+	}
+
+	/**
+	 * Return true if the given comma separated {@code value} contains the given {@code
+	 * token}. (case-insensitive)
+	 *
+	 * @param value the value to look in.
+	 * @param token the token to look for.
+	 * @return true, if the token is in the value.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Contract(pure = true)
+	private static boolean containsToken(@NotNull String value, @NotNull String token) {
+		int length = value.length();
+		int start = 0;
+
+		while (start < length) {
+			int end = value.indexOf(',', start);
+
+			if (end < 0)
+				end = length;
+
+			int from = start;
+			int to = end;
+
+			while (from < to && (value.charAt(from) == ' ' || value.charAt(from) == '\t'))
+				from++;
+			while (to > from && (value.charAt(to - 1) == ' ' || value.charAt(to - 1) == '\t'))
+				to--;
+
+			if (to - from == token.length() && value.regionMatches(true, from, token, 0, token.length()))
+				return true;
+
+			start = end + 1;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Remove the trailing {@code chunked} transfer coding from the given {@code headers}
+	 * keeping the transfer codings before it.
+	 *
+	 * @param headers the headers to remove the coding from.
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@Contract(mutates = "param")
+	private static void removeChunked(@NotNull Headers headers) {
+		List<String> values = headers.getAll(Headers.TRANSFER_ENCODING);
+		int last = values.size() - 1;
+		String value = values.get(last);
+		int comma = value.lastIndexOf(',');
+
+		headers.remove(Headers.TRANSFER_ENCODING);
+
+		for (int i = 0; i < last; i++)
+			headers.append(Headers.TRANSFER_ENCODING, values.get(i));
+
+		if (comma >= 0)
+			headers.append(Headers.TRANSFER_ENCODING, value.substring(0, comma).trim());
+	}
+}
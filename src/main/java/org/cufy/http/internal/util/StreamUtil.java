@@ -72,4 +72,36 @@ public final class StreamUtil {
 
 		return baos.toByteArray();
 	}
+
+	/**
+	 * Return the number of bytes the given {@code text} is encoded to in utf-8. Unpaired
+	 * surrogates are counted as a single byte (the same as {@link
+	 * String#getBytes(java.nio.charset.Charset)}).
+	 *
+	 * @param text the text to compute the length of.
+	 * @return the length of the utf-8 encoding of the given {@code text}.
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	@Contract(pure = true)
+	public static long utf8Length(@NotNull CharSequence text) {
+		int length = text.length();
+		long count = length;
+
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+
+			if (c < 0x80)
+				continue;
+			if (c < 0x800)
+				count++;
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+				//two chars, four bytes
+				count += 2;
+				i++;
+			} else if (!Character.isSurrogate(c))
+				count += 2;
+		}
+
+		return count;
+	}
 }
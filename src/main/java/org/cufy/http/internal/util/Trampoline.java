@@ -0,0 +1,157 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.internal.util;
+
+import org.cufy.http.pipeline.Next;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An index-based trampoline that invokes a flat array of stages one after the other.
+ * <br>
+ * The trampoline is the next function given to each stage. When a stage invokes it
+ * synchronously (before returning) the trampoline does not recurse, instead, the loop
+ * that invoked the stage picks the continuation up. When a stage invokes it
+ * asynchronously (after returning) the loop is resumed on the invoking thread. Thus, the
+ * stack depth is constant regardless of the number of stages.
+ * <br>
+ * A trampoline is good for a single run only.
+ *
+ * @param <T> the type of the parameter of the next function.
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.20
+ */
+@ApiStatus.Internal
+public abstract class Trampoline<T> extends AtomicInteger implements Next<T> {
+	/**
+	 * The state when no loop is running.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private static final int IDLE = 0;
+	/**
+	 * The state when a loop is running a stage.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private static final int RUNNING = 1;
+	/**
+	 * The state when the running stage has invoked this synchronously.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private static final int SIGNALLED = 2;
+
+	@SuppressWarnings("JavaDoc")
+	private static final long serialVersionUID = 4129771309453416822L;
+
+	/**
+	 * The error passed by the last stage.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@Nullable
+	private Throwable error;
+	/**
+	 * The index of the next stage to be invoked.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private int index;
+
+	@Override
+	public final void invoke(@Nullable Throwable error) {
+		this.error = error;
+
+		if (this.compareAndSet(Trampoline.RUNNING, Trampoline.SIGNALLED))
+			//invoked synchronously; the running loop will continue
+			return;
+
+		this.run();
+	}
+
+	/**
+	 * Invoked when all the stages has been invoked or when a stage has failed.
+	 *
+	 * @param error the error, if any.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	protected abstract void complete(@Nullable Throwable error);
+
+	/**
+	 * Return the number of stages.
+	 *
+	 * @return the number of stages.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@Range(from = 0, to = Integer.MAX_VALUE)
+	protected abstract int size();
+
+	/**
+	 * Invoke the stage at the given {@code index} with this as the next function.
+	 *
+	 * @param index the index of the stage.
+	 * @throws Throwable if the stage throws.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	protected abstract void stage(@Range(from = 0, to = Integer.MAX_VALUE) int index) throws Throwable;
+
+	/**
+	 * Run the loop until a stage does not continue synchronously or the stages are
+	 * exhausted.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private void run() {
+		this.set(Trampoline.RUNNING);
+
+		while (true) {
+			Throwable error = this.error;
+			int index = this.index;
+
+			if (error != null) {
+				this.set(Trampoline.IDLE);
+				this.complete(error);
+				return;
+			}
+			if (index >= this.size()) {
+				this.set(Trampoline.IDLE);
+				this.complete(null);
+				return;
+			}
+
+			this.index = index + 1;
+
+			try {
+				this.stage(index);
+			} catch (Throwable e) {
+				this.set(Trampoline.IDLE);
+				this.complete(e);
+				return;
+			}
+
+			if (this.compareAndSet(Trampoline.RUNNING, Trampoline.IDLE))
+				//the stage will continue asynchronously (if ever)
+				return;
+
+			this.set(Trampoline.RUNNING);
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.internal.util;
+
+import org.cufy.http.Body;
+import org.cufy.http.Headers;
+import org.cufy.http.body.FileBody;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * A writer of the http/1.1 wire form of messages. The start-line and the headers are
+ * encoded (each char as a single byte, latin-1) into a buffer that is reused until the
+ * body. The buffer is taken from the current thread and handed back to it when the writer
+ * is flushed; so, the writers of a thread share one buffer and a writer shall not be used
+ * after being flushed. (a writer created while another is in use gets its own buffer)
+ * The body is written through {@link Body#writeTo(OutputStream)} (or {@link
+ * FileBody#transferTo(WritableByteChannel)}) without being converted to text.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.29
+ */
+@ApiStatus.Internal
+public final class WireWriter {
+	/**
+	 * The buffer of each thread that is not taken by a writer. (null if taken or not
+	 * allocated yet)
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+	/**
+	 * The buffer holding the bytes not written yet.
+	 *
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	private final byte @NotNull [] buffer = WireWriter.take();
+	/**
+	 * The channel to write to. (null when writing to a stream)
+	 *
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Nullable
+	private final WritableByteChannel channel;
+	/**
+	 * The stream to write to. (a view of the channel when writing to a channel)
+	 *
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@NotNull
+	private final OutputStream stream;
+
+	/**
+	 * The number of bytes in the buffer.
+	 *
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	private int position;
+
+	/**
+	 * Construct a new writer writing to the given {@code stream}.
+	 *
+	 * @param stream the stream to write to.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	public WireWriter(@NotNull OutputStream stream) {
+		Objects.requireNonNull(stream, "stream");
+		this.channel = null;
+		this.stream = stream;
+	}
+
+	/**
+	 * Construct a new writer writing to the given {@code channel}. The channel is expected
+	 * to be in blocking mode.
+	 *
+	 * @param channel the channel to write to.
+	 * @throws NullPointerException if the given {@code channel} is null.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	public WireWriter(@NotNull WritableByteChannel channel) {
+		Objects.requireNonNull(channel, "channel");
+		this.channel = channel;
+		this.stream = Channels.newOutputStream(channel);
+	}
+
+	/**
+	 * Append the given {@code c} to the buffer.
+	 *
+	 * @param c the char to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "this")
+	public void append(char c) throws IOException {
+		if (this.position == this.buffer.length)
+			this.drain();
+
+		this.buffer[this.position++] = (byte) c;
+	}
+
+	/**
+	 * Append the given {@code text} to the buffer.
+	 *
+	 * @param text the text to be written.
+	 * @throws NullPointerException if the given {@code text} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "this")
+	public void append(@NotNull String text) throws IOException {
+		int length = text.length();
+		int i = 0;
+
+		while (i < length) {
+			if (this.position == this.buffer.length)
+				this.drain();
+
+			int count = Math.min(length - i, this.buffer.length - this.position);
+
+			for (int end = i + count; i < end; i++)
+				this.buffer[this.position++] = (byte) text.charAt(i);
+		}
+	}
+
+	/**
+	 * Write the buffered bytes, flush the target and hand the buffer back to the current
+	 * thread. This writer shall not be used after.
+	 *
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "this")
+	public void flush() throws IOException {
+		this.drain();
+		WireWriter.BUFFERS.set(this.buffer);
+
+		if (this.channel == null)
+			this.stream.flush();
+	}
+
+	/**
+	 * Write the given {@code body}, preceded by the empty line ending the headers.
+	 *
+	 * @param body the body to be written. (null for no body)
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "this")
+	public void writeBody(@Nullable Body body) throws IOException {
+		this.append("\r\n");
+
+		if (body == null)
+			return;
+
+		this.drain();
+
+		if (this.channel != null && body instanceof FileBody)
+			((FileBody) body).transferTo(this.channel);
+		else
+			body.writeTo(this.stream);
+	}
+
+	/**
+	 * Write the given {@code headers}, each followed by a line break.
+	 *
+	 * @param headers the headers to be written.
+	 * @throws NullPointerException if the given {@code headers} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "this")
+	public void writeHeaders(@NotNull Headers headers) throws IOException {
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			this.append(headers.nameAt(i));
+			this.append(": ");
+			this.append(headers.valueAt(i));
+			this.append("\r\n");
+		}
+	}
+
+	/**
+	 * Take the buffer of the current thread, or allocate a new one if it is taken or not
+	 * allocated yet.
+	 *
+	 * @return a buffer not used by any other writer.
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	private static byte @NotNull [] take() {
+		byte[] buffer = WireWriter.BUFFERS.get();
+
+		if (buffer == null)
+			return new byte[8192];
+
+		WireWriter.BUFFERS.remove();
+		return buffer;
+	}
+
+	/**
+	 * Write the buffered bytes to the target.
+	 *
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.29
+	 */
+	@Contract(mutates = "this")
+	private void drain() throws IOException {
+		if (this.position == 0)
+			return;
+
+		if (this.channel == null)
+			this.stream.write(this.buffer, 0, this.position);
+		else {
+			ByteBuffer buffer = ByteBuffer.wrap(this.buffer, 0, this.position);
+
+			while (buffer.hasRemaining())
+				this.channel.write(buffer);
+		}
+
+		this.position = 0;
+	}
+}
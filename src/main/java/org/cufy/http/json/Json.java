@@ -15,16 +15,12 @@
  */
 package org.cufy.http.json;
 
-import org.cufy.http.json.token.JsonContextToken;
-import org.cufy.http.json.token.JsonTokenException;
-import org.cufy.http.json.token.JsonTokenSource;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
-import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
@@ -78,13 +74,6 @@ public final class Json {
 	@Contract(value = "_->new", pure = true)
 	public static JsonElement parse(@NotNull @Language("json") String source) {
 		Objects.requireNonNull(source, "string");
-		try {
-			return new JsonContextToken(new JsonTokenSource(new StringReader(source)))
-					.nextElement();
-		} catch (JsonTokenException e) {
-			throw new IllegalArgumentException(e.formatMessage(source), e);
-		} catch (IOException e) {
-			throw new InternalError(e);
-		}
+		return JsonParser.parse(source.getBytes(StandardCharsets.UTF_8));
 	}
 }
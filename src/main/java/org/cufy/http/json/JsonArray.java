@@ -15,17 +15,12 @@
  */
 package org.cufy.http.json;
 
-import org.cufy.http.json.token.JsonArrayToken;
-import org.cufy.http.json.token.JsonTokenException;
-import org.cufy.http.json.token.JsonTokenSource;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -103,18 +98,12 @@ public class JsonArray implements JsonStruct, List<@NotNull JsonElement> {
 	@Contract(value = "_->new", pure = true)
 	public static JsonArray parse(@NotNull @Language("json") String source) {
 		Objects.requireNonNull(source, "source");
-		try {
-			JsonArrayToken token = new JsonArrayToken(new JsonTokenSource(new StringReader(source)));
-			token.nextWhitespace();
-			JsonArray array = token.nextElement();
-			token.nextWhitespace();
-			token.assertFinished();
-			return array;
-		} catch (JsonTokenException e) {
-			throw new IllegalArgumentException(e.formatMessage(source), e);
-		} catch (IOException e) {
-			throw new InternalError(e);
-		}
+		JsonElement element = Json.parse(source);
+
+		if (!(element instanceof JsonArray))
+			throw new IllegalArgumentException("Expected: [");
+
+		return (JsonArray) element;
 	}
 
 	@Nullable
@@ -15,22 +15,22 @@
  */
 package org.cufy.http.json;
 
-import org.cufy.http.json.token.JsonTokenException;
-import org.cufy.http.json.token.JsonTokenSource;
-import org.cufy.http.json.token.JsonNumberToken;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.Objects;
 
 /**
  * Json number constant class.
+ * <br>
+ * A number is held as a {@code long} or a {@code double} when it fits one of them
+ * exactly. The {@link BigDecimal} form is only created when {@link #value()} is called
+ * (or when the number does not fit a primitive).
  *
  * @author LSafer
  * @version 0.3.0
@@ -38,16 +38,62 @@ import java.util.Objects;
  */
 @ApiStatus.Experimental
 public class JsonNumber implements JsonElement {
+	/**
+	 * The kind of numbers backed by a {@link BigDecimal}.
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected static final int DECIMAL = 0;
+	/**
+	 * The kind of numbers backed by a {@code double}.
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected static final int DOUBLE = 2;
+	/**
+	 * The kind of numbers backed by a {@code long}.
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected static final int LONG = 1;
+
 	@SuppressWarnings("JavaDoc")
-	private static final long serialVersionUID = 8423875023841804519L;
+	private static final long serialVersionUID = -2206349017731846158L;
+
+	/**
+	 * The value of this number when it is a {@link #DOUBLE}.
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected final double doubleValue;
+	/**
+	 * The kind of this number. ({@link #LONG}, {@link #DOUBLE} or {@link #DECIMAL})
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected final int kind;
+	/**
+	 * The value of this number when it is a {@link #LONG}. Or, the unscaled value of this
+	 * number when it is a {@link #DOUBLE} with a known {@link #scale}.
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected final long longValue;
+	/**
+	 * The scale of this number when it is a {@link #DOUBLE} that was parsed from a
+	 * decimal. ({@link Integer#MIN_VALUE} if unknown)
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	protected final int scale;
 
 	/**
-	 * The value of this number.
+	 * The value of this number. (lazily initialized for primitive numbers)
 	 *
 	 * @since 0.3.0 ~2021.11.23
 	 */
-	@NotNull
-	protected final BigDecimal number;
+	@Nullable
+	protected BigDecimal number;
 
 	/**
 	 * Construct a new json number.
@@ -57,9 +103,59 @@ public class JsonNumber implements JsonElement {
 	 */
 	public JsonNumber(@NotNull BigDecimal number) {
 		Objects.requireNonNull(number, "number");
+		this.kind = JsonNumber.DECIMAL;
+		this.longValue = 0;
+		this.doubleValue = 0;
+		this.scale = Integer.MIN_VALUE;
 		this.number = number;
 	}
 
+	/**
+	 * Construct a new json number.
+	 *
+	 * @param number the number to be the number of the constructed number.
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	public JsonNumber(long number) {
+		this.kind = JsonNumber.LONG;
+		this.longValue = number;
+		this.doubleValue = 0;
+		this.scale = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Construct a new json number.
+	 *
+	 * @param number the number to be the number of the constructed number.
+	 * @throws IllegalArgumentException if the given {@code number} is NaN or infinite.
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	public JsonNumber(double number) {
+		if (Double.isNaN(number) || Double.isInfinite(number))
+			throw new IllegalArgumentException("Not a json number: " + number);
+		this.kind = JsonNumber.DOUBLE;
+		this.longValue = 0;
+		this.doubleValue = number;
+		this.scale = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Construct a new json number from a parsed decimal. The given {@code number} must be
+	 * the correctly rounded value of {@code unscaled * 10^-scale} and the given {@code
+	 * unscaled} must have at most 15 digits.
+	 *
+	 * @param number   the value as a double.
+	 * @param unscaled the unscaled value of the decimal.
+	 * @param scale    the scale of the decimal.
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	JsonNumber(double number, long unscaled, int scale) {
+		this.kind = JsonNumber.DOUBLE;
+		this.longValue = unscaled;
+		this.doubleValue = number;
+		this.scale = scale;
+	}
+
 	/**
 	 * Construct a new json number from the given {@code number}.
 	 *
@@ -84,7 +180,7 @@ public class JsonNumber implements JsonElement {
 	@NotNull
 	@Contract(value = "_->new", pure = true)
 	public static JsonNumber from(long number) {
-		return new JsonNumber(new BigDecimal(number));
+		return new JsonNumber(number);
 	}
 
 	/**
@@ -92,12 +188,13 @@ public class JsonNumber implements JsonElement {
 	 *
 	 * @param number the value for the constructed json number.
 	 * @return a new json number from the given value.
+	 * @throws IllegalArgumentException if the given {@code number} is NaN or infinite.
 	 * @since 0.3.0 ~2021.11.24
 	 */
 	@NotNull
 	@Contract(value = "_->new", pure = true)
 	public static JsonNumber from(double number) {
-		return new JsonNumber(new BigDecimal(number));
+		return new JsonNumber(number);
 	}
 
 	/**
@@ -113,18 +210,12 @@ public class JsonNumber implements JsonElement {
 	@Contract(value = "_->new", pure = true)
 	public static JsonNumber parse(@NotNull @Language("json") String source) {
 		Objects.requireNonNull(source, "source");
-		try {
-			JsonNumberToken token = new JsonNumberToken(new JsonTokenSource(new StringReader(source)));
-			token.nextWhitespace();
-			JsonNumber number = token.nextElement();
-			token.nextWhitespace();
-			token.assertFinished();
-			return number;
-		} catch (JsonTokenException e) {
-			throw new IllegalArgumentException(e.formatMessage(source), e);
-		} catch (IOException e) {
-			throw new InternalError(e);
-		}
+		JsonElement element = Json.parse(source);
+
+		if (!(element instanceof JsonNumber))
+			throw new IllegalArgumentException("Expected: number");
+
+		return (JsonNumber) element;
 	}
 
 	@NotNull
@@ -137,6 +228,24 @@ public class JsonNumber implements JsonElement {
 		}
 	}
 
+	/**
+	 * Return the value of this number as a {@code double}. Might lose precision.
+	 *
+	 * @return the value of this number as a double.
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	@Contract(pure = true)
+	public double doubleValue() {
+		switch (this.kind) {
+			case JsonNumber.LONG:
+				return this.longValue;
+			case JsonNumber.DOUBLE:
+				return this.doubleValue;
+			default:
+				return this.value().doubleValue();
+		}
+	}
+
 	@Override
 	public boolean equals(@Nullable Object object) {
 		if (object == this)
@@ -144,7 +253,10 @@ public class JsonNumber implements JsonElement {
 		if (object instanceof JsonNumber) {
 			JsonNumber number = (JsonNumber) object;
 
-			return this.number.compareTo(number.number) == 0;
+			if (this.kind == JsonNumber.LONG && number.kind == JsonNumber.LONG)
+				return this.longValue == number.longValue;
+
+			return this.value().compareTo(number.value()) == 0;
 		}
 
 		return false;
@@ -152,19 +264,63 @@ public class JsonNumber implements JsonElement {
 
 	@Override
 	public int hashCode() {
-		return this.number.hashCode();
+		//integral numbers within the range of long hash as longs regardless of
+		//their kind or scale. So, equal numbers hash the same.
+		if (this.kind == JsonNumber.LONG)
+			return Long.hashCode(this.longValue);
+		//a double below 2^53 is integral only if the number it was created from is
+		if (this.kind == JsonNumber.DOUBLE &&
+			this.doubleValue == Math.rint(this.doubleValue) &&
+			Math.abs(this.doubleValue) < 0x1p53)
+			return Long.hashCode((long) this.doubleValue);
+
+		BigDecimal value = this.value().stripTrailingZeros();
+
+		if (value.scale() <= 0 && value.precision() - value.scale() <= 19) {
+			BigInteger integer = value.toBigIntegerExact();
+
+			if (integer.bitLength() < 64)
+				return Long.hashCode(integer.longValue());
+		}
+
+		return value.hashCode();
 	}
 
 	@NotNull
 	@Override
 	public String json() {
-		return this.number.toString();
+		if (this.kind == JsonNumber.LONG)
+			return Long.toString(this.longValue);
+		if (this.kind == JsonNumber.DOUBLE && this.scale == Integer.MIN_VALUE)
+			return Double.toString(this.doubleValue);
+
+		return this.value().toString();
 	}
 
 	@NotNull
 	@Override
 	public String json(@NotNull String indent, @NotNull String tab) {
-		return this.number.toString();
+		return this.json();
+	}
+
+	/**
+	 * Return the value of this number as a {@code long}. Might lose precision.
+	 * <br>
+	 * The conversion is the same as {@link BigDecimal#longValue()} regardless of how the
+	 * number is backed. So, a number out of the range of {@code long} wraps around.
+	 *
+	 * @return the value of this number as a long.
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	@Contract(pure = true)
+	public long longValue() {
+		if (this.kind == JsonNumber.LONG)
+			return this.longValue;
+		//the cast truncates the same way but saturates out of range
+		if (this.kind == JsonNumber.DOUBLE && this.doubleValue >= -0x1p63 && this.doubleValue < 0x1p63)
+			return (long) this.doubleValue;
+
+		return this.value().longValue();
 	}
 
 	@NotNull
@@ -182,6 +338,17 @@ public class JsonNumber implements JsonElement {
 	@NotNull
 	@Contract(pure = true)
 	public BigDecimal value() {
-		return this.number;
+		BigDecimal number = this.number;
+
+		if (number == null) {
+			number = this.kind == JsonNumber.LONG ?
+					 BigDecimal.valueOf(this.longValue) :
+					 this.scale != Integer.MIN_VALUE ?
+					 BigDecimal.valueOf(this.longValue, this.scale) :
+					 BigDecimal.valueOf(this.doubleValue);
+			this.number = number;
+		}
+
+		return number;
 	}
 }
@@ -15,17 +15,12 @@
  */
 package org.cufy.http.json;
 
-import org.cufy.http.json.token.JsonObjectToken;
-import org.cufy.http.json.token.JsonTokenException;
-import org.cufy.http.json.token.JsonTokenSource;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -102,18 +97,12 @@ public class JsonObject implements JsonStruct, Map<@NotNull JsonString, @NotNull
 	@Contract(value = "_->new", pure = true)
 	public static JsonObject parse(@NotNull @Language("json") String source) {
 		Objects.requireNonNull(source, "source");
-		try {
-			JsonObjectToken token = new JsonObjectToken(new JsonTokenSource(new StringReader(source)));
-			token.nextWhitespace();
-			JsonObject object = token.nextElement();
-			token.nextWhitespace();
-			token.assertFinished();
-			return object;
-		} catch (JsonTokenException e) {
-			throw new IllegalArgumentException(e.formatMessage(source), e);
-		} catch (IOException e) {
-			throw new InternalError(e);
-		}
+		JsonElement element = Json.parse(source);
+
+		if (!(element instanceof JsonObject))
+			throw new IllegalArgumentException("Expected: {");
+
+		return (JsonObject) element;
 	}
 
 	@Nullable
@@ -0,0 +1,723 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.json;
+
+import org.cufy.http.json.token.JsonTokenException;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A json parser that reads utf-8 encoded json directly from bytes.
+ * <br>
+ * The parser walks the bytes with an index cursor, decodes utf-8 inline and builds the
+ * elements directly (no intermediate tokens, readers or strings of the whole source).
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.22
+ */
+@ApiStatus.Experimental
+public final class JsonParser {
+	/**
+	 * The powers of ten that are exactly representable as doubles.
+	 *
+	 * @since 1.0.0 ~2022.01.23
+	 */
+	private static final double @NotNull [] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * The bytes being parsed.
+	 *
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private byte @NotNull [] bytes;
+	/**
+	 * The index of the first byte of the source.
+	 *
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private int offset;
+	/**
+	 * The index after the last byte of the source.
+	 *
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private int limit;
+
+	/**
+	 * A reusable buffer for decoding strings and numbers.
+	 *
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private char @NotNull [] chars = new char[64];
+	/**
+	 * The index of the next byte.
+	 *
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private int index;
+
+	/**
+	 * Construct a new parser over the given range of {@code bytes}. The range is expected
+	 * to be within the bounds of the given array.
+	 *
+	 * @param bytes  the bytes to be parsed.
+	 * @param offset the index of the first byte.
+	 * @param limit  the index after the last byte.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	JsonParser(byte @NotNull [] bytes, int offset, int limit) {
+		this.bytes = bytes;
+		this.offset = offset;
+		this.limit = limit;
+		this.index = offset;
+	}
+
+	/**
+	 * Parse the given utf-8 encoded {@code bytes} into a json element.
+	 *
+	 * @param bytes the bytes to be parsed.
+	 * @return a new json element from parsing the given bytes.
+	 * @throws NullPointerException     if the given {@code bytes} is null.
+	 * @throws IllegalArgumentException if the given {@code bytes} is invalid json.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	public static JsonElement parse(byte @NotNull [] bytes) {
+		Objects.requireNonNull(bytes, "bytes");
+		return JsonParser.parse(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Parse the given range of the given utf-8 encoded {@code bytes} into a json
+	 * element.
+	 *
+	 * @param bytes  the bytes to be parsed.
+	 * @param offset the index of the first byte to be parsed.
+	 * @param length the number of bytes to be parsed.
+	 * @return a new json element from parsing the given bytes.
+	 * @throws NullPointerException      if the given {@code bytes} is null.
+	 * @throws IndexOutOfBoundsException if the given range is out of bounds.
+	 * @throws IllegalArgumentException  if the given range is invalid json.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	@Contract(value = "_,_,_->new", pure = true)
+	public static JsonElement parse(byte @NotNull [] bytes, int offset, int length) {
+		Objects.requireNonNull(bytes, "bytes");
+		if (offset < 0 || length < 0 || offset > bytes.length - length)
+			throw new IndexOutOfBoundsException("offset=" + offset + " length=" + length);
+
+		return new JsonParser(bytes, offset, offset + length).nextDocument();
+	}
+
+	/**
+	 * Parse the remaining utf-8 encoded bytes in the given {@code buffer} into a json
+	 * element. The position of the buffer will not be changed.
+	 * <br>
+	 * Buffers that are not backed by an accessible array (like direct buffers) are copied
+	 * first.
+	 *
+	 * @param buffer the buffer to be parsed.
+	 * @return a new json element from parsing the given buffer.
+	 * @throws NullPointerException     if the given {@code buffer} is null.
+	 * @throws IllegalArgumentException if the given {@code buffer} is invalid json.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	public static JsonElement parse(@NotNull ByteBuffer buffer) {
+		Objects.requireNonNull(buffer, "buffer");
+
+		if (buffer.hasArray())
+			return JsonParser.parse(
+					buffer.array(),
+					buffer.arrayOffset() + buffer.position(),
+					buffer.remaining()
+			);
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return JsonParser.parse(bytes);
+	}
+
+	/**
+	 * Create a new exception with the given {@code message} at the current index.
+	 *
+	 * @param message the message of the exception.
+	 * @return a new exception.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	private JsonTokenException error(@NotNull String message) {
+		int i = Math.min(this.index, this.limit);
+		int from = Math.max(this.offset, i - 25);
+		int to = Math.min(this.limit, i + 26);
+		String before = new String(this.bytes, from, i - from, StandardCharsets.UTF_8);
+		String target = i < this.limit ? new String(this.bytes, i, 1, StandardCharsets.UTF_8) : "";
+		String after = i < to ? new String(this.bytes, i + 1, to - i - 1, StandardCharsets.UTF_8) : "";
+		//noinspection DynamicRegexReplaceableByCompiledPattern
+		String reference = (before + "<" + target + ">" + after)
+				.replaceAll("[\\r\\n\\t]", " ");
+		return new JsonTokenException(message + ": " + reference, i - this.offset);
+	}
+
+	/**
+	 * Return the index of the next byte.
+	 *
+	 * @return the index of the next byte.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(pure = true)
+	int index() {
+		return this.index;
+	}
+
+	/**
+	 * Point this parser at the given range of {@code bytes}. This is how a {@link
+	 * JsonReader} reuses a single parser for the tokens it buffers.
+	 *
+	 * @param bytes  the bytes to be parsed.
+	 * @param offset the index of the first byte.
+	 * @param limit  the index after the last byte.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	void reset(byte @NotNull [] bytes, int offset, int limit) {
+		this.bytes = bytes;
+		this.offset = offset;
+		this.limit = limit;
+		this.index = offset;
+	}
+
+	/**
+	 * Ensure the decoding buffer can hold at least the given {@code length}.
+	 *
+	 * @param length the required length.
+	 * @return the decoding buffer.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private char @NotNull [] chars(int length) {
+		if (this.chars.length < length)
+			this.chars = new char[Math.max(length, this.chars.length << 1)];
+
+		return this.chars;
+	}
+
+	/**
+	 * Parse a json array. The index is expected to be at the opening bracket.
+	 *
+	 * @return the parsed array.
+	 * @throws JsonTokenException if the array is invalid.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	private JsonArray nextArray() {
+		List<JsonElement> list = new ArrayList<>();
+		this.index++;
+
+		if (this.nextWhitespace() == ']') {
+			this.index++;
+			return new JsonArray(list);
+		}
+
+		while (true) {
+			list.add(this.nextValue());
+
+			switch (this.nextWhitespace()) {
+				case ',':
+					this.index++;
+
+					//a trailing comma is tolerated
+					if (this.nextWhitespace() == ']') {
+						this.index++;
+						return new JsonArray(list);
+					}
+
+					continue;
+				case ']':
+					this.index++;
+					return new JsonArray(list);
+				default:
+					throw this.error("Expected: , or ]");
+			}
+		}
+	}
+
+	/**
+	 * Parse the whole source as a single json element surrounded by optional whitespace.
+	 *
+	 * @return the parsed element.
+	 * @throws JsonTokenException if the source is invalid.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	private JsonElement nextDocument() {
+		byte[] bytes = this.bytes;
+
+		//skip the utf-8 byte order mark
+		if (this.limit - this.index >= 3 &&
+			bytes[this.index] == (byte) 0xEF &&
+			bytes[this.index + 1] == (byte) 0xBB &&
+			bytes[this.index + 2] == (byte) 0xBF)
+			this.index += 3;
+
+		this.nextWhitespace();
+		JsonElement element = this.nextValue();
+
+		if (this.nextWhitespace() != -1)
+			throw this.error("Unexpected token");
+
+		return element;
+	}
+
+	/**
+	 * Parse the literal {@code true}, {@code false} or {@code null}.
+	 *
+	 * @param literal the expected literal.
+	 * @param element the element to return.
+	 * @return the given {@code element}.
+	 * @throws JsonTokenException if the literal does not match.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	private JsonElement nextLiteral(@NotNull String literal, @NotNull JsonElement element) {
+		int length = literal.length();
+
+		if (this.limit - this.index < length)
+			throw this.error("Invalid literal");
+
+		for (int i = 0; i < length; i++)
+			if (this.bytes[this.index + i] != literal.charAt(i)) {
+				this.index += i;
+				throw this.error("Invalid literal");
+			}
+
+		this.index += length;
+		return element;
+	}
+
+	/**
+	 * Parse a json number. The index is expected to be at the first char of the number.
+	 *
+	 * @return the parsed number.
+	 * @throws JsonTokenException if the number is invalid.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	JsonNumber nextNumber() {
+		byte[] bytes = this.bytes;
+		int limit = this.limit;
+		int start = this.index;
+		int i = start;
+		boolean negative = false;
+		//the significant digits (as long as they fit) and their count
+		long mantissa = 0;
+		int digits = 0;
+		//the power of ten to multiply the mantissa by
+		int exponent = 0;
+		boolean integer = true;
+
+		if (i < limit && bytes[i] == '-') {
+			negative = true;
+			i++;
+		}
+
+		//int = zero / ( digit1-9 *DIGIT )
+		if (i < limit && bytes[i] == '0')
+			i++;
+		else if (i < limit && bytes[i] >= '1' && bytes[i] <= '9')
+			do {
+				if (digits++ < 19)
+					mantissa = mantissa * 10 + bytes[i] - '0';
+			} while (++i < limit && bytes[i] >= '0' && bytes[i] <= '9');
+		else {
+			this.index = i;
+			throw this.error("Invalid number");
+		}
+
+		//frac = decimal-point 1*DIGIT
+		if (i < limit && bytes[i] == '.') {
+			int fraction = ++i;
+			integer = false;
+
+			for (; i < limit && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+				if (digits == 0 && bytes[i] == '0') {
+					//leading zeros are not significant
+					exponent--;
+					continue;
+				}
+				if (digits++ < 19) {
+					mantissa = mantissa * 10 + bytes[i] - '0';
+					exponent--;
+				}
+			}
+
+			if (i == fraction) {
+				this.index = i;
+				throw this.error("Invalid number");
+			}
+		}
+
+		//exp = e [ minus / plus ] 1*DIGIT
+		if (i < limit && (bytes[i] == 'e' || bytes[i] == 'E')) {
+			boolean negativeExponent = false;
+			int value = 0;
+			integer = false;
+
+			if (++i < limit && (bytes[i] == '-' || bytes[i] == '+'))
+				negativeExponent = bytes[i++] == '-';
+
+			int from = i;
+
+			for (; i < limit && bytes[i] >= '0' && bytes[i] <= '9'; i++)
+				//saturate; anything this big takes the slow path anyway
+				if (value < 100_000)
+					value = value * 10 + bytes[i] - '0';
+
+			if (i == from) {
+				this.index = i;
+				throw this.error("Invalid number");
+			}
+
+			exponent += negativeExponent ? -value : value;
+		}
+
+		if (integer && digits <= 18) {
+			this.index = i;
+			return new JsonNumber(negative ? -mantissa : mantissa);
+		}
+		if (!integer && digits <= 15 && exponent >= -22 && exponent <= 22) {
+			//both the mantissa and the power of ten are exact doubles,
+			//so a single operation gives the correctly rounded result
+			double value = exponent < 0 ?
+						   mantissa / JsonParser.POWERS_OF_TEN[-exponent] :
+						   mantissa * JsonParser.POWERS_OF_TEN[exponent];
+			this.index = i;
+			return negative ?
+				   new JsonNumber(-value, -mantissa, -exponent) :
+				   new JsonNumber(value, mantissa, -exponent);
+		}
+
+		int length = i - start;
+		char[] chars = this.chars(length);
+
+		for (int j = 0; j < length; j++)
+			chars[j] = (char) bytes[start + j];
+
+		try {
+			BigDecimal number = new BigDecimal(chars, 0, length);
+			this.index = i;
+			return new JsonNumber(number);
+		} catch (NumberFormatException e) {
+			throw this.error("Invalid number");
+		}
+	}
+
+	/**
+	 * Parse a json object. The index is expected to be at the opening brace.
+	 *
+	 * @return the parsed object.
+	 * @throws JsonTokenException if the object is invalid.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	private JsonObject nextObject() {
+		Map<JsonString, JsonElement> map = new LinkedHashMap<>();
+		this.index++;
+
+		if (this.nextWhitespace() == '}') {
+			this.index++;
+			return new JsonObject(map);
+		}
+
+		while (true) {
+			if (this.nextWhitespace() != '"')
+				throw this.error("Keys in objects must be strings");
+
+			JsonString key = new JsonString(this.nextString());
+
+			if (this.nextWhitespace() != ':')
+				throw this.error("Expected: :");
+
+			this.index++;
+			this.nextWhitespace();
+			map.put(key, this.nextValue());
+
+			switch (this.nextWhitespace()) {
+				case ',':
+					this.index++;
+
+					//a trailing comma is tolerated
+					if (this.nextWhitespace() == '}') {
+						this.index++;
+						return new JsonObject(map);
+					}
+
+					continue;
+				case '}':
+					this.index++;
+					return new JsonObject(map);
+				default:
+					throw this.error("Expected: , or }");
+			}
+		}
+	}
+
+	/**
+	 * Parse a json string. The index is expected to be at the opening quote.
+	 *
+	 * @return the parsed string.
+	 * @throws JsonTokenException if the string is invalid.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	String nextString() {
+		byte[] bytes = this.bytes;
+		int limit = this.limit;
+		int start = ++this.index;
+		int i = start;
+
+		//fast path: plain ascii without escapes
+		while (i < limit) {
+			byte b = bytes[i];
+
+			if (b == '"') {
+				this.index = i + 1;
+				return new String(bytes, start, i - start, StandardCharsets.ISO_8859_1);
+			}
+			if (b == '\\' || b < 0)
+				break;
+
+			i++;
+		}
+
+		char[] chars = this.chars(i - start + 16);
+		int length = i - start;
+
+		for (int j = 0; j < length; j++)
+			chars[j] = (char) bytes[start + j];
+
+		while (true) {
+			if (i >= limit) {
+				this.index = i;
+				throw this.error("Unexpected EOF");
+			}
+			//one byte may decode into two chars (surrogate pair)
+			if (length + 2 > chars.length)
+				chars = this.chars(length + 2);
+
+			int b = bytes[i];
+
+			if (b == '"') {
+				this.index = i + 1;
+				return new String(chars, 0, length);
+			}
+			if (b == '\\') {
+				if (++i >= limit) {
+					this.index = i;
+					throw this.error("Unexpected EOF");
+				}
+
+				switch (bytes[i++]) {
+					case '"':
+						chars[length++] = '"';
+						break;
+					case '\\':
+						chars[length++] = '\\';
+						break;
+					case '/':
+						chars[length++] = '/';
+						break;
+					case 'b':
+						chars[length++] = '\b';
+						break;
+					case 'f':
+						chars[length++] = '\f';
+						break;
+					case 'n':
+						chars[length++] = '\n';
+						break;
+					case 'r':
+						chars[length++] = '\r';
+						break;
+					case 't':
+						chars[length++] = '\t';
+						break;
+					case 'u':
+						int c = 0;
+
+						for (int j = 0; j < 4; j++, i++) {
+							int d = i < limit ? Character.digit(bytes[i], 16) : -1;
+
+							if (d < 0) {
+								this.index = i;
+								throw this.error("Encoded char must be in hex");
+							}
+
+							c = c << 4 | d;
+						}
+
+						chars[length++] = (char) c;
+						break;
+					default:
+						this.index = i - 1;
+						throw this.error("Invalid escaped char");
+				}
+
+				continue;
+			}
+			if (b >= 0) {
+				chars[length++] = (char) b;
+				i++;
+				continue;
+			}
+
+			//multibyte utf-8 sequence; each maximal malformed subpart decodes into U+FFFD
+			int lead = b & 0xFF;
+			int n;
+			int lo = 0x80;
+			int hi = 0xBF;
+
+			if (lead >= 0xC2 && lead <= 0xDF)
+				n = 1;
+			else if (lead >= 0xE0 && lead <= 0xEF) {
+				n = 2;
+				//no overlongs
+				if (lead == 0xE0)
+					lo = 0xA0;
+			} else if (lead >= 0xF0 && lead <= 0xF4) {
+				n = 3;
+				//no overlongs and nothing above U+10FFFF
+				if (lead == 0xF0)
+					lo = 0x90;
+				else if (lead == 0xF4)
+					hi = 0x8F;
+			} else {
+				chars[length++] = '\uFFFD';
+				i++;
+				continue;
+			}
+
+			int cp = lead & 0x3F >> n;
+			int j = i + 1;
+
+			for (int k = 0; k < n; k++, j++) {
+				int c = j < limit ? bytes[j] & 0xFF : -1;
+
+				if (c < lo || c > hi)
+					break;
+
+				cp = cp << 6 | c & 0x3F;
+				lo = 0x80;
+				hi = 0xBF;
+			}
+
+			if (j != i + n + 1 || cp >= 0xD800 && cp <= 0xDFFF)
+				chars[length++] = '\uFFFD';
+			else if (cp >= 0x10000) {
+				chars[length++] = Character.highSurrogate(cp);
+				chars[length++] = Character.lowSurrogate(cp);
+			} else
+				chars[length++] = (char) cp;
+
+			i = j;
+		}
+	}
+
+	/**
+	 * Parse the json value at the index.
+	 *
+	 * @return the parsed value.
+	 * @throws JsonTokenException if the value is invalid.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	@NotNull
+	private JsonElement nextValue() {
+		if (this.index >= this.limit)
+			throw this.error("Unexpected EOF");
+
+		switch (this.bytes[this.index]) {
+			case '{':
+				return this.nextObject();
+			case '[':
+				return this.nextArray();
+			case '"':
+				return new JsonString(this.nextString());
+			case 't':
+				return this.nextLiteral("true", Json.TRUE);
+			case 'f':
+				return this.nextLiteral("false", Json.FALSE);
+			case 'n':
+				return this.nextLiteral("null", Json.NULL);
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				return this.nextNumber();
+			default:
+				throw this.error("Unexpected token");
+		}
+	}
+
+	/**
+	 * Skip whitespace and return the next byte without consuming it.
+	 *
+	 * @return the next non-whitespace byte, or {@code -1} if reached the end.
+	 * @since 1.0.0 ~2022.01.22
+	 */
+	private int nextWhitespace() {
+		byte[] bytes = this.bytes;
+		int limit = this.limit;
+		int i = this.index;
+
+		while (i < limit) {
+			byte b = bytes[i];
+
+			if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+				this.index = i;
+				return b;
+			}
+
+			i++;
+		}
+
+		this.index = i;
+		return -1;
+	}
+}
@@ -0,0 +1,902 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.json;
+
+import org.cufy.http.json.token.JsonTokenException;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A pull parser that reads utf-8 encoded json incrementally from an input stream.
+ * <br>
+ * The reader only holds the token being read (and a fixed size buffer) in memory. So,
+ * large documents can be consumed in constant memory and uninteresting values can be
+ * {@link #skipValue() skipped} without building them.
+ * <pre>
+ *     try (JsonReader reader = new JsonReader(body.openInputStream())) {
+ *         reader.beginObject();
+ *         while (reader.hasNext()) {
+ *             if (reader.nextName().equals("id"))
+ *                 id = reader.nextLong();
+ *             else
+ *                 reader.skipValue();
+ *         }
+ *         reader.endObject();
+ *     }
+ * </pre>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.24
+ */
+@ApiStatus.Experimental
+public final class JsonReader implements Closeable {
+	/**
+	 * The token type of the opening bracket of an array.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int BEGIN_ARRAY = 1;
+	/**
+	 * The token type of the opening brace of an object.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int BEGIN_OBJECT = 3;
+	/**
+	 * The token type of {@code true} and {@code false}.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int BOOLEAN = 8;
+	/**
+	 * The token type of the closing bracket of an array.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int END_ARRAY = 2;
+	/**
+	 * The token type of the end of the document.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int END_DOCUMENT = 10;
+	/**
+	 * The token type of the closing brace of an object.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int END_OBJECT = 4;
+	/**
+	 * The token type of the name of an object member.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int NAME = 5;
+	/**
+	 * The token type of {@code null}.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int NULL = 9;
+	/**
+	 * The token type of numbers.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int NUMBER = 7;
+	/**
+	 * The token type of strings.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public static final int STRING = 6;
+
+	/**
+	 * The scope of an array with a value read.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int ARRAY = 1;
+	/**
+	 * The scope of the document before the value.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int DOCUMENT = 2;
+	/**
+	 * The scope of an array with no values read.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int EMPTY_ARRAY = 3;
+	/**
+	 * The scope of an object with no members read.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int EMPTY_OBJECT = 4;
+	/**
+	 * The scope of the document after the value.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int END = 5;
+	/**
+	 * The scope of an object with a name read but not its value.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int MEMBER = 6;
+	/**
+	 * The state when no token has been peeked.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int NONE = 0;
+	/**
+	 * The scope of an object with a member read.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private static final int OBJECT = 7;
+
+	/**
+	 * The stream to read from.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	private final InputStream stream;
+
+	/**
+	 * The parser used to decode the buffered strings and numbers.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	private final JsonParser parser;
+
+	/**
+	 * The read buffer. Grows when a single token does not fit.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private byte @NotNull [] buffer = new byte[8192];
+	/**
+	 * The number of bytes discarded from the start of the buffer.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private long discarded;
+	/**
+	 * The index after the last read byte in the buffer.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int limit;
+	/**
+	 * The type of the peeked token. ({@link #NONE} if not peeked)
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int peeked;
+	/**
+	 * The index of the next byte in the buffer.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int position;
+	/**
+	 * The number of scopes in the stack.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int size = 1;
+	/**
+	 * The scopes stack.
+	 *
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int @NotNull [] stack = {JsonReader.DOCUMENT, 0, 0, 0, 0, 0, 0, 0};
+
+	/**
+	 * Construct a new reader reading from the given {@code stream}.
+	 *
+	 * @param stream the stream to read from.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	public JsonReader(@NotNull InputStream stream) {
+		Objects.requireNonNull(stream, "stream");
+		this.stream = stream;
+		this.parser = new JsonParser(this.buffer, 0, 0);
+	}
+
+	/**
+	 * Consume the opening bracket of an array.
+	 *
+	 * @throws JsonTokenException if the next token is not {@link #BEGIN_ARRAY}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public void beginArray() throws IOException {
+		this.expect(JsonReader.BEGIN_ARRAY, "Expected: [");
+		this.position++;
+		this.push(JsonReader.EMPTY_ARRAY);
+	}
+
+	/**
+	 * Consume the opening brace of an object.
+	 *
+	 * @throws JsonTokenException if the next token is not {@link #BEGIN_OBJECT}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public void beginObject() throws IOException {
+		this.expect(JsonReader.BEGIN_OBJECT, "Expected: {");
+		this.position++;
+		this.push(JsonReader.EMPTY_OBJECT);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.peeked = JsonReader.NONE;
+		this.size = 0;
+		this.stream.close();
+	}
+
+	/**
+	 * Consume the closing bracket of an array.
+	 *
+	 * @throws JsonTokenException if the next token is not {@link #END_ARRAY}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public void endArray() throws IOException {
+		this.expect(JsonReader.END_ARRAY, "Expected: ]");
+		this.position++;
+		this.size--;
+	}
+
+	/**
+	 * Consume the closing brace of an object.
+	 *
+	 * @throws JsonTokenException if the next token is not {@link #END_OBJECT}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public void endObject() throws IOException {
+		this.expect(JsonReader.END_OBJECT, "Expected: }");
+		this.position++;
+		this.size--;
+	}
+
+	/**
+	 * Return true if the current array or object has more elements.
+	 *
+	 * @return true, if the next token is not a closing one.
+	 * @throws JsonTokenException if the source is invalid.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public boolean hasNext() throws IOException {
+		int peeked = this.peek();
+		return peeked != JsonReader.END_ARRAY &&
+			   peeked != JsonReader.END_OBJECT &&
+			   peeked != JsonReader.END_DOCUMENT;
+	}
+
+	/**
+	 * Consume the next boolean.
+	 *
+	 * @return the consumed boolean.
+	 * @throws JsonTokenException if the next token is not a {@link #BOOLEAN}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public boolean nextBoolean() throws IOException {
+		this.expect(JsonReader.BOOLEAN, "Expected: boolean");
+
+		if (this.buffer[this.position] == 't') {
+			this.nextLiteral("true");
+			return true;
+		}
+
+		this.nextLiteral("false");
+		return false;
+	}
+
+	/**
+	 * Consume the next value and build it. Use {@link #skipValue()} instead when the
+	 * value is not needed.
+	 *
+	 * @return the consumed value.
+	 * @throws JsonTokenException if the next token is not the start of a value or the
+	 *                            value is invalid.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	public JsonElement nextElement() throws IOException {
+		switch (this.peek()) {
+			case JsonReader.BEGIN_OBJECT: {
+				Map<JsonString, JsonElement> map = new LinkedHashMap<>();
+				this.beginObject();
+				while (this.hasNext()) {
+					JsonString name = new JsonString(this.nextName());
+					map.put(name, this.nextElement());
+				}
+				this.endObject();
+				return new JsonObject(map);
+			}
+			case JsonReader.BEGIN_ARRAY: {
+				List<JsonElement> list = new ArrayList<>();
+				this.beginArray();
+				while (this.hasNext())
+					list.add(this.nextElement());
+				this.endArray();
+				return new JsonArray(list);
+			}
+			case JsonReader.STRING:
+				return new JsonString(this.nextString());
+			case JsonReader.NUMBER:
+				return this.nextNumber();
+			case JsonReader.BOOLEAN:
+				return this.nextBoolean() ? Json.TRUE : Json.FALSE;
+			case JsonReader.NULL:
+				this.nextNull();
+				return Json.NULL;
+			default:
+				throw this.error("Expected: value");
+		}
+	}
+
+	/**
+	 * Consume the next number as a long.
+	 *
+	 * @return the consumed number.
+	 * @throws JsonTokenException if the next token is not a {@link #NUMBER} or the number
+	 *                            is not an integer within the range of a long.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public long nextLong() throws IOException {
+		int position = this.position;
+		JsonNumber number = this.nextNumber();
+
+		if (number.kind == JsonNumber.LONG)
+			return number.longValue;
+
+		try {
+			return number.value().longValueExact();
+		} catch (ArithmeticException e) {
+			this.position = position;
+			throw this.error("Expected: long");
+		}
+	}
+
+	/**
+	 * Consume the next member name.
+	 *
+	 * @return the consumed name.
+	 * @throws JsonTokenException if the next token is not a {@link #NAME}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	public String nextName() throws IOException {
+		this.expect(JsonReader.NAME, "Expected: name");
+		return this.decodeString();
+	}
+
+	/**
+	 * Consume the next {@code null}.
+	 *
+	 * @throws JsonTokenException if the next token is not a {@link #NULL}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public void nextNull() throws IOException {
+		this.expect(JsonReader.NULL, "Expected: null");
+		this.nextLiteral("null");
+	}
+
+	/**
+	 * Consume the next number.
+	 *
+	 * @return the consumed number.
+	 * @throws JsonTokenException if the next token is not a {@link #NUMBER}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	public JsonNumber nextNumber() throws IOException {
+		this.expect(JsonReader.NUMBER, "Expected: number");
+		int end = this.scanNumber();
+		this.parser.reset(this.buffer, this.position, end);
+		JsonNumber number;
+
+		try {
+			number = this.parser.nextNumber();
+		} catch (JsonTokenException e) {
+			throw new JsonTokenException(e.getMessage(), e, this.discarded + this.position);
+		}
+
+		if (this.parser.index() != end)
+			throw this.error("Invalid number");
+
+		this.position = end;
+		return number;
+	}
+
+	/**
+	 * Consume the next string.
+	 *
+	 * @return the consumed string.
+	 * @throws JsonTokenException if the next token is not a {@link #STRING}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	@Contract(mutates = "this")
+	public String nextString() throws IOException {
+		this.expect(JsonReader.STRING, "Expected: string");
+		return this.decodeString();
+	}
+
+	/**
+	 * Consume the next token whatever it is and return its type. The content of names
+	 * and values is skipped.
+	 *
+	 * @return the type of the consumed token.
+	 * @throws JsonTokenException if the source is invalid.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public int nextToken() throws IOException {
+		int peeked = this.peek();
+
+		switch (peeked) {
+			case JsonReader.BEGIN_ARRAY:
+				this.beginArray();
+				break;
+			case JsonReader.BEGIN_OBJECT:
+				this.beginObject();
+				break;
+			case JsonReader.END_ARRAY:
+				this.endArray();
+				break;
+			case JsonReader.END_OBJECT:
+				this.endObject();
+				break;
+			case JsonReader.NAME:
+			case JsonReader.STRING:
+				this.position = this.scanString();
+				this.peeked = JsonReader.NONE;
+				break;
+			case JsonReader.NUMBER:
+				this.nextNumber();
+				break;
+			case JsonReader.BOOLEAN:
+				this.nextBoolean();
+				break;
+			case JsonReader.NULL:
+				this.nextNull();
+				break;
+			default:
+				break;
+		}
+
+		return peeked;
+	}
+
+	/**
+	 * Return the type of the next token without consuming it.
+	 *
+	 * @return the type of the next token.
+	 * @throws JsonTokenException if the source is invalid.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public int peek() throws IOException {
+		if (this.peeked != JsonReader.NONE)
+			return this.peeked;
+		if (this.size == 0)
+			throw new IllegalStateException("JsonReader is closed");
+
+		int c;
+
+		switch (this.stack[this.size - 1]) {
+			case JsonReader.DOCUMENT:
+				this.stack[this.size - 1] = JsonReader.END;
+
+				//skip the utf-8 byte order mark
+				if (this.fill(3) &&
+					this.buffer[this.position] == (byte) 0xEF &&
+					this.buffer[this.position + 1] == (byte) 0xBB &&
+					this.buffer[this.position + 2] == (byte) 0xBF)
+					this.position += 3;
+
+				return this.peeked = this.peekValue(this.nextWhitespace());
+			case JsonReader.END:
+				if (this.nextWhitespace() != -1)
+					throw this.error("Unexpected token");
+
+				return this.peeked = JsonReader.END_DOCUMENT;
+			case JsonReader.EMPTY_ARRAY:
+				this.stack[this.size - 1] = JsonReader.ARRAY;
+				c = this.nextWhitespace();
+
+				if (c == ']')
+					return this.peeked = JsonReader.END_ARRAY;
+
+				return this.peeked = this.peekValue(c);
+			case JsonReader.ARRAY:
+				c = this.nextWhitespace();
+
+				if (c == ',') {
+					this.position++;
+					c = this.nextWhitespace();
+				} else if (c != ']')
+					throw this.error("Expected: , or ]");
+
+				//a trailing comma is tolerated
+				if (c == ']')
+					return this.peeked = JsonReader.END_ARRAY;
+
+				return this.peeked = this.peekValue(c);
+			case JsonReader.OBJECT:
+				c = this.nextWhitespace();
+
+				if (c == ',') {
+					this.position++;
+					c = this.nextWhitespace();
+				} else if (c != '}')
+					throw this.error("Expected: , or }");
+
+				return this.peeked = this.peekName(c);
+			case JsonReader.EMPTY_OBJECT:
+				return this.peeked = this.peekName(this.nextWhitespace());
+			case JsonReader.MEMBER:
+				if (this.nextWhitespace() != ':')
+					throw this.error("Expected: :");
+
+				this.position++;
+				this.stack[this.size - 1] = JsonReader.OBJECT;
+				return this.peeked = this.peekValue(this.nextWhitespace());
+			default:
+				throw new InternalError("Unknown scope");
+		}
+	}
+
+	/**
+	 * Skip the next value (including all of its nested values) without decoding or
+	 * building it. If the next token is a member name, both the name and its value are
+	 * skipped.
+	 * <br>
+	 * Skipped strings are only scanned for their closing quote. So, invalid escapes or
+	 * control characters in them are not reported.
+	 *
+	 * @throws JsonTokenException if the source is invalid.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@Contract(mutates = "this")
+	public void skipValue() throws IOException {
+		if (!this.hasNext())
+			throw this.error("Expected: value");
+
+		int depth = 0;
+		int token;
+
+		do {
+			token = this.nextToken();
+
+			if (token == JsonReader.BEGIN_ARRAY || token == JsonReader.BEGIN_OBJECT)
+				depth++;
+			else if (token == JsonReader.END_ARRAY || token == JsonReader.END_OBJECT)
+				depth--;
+			//a name on the top level is followed by its value
+		} while (depth > 0 || token == JsonReader.NAME);
+	}
+
+	/**
+	 * Decode the string at the current position.
+	 *
+	 * @return the decoded string.
+	 * @throws JsonTokenException if the string is invalid.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	private String decodeString() throws IOException {
+		int end = this.scanString();
+		this.parser.reset(this.buffer, this.position, end);
+		String string;
+
+		try {
+			string = this.parser.nextString();
+		} catch (JsonTokenException e) {
+			throw new JsonTokenException(e.getMessage(), e, this.discarded + this.position);
+		}
+		this.position = end;
+		this.peeked = JsonReader.NONE;
+		return string;
+	}
+
+	/**
+	 * Create a new exception with the given {@code message} at the current position.
+	 *
+	 * @param message the message of the exception.
+	 * @return a new exception.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	private JsonTokenException error(@NotNull String message) {
+		int from = Math.max(0, this.position - 25);
+		int to = Math.min(this.limit, this.position + 26);
+		String before = new String(this.buffer, from, this.position - from, StandardCharsets.UTF_8);
+		String target = this.position < to ? new String(this.buffer, this.position, 1, StandardCharsets.UTF_8) : "";
+		String after = this.position < to ? new String(this.buffer, this.position + 1, to - this.position - 1, StandardCharsets.UTF_8) : "";
+		//noinspection DynamicRegexReplaceableByCompiledPattern
+		String reference = (before + "<" + target + ">" + after)
+				.replaceAll("[\\r\\n\\t]", " ");
+		return new JsonTokenException(message + ": " + reference, this.discarded + this.position);
+	}
+
+	/**
+	 * Consume the peeked token if it is of the given {@code type}.
+	 *
+	 * @param type    the expected type.
+	 * @param message the error message if the peeked token is not of the given type.
+	 * @throws JsonTokenException if the next token is not of the given {@code type}.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private void expect(int type, @NotNull String message) throws IOException {
+		if (this.peek() != type)
+			throw this.error(message);
+
+		this.peeked = JsonReader.NONE;
+	}
+
+	/**
+	 * Ensure at least the given {@code count} of bytes are buffered after the position.
+	 * Compacts (and grows if needed) the buffer.
+	 *
+	 * @param count the number of bytes needed.
+	 * @return false, if the stream ended before the given count of bytes was read.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private boolean fill(int count) throws IOException {
+		if (this.limit - this.position >= count)
+			return true;
+
+		if (this.position > 0) {
+			System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+			this.discarded += this.position;
+			this.limit -= this.position;
+			this.position = 0;
+		}
+		if (this.buffer.length < count)
+			this.buffer = Arrays.copyOf(this.buffer, Math.max(count, this.buffer.length << 1));
+
+		while (this.limit < count) {
+			int read = this.stream.read(this.buffer, this.limit, this.buffer.length - this.limit);
+
+			if (read < 0)
+				return false;
+
+			this.limit += read;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Consume the given {@code literal}.
+	 *
+	 * @param literal the literal.
+	 * @throws JsonTokenException if the literal does not match.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private void nextLiteral(@NotNull String literal) throws IOException {
+		int length = literal.length();
+
+		if (!this.fill(length))
+			throw this.error("Invalid literal");
+
+		for (int i = 0; i < length; i++)
+			if (this.buffer[this.position + i] != literal.charAt(i)) {
+				this.position += i;
+				throw this.error("Invalid literal");
+			}
+
+		this.position += length;
+	}
+
+	/**
+	 * Skip whitespace and return the next byte without consuming it.
+	 *
+	 * @return the next non-whitespace byte, or {@code -1} if reached the end.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int nextWhitespace() throws IOException {
+		while (true) {
+			if (this.position == this.limit && !this.fill(1))
+				return -1;
+
+			byte b = this.buffer[this.position];
+
+			if (b != ' ' && b != '\n' && b != '\r' && b != '\t')
+				return b;
+
+			this.position++;
+		}
+	}
+
+	/**
+	 * Return the type of the token starting with the given char in a name position.
+	 *
+	 * @param c the first char.
+	 * @return the type of the token.
+	 * @throws JsonTokenException if the char cannot start a name or a closing brace.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int peekName(int c) {
+		if (c == '}')
+			return JsonReader.END_OBJECT;
+		if (c != '"')
+			throw this.error("Keys in objects must be strings");
+
+		this.stack[this.size - 1] = JsonReader.MEMBER;
+		return JsonReader.NAME;
+	}
+
+	/**
+	 * Return the type of the value starting with the given char.
+	 *
+	 * @param c the first char.
+	 * @return the type of the value.
+	 * @throws JsonTokenException if the char cannot start a value.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int peekValue(int c) {
+		switch (c) {
+			case '{':
+				return JsonReader.BEGIN_OBJECT;
+			case '[':
+				return JsonReader.BEGIN_ARRAY;
+			case '"':
+				return JsonReader.STRING;
+			case 't':
+			case 'f':
+				return JsonReader.BOOLEAN;
+			case 'n':
+				return JsonReader.NULL;
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				return JsonReader.NUMBER;
+			case -1:
+				throw this.error("Unexpected EOF");
+			default:
+				throw this.error("Unexpected token");
+		}
+	}
+
+	/**
+	 * Push the given {@code scope} into the stack.
+	 *
+	 * @param scope the scope to push.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private void push(int scope) {
+		if (this.size == this.stack.length)
+			this.stack = Arrays.copyOf(this.stack, this.size << 1);
+
+		this.stack[this.size++] = scope;
+	}
+
+	/**
+	 * Buffer the number at the current position and return the index after it.
+	 *
+	 * @return the index after the number.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int scanNumber() throws IOException {
+		int length = 0;
+
+		while (true) {
+			if (this.position + length >= this.limit && !this.fill(length + 1))
+				return this.position + length;
+
+			byte b = this.buffer[this.position + length];
+
+			if (b >= '0' && b <= '9' || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E')
+				length++;
+			else
+				return this.position + length;
+		}
+	}
+
+	/**
+	 * Buffer the string at the current position and return the index after its closing
+	 * quote.
+	 *
+	 * @return the index after the string.
+	 * @throws JsonTokenException if the stream ended before the string.
+	 * @throws IOException        if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.24
+	 */
+	private int scanString() throws IOException {
+		int length = 1;
+
+		while (true) {
+			if (this.position + length >= this.limit && !this.fill(length + 1)) {
+				this.position = this.limit;
+				throw this.error("Unexpected EOF");
+			}
+
+			byte b = this.buffer[this.position + length++];
+
+			if (b == '"')
+				return this.position + length;
+			if (b == '\\')
+				//the escaped char cannot end the string
+				length++;
+		}
+	}
+}
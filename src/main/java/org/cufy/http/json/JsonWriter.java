@@ -0,0 +1,461 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.json;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOError;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A writer that serializes json elements as utf-8 bytes directly into an output stream.
+ * <br>
+ * The writer walks the element tree once and encodes it through a fixed size buffer. So,
+ * no intermediate strings are created for the structs and strings of the tree.
+ * <pre>
+ *     try (JsonWriter writer = new JsonWriter(stream)) {
+ *         writer.write(element);
+ *     }
+ * </pre>
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.25
+ */
+@ApiStatus.Experimental
+public final class JsonWriter implements Closeable, Flushable {
+	/**
+	 * The hex digits used to escape control characters.
+	 *
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private static final byte @NotNull [] HEX = {
+			'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+	};
+
+	/**
+	 * The encoding buffer.
+	 *
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private final byte @NotNull [] buffer = new byte[8192];
+	/**
+	 * The stream to write to. (null to discard the written bytes)
+	 *
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@Nullable
+	private final OutputStream stream;
+
+	/**
+	 * The number of bytes written by this writer.
+	 *
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private long count;
+	/**
+	 * The index of the next byte in the buffer.
+	 *
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private int position;
+
+	/**
+	 * Construct a new writer writing to the given {@code stream}.
+	 *
+	 * @param stream the stream to write to.
+	 * @throws NullPointerException if the given {@code stream} is null.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	public JsonWriter(@NotNull OutputStream stream) {
+		Objects.requireNonNull(stream, "stream");
+		this.stream = stream;
+	}
+
+	/**
+	 * Construct a new writer that discards the written bytes.
+	 *
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private JsonWriter() {
+		this.stream = null;
+	}
+
+	/**
+	 * Return the number of bytes the given {@code element} is encoded to. The element is
+	 * encoded without keeping the encoded bytes.
+	 *
+	 * @param element the element to compute the length of.
+	 * @return the length of the utf-8 json of the given {@code element}.
+	 * @throws NullPointerException if the given {@code element} is null.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@Contract(pure = true)
+	@Range(from = 0, to = Long.MAX_VALUE)
+	public static long length(@NotNull JsonElement element) {
+		Objects.requireNonNull(element, "element");
+		JsonWriter writer = new JsonWriter();
+
+		try {
+			writer.write(element);
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+
+		return writer.count + writer.position;
+	}
+
+	/**
+	 * Encode the given {@code element} into the given {@code buffer}.
+	 *
+	 * @param element the element to be encoded.
+	 * @param buffer  the buffer to write to.
+	 * @throws NullPointerException                 if the given {@code element} or
+	 *                                              {@code buffer} is null.
+	 * @throws java.nio.BufferOverflowException     if the remaining space of the given
+	 *                                              {@code buffer} is not enough.
+	 * @throws java.nio.ReadOnlyBufferException     if the given {@code buffer} is
+	 *                                              read-only.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@Contract(mutates = "param2")
+	public static void write(@NotNull JsonElement element, @NotNull ByteBuffer buffer) {
+		Objects.requireNonNull(element, "element");
+		Objects.requireNonNull(buffer, "buffer");
+		JsonWriter writer = new JsonWriter(new OutputStream() {
+			@Override
+			public void write(int b) {
+				buffer.put((byte) b);
+			}
+
+			@Override
+			public void write(byte @NotNull [] b, int off, int len) {
+				buffer.put(b, off, len);
+			}
+		});
+
+		try {
+			writer.write(element);
+			writer.flush();
+		} catch (IOException e) {
+			throw new IOError(e);
+		}
+	}
+
+	/**
+	 * Flush the buffered bytes and close the underlying stream.
+	 *
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@Override
+	public void close() throws IOException {
+		this.flush();
+
+		if (this.stream != null)
+			this.stream.close();
+	}
+
+	/**
+	 * Flush the buffered bytes to the underlying stream and flush it.
+	 *
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@Override
+	public void flush() throws IOException {
+		this.drain();
+
+		if (this.stream != null)
+			this.stream.flush();
+	}
+
+	/**
+	 * Encode the given {@code element}. The bytes might stay buffered until this writer
+	 * gets {@link #flush() flushed}.
+	 *
+	 * @param element the element to be written.
+	 * @throws NullPointerException if the given {@code element} is null.
+	 * @throws IOException          if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@Contract(mutates = "this")
+	public void write(@NotNull JsonElement element) throws IOException {
+		Objects.requireNonNull(element, "element");
+
+		if (element instanceof JsonObject)
+			this.writeObject((JsonObject) element);
+		else if (element instanceof JsonArray)
+			this.writeArray((JsonArray) element);
+		else if (element instanceof JsonString)
+			this.writeString(((JsonString) element).value());
+		else if (element instanceof JsonNumber)
+			this.writeNumber((JsonNumber) element);
+		else if (element instanceof JsonBoolean)
+			this.writeAscii(((JsonBoolean) element).value() ? "true" : "false");
+		else if (element instanceof JsonNull)
+			this.writeAscii("null");
+		else
+			this.writeString(element.json(), false);
+	}
+
+	/**
+	 * Write the buffered bytes to the underlying stream.
+	 *
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void drain() throws IOException {
+		if (this.stream != null)
+			this.stream.write(this.buffer, 0, this.position);
+
+		this.count += this.position;
+		this.position = 0;
+	}
+
+	/**
+	 * Ensure the buffer has room for the given {@code count} of bytes.
+	 *
+	 * @param count the number of bytes to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void require(int count) throws IOException {
+		if (this.buffer.length - this.position < count)
+			this.drain();
+	}
+
+	/**
+	 * Write the given {@code array}.
+	 *
+	 * @param array the array to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeArray(@NotNull JsonArray array) throws IOException {
+		this.writeByte('[');
+
+		Iterator<JsonElement> iterator = array.iterator();
+
+		if (iterator.hasNext())
+			while (true) {
+				this.write(iterator.next());
+
+				if (!iterator.hasNext())
+					break;
+
+				this.writeByte(',');
+			}
+
+		this.writeByte(']');
+	}
+
+	/**
+	 * Write the given ascii {@code text}. Each char is written as a single byte.
+	 *
+	 * @param text the text to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeAscii(@NotNull String text) throws IOException {
+		int length = text.length();
+
+		for (int i = 0; i < length; i++)
+			this.writeByte(text.charAt(i));
+	}
+
+	/**
+	 * Write the given byte.
+	 *
+	 * @param b the byte to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeByte(int b) throws IOException {
+		if (this.position == this.buffer.length)
+			this.drain();
+
+		this.buffer[this.position++] = (byte) b;
+	}
+
+	/**
+	 * Write the given {@code number}. Longs are written without creating strings.
+	 *
+	 * @param number the number to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeNumber(@NotNull JsonNumber number) throws IOException {
+		if (number.kind != JsonNumber.LONG || number.longValue == Long.MIN_VALUE) {
+			this.writeAscii(number.json());
+			return;
+		}
+
+		long value = number.longValue;
+
+		if (value < 0) {
+			this.writeByte('-');
+			value = -value;
+		}
+
+		//at most 19 digits
+		this.require(19);
+
+		int digits = 1;
+
+		for (long v = value; v >= 10; v /= 10)
+			digits++;
+
+		int end = this.position + digits;
+
+		for (int i = end - 1; i >= this.position; i--) {
+			this.buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+
+		this.position = end;
+	}
+
+	/**
+	 * Write the given {@code object}.
+	 *
+	 * @param object the object to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeObject(@NotNull JsonObject object) throws IOException {
+		this.writeByte('{');
+
+		Iterator<Map.Entry<JsonString, JsonElement>> iterator = object.entrySet().iterator();
+
+		if (iterator.hasNext())
+			while (true) {
+				Map.Entry<JsonString, JsonElement> entry = iterator.next();
+
+				this.writeString(entry.getKey().value());
+				this.writeByte(':');
+				this.write(entry.getValue());
+
+				if (!iterator.hasNext())
+					break;
+
+				this.writeByte(',');
+			}
+
+		this.writeByte('}');
+	}
+
+	/**
+	 * Write the given {@code string} quoted and escaped.
+	 *
+	 * @param string the string to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeString(@NotNull String string) throws IOException {
+		this.writeByte('"');
+		this.writeString(string, true);
+		this.writeByte('"');
+	}
+
+	/**
+	 * Write the given {@code string} as utf-8. Unpaired surrogates are written as
+	 * {@code ?} (the same as {@link String#getBytes(java.nio.charset.Charset)}).
+	 *
+	 * @param string the string to be written.
+	 * @param escape true, to escape quotes, backslashes and control characters.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	private void writeString(@NotNull String string, boolean escape) throws IOException {
+		byte[] buffer = this.buffer;
+		int length = string.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+
+			//one escaped char is at most 6 bytes
+			if (buffer.length - this.position < 6)
+				this.drain();
+
+			if (c < 0x80) {
+				if (escape && (c < 0x20 || c == '"' || c == '\\')) {
+					buffer[this.position++] = '\\';
+
+					switch (c) {
+						case '"':
+						case '\\':
+							buffer[this.position++] = (byte) c;
+							break;
+						case '\b':
+							buffer[this.position++] = 'b';
+							break;
+						case '\f':
+							buffer[this.position++] = 'f';
+							break;
+						case '\n':
+							buffer[this.position++] = 'n';
+							break;
+						case '\r':
+							buffer[this.position++] = 'r';
+							break;
+						case '\t':
+							buffer[this.position++] = 't';
+							break;
+						default:
+							buffer[this.position++] = 'u';
+							buffer[this.position++] = '0';
+							buffer[this.position++] = '0';
+							buffer[this.position++] = JsonWriter.HEX[c >> 4];
+							buffer[this.position++] = JsonWriter.HEX[c & 0xF];
+							break;
+					}
+				} else
+					buffer[this.position++] = (byte) c;
+			} else if (c < 0x800) {
+				buffer[this.position++] = (byte) (0xC0 | c >> 6);
+				buffer[this.position++] = (byte) (0x80 | c & 0x3F);
+			} else if (Character.isSurrogate(c)) {
+				char d = i + 1 < length ? string.charAt(i + 1) : 0;
+
+				if (Character.isHighSurrogate(c) && Character.isLowSurrogate(d)) {
+					int p = Character.toCodePoint(c, d);
+					buffer[this.position++] = (byte) (0xF0 | p >> 18);
+					buffer[this.position++] = (byte) (0x80 | p >> 12 & 0x3F);
+					buffer[this.position++] = (byte) (0x80 | p >> 6 & 0x3F);
+					buffer[this.position++] = (byte) (0x80 | p & 0x3F);
+					i++;
+				} else
+					buffer[this.position++] = '?';
+			} else {
+				buffer[this.position++] = (byte) (0xE0 | c >> 12);
+				buffer[this.position++] = (byte) (0x80 | c >> 6 & 0x3F);
+				buffer[this.position++] = (byte) (0x80 | c & 0x3F);
+			}
+		}
+	}
+}
@@ -49,15 +49,22 @@ fun Boolean.toJson() = JsonBoolean(this)
 
 // Number Conversions
 fun JsonNumber.numberValue() = value()
-fun JsonNumber.doubleValue() = value().toDouble()
-fun JsonNumber.floatValue() = value().toFloat()
-fun JsonNumber.intValue() = value().toInt()
-fun JsonNumber.longValue() = value().toLong()
+fun JsonNumber.floatValue() = doubleValue().toFloat()
+fun JsonNumber.intValue() = longValue().toInt()
 fun BigDecimal.toJson() = JsonNumber(this)
-fun Double.toJson() = JsonNumber(this.toBigDecimal())
+fun Double.toJson() = JsonNumber(this)
 fun Float.toJson() = JsonNumber(this.toBigDecimal())
-fun Int.toJson() = JsonNumber(this.toBigDecimal())
-fun Long.toJson() = JsonNumber(this.toBigDecimal())
+fun Int.toJson() = JsonNumber(this.toLong())
+fun Long.toJson() = JsonNumber(this)
+
+// Deprecated Number Conversions (shadowed by the members, kept for Java callers)
+@Deprecated("Use the member JsonNumber.doubleValue()", ReplaceWith("this.doubleValue()"))
+@Suppress("EXTENSION_SHADOWED_BY_MEMBER")
+fun JsonNumber.doubleValue() = doubleValue()
+
+@Deprecated("Use the member JsonNumber.longValue()", ReplaceWith("this.longValue()"))
+@Suppress("EXTENSION_SHADOWED_BY_MEMBER")
+fun JsonNumber.longValue() = longValue()
 
 // String Conversions
 fun JsonString.stringValue() = value()
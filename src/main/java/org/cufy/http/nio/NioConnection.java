@@ -0,0 +1,480 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.nio;
+
+import org.cufy.http.internal.syntax.HttpDecoder;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+
+/**
+ * A single http/1.1 connection to a remote authority. The connection owns its socket
+ * channel, a selector used to implement timeouts and two buffers that are reused across
+ * every exchange performed over it.
+ * <br>
+ * A connection is not thread-safe and must be used by one exchange at a time.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.18
+ */
+final class NioConnection implements Closeable {
+	/**
+	 * The size of the input and output buffers of a connection.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The underlying channel.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	final SocketChannel channel;
+	/**
+	 * The decoder of the responses received through this connection.
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@NotNull
+	final HttpDecoder decoder;
+	/**
+	 * The input buffer. (always in read mode)
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	final ByteBuffer input;
+	/**
+	 * The pool key of this connection.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	final String key;
+	/**
+	 * A reusable builder for writing the head of requests.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	final StringBuilder line;
+	/**
+	 * The output buffer. (always in write mode)
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	final ByteBuffer output;
+	/**
+	 * The read/write timeout in milliseconds. (0=infinite)
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	final int timeout;
+	/**
+	 * The selection key of the channel.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	private final SelectionKey selectionKey;
+	/**
+	 * The selector used to wait for the channel.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	private final Selector selector;
+
+	/**
+	 * The time ({@link System#nanoTime()}) this connection was released to the pool.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	long idleSince;
+	/**
+	 * True, if this connection has been acquired from the pool (was used before).
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	boolean reused;
+	/**
+	 * True, if the last request has been completely written to this connection.
+	 *
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	boolean written;
+
+	/**
+	 * Construct a new connection wrapping the given {@code channel}.
+	 *
+	 * @param key     the pool key of the connection.
+	 * @param channel the connected non-blocking channel.
+	 * @param timeout the read/write timeout in milliseconds.
+	 * @throws NullPointerException if the given {@code key} or {@code channel} is null.
+	 * @throws IOException          if any I/O exception occurs while opening the
+	 *                              selector.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	private NioConnection(@NotNull String key, @NotNull SocketChannel channel, int timeout) throws IOException {
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(channel, "channel");
+		this.key = key;
+		this.channel = channel;
+		this.timeout = timeout;
+		this.decoder = new HttpDecoder(true);
+		this.selector = Selector.open();
+		this.selectionKey = channel.register(this.selector, 0);
+		this.input = ByteBuffer.allocate(NioConnection.BUFFER_SIZE);
+		this.input.flip();
+		this.output = ByteBuffer.allocate(NioConnection.BUFFER_SIZE);
+		this.line = new StringBuilder(128);
+	}
+
+	/**
+	 * Open a new connection to the given {@code address}.
+	 *
+	 * @param key            the pool key of the connection.
+	 * @param address        the address to connect to.
+	 * @param connectTimeout the connect timeout in milliseconds. (0=infinite)
+	 * @param timeout        the read/write timeout in milliseconds. (0=infinite)
+	 * @return a new connection.
+	 * @throws NullPointerException if the given {@code key} or {@code address} is null.
+	 * @throws IOException          if any I/O exception occurs while connecting.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	@Contract("_,_,_,_->new")
+	static NioConnection open(@NotNull String key, @NotNull InetSocketAddress address, int connectTimeout, int timeout) throws IOException {
+		Objects.requireNonNull(key, "key");
+		Objects.requireNonNull(address, "address");
+		SocketChannel channel = SocketChannel.open();
+
+		try {
+			channel.socket().setTcpNoDelay(true);
+			channel.socket().setKeepAlive(true);
+			channel.socket().connect(address, connectTimeout);
+			channel.configureBlocking(false);
+
+			return new NioConnection(key, channel, timeout);
+		} catch (IOException | RuntimeException e) {
+			try {
+				channel.close();
+			} catch (IOException ignored) {
+			}
+
+			throw e;
+		}
+	}
+
+	/**
+	 * Close this connection and release its resources.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Override
+	public void close() {
+		try {
+			this.selector.close();
+		} catch (IOException ignored) {
+		}
+		try {
+			this.channel.close();
+		} catch (IOException ignored) {
+		}
+	}
+
+	/**
+	 * Return true if this connection can no longer be used. A connection is stale when
+	 * its channel is closed, the peer has closed its side or the peer has sent unsolicited
+	 * data.
+	 *
+	 * @return true, if this connection is stale.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Contract(mutates = "this")
+	boolean isStale() {
+		if (!this.channel.isOpen() || this.input.hasRemaining())
+			return true;
+
+		this.input.compact();
+
+		try {
+			//non-blocking; anything but zero means the connection is unusable
+			return this.channel.read(this.input) != 0;
+		} catch (IOException e) {
+			return true;
+		} finally {
+			this.input.flip();
+		}
+	}
+
+	// Input
+
+	/**
+	 * Decode the input of this connection until the {@link #decoder} reports an event,
+	 * reading more bytes from the channel whenever the decoder needs them.
+	 *
+	 * @return the event. ({@link HttpDecoder#HEAD}, {@link HttpDecoder#CONTENT} or {@link
+	 *        HttpDecoder#END}) Or {@link HttpDecoder#NEED_INPUT} if the peer closed the
+	 * 		connection before any byte of the next message.
+	 * @throws IOException if any I/O exception occurs, the timeout elapsed or the input is
+	 *                     not a valid response.
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@Contract(mutates = "this")
+	int decode() throws IOException {
+		while (true) {
+			int event = this.decoder.decode(this.input);
+
+			if (event != HttpDecoder.NEED_INPUT)
+				return event;
+			if (this.fill() < 0)
+				return this.decoder.finish();
+		}
+	}
+
+	/**
+	 * Read more bytes from the channel into the input buffer. Blocks until at least one
+	 * byte is available or the timeout elapses.
+	 *
+	 * @return the number of bytes read, or {@code -1} if the peer closed the connection.
+	 * @throws IOException if any I/O exception occurs or the timeout elapsed.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	int fill() throws IOException {
+		this.input.compact();
+
+		try {
+			while (true) {
+				int read = this.channel.read(this.input);
+
+				if (read != 0)
+					return read;
+
+				this.await(SelectionKey.OP_READ);
+			}
+		} finally {
+			this.input.flip();
+		}
+	}
+
+	// Output
+
+	/**
+	 * Write the remaining bytes in the output buffer to the channel and clear it.
+	 *
+	 * @throws IOException if any I/O exception occurs or the timeout elapsed.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	void flush() throws IOException {
+		this.output.flip();
+
+		try {
+			while (this.output.hasRemaining())
+				if (this.channel.write(this.output) == 0)
+					this.await(SelectionKey.OP_WRITE);
+		} finally {
+			this.output.clear();
+		}
+	}
+
+	/**
+	 * Flush the output buffer then let the kernel transfer the content of the given
+	 * {@code source} directly to the channel. The source will not be closed.
+	 *
+	 * @param source the file channel to be transferred.
+	 * @return the number of transferred bytes.
+	 * @throws EOFException if the file got truncated while being transferred.
+	 * @throws IOException  if any I/O exception occurs or the timeout elapsed.
+	 * @since 1.0.0 ~2022.01.26
+	 */
+	long transfer(@NotNull FileChannel source) throws IOException {
+		this.flush();
+
+		long size = source.size();
+		long position = 0;
+
+		while (position < size) {
+			long count = source.transferTo(position, size - position, this.channel);
+
+			if (count == 0) {
+				if (position >= source.size())
+					throw new EOFException("file truncated");
+
+				this.await(SelectionKey.OP_WRITE);
+			}
+
+			position += count;
+		}
+
+		return size;
+	}
+
+	/**
+	 * Append the given {@code text} to the output buffer, flushing when the buffer gets
+	 * full. Each char is written as a single byte. (latin-1)
+	 *
+	 * @param text the text to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	void write(@NotNull CharSequence text) throws IOException {
+		int length = text.length();
+
+		for (int i = 0; i < length; i++) {
+			if (!this.output.hasRemaining())
+				this.flush();
+
+			this.output.put((byte) text.charAt(i));
+		}
+	}
+
+	/**
+	 * Append the given {@code length} of bytes from the given {@code bytes} starting at
+	 * the given {@code offset} to the output buffer, flushing when the buffer gets full.
+	 *
+	 * @param bytes  the bytes to be written.
+	 * @param offset the index of the first byte.
+	 * @param length the number of bytes to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	void write(byte @NotNull [] bytes, int offset, int length) throws IOException {
+		ByteBuffer output = this.output;
+
+		while (length > 0) {
+			if (!output.hasRemaining())
+				this.flush();
+
+			int count = Math.min(length, output.remaining());
+			output.put(bytes, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	/**
+	 * Return an output stream that appends to the output buffer of this connection using
+	 * chunked transfer coding. Each write is sent as a single chunk. Closing the returned
+	 * stream writes the last chunk and does not close this connection.
+	 *
+	 * @return a chunked output stream writing to this connection.
+	 * @since 1.0.0 ~2022.01.27
+	 */
+	@NotNull
+	@Contract(value = "->new", pure = true)
+	OutputStream openChunkedOutputStream() {
+		return new OutputStream() {
+			@Override
+			public void close() throws IOException {
+				NioConnection.this.write("0\r\n\r\n");
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				this.write(new byte[]{(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte @NotNull [] b, int off, int len) throws IOException {
+				if (len == 0)
+					return;
+
+				NioConnection.this.write(Integer.toHexString(len));
+				NioConnection.this.write("\r\n");
+				NioConnection.this.write(b, off, len);
+				NioConnection.this.write("\r\n");
+			}
+		};
+	}
+
+	/**
+	 * Return an output stream that appends to the output buffer of this connection.
+	 * Closing the returned stream has no effect.
+	 *
+	 * @return an output stream writing to this connection.
+	 * @since 1.0.0 ~2022.01.25
+	 */
+	@NotNull
+	@Contract(value = "->new", pure = true)
+	OutputStream openOutputStream() {
+		return new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				if (!NioConnection.this.output.hasRemaining())
+					NioConnection.this.flush();
+
+				NioConnection.this.output.put((byte) b);
+			}
+
+			@Override
+			public void write(byte @NotNull [] b, int off, int len) throws IOException {
+				NioConnection.this.write(b, off, len);
+			}
+		};
+	}
+
+	/**
+	 * Wait until the channel is ready for the given {@code operation}.
+	 *
+	 * @param operation the operation to wait for.
+	 * @throws IOException            if any I/O exception occurs.
+	 * @throws SocketTimeoutException if the timeout elapsed before the channel gets
+	 *                                ready.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	private void await(int operation) throws IOException {
+		this.selectionKey.interestOps(operation);
+
+		try {
+			if (this.timeout == 0) {
+				while (this.selector.select() == 0)
+					if (Thread.interrupted())
+						throw new InterruptedIOException("interrupted");
+				return;
+			}
+
+			long deadline = System.nanoTime() + this.timeout * 1_000_000L;
+
+			while (this.selector.select(this.timeout) == 0) {
+				if (Thread.interrupted())
+					throw new InterruptedIOException("interrupted");
+				if (System.nanoTime() - deadline >= 0)
+					throw new SocketTimeoutException("timeout");
+			}
+		} finally {
+			this.selector.selectedKeys().clear();
+			this.selectionKey.interestOps(0);
+		}
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.nio;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A pool of keep-alive http/1.1 connections grouped by their authority (host and port).
+ * <br>
+ * Idle connections are reused in a last-in-first-out order so the most recently used
+ * (most likely alive) connection gets picked first. Connections that have been idle for
+ * longer than the keep-alive duration, or that were closed by the peer, are discarded
+ * when encountered.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.18
+ */
+public class NioConnectionPool implements Closeable {
+	/**
+	 * The connect timeout in milliseconds. (0=infinite)
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	protected final int connectTimeout;
+	/**
+	 * The idle connections mapped by their keys.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	private final ConcurrentMap<@NotNull String, @NotNull Deque<@NotNull NioConnection>> connections;
+	/**
+	 * The maximum duration (in nanoseconds) a connection can stay idle.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	protected final long keepAliveDuration;
+	/**
+	 * The maximum number of idle connections per authority.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	protected final int maxIdleConnections;
+	/**
+	 * The read/write timeout in milliseconds. (0=infinite)
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	protected final int timeout;
+
+	/**
+	 * True, once this pool is closed.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Construct a new pool with the default configurations. (5 idle connections per
+	 * authority, 5 minutes keep-alive, 10 seconds timeouts)
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	public NioConnectionPool() {
+		this(5, 5, TimeUnit.MINUTES, 10_000, 10_000);
+	}
+
+	/**
+	 * Construct a new pool with the given configurations.
+	 *
+	 * @param maxIdleConnections the maximum number of idle connections per authority.
+	 * @param keepAliveDuration  the maximum duration a connection can stay idle.
+	 * @param timeUnit           the unit of the given {@code keepAliveDuration}.
+	 * @param connectTimeout     the connect timeout in milliseconds. (0=infinite)
+	 * @param timeout            the read/write timeout in milliseconds. (0=infinite)
+	 * @throws NullPointerException     if the given {@code timeUnit} is null.
+	 * @throws IllegalArgumentException if any of the given numbers is negative.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	public NioConnectionPool(
+			@Range(from = 0, to = Integer.MAX_VALUE) int maxIdleConnections,
+			@Range(from = 0, to = Long.MAX_VALUE) long keepAliveDuration,
+			@NotNull TimeUnit timeUnit,
+			@Range(from = 0, to = Integer.MAX_VALUE) int connectTimeout,
+			@Range(from = 0, to = Integer.MAX_VALUE) int timeout
+	) {
+		Objects.requireNonNull(timeUnit, "timeUnit");
+		if (maxIdleConnections < 0)
+			throw new IllegalArgumentException("maxIdleConnections < 0");
+		if (keepAliveDuration < 0)
+			throw new IllegalArgumentException("keepAliveDuration < 0");
+		if (connectTimeout < 0)
+			throw new IllegalArgumentException("connectTimeout < 0");
+		if (timeout < 0)
+			throw new IllegalArgumentException("timeout < 0");
+		this.maxIdleConnections = maxIdleConnections;
+		this.keepAliveDuration = timeUnit.toNanos(keepAliveDuration);
+		this.connectTimeout = connectTimeout;
+		this.timeout = timeout;
+		this.connections = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Close all the idle connections in this pool. Connections currently in use are not
+	 * affected and will be closed when released. No connection can be acquired from a
+	 * closed pool.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Override
+	public void close() {
+		this.closed = true;
+		this.evictAll();
+	}
+
+	/**
+	 * Close and remove all the idle connections in this pool.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	public void evictAll() {
+		for (Deque<NioConnection> deque : this.connections.values())
+			for (NioConnection connection; (connection = deque.pollFirst()) != null; )
+				connection.close();
+	}
+
+	/**
+	 * Return the number of the idle connections in this pool.
+	 *
+	 * @return the number of idle connections.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Contract(pure = true)
+	@Range(from = 0, to = Integer.MAX_VALUE)
+	public int idleConnectionCount() {
+		int count = 0;
+
+		for (Deque<NioConnection> deque : this.connections.values())
+			count += deque.size();
+
+		return count;
+	}
+
+	/**
+	 * Acquire a connection to the given {@code host} and {@code port}. An idle connection
+	 * will be reused if available. Otherwise, a new connection will be opened.
+	 *
+	 * @param host the host to connect to.
+	 * @param port the port to connect to.
+	 * @return a connection to the given authority.
+	 * @throws NullPointerException if the given {@code host} is null.
+	 * @throws IOException          if this pool is closed or any I/O exception occurs
+	 *                              while connecting.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	NioConnection acquire(@NotNull String host, int port) throws IOException {
+		Objects.requireNonNull(host, "host");
+		if (this.closed)
+			throw new IOException("Pool closed");
+		String key = host + ":" + port;
+		Deque<NioConnection> deque = this.connections.get(key);
+
+		if (deque != null) {
+			long now = System.nanoTime();
+
+			for (NioConnection connection; (connection = deque.pollFirst()) != null; ) {
+				if (now - connection.idleSince > this.keepAliveDuration || connection.isStale()) {
+					connection.close();
+					continue;
+				}
+
+				connection.reused = true;
+				return connection;
+			}
+		}
+
+		return this.open(key, host, port);
+	}
+
+	/**
+	 * Open a new connection to the given {@code host} and {@code port} without looking
+	 * for idle connections.
+	 *
+	 * @param host the host to connect to.
+	 * @param port the port to connect to.
+	 * @return a new connection to the given authority.
+	 * @throws NullPointerException if the given {@code host} is null.
+	 * @throws IOException          if this pool is closed or any I/O exception occurs
+	 *                              while connecting.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	NioConnection connect(@NotNull String host, int port) throws IOException {
+		Objects.requireNonNull(host, "host");
+		if (this.closed)
+			throw new IOException("Pool closed");
+		return this.open(host + ":" + port, host, port);
+	}
+
+	/**
+	 * Return the given {@code connection} to this pool to be reused. (or close it if
+	 * this pool is closed)
+	 *
+	 * @param connection the connection to be released.
+	 * @throws NullPointerException if the given {@code connection} is null.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	void release(@NotNull NioConnection connection) {
+		Objects.requireNonNull(connection, "connection");
+
+		if (this.closed || this.maxIdleConnections == 0 || !connection.channel.isOpen()) {
+			connection.close();
+			return;
+		}
+
+		Deque<NioConnection> deque = this.connections.computeIfAbsent(
+				connection.key,
+				k -> new ConcurrentLinkedDeque<>()
+		);
+
+		connection.idleSince = System.nanoTime();
+		deque.offerFirst(connection);
+
+		while (deque.size() > this.maxIdleConnections) {
+			NioConnection eldest = deque.pollLast();
+
+			if (eldest == null)
+				break;
+
+			eldest.close();
+		}
+
+		if (this.closed)
+			//closed while pooling
+			this.evictAll();
+	}
+
+	/**
+	 * Open a new connection.
+	 *
+	 * @param key  the pool key.
+	 * @param host the host to connect to.
+	 * @param port the port to connect to.
+	 * @return a new connection.
+	 * @throws IOException if any I/O exception occurs while connecting.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	private NioConnection open(@NotNull String key, @NotNull String host, int port) throws IOException {
+		return NioConnection.open(
+				key,
+				new InetSocketAddress(host, port),
+				this.connectTimeout,
+				this.timeout
+		);
+	}
+}
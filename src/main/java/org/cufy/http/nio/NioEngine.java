@@ -0,0 +1,532 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.nio;
+
+import org.cufy.http.*;
+import org.cufy.http.body.*;
+import org.cufy.http.client.ClientEngine;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.internal.syntax.HttpDecoder;
+import org.cufy.http.mime.Mime;
+import org.cufy.http.pipeline.Next;
+import org.cufy.http.uri.Authority;
+import org.cufy.http.uri.Scheme;
+import org.cufy.http.uri.Uri;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A client engine that speaks http/1.1 directly over {@link
+ * java.nio.channels.SocketChannel socket channels} with no third-party dependencies.
+ * <br>
+ * The request-line, headers and body of the request are written straight to the socket
+ * and the head of the response is decoded into the response of the context. The body of
+ * the response is not read ahead; it is a {@link StreamBody} reading straight from the
+ * connection. Connections are kept alive and reused through a {@link NioConnectionPool}.
+ * A connection is released to the pool once the body of its response is read to its end
+ * and is closed if the body gets closed before that.
+ * <br>
+ * The exchange is performed on the thread invoking {@link #connect(ClientRequestContext,
+ * Next)}. Only the {@link Scheme#HTTP http} scheme is supported.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.18
+ */
+public class NioEngine implements ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> {
+	/**
+	 * The connection pool used by this engine.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	protected final NioConnectionPool pool;
+
+	/**
+	 * Construct a new engine with a new connection pool.
+	 *
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	public NioEngine() {
+		this.pool = new NioConnectionPool();
+	}
+
+	/**
+	 * Construct a new engine with the given connection {@code pool}.
+	 *
+	 * @param pool the connection pool to be used.
+	 * @throws NullPointerException if the given {@code pool} is null.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	public NioEngine(@NotNull NioConnectionPool pool) {
+		Objects.requireNonNull(pool, "pool");
+		this.pool = pool;
+	}
+
+	@Override
+	public void connect(@NotNull ClientRequestContext<? extends Endpoint> input, @NotNull Next<ClientResponseContext<? extends Endpoint>> next) {
+		Objects.requireNonNull(input, "input");
+		Objects.requireNonNull(next, "next");
+		Request request = input.request();
+		Response response = new Response();
+
+		try {
+			this.exchange(request, response);
+		} catch (IOException | IllegalArgumentException e) {
+			next.invoke(e);
+			return;
+		}
+
+		try {
+			input.res()
+				 .httpVersion(response.getStatusLine().getHttpVersion())
+				 .statusCode(response.getStatusLine().getStatusCode())
+				 .reasonPhrase(response.getStatusLine().getReasonPhrase())
+				 .headers(response.getHeaders())
+				 .body(response.getBody());
+		} catch (IllegalArgumentException e) {
+			Body body = response.getBody();
+
+			if (body instanceof StreamBody)
+				try {
+					((StreamBody) body).close();
+				} catch (IOException ignored) {
+				}
+
+			next.invoke(e);
+			return;
+		}
+
+		next.invoke();
+	}
+
+	/**
+	 * Return the connection pool of this engine.
+	 *
+	 * @return the connection pool.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public NioConnectionPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Send the given {@code request} and read its response into the given {@code
+	 * response}.
+	 * <br>
+	 * A request on a reused connection is retried once on a new connection only if it is
+	 * idempotent, its body can be written again and the connection turned out to be
+	 * closed by the peer. (writing the request failed, or the connection reached its end
+	 * before any byte of the response) Timeouts are never retried.
+	 *
+	 * @param request  the request to be sent.
+	 * @param response the response to read to.
+	 * @throws IOException              if any I/O exception occurs.
+	 * @throws IllegalArgumentException if the request uri is not supported.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Contract(mutates = "param2")
+	protected void exchange(@NotNull Request request, @NotNull Response response) throws IOException {
+		Uri uri = request.getRequestLine().getUri();
+		Authority authority = uri.getAuthority();
+		String scheme = uri.getScheme();
+
+		if (!Scheme.HTTP.equalsIgnoreCase(scheme))
+			throw new IllegalArgumentException("unsupported scheme: " + scheme);
+
+		String host = authority.getHost();
+		String port = authority.getPort();
+
+		if (host.isEmpty())
+			throw new IllegalArgumentException("missing host: " + uri);
+
+		String address = host.startsWith("[") && host.endsWith("]") ?
+						 host.substring(1, host.length() - 1) : host;
+		int number = port.isEmpty() ? 80 : Integer.parseInt(port);
+		boolean replayable = NioEngine.isReplayable(request);
+
+		NioConnection connection = this.pool.acquire(address, number);
+
+		while (true) {
+			boolean retry = connection.reused && replayable;
+			int event;
+
+			try {
+				this.write(connection, request);
+				event = connection.decode();
+			} catch (InterruptedIOException e) {
+				//timeouts and interrupts
+				connection.close();
+				throw e;
+			} catch (IOException e) {
+				connection.close();
+
+				if (!retry || connection.written)
+					throw e;
+
+				//the pooled connection was closed by the peer; try a fresh one
+				connection = this.pool.connect(address, number);
+				continue;
+			} catch (RuntimeException e) {
+				connection.close();
+				throw e;
+			}
+
+			if (event == HttpDecoder.NEED_INPUT) {
+				connection.close();
+
+				if (!retry)
+					throw new ProtocolException("connection closed before the response");
+
+				//the pooled connection was closed by the peer; try a fresh one
+				connection = this.pool.connect(address, number);
+				continue;
+			}
+
+			try {
+				this.read(connection, request, response);
+				return;
+			} catch (IOException | RuntimeException e) {
+				connection.close();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Return true if the given {@code request} can safely be sent again. That is, if its
+	 * method is idempotent and its body (if any) can be written more than once.
+	 *
+	 * @param request the request.
+	 * @return true, if the request can be retried.
+	 * @since 1.0.0 ~2022.02.05
+	 */
+	@Contract(pure = true)
+	private static boolean isReplayable(@NotNull Request request) {
+		String method = request.getRequestLine().getMethod();
+		Body body = request.getBody();
+
+		if (!method.equals(Method.GET) && !method.equals(Method.HEAD) &&
+			!method.equals(Method.OPTIONS) && !method.equals(Method.TRACE) &&
+			!method.equals(Method.PUT) && !method.equals(Method.DELETE))
+			return false;
+
+		return body == null ||
+			   body instanceof BytesBody ||
+			   body instanceof TextBody ||
+			   body instanceof JsonBody ||
+			   body instanceof ParametersBody ||
+			   body instanceof FileBody;
+	}
+
+	/**
+	 * Return a stream reading the body of the response being decoded from the given
+	 * {@code connection}. Once the stream reaches the end of the body, the connection is
+	 * released to the pool (if {@code reusable}) or closed. Closing the stream before
+	 * that closes the connection.
+	 *
+	 * @param connection the connection to read from.
+	 * @param reusable   true, if the connection can be reused after the body.
+	 * @return a stream reading the body from the given {@code connection}.
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@NotNull
+	@Contract(value = "_,_->new", pure = true)
+	private InputStream openContentInputStream(@NotNull NioConnection connection, boolean reusable) {
+		return new InputStream() {
+			/**
+			 * The remaining of the last decoded content.
+			 */
+			@Nullable
+			private ByteBuffer content;
+			/**
+			 * True, if the connection has been released or closed.
+			 */
+			private boolean released;
+
+			@Override
+			public int available() {
+				ByteBuffer content = this.content;
+				return content == null ? 0 : content.remaining();
+			}
+
+			@Override
+			public void close() {
+				if (!this.released) {
+					this.released = true;
+					this.content = null;
+					connection.close();
+				}
+			}
+
+			@Override
+			public int read() throws IOException {
+				ByteBuffer content = this.next();
+				return content == null ? -1 : content.get() & 0xFF;
+			}
+
+			@Override
+			public int read(byte @NotNull [] b, int off, int len) throws IOException {
+				if (len == 0)
+					return 0;
+
+				ByteBuffer content = this.next();
+
+				if (content == null)
+					return -1;
+
+				int count = Math.min(len, content.remaining());
+				content.get(b, off, count);
+				return count;
+			}
+
+			@Nullable
+			private ByteBuffer next() throws IOException {
+				while (this.content == null || !this.content.hasRemaining()) {
+					if (this.released)
+						return null;
+
+					int event;
+
+					try {
+						event = connection.decode();
+					} catch (IOException | RuntimeException e) {
+						this.close();
+						throw e;
+					}
+
+					if (event != HttpDecoder.CONTENT) {
+						this.released = true;
+						this.content = null;
+
+						if (reusable && event == HttpDecoder.END)
+							NioEngine.this.pool.release(connection);
+						else
+							connection.close();
+
+						return null;
+					}
+
+					this.content = connection.decoder.getContent();
+				}
+
+				return this.content;
+			}
+		};
+	}
+
+	/**
+	 * Read the response of the last written request from the given {@code connection}.
+	 * The head of the response must have already been decoded. The body is not read;
+	 * it is set as a {@link StreamBody} that releases the connection once read to its
+	 * end.
+	 *
+	 * @param connection the connection to read from.
+	 * @param request    the request that was sent.
+	 * @param response   the response to read to.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Contract(mutates = "param1,param3")
+	private void read(@NotNull NioConnection connection, @NotNull Request request, @NotNull Response response) throws IOException {
+		HttpDecoder decoder = connection.decoder;
+		StatusLine statusLine = decoder.getStatusLine();
+		String code = statusLine.getStatusCode();
+
+		//skip interim responses (100 Continue, 103 Early Hints...)
+		while (code.charAt(0) == '1' && !code.equals("101")) {
+			if (connection.decode() != HttpDecoder.END || connection.decode() != HttpDecoder.HEAD)
+				throw new ProtocolException("connection closed before the response");
+
+			statusLine = decoder.getStatusLine();
+			code = statusLine.getStatusCode();
+		}
+
+		Headers headers = decoder.getHeaders();
+		boolean close = !HttpVersion.HTTP1_1.equals(statusLine.getHttpVersion());
+		boolean chunked = false;
+		String contentType = null;
+
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			String name = headers.nameAt(i);
+			String value = headers.valueAt(i).trim();
+
+			if (name.equalsIgnoreCase(Headers.TRANSFER_ENCODING))
+				chunked = value.toLowerCase(Locale.ROOT).endsWith("chunked");
+			else if (name.equalsIgnoreCase(Headers.CONTENT_TYPE))
+				contentType = value;
+			else if (name.equalsIgnoreCase(Headers.CONNECTION))
+				if (value.equalsIgnoreCase("close"))
+					close = true;
+				else if (value.equalsIgnoreCase("keep-alive"))
+					close = false;
+		}
+
+		response.setStatusLine(statusLine);
+		response.setHeaders(headers);
+
+		boolean bodiless = Method.HEAD.equals(request.getRequestLine().getMethod()) ||
+						   code.equals("204") || code.equals("304") || code.charAt(0) == '1';
+
+		if (bodiless)
+			decoder.skipContent();
+
+		Mime mime = null;
+
+		if (contentType != null)
+			try {
+				mime = Mime.parse(contentType);
+			} catch (IllegalArgumentException ignored) {
+			}
+
+		long contentLength = decoder.getContentLength();
+
+		if (contentLength == 0) {
+			connection.decode();
+			response.setBody(bodiless ? null : new BytesBody(mime, new byte[0]));
+
+			if (close || code.equals("101"))
+				connection.close();
+			else
+				this.pool.release(connection);
+
+			return;
+		}
+
+		//a body that is not chunked and has no length is delimited by the connection closing
+		boolean reusable = !close && (chunked || contentLength > 0);
+		response.setBody(new StreamBody(mime, contentLength, this.openContentInputStream(connection, reusable)));
+	}
+
+	/**
+	 * Write the given {@code request} to the given {@code connection}.
+	 *
+	 * @param connection the connection to write to.
+	 * @param request    the request to be written.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.18
+	 */
+	@Contract(mutates = "param1")
+	private void write(@NotNull NioConnection connection, @NotNull Request request) throws IOException {
+		RequestLine requestLine = request.getRequestLine();
+		Uri uri = requestLine.getUri();
+		Authority authority = uri.getAuthority();
+		String method = requestLine.getMethod();
+		String path = uri.getPath();
+		String query = uri.getQuery().toString();
+		Body body = request.getBody();
+
+		StringBuilder head = connection.line;
+		head.setLength(0);
+		head.append(method).append(' ');
+
+		if (!path.startsWith("/"))
+			head.append('/');
+
+		head.append(path);
+
+		if (!query.isEmpty())
+			head.append('?').append(query);
+
+		head.append(' ').append(HttpVersion.HTTP1_1).append("\r\n");
+
+		boolean chunked = false;
+		boolean host = false;
+		boolean length = false;
+		boolean type = false;
+
+		Headers headers = request.getHeaders();
+
+		for (int i = 0, size = headers.size(); i < size; i++) {
+			String name = headers.nameAt(i);
+
+			if (name.equalsIgnoreCase(Headers.HOST))
+				host = true;
+			else if (name.equalsIgnoreCase(Headers.CONTENT_LENGTH))
+				length = true;
+			else if (name.equalsIgnoreCase(Headers.TRANSFER_ENCODING)) {
+				//the last transfer coding decides the framing
+				length = true;
+				chunked = headers.valueAt(i).trim().toLowerCase(Locale.ROOT).endsWith("chunked");
+			}
+			else if (name.equalsIgnoreCase(Headers.CONTENT_TYPE))
+				type = true;
+
+			head.append(name).append(": ").append(headers.valueAt(i)).append("\r\n");
+		}
+
+		if (!host) {
+			head.append(Headers.HOST).append(": ").append(authority.getHost());
+
+			if (!authority.getPort().isEmpty())
+				head.append(':').append(authority.getPort());
+
+			head.append("\r\n");
+		}
+
+		if (body != null) {
+			Mime mime = body.getMime();
+
+			if (!type && mime != null)
+				head.append(Headers.CONTENT_TYPE).append(": ").append(mime).append("\r\n");
+			if (!length) {
+				long contentLength = body.getContentLength();
+
+				if (contentLength < 0) {
+					head.append(Headers.TRANSFER_ENCODING).append(": chunked\r\n");
+					chunked = true;
+				} else
+					head.append(Headers.CONTENT_LENGTH).append(": ").append(contentLength).append("\r\n");
+			}
+		} else if (!length && (Method.POST.equals(method) || Method.PUT.equals(method) || Method.PATCH.equals(method))) {
+			head.append(Headers.CONTENT_LENGTH).append(": 0\r\n");
+		}
+
+		head.append("\r\n");
+
+		connection.written = false;
+		connection.write(head);
+
+		if (chunked)
+			try (OutputStream stream = connection.openChunkedOutputStream()) {
+				if (body != null)
+					body.writeTo(stream);
+			}
+		else if (body instanceof FileBody)
+			try (FileChannel channel = ((FileBody) body).openChannel()) {
+				connection.transfer(channel);
+			}
+		else if (body != null)
+			body.writeTo(connection.openOutputStream());
+
+		connection.flush();
+		connection.written = true;
+	}
+}
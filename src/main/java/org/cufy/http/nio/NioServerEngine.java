@@ -0,0 +1,1151 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.nio;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.FileBody;
+import org.cufy.http.internal.syntax.HttpDecoder;
+import org.cufy.http.internal.util.ServerUtil;
+import org.cufy.http.pipeline.Next;
+import org.cufy.http.pipeline.Pipe;
+import org.cufy.http.server.ServerEngine;
+import org.cufy.http.server.ServerExchange;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.*;
+import java.net.ProtocolException;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server engine that speaks http/1.1 directly over non-blocking {@link
+ * java.nio.channels.SocketChannel socket channels} with no third-party dependencies.
+ * <br>
+ * Connections are spread over a fixed number of event loops (one per core by default),
+ * each with its own {@link Selector}. New connections are handed to the loop with the
+ * least connections. Requests are decoded with an {@link HttpDecoder} and dispatched to
+ * the pipe of the engine; the response is sent when the pipe invokes its next function.
+ * Connections are kept alive (and pipelined requests are answered in order) unless the
+ * client or the pipe asks otherwise.
+ * <br>
+ * The pipe is invoked on the event loop thread. Pipes doing blocking work should move it
+ * to another thread and invoke the next function from there.
+ * <br>
+ * Bytes and file bodies are written by the loop directly. Any other body is drained by a
+ * writer thread in bounded buffers (chunk encoded if its length is unknown) that are
+ * handed to the loop as the socket accepts them. So, a large or slow body never stalls
+ * the loop nor gets buffered in full.
+ * <br>
+ * An idle connection holds no buffers: the loops share their read buffers and a
+ * connection only keeps the bytes of a request that is not complete yet.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.31
+ */
+public class NioServerEngine implements ServerEngine<ServerExchange, ServerExchange>, Closeable {
+	/**
+	 * The interim response sent to clients expecting {@code 100-continue}.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private static final byte @NotNull [] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes();
+	/**
+	 * The last chunk of a chunk encoded body. (with no trailers)
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	private static final byte @NotNull [] LAST_CHUNK = "0\r\n\r\n".getBytes();
+
+	/**
+	 * The address to bind to.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	protected final SocketAddress address;
+	/**
+	 * The number of milliseconds an idle connection is kept open.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	protected final int idleTimeout;
+	/**
+	 * The number of event loops.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	protected final int loops;
+	/**
+	 * The maximum length of a request body.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	protected final long maxContentLength;
+	/**
+	 * The pipe to dispatch the requests to.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	protected final Pipe<ServerExchange> pipe;
+
+	/**
+	 * True, once this engine is closed.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private final AtomicBoolean closed = new AtomicBoolean();
+	/**
+	 * The number of running event loops.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private final AtomicInteger running = new AtomicInteger();
+	/**
+	 * The event loops. (null until served)
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Nullable
+	private volatile EventLoop[] eventLoops;
+	/**
+	 * The next function to invoke when the server stops.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Nullable
+	private volatile Next<ServerExchange> next;
+	/**
+	 * The listening channel. (null until served)
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Nullable
+	private volatile ServerSocketChannel server;
+	/**
+	 * The threads draining the response bodies. (null until served)
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	@Nullable
+	private volatile ExecutorService writers;
+
+	/**
+	 * Construct a new engine with one event loop per core, a one-minute idle timeout and
+	 * request bodies of at most 8 MiB. (the request bodies are buffered in memory)
+	 *
+	 * @param address the address to bind to.
+	 * @param pipe    the pipe to dispatch the requests to.
+	 * @throws NullPointerException if the given {@code address} or {@code pipe} is null.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	public NioServerEngine(@NotNull SocketAddress address, @NotNull Pipe<ServerExchange> pipe) {
+		this(address, pipe, Runtime.getRuntime().availableProcessors(), 60_000, 8L << 20);
+	}
+
+	/**
+	 * Construct a new engine with the given components.
+	 *
+	 * @param address          the address to bind to.
+	 * @param pipe             the pipe to dispatch the requests to.
+	 * @param loops            the number of event loops.
+	 * @param idleTimeout      the number of milliseconds an idle connection is kept open.
+	 * @param maxContentLength the maximum length of a request body. (the request bodies
+	 *                         are buffered in memory)
+	 * @throws NullPointerException     if the given {@code address} or {@code pipe} is
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given {@code loops} or {@code idleTimeout}
+	 *                                  or {@code maxContentLength} is not positive.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	public NioServerEngine(
+			@NotNull SocketAddress address,
+			@NotNull Pipe<ServerExchange> pipe,
+			@Range(from = 1, to = Integer.MAX_VALUE) int loops,
+			@Range(from = 1, to = Integer.MAX_VALUE) int idleTimeout,
+			@Range(from = 1, to = Long.MAX_VALUE) long maxContentLength
+	) {
+		Objects.requireNonNull(address, "address");
+		Objects.requireNonNull(pipe, "pipe");
+		if (loops <= 0)
+			throw new IllegalArgumentException("loops: " + loops);
+		if (idleTimeout <= 0)
+			throw new IllegalArgumentException("idleTimeout: " + idleTimeout);
+		if (maxContentLength <= 0)
+			throw new IllegalArgumentException("maxContentLength: " + maxContentLength);
+		this.address = address;
+		this.pipe = pipe;
+		this.loops = loops;
+		this.idleTimeout = idleTimeout;
+		this.maxContentLength = maxContentLength;
+	}
+
+	/**
+	 * Stop accepting connections, close all the connections and stop the event loops.
+	 * The next function given to {@link #serve(Next)} is invoked once all the loops have
+	 * stopped.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Override
+	public void close() {
+		if (!this.closed.compareAndSet(false, true))
+			return;
+
+		EventLoop[] eventLoops = this.eventLoops;
+
+		if (eventLoops != null)
+			for (EventLoop eventLoop : eventLoops)
+				eventLoop.selector.wakeup();
+	}
+
+	/**
+	 * Bind and start the event loops then return immediately. The given {@code next} is
+	 * invoked when this engine is {@link #close() closed} or with the error that stopped
+	 * it.
+	 *
+	 * @param next the next function.
+	 * @throws NullPointerException  if the given {@code next} is null.
+	 * @throws IllegalStateException if this engine was already served.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Override
+	public void serve(@NotNull Next<ServerExchange> next) {
+		Objects.requireNonNull(next, "next");
+
+		synchronized (this) {
+			if (this.next != null)
+				throw new IllegalStateException("Already served");
+
+			this.next = next;
+		}
+
+		EventLoop[] eventLoops = new EventLoop[this.loops];
+		ServerSocketChannel server = null;
+
+		try {
+			server = ServerSocketChannel.open();
+			server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			server.bind(this.address, 1024);
+			server.configureBlocking(false);
+
+			for (int i = 0; i < eventLoops.length; i++)
+				eventLoops[i] = new EventLoop(Selector.open());
+
+			server.register(eventLoops[0].selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			for (EventLoop eventLoop : eventLoops)
+				if (eventLoop != null)
+					NioServerEngine.closeQuietly(eventLoop.selector);
+			NioServerEngine.closeQuietly(server);
+			next.invoke(e);
+			return;
+		}
+
+		this.server = server;
+		this.writers = Executors.newCachedThreadPool(task -> {
+			Thread thread = new Thread(task, "NioServerEngine-writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.eventLoops = eventLoops;
+		this.running.set(eventLoops.length);
+
+		for (int i = 0; i < eventLoops.length; i++) {
+			Thread thread = new Thread(eventLoops[i], "NioServerEngine-" + i);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Return the address this engine is listening on. (useful when binding to port 0)
+	 *
+	 * @return the local address.
+	 * @throws IllegalStateException if this engine is not serving.
+	 * @throws IOException           if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public SocketAddress getLocalAddress() throws IOException {
+		ServerSocketChannel server = this.server;
+
+		if (server == null)
+			throw new IllegalStateException("Not serving");
+
+		SocketAddress address = server.getLocalAddress();
+
+		if (address == null)
+			throw new IllegalStateException("Not serving");
+
+		return address;
+	}
+
+	/**
+	 * Close the given {@code closeable} ignoring any exception.
+	 *
+	 * @param closeable the closeable to be closed.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private static void closeQuietly(@Nullable Closeable closeable) {
+		if (closeable != null)
+			try {
+				closeable.close();
+			} catch (IOException ignored) {
+			}
+	}
+
+	/**
+	 * A stream draining a response body on a writer thread and handing its bytes to the
+	 * loop of the connection in bounded buffers. At most two buffers are handed before
+	 * the loop has written them.
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	private static final class BodyWriter extends OutputStream implements Runnable {
+		/**
+		 * The body to be drained.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		@NotNull
+		private final Body body;
+		/**
+		 * The bytes not handed yet.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private final byte @NotNull [] buffer = new byte[8192];
+		/**
+		 * True, if the body is chunk encoded.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private final boolean chunked;
+		/**
+		 * The connection to hand the bytes to.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		@NotNull
+		private final Connection connection;
+		/**
+		 * The number of buffers that can be handed before the loop writes them.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		@NotNull
+		private final Semaphore permits = new Semaphore(2);
+
+		/**
+		 * True, once the connection is closed.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private volatile boolean aborted;
+		/**
+		 * The number of bytes in the buffer.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private int count;
+
+		/**
+		 * Construct a new writer draining the given {@code body} to the given {@code
+		 * connection}.
+		 *
+		 * @param connection the connection to hand the bytes to.
+		 * @param body       the body to be drained.
+		 * @param chunked    true, if the body is to be chunk encoded.
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private BodyWriter(@NotNull Connection connection, @NotNull Body body, boolean chunked) {
+			this.connection = connection;
+			this.body = body;
+			this.chunked = chunked;
+		}
+
+		@Override
+		public void run() {
+			Connection connection = this.connection;
+
+			try {
+				this.body.writeTo(this);
+				this.handOver();
+
+				if (this.chunked)
+					this.hand(ByteBuffer.wrap(NioServerEngine.LAST_CHUNK));
+
+				connection.eventLoop.execute(connection::end);
+			} catch (Throwable throwable) {
+				//the head is already sent, the client can only tell from the connection
+				connection.eventLoop.execute(connection::close);
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (this.count == this.buffer.length)
+				this.handOver();
+
+			this.buffer[this.count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte @NotNull [] b, int off, int len) throws IOException {
+			while (len > 0) {
+				if (this.count == this.buffer.length)
+					this.handOver();
+
+				int length = Math.min(len, this.buffer.length - this.count);
+				System.arraycopy(b, off, this.buffer, this.count, length);
+				this.count += length;
+				off += length;
+				len -= length;
+			}
+		}
+
+		/**
+		 * Stop the writer. (invoked on the loop when the connection is closed)
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private void abort() {
+			this.aborted = true;
+			this.permits.release();
+		}
+
+		/**
+		 * Hand the given {@code buffer} to the loop once it can take it.
+		 *
+		 * @param buffer the buffer to be handed.
+		 * @throws IOException if the connection is closed or the writer is interrupted.
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private void hand(@NotNull ByteBuffer buffer) throws IOException {
+			try {
+				this.permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+
+			if (this.aborted)
+				throw new IOException("Connection closed");
+
+			Connection connection = this.connection;
+			connection.eventLoop.execute(() -> connection.feed(buffer));
+		}
+
+		/**
+		 * Hand the bytes in the buffer (as a chunk if chunk encoded) to the loop.
+		 *
+		 * @throws IOException if the connection is closed or the writer is interrupted.
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private void handOver() throws IOException {
+			int count = this.count;
+
+			if (count == 0)
+				return;
+
+			byte[] size = this.chunked ? (Integer.toHexString(count) + "\r\n").getBytes() : new byte[0];
+			int tail = this.chunked ? 2 : 0;
+			byte[] bytes = new byte[size.length + count + tail];
+			System.arraycopy(size, 0, bytes, 0, size.length);
+			System.arraycopy(this.buffer, 0, bytes, size.length, count);
+
+			if (this.chunked) {
+				bytes[bytes.length - 2] = '\r';
+				bytes[bytes.length - 1] = '\n';
+			}
+
+			this.count = 0;
+			this.hand(ByteBuffer.wrap(bytes));
+		}
+	}
+
+	/**
+	 * A connection accepted by the engine.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private final class Connection {
+		/**
+		 * The channel of the connection.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final SocketChannel channel;
+		/**
+		 * The decoder of the requests.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final HttpDecoder decoder;
+		/**
+		 * The loop owning the connection.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final EventLoop eventLoop;
+		/**
+		 * The key of the connection.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final SelectionKey key;
+		/**
+		 * The bytes waiting to be written.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final Queue<ByteBuffer> output = new ArrayDeque<>();
+		/**
+		 * The address of the client.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@Nullable
+		private final SocketAddress remoteAddress;
+
+		/**
+		 * The body of the request being received.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@Nullable
+		private ByteArrayOutputStream body;
+		/**
+		 * True, if a request is being handled or its response being written.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private boolean busy;
+		/**
+		 * The file being transferred after the output. (null if none)
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@Nullable
+		private FileChannel file;
+		/**
+		 * The position of the file being transferred.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private long filePosition;
+		/**
+		 * The remaining bytes of the file being transferred.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private long fileRemaining;
+		/**
+		 * True, if the connection can be reused after the current response.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private boolean keepAlive = true;
+		/**
+		 * The time of the last activity.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private long lastActive;
+		/**
+		 * The input received after a complete request. (pipelined requests)
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@Nullable
+		private ByteBuffer pending;
+		/**
+		 * The number of buffers handed by the writer that are not written yet.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private int queued;
+		/**
+		 * The request being received.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@Nullable
+		private Request request;
+		/**
+		 * The writer draining the body of the response. (null if none)
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		@Nullable
+		private BodyWriter writer;
+
+		/**
+		 * Register the given {@code channel} to the given {@code eventLoop}.
+		 *
+		 * @param eventLoop the loop owning the connection.
+		 * @param channel   the channel of the connection.
+		 * @throws IOException if any I/O exception occurs.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private Connection(@NotNull EventLoop eventLoop, @NotNull SocketChannel channel) throws IOException {
+			this.eventLoop = eventLoop;
+			this.channel = channel;
+			this.remoteAddress = channel.getRemoteAddress();
+			this.decoder = new HttpDecoder(false, 8192, 65536, NioServerEngine.this.maxContentLength);
+			this.key = channel.register(eventLoop.selector, SelectionKey.OP_READ, this);
+			this.lastActive = System.currentTimeMillis();
+		}
+
+		/**
+		 * Close the connection.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void close() {
+			if (!this.key.isValid())
+				return;
+
+			this.key.cancel();
+			NioServerEngine.closeQuietly(this.channel);
+			NioServerEngine.closeQuietly(this.file);
+			this.file = null;
+			this.output.clear();
+
+			if (this.writer != null) {
+				this.writer.abort();
+				this.writer = null;
+			}
+
+			this.eventLoop.connections.decrementAndGet();
+		}
+
+		/**
+		 * Invoked on the loop when the pipe completed the given {@code exchange}.
+		 *
+		 * @param exchange the completed exchange.
+		 * @param error    the error the pipe completed with. (null for none)
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void complete(@NotNull ServerExchange exchange, @Nullable Throwable error) {
+			if (!this.key.isValid())
+				return;
+
+			Request request = exchange.getRequest();
+			Response response = exchange.getResponse();
+
+			if (error != null)
+				response = new Response(
+						new StatusLine(HttpVersion.HTTP1_1, StatusCode.INTERNAL_SERVER_ERROR, ReasonPhrase.INTERNAL_SERVER_ERROR),
+						new Headers(),
+						null
+				);
+
+			try {
+				this.respond(request, response);
+			} catch (IOException | RuntimeException e) {
+				this.close();
+			}
+		}
+
+		/**
+		 * Dispatch the given {@code request} to the pipe.
+		 *
+		 * @param request the received request.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void dispatch(@NotNull Request request) {
+			ServerExchange exchange = new ServerExchange(request, new Response(), this.remoteAddress);
+			AtomicBoolean done = new AtomicBoolean();
+			Next<ServerExchange> next = error -> {
+				if (done.compareAndSet(false, true))
+					this.eventLoop.execute(() -> this.complete(exchange, error));
+			};
+
+			try {
+				NioServerEngine.this.pipe.invoke(exchange, next);
+			} catch (Throwable throwable) {
+				next.invoke(throwable);
+			}
+		}
+
+		/**
+		 * Invoked on the loop when the writer handed its last buffer.
+		 *
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private void end() {
+			if (!this.key.isValid())
+				return;
+
+			this.writer = null;
+
+			try {
+				this.flush();
+			} catch (IOException | RuntimeException e) {
+				this.close();
+			}
+		}
+
+		/**
+		 * Invoked on the loop when the writer handed the given {@code buffer}.
+		 *
+		 * @param buffer the buffer to be written.
+		 * @since 1.0.0 ~2022.02.12
+		 */
+		private void feed(@NotNull ByteBuffer buffer) {
+			if (!this.key.isValid())
+				return;
+
+			this.output.add(buffer);
+			this.queued++;
+
+			try {
+				this.flush();
+			} catch (IOException | RuntimeException e) {
+				this.close();
+			}
+		}
+
+		/**
+		 * Write the output then the file. Switch to waiting for writability if the socket
+		 * is full. Wait for the writer (if any) once all is written.
+		 *
+		 * @throws IOException if any I/O exception occurs.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void flush() throws IOException {
+			while (true) {
+				ByteBuffer buffer = this.output.peek();
+
+				if (buffer == null)
+					break;
+
+				this.channel.write(buffer);
+
+				if (buffer.hasRemaining()) {
+					this.key.interestOps(SelectionKey.OP_WRITE);
+					return;
+				}
+
+				this.output.poll();
+				this.lastActive = System.currentTimeMillis();
+			}
+
+			FileChannel file = this.file;
+
+			while (file != null && this.fileRemaining > 0) {
+				long count = file.transferTo(this.filePosition, this.fileRemaining, this.channel);
+
+				if (count <= 0) {
+					if (this.filePosition >= file.size())
+						throw new IOException("file truncated");
+
+					this.key.interestOps(SelectionKey.OP_WRITE);
+					return;
+				}
+
+				this.filePosition += count;
+				this.fileRemaining -= count;
+				this.lastActive = System.currentTimeMillis();
+			}
+
+			if (file != null) {
+				this.file = null;
+				file.close();
+			}
+
+			BodyWriter writer = this.writer;
+
+			if (writer != null) {
+				//let the writer hand more buffers
+				writer.permits.release(this.queued);
+				this.queued = 0;
+				this.key.interestOps(0);
+				return;
+			}
+
+			if (!this.busy) {
+				//only interim output (100-continue) was written
+				this.key.interestOps(SelectionKey.OP_READ);
+				return;
+			}
+			if (!this.keepAlive) {
+				this.close();
+				return;
+			}
+
+			this.busy = false;
+			this.key.interestOps(SelectionKey.OP_READ);
+
+			ByteBuffer pending = this.pending;
+
+			if (pending != null) {
+				this.pending = null;
+				this.process(pending);
+			}
+		}
+
+		/**
+		 * Decode the given {@code input} until a request is complete or the input is
+		 * consumed.
+		 *
+		 * @param input the input to be decoded.
+		 * @throws IOException if any I/O exception occurs.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void process(@NotNull ByteBuffer input) throws IOException {
+			HttpDecoder decoder = this.decoder;
+
+			try {
+				while (true) {
+					int event = decoder.decode(input);
+
+					if (event == HttpDecoder.NEED_INPUT)
+						return;
+					if (event == HttpDecoder.HEAD) {
+						Request request = new Request(decoder.getRequestLine(), decoder.getHeaders(), null);
+						this.request = request;
+						this.body = null;
+
+						if (ServerUtil.isExpectContinue(request)) {
+							this.output.add(ByteBuffer.wrap(NioServerEngine.CONTINUE));
+							this.flush();
+						}
+					} else if (event == HttpDecoder.CONTENT) {
+						ByteBuffer content = decoder.getContent();
+
+						if (this.body == null)
+							this.body = new ByteArrayOutputStream(
+									(int) Math.min(Math.max(decoder.getContentLength(), 0), 1 << 20)
+							);
+
+						this.body.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+					} else if (event == HttpDecoder.END) {
+						Request request = Objects.requireNonNull(this.request, "request");
+						ByteArrayOutputStream body = this.body;
+
+						if (body != null)
+							request.setBody(ServerUtil.body(request, body.toByteArray()));
+
+						this.request = null;
+						this.body = null;
+						this.busy = true;
+						this.keepAlive = ServerUtil.isKeepAlive(request);
+						this.key.interestOps(0);
+
+						if (input.hasRemaining()) {
+							ByteBuffer pending = ByteBuffer.allocate(input.remaining());
+							pending.put(input).flip();
+							this.pending = pending;
+						}
+
+						this.dispatch(request);
+						return;
+					}
+				}
+			} catch (ProtocolException e) {
+				this.busy = true;
+				this.keepAlive = false;
+				this.key.interestOps(0);
+				this.respond(
+						new Request(),
+						new Response(
+								new StatusLine(HttpVersion.HTTP1_1, StatusCode.BAD_REQUEST, ReasonPhrase.BAD_REQUEST),
+								new Headers(),
+								null
+						)
+				);
+			}
+		}
+
+		/**
+		 * Read from the channel and process the input.
+		 *
+		 * @throws IOException if any I/O exception occurs.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void read() throws IOException {
+			ByteBuffer input = this.eventLoop.input;
+			input.clear();
+
+			int read = this.channel.read(input);
+
+			if (read < 0) {
+				this.close();
+				return;
+			}
+
+			this.lastActive = System.currentTimeMillis();
+			input.flip();
+			this.process(input);
+		}
+
+		/**
+		 * Prepare and write the given {@code response}.
+		 *
+		 * @param request  the request being responded to.
+		 * @param response the response to be written.
+		 * @throws IOException if any I/O exception occurs.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void respond(@NotNull Request request, @NotNull Response response) throws IOException {
+			this.keepAlive = ServerUtil.prepare(request, response, this.keepAlive);
+
+			Body body = response.getBody();
+			boolean bodiless = ServerUtil.isBodiless(request, response);
+			boolean chunked = ServerUtil.isChunked(response.getHeaders());
+			ByteArrayOutputStream head = new ByteArrayOutputStream(256);
+			new Response(response.getStatusLine(), response.getHeaders(), null).writeTo(head);
+			this.output.add(ByteBuffer.wrap(head.toByteArray()));
+
+			if (bodiless || body == null) {
+				if (!bodiless && chunked)
+					this.output.add(ByteBuffer.wrap(NioServerEngine.LAST_CHUNK));
+			} else if (!chunked && body instanceof BytesBody) {
+				this.output.add(ByteBuffer.wrap(((BytesBody) body).getBytes()));
+			} else if (!chunked && body instanceof FileBody) {
+				FileChannel file = ((FileBody) body).openChannel();
+				this.file = file;
+				this.filePosition = 0;
+				this.fileRemaining = file.size();
+			} else {
+				BodyWriter writer = new BodyWriter(this, body, chunked);
+				this.writer = writer;
+				Objects.requireNonNull(NioServerEngine.this.writers, "writers").execute(writer);
+			}
+
+			this.flush();
+		}
+	}
+
+	/**
+	 * An event loop owning a selector and the connections registered to it.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	private final class EventLoop implements Runnable {
+		/**
+		 * The number of connections owned by this loop.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final AtomicInteger connections = new AtomicInteger();
+		/**
+		 * The read buffer shared by the connections of this loop.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final ByteBuffer input = ByteBuffer.allocate(65536);
+		/**
+		 * The selector of this loop.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final Selector selector;
+		/**
+		 * The tasks to be run on this loop.
+		 *
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		@NotNull
+		private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+		/**
+		 * Construct a new loop with the given {@code selector}.
+		 *
+		 * @param selector the selector of the loop.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private EventLoop(@NotNull Selector selector) {
+			this.selector = selector;
+		}
+
+		@Override
+		public void run() {
+			Throwable error = null;
+
+			try {
+				long lastSweep = System.currentTimeMillis();
+
+				while (!NioServerEngine.this.closed.get()) {
+					this.selector.select(1000);
+
+					Runnable task;
+					while ((task = this.tasks.poll()) != null)
+						task.run();
+
+					Iterator<SelectionKey> iterator = this.selector.selectedKeys().iterator();
+
+					while (iterator.hasNext()) {
+						SelectionKey key = iterator.next();
+						iterator.remove();
+
+						if (!key.isValid())
+							continue;
+						if (key.isAcceptable()) {
+							this.accept();
+							continue;
+						}
+
+						Connection connection = (Connection) key.attachment();
+
+						try {
+							if (key.isWritable())
+								connection.flush();
+							else if (key.isReadable())
+								connection.read();
+						} catch (IOException | RuntimeException e) {
+							connection.close();
+						}
+					}
+
+					long now = System.currentTimeMillis();
+
+					if (now - lastSweep >= 1000) {
+						lastSweep = now;
+						this.sweep(now);
+					}
+				}
+			} catch (IOException | RuntimeException | Error e) {
+				//fatal to the engine, not just to this loop
+				error = e;
+				NioServerEngine.this.close();
+			} finally {
+				for (SelectionKey key : this.selector.keys())
+					if (key.attachment() instanceof Connection)
+						((Connection) key.attachment()).close();
+					else
+						NioServerEngine.closeQuietly(key.channel());
+
+				NioServerEngine.closeQuietly(this.selector);
+
+				if (NioServerEngine.this.running.decrementAndGet() == 0) {
+					NioServerEngine.closeQuietly(NioServerEngine.this.server);
+					Objects.requireNonNull(NioServerEngine.this.writers, "writers").shutdownNow();
+					Next<ServerExchange> next = NioServerEngine.this.next;
+
+					if (next != null)
+						next.invoke(error);
+				}
+			}
+		}
+
+		/**
+		 * Accept the pending connections and hand each to the loop with the least
+		 * connections.
+		 *
+		 * @throws IOException if any I/O exception occurs.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void accept() throws IOException {
+			ServerSocketChannel server = Objects.requireNonNull(NioServerEngine.this.server, "server");
+			EventLoop[] eventLoops = Objects.requireNonNull(NioServerEngine.this.eventLoops, "eventLoops");
+
+			while (true) {
+				SocketChannel channel = server.accept();
+
+				if (channel == null)
+					return;
+
+				EventLoop target = eventLoops[0];
+
+				for (EventLoop eventLoop : eventLoops)
+					if (eventLoop.connections.get() < target.connections.get())
+						target = eventLoop;
+
+				EventLoop owner = target;
+				owner.connections.incrementAndGet();
+
+				try {
+					channel.configureBlocking(false);
+					channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+				} catch (IOException e) {
+					owner.connections.decrementAndGet();
+					NioServerEngine.closeQuietly(channel);
+					continue;
+				}
+
+				owner.execute(() -> {
+					try {
+						new Connection(owner, channel);
+					} catch (IOException e) {
+						owner.connections.decrementAndGet();
+						NioServerEngine.closeQuietly(channel);
+					}
+				});
+			}
+		}
+
+		/**
+		 * Run the given {@code task} on this loop.
+		 *
+		 * @param task the task to be run.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void execute(@NotNull Runnable task) {
+			this.tasks.add(task);
+			this.selector.wakeup();
+		}
+
+		/**
+		 * Close the connections that have been idle for longer than the idle timeout.
+		 *
+		 * @param now the current time.
+		 * @since 1.0.0 ~2022.01.31
+		 */
+		private void sweep(long now) {
+			for (SelectionKey key : this.selector.keys())
+				if (key.attachment() instanceof Connection) {
+					Connection connection = (Connection) key.attachment();
+
+					if (!key.isValid())
+						continue;
+					//the pipe might take its time, the socket should not
+					if (connection.busy && connection.key.interestOps() == 0)
+						continue;
+					if (now - connection.lastActive > NioServerEngine.this.idleTimeout)
+						connection.close();
+				}
+		}
+	}
+}
@@ -0,0 +1,676 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.nio;
+
+import org.cufy.http.*;
+import org.cufy.http.concurrent.VirtualThreadPerformer;
+import org.cufy.http.internal.syntax.HttpDecoder;
+import org.cufy.http.internal.util.ServerUtil;
+import org.cufy.http.pipeline.Next;
+import org.cufy.http.pipeline.Pipe;
+import org.cufy.http.server.ServerEngine;
+import org.cufy.http.server.ServerExchange;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.*;
+import java.net.ProtocolException;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A server engine that handles each connection on its own thread with blocking I/O, so
+ * the pipe can block (e.g. on a database or on a {@link
+ * org.cufy.http.concurrent.Performer#WAIT waiting} client call) without callbacks.
+ * <br>
+ * On a runtime with virtual threads (java 21+) each connection gets a new virtual thread
+ * and the number of connections is not limited. (unless the engine is constructed to
+ * use platform threads only) Otherwise, the connections are handled by
+ * a pool of at most {@code maxThreads} platform threads. When all of them are taken, a
+ * new connection is answered with {@code 503 Service Unavailable} right away and the idle
+ * keep-alive connections are closed to make room for the next ones.
+ * <br>
+ * The pipe is invoked on the thread of the connection and the response is sent once the
+ * pipe invokes its next function. (from any thread)
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.01
+ */
+public class ThreadServerEngine implements ServerEngine<ServerExchange, ServerExchange>, Closeable {
+	/**
+	 * The interim response sent to clients expecting {@code 100-continue}.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private static final byte @NotNull [] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes();
+	/**
+	 * The number of milliseconds a blocked read waits before checking whether its idle
+	 * connection should make room for the connections being rejected.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private static final int IDLE_SLICE = 500;
+
+	/**
+	 * The address to bind to.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@NotNull
+	protected final SocketAddress address;
+	/**
+	 * The number of milliseconds an idle connection is kept open.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	protected final int idleTimeout;
+	/**
+	 * The maximum length of a request body.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	protected final long maxContentLength;
+	/**
+	 * The maximum number of platform threads handling the connections when virtual
+	 * threads are not used. (and so, the maximum number of connections handled at
+	 * once)
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	protected final int maxThreads;
+	/**
+	 * The pipe to dispatch the requests to.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@NotNull
+	protected final Pipe<ServerExchange> pipe;
+	/**
+	 * True, if the connections are handled by virtual threads. (requested and supported
+	 * by the runtime)
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	protected final boolean virtualThreads;
+
+	/**
+	 * True, once this engine is closed.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private final AtomicBoolean closed = new AtomicBoolean();
+	/**
+	 * The open connections.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+	/**
+	 * The permits of the connections being handled. (one per connection, null when the
+	 * connections are not limited)
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@Nullable
+	private final Semaphore permits;
+	/**
+	 * The next function to invoke when the server stops.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@Nullable
+	private volatile Next<ServerExchange> next;
+	/**
+	 * The listening channel. (null until served)
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@Nullable
+	private volatile ServerSocketChannel server;
+	/**
+	 * The time ({@link System#currentTimeMillis()}) a connection was last rejected for
+	 * the lack of a permit. (idle connections close shortly after)
+	 *
+	 * @since 1.0.0 ~2022.02.12
+	 */
+	private volatile long rejected;
+
+	/**
+	 * Construct a new engine with at most 256 platform threads (when virtual threads are
+	 * not available), a one-minute idle timeout and request bodies of at most 8 MiB. (the
+	 * request bodies are buffered in memory)
+	 *
+	 * @param address the address to bind to.
+	 * @param pipe    the pipe to dispatch the requests to.
+	 * @throws NullPointerException if the given {@code address} or {@code pipe} is null.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	public ThreadServerEngine(@NotNull SocketAddress address, @NotNull Pipe<ServerExchange> pipe) {
+		this(address, pipe, 256, 60_000, 8L << 20);
+	}
+
+	/**
+	 * Construct a new engine with the given components using virtual threads when the
+	 * runtime supports them.
+	 *
+	 * @param address          the address to bind to.
+	 * @param pipe             the pipe to dispatch the requests to.
+	 * @param maxThreads       the maximum number of platform threads handling the
+	 *                         connections when virtual threads are not available. (and
+	 *                         so, the maximum number of connections handled at once)
+	 * @param idleTimeout      the number of milliseconds an idle connection is kept open.
+	 * @param maxContentLength the maximum length of a request body. (the request bodies
+	 *                         are buffered in memory)
+	 * @throws NullPointerException     if the given {@code address} or {@code pipe} is
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given {@code maxThreads} or {@code
+	 *                                  idleTimeout} or {@code maxContentLength} is not
+	 *                                  positive.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	public ThreadServerEngine(
+			@NotNull SocketAddress address,
+			@NotNull Pipe<ServerExchange> pipe,
+			@Range(from = 1, to = Integer.MAX_VALUE) int maxThreads,
+			@Range(from = 1, to = Integer.MAX_VALUE) int idleTimeout,
+			@Range(from = 1, to = Long.MAX_VALUE) long maxContentLength
+	) {
+		this(address, pipe, maxThreads, idleTimeout, maxContentLength, true);
+	}
+
+	/**
+	 * Construct a new engine with the given components.
+	 *
+	 * @param address          the address to bind to.
+	 * @param pipe             the pipe to dispatch the requests to.
+	 * @param maxThreads       the maximum number of platform threads handling the
+	 *                         connections when virtual threads are not used. (and so,
+	 *                         the maximum number of connections handled at once)
+	 * @param idleTimeout      the number of milliseconds an idle connection is kept open.
+	 * @param maxContentLength the maximum length of a request body. (the request bodies
+	 *                         are buffered in memory)
+	 * @param virtualThreads   true, to use virtual threads when the runtime supports
+	 *                         them. False, to always use a pool of platform threads.
+	 * @throws NullPointerException     if the given {@code address} or {@code pipe} is
+	 *                                  null.
+	 * @throws IllegalArgumentException if the given {@code maxThreads} or {@code
+	 *                                  idleTimeout} or {@code maxContentLength} is not
+	 *                                  positive.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	public ThreadServerEngine(
+			@NotNull SocketAddress address,
+			@NotNull Pipe<ServerExchange> pipe,
+			@Range(from = 1, to = Integer.MAX_VALUE) int maxThreads,
+			@Range(from = 1, to = Integer.MAX_VALUE) int idleTimeout,
+			@Range(from = 1, to = Long.MAX_VALUE) long maxContentLength,
+			boolean virtualThreads
+	) {
+		Objects.requireNonNull(address, "address");
+		Objects.requireNonNull(pipe, "pipe");
+		if (maxThreads <= 0)
+			throw new IllegalArgumentException("maxThreads: " + maxThreads);
+		if (idleTimeout <= 0)
+			throw new IllegalArgumentException("idleTimeout: " + idleTimeout);
+		if (maxContentLength <= 0)
+			throw new IllegalArgumentException("maxContentLength: " + maxContentLength);
+		this.address = address;
+		this.pipe = pipe;
+		this.maxThreads = maxThreads;
+		this.virtualThreads = virtualThreads && VirtualThreadPerformer.isSupported();
+		this.permits = this.virtualThreads ? null : new Semaphore(maxThreads);
+		this.idleTimeout = idleTimeout;
+		this.maxContentLength = maxContentLength;
+	}
+
+	/**
+	 * Stop accepting connections and close all the connections. The next function given
+	 * to {@link #serve(Next)} is invoked once the acceptor has stopped.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@Override
+	public void close() {
+		if (!this.closed.compareAndSet(false, true))
+			return;
+
+		ThreadServerEngine.closeQuietly(this.server);
+
+		for (SocketChannel channel : this.connections)
+			ThreadServerEngine.closeQuietly(channel);
+	}
+
+	/**
+	 * Bind and start accepting on a new thread then return immediately. The given {@code
+	 * next} is invoked when this engine is {@link #close() closed} or with the error that
+	 * stopped it.
+	 *
+	 * @param next the next function.
+	 * @throws NullPointerException  if the given {@code next} is null.
+	 * @throws IllegalStateException if this engine was already served.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@Override
+	public void serve(@NotNull Next<ServerExchange> next) {
+		Objects.requireNonNull(next, "next");
+
+		synchronized (this) {
+			if (this.next != null)
+				throw new IllegalStateException("Already served");
+
+			this.next = next;
+		}
+
+		ServerSocketChannel server = null;
+
+		try {
+			server = ServerSocketChannel.open();
+			server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			server.bind(this.address, 1024);
+		} catch (IOException e) {
+			ThreadServerEngine.closeQuietly(server);
+			next.invoke(e);
+			return;
+		}
+
+		this.server = server;
+
+		ServerSocketChannel acceptor = server;
+		Thread thread = new Thread(() -> this.accept(acceptor), "ThreadServerEngine-acceptor");
+		thread.start();
+	}
+
+	/**
+	 * Return the address this engine is listening on. (useful when binding to port 0)
+	 *
+	 * @return the local address.
+	 * @throws IllegalStateException if this engine is not serving.
+	 * @throws IOException           if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public SocketAddress getLocalAddress() throws IOException {
+		ServerSocketChannel server = this.server;
+
+		if (server == null)
+			throw new IllegalStateException("Not serving");
+
+		SocketAddress address = server.getLocalAddress();
+
+		if (address == null)
+			throw new IllegalStateException("Not serving");
+
+		return address;
+	}
+
+	/**
+	 * Create the executor handling the connections. A virtual-thread-per-task executor if
+	 * {@link #virtualThreads} is true. Otherwise, a pool of at most {@link #maxThreads}
+	 * platform threads. (the number of connections submitted at once is then already limited to
+	 * {@link #maxThreads})
+	 *
+	 * @return a new executor.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@NotNull
+	@Contract("->new")
+	protected ExecutorService createExecutor() {
+		if (this.virtualThreads)
+			try {
+				//java 21+
+				return (ExecutorService) Executors.class
+						.getMethod("newVirtualThreadPerTaskExecutor")
+						.invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException ignored) {
+			}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				this.maxThreads,
+				this.maxThreads,
+				60, TimeUnit.SECONDS,
+				//a thread finishing a connection might not be back in the pool yet
+				new LinkedBlockingQueue<>(),
+				runnable -> {
+					Thread thread = new Thread(runnable, "ThreadServerEngine-worker");
+					thread.setDaemon(true);
+					return thread;
+				}
+		);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Close the given {@code closeable} ignoring any exception.
+	 *
+	 * @param closeable the closeable to be closed.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private static void closeQuietly(@Nullable Closeable closeable) {
+		if (closeable != null)
+			try {
+				closeable.close();
+			} catch (IOException ignored) {
+			}
+	}
+
+	/**
+	 * Accept connections from the given {@code server} until it is closed.
+	 *
+	 * @param server the server channel.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private void accept(@NotNull ServerSocketChannel server) {
+		ExecutorService executor = this.createExecutor();
+		Throwable error = null;
+
+		try {
+			while (true) {
+				SocketChannel channel = server.accept();
+				Semaphore permits = this.permits;
+
+				if (permits != null && !permits.tryAcquire()) {
+					//never wait; the idle connections make room for the next ones
+					this.rejected = System.currentTimeMillis();
+					this.reject(channel);
+					continue;
+				}
+
+				try {
+					executor.execute(() -> {
+						try {
+							this.handle(channel);
+						} finally {
+							if (permits != null)
+								permits.release();
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					if (permits != null)
+						permits.release();
+
+					ThreadServerEngine.closeQuietly(channel);
+				}
+			}
+		} catch (ClosedChannelException ignored) {
+			//closed
+		} catch (IOException | RuntimeException e) {
+			error = e;
+		} finally {
+			this.close();
+			executor.shutdown();
+
+			Next<ServerExchange> next = this.next;
+
+			if (next != null)
+				next.invoke(error);
+		}
+	}
+
+	/**
+	 * Answer the given {@code channel} with {@code 503 Service Unavailable} and close it.
+	 *
+	 * @param channel the channel of the rejected connection.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private void reject(@NotNull SocketChannel channel) {
+		try {
+			Response response = new Response(
+					new StatusLine(HttpVersion.HTTP1_1, StatusCode.SERVICE_UNAVAILABLE, ReasonPhrase.SERVICE_UNAVAILABLE),
+					new Headers(),
+					null
+			);
+			this.respond(channel, new Request(), response, false);
+		} catch (IOException | RuntimeException ignored) {
+			//lost
+		} finally {
+			ThreadServerEngine.closeQuietly(channel);
+		}
+	}
+
+	/**
+	 * Handle the requests on the given {@code channel} until it is closed.
+	 *
+	 * @param channel the channel of the connection.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private void handle(@NotNull SocketChannel channel) {
+		this.connections.add(channel);
+
+		try {
+			if (this.closed.get())
+				return;
+
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			//the idle timeout is checked between the slices
+			channel.socket().setSoTimeout(Math.min(this.idleTimeout, ThreadServerEngine.IDLE_SLICE));
+
+			//the adaptor stream honours the timeout (reading the channel directly does not)
+			InputStream stream = channel.socket().getInputStream();
+			SocketAddress remoteAddress = channel.getRemoteAddress();
+			HttpDecoder decoder = new HttpDecoder(false, 8192, 65536, this.maxContentLength);
+			byte[] bytes = new byte[8192];
+			ByteBuffer input = ByteBuffer.wrap(bytes, 0, 0);
+			Request request = null;
+			ByteArrayOutputStream body = null;
+			long lastActive = System.currentTimeMillis();
+
+			while (true) {
+				int event;
+
+				try {
+					event = decoder.decode(input);
+				} catch (ProtocolException e) {
+					Response response = new Response(
+							new StatusLine(HttpVersion.HTTP1_1, StatusCode.BAD_REQUEST, ReasonPhrase.BAD_REQUEST),
+							new Headers(),
+							null
+					);
+					this.respond(channel, new Request(), response, false);
+					return;
+				}
+
+				if (event == HttpDecoder.NEED_INPUT) {
+					int read;
+
+					try {
+						read = stream.read(bytes);
+					} catch (SocketTimeoutException e) {
+						if (System.currentTimeMillis() - lastActive >= this.idleTimeout)
+							return;
+						if (decoder.isAtBoundary() && System.currentTimeMillis() - this.rejected < ThreadServerEngine.IDLE_SLICE * 2L)
+							//make room for the connections being rejected (never mid-request)
+							return;
+
+						continue;
+					}
+
+					if (read < 0)
+						return;
+
+					lastActive = System.currentTimeMillis();
+					input = ByteBuffer.wrap(bytes, 0, read);
+				} else if (event == HttpDecoder.HEAD) {
+					request = new Request(decoder.getRequestLine(), decoder.getHeaders(), null);
+					body = null;
+
+					if (ServerUtil.isExpectContinue(request))
+						channel.write(ByteBuffer.wrap(ThreadServerEngine.CONTINUE));
+				} else if (event == HttpDecoder.CONTENT) {
+					ByteBuffer content = decoder.getContent();
+
+					if (body == null)
+						body = new ByteArrayOutputStream(
+								(int) Math.min(Math.max(decoder.getContentLength(), 0), 1 << 20)
+						);
+
+					body.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+				} else if (event == HttpDecoder.END) {
+					Objects.requireNonNull(request, "request");
+
+					if (body != null)
+						request.setBody(ServerUtil.body(request, body.toByteArray()));
+
+					Response response = this.dispatch(request, remoteAddress);
+
+					if (!this.respond(channel, request, response, ServerUtil.isKeepAlive(request)))
+						return;
+
+					//pipelined requests remain in the input
+					request = null;
+					body = null;
+					lastActive = System.currentTimeMillis();
+				}
+			}
+		} catch (IOException | RuntimeException ignored) {
+			//idle, closed or lost
+		} finally {
+			this.connections.remove(channel);
+			ThreadServerEngine.closeQuietly(channel);
+		}
+	}
+
+	/**
+	 * Dispatch the given {@code request} to the pipe and wait for the response.
+	 *
+	 * @param request       the request.
+	 * @param remoteAddress the address of the client.
+	 * @return the response to be sent.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	@NotNull
+	private Response dispatch(@NotNull Request request, @Nullable SocketAddress remoteAddress) {
+		ServerExchange exchange = new ServerExchange(request, new Response(), remoteAddress);
+		CompletableFuture<Throwable> future = new CompletableFuture<>();
+		Throwable error;
+
+		try {
+			this.pipe.invoke(exchange, future::complete);
+		} catch (Throwable throwable) {
+			future.complete(throwable);
+		}
+
+		try {
+			error = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			error = e;
+		} catch (ExecutionException e) {
+			error = e.getCause();
+		}
+
+		if (error != null)
+			return new Response(
+					new StatusLine(HttpVersion.HTTP1_1, StatusCode.INTERNAL_SERVER_ERROR, ReasonPhrase.INTERNAL_SERVER_ERROR),
+					new Headers(),
+					null
+			);
+
+		return exchange.getResponse();
+	}
+
+	/**
+	 * Prepare and write the given {@code response}.
+	 *
+	 * @param channel   the channel to write to.
+	 * @param request   the request being responded to.
+	 * @param response  the response to be written.
+	 * @param keepAlive true, if the connection is to be kept alive.
+	 * @return true, if the connection can be reused.
+	 * @throws IOException if any I/O exception occurs.
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private boolean respond(@NotNull SocketChannel channel, @NotNull Request request, @NotNull Response response, boolean keepAlive) throws IOException {
+		keepAlive = ServerUtil.prepare(request, response, keepAlive);
+
+		Body body = response.getBody();
+
+		if (ServerUtil.isBodiless(request, response)) {
+			new Response(response.getStatusLine(), response.getHeaders(), null).writeTo(channel);
+		} else if (body == null) {
+			new Response(response.getStatusLine(), response.getHeaders(), null).writeTo(channel);
+
+			if (ServerUtil.isChunked(response.getHeaders()))
+				//transfer codings of the pipe with no body
+				new ChunkedOutputStream(Channels.newOutputStream(channel)).close();
+		} else if (ServerUtil.isChunked(response.getHeaders())) {
+			new Response(response.getStatusLine(), response.getHeaders(), null).writeTo(channel);
+
+			OutputStream stream = Channels.newOutputStream(channel);
+
+			try (OutputStream chunked = new BufferedOutputStream(new ChunkedOutputStream(stream), 8192)) {
+				body.writeTo(chunked);
+			}
+		} else {
+			response.writeTo(channel);
+		}
+
+		return keepAlive;
+	}
+
+	/**
+	 * An output stream writing each write as a chunk and the last chunk when closed. The
+	 * underlying stream is not closed.
+	 *
+	 * @since 1.0.0 ~2022.02.01
+	 */
+	private static final class ChunkedOutputStream extends FilterOutputStream {
+		/**
+		 * Construct a new chunked stream over the given {@code stream}.
+		 *
+		 * @param stream the underlying stream.
+		 * @since 1.0.0 ~2022.02.01
+		 */
+		private ChunkedOutputStream(@NotNull OutputStream stream) {
+			super(stream);
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.write("0\r\n\r\n".getBytes());
+			this.out.flush();
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte @NotNull [] b, int off, int len) throws IOException {
+			if (len == 0)
+				return;
+
+			this.out.write((Integer.toHexString(len) + "\r\n").getBytes());
+			this.out.write(b, off, len);
+			this.out.write("\r\n".getBytes());
+		}
+	}
+}
@@ -15,15 +15,19 @@
  */
 package org.cufy.http.okhttp
 
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.suspendCancellableCoroutine
 import org.cufy.http.Endpoint
 import org.cufy.http.Message
-import org.cufy.http.client.ClientEngine
+import org.cufy.http.client.SuspendClientEngine
 import org.cufy.http.client.wrapper.ClientMessageContext
 import org.cufy.http.client.wrapper.ClientRequestContext
 import org.cufy.http.client.wrapper.ClientResponseContext
+import org.cufy.http.concurrent.Cancellation
 import org.cufy.http.pipeline.Next
 import org.cufy.http.wrapper.*
 import java.io.IOException
+import kotlin.coroutines.resumeWithException
 import okhttp3.Call as OkCall
 import okhttp3.Callback as OkCallback
 import okhttp3.OkHttpClient as OkClient
@@ -31,9 +35,13 @@ import okhttp3.Response as OkResponse
 
 /**
  * A client engine that uses OkHttp to operate.
+ *
+ * Suspending callers can use [connectSuspend] (directly or through
+ * [org.cufy.http.client.wrapper.connectAwait]) to wait for the call without
+ * blocking a thread. Cancelling the coroutine cancels the call.
  */
 open class OkEngine :
-    ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> {
+    SuspendClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> {
     companion object : OkEngine()
 
     /**
@@ -62,6 +70,7 @@ open class OkEngine :
         val call = this.client.newCall(input.request.toOkRequest())
 
         input.call = call
+        Cancellation.of(input)?.register { call.cancel() }
 
         call.enqueue(object : OkCallback {
             override fun onFailure(call: OkCall, e: IOException) {
@@ -69,27 +78,66 @@ open class OkEngine :
             }
 
             override fun onResponse(call: OkCall, response: OkResponse) {
-                response.use {
-                    response.body.use { body ->
-                        val output = input.res()
-
-                        try {
-                            output.httpVersion = response.protocol.toString()
-                            output.statusCode = response.code.toString()
-                            output.reasonPhrase = response.message
-                            output.headers = Headers(response.headers)
-                            output.body = if (body == null) null else BytesBody(body)
-                        } catch (e: IllegalArgumentException) {
-                            next(e)
-                            return
-                        }
-
-                        next()
-                    }
+                try {
+                    fill(input, response)
+                } catch (e: IllegalArgumentException) {
+                    response.close()
+                    next(e)
+                    return
                 }
+
+                next()
             }
         })
     }
+
+    @OptIn(ExperimentalCoroutinesApi::class)
+    override suspend fun connectSuspend(input: ClientRequestContext<out Endpoint>) {
+        val call = this.client.newCall(input.request.toOkRequest())
+
+        input.call = call
+
+        suspendCancellableCoroutine<Unit> { continuation ->
+            continuation.invokeOnCancellation { call.cancel() }
+
+            call.enqueue(object : OkCallback {
+                override fun onFailure(call: OkCall, e: IOException) {
+                    continuation.resumeWithException(e)
+                }
+
+                override fun onResponse(call: OkCall, response: OkResponse) {
+                    try {
+                        fill(input, response)
+                    } catch (e: IllegalArgumentException) {
+                        response.close()
+                        continuation.resumeWithException(e)
+                        return
+                    }
+
+                    // cancelled after the response arrived
+                    continuation.resume(Unit) { response.close() }
+                }
+            })
+        }
+    }
+
+    /**
+     * Fill the response of the given [input] from the given okhttp [response].
+     *
+     * @throws IllegalArgumentException if the response is malformed.
+     */
+    private fun fill(input: ClientRequestContext<out Endpoint>, response: OkResponse) {
+        val body = response.body
+        val output = input.res()
+
+        output.httpVersion = response.protocol.toString()
+        output.statusCode = response.code.toString()
+        output.reasonPhrase = response.message
+        output.headers = Headers(response.headers)
+        // the stream stays attached to the connection until
+        // the response context releases it
+        output.body = if (body == null) null else StreamBody(body)
+    }
 }
 
 /**
@@ -15,13 +15,14 @@
  */
 package org.cufy.http.okhttp
 
-import okhttp3.Headers.Companion.toHeaders
 import okhttp3.MediaType.Companion.toMediaType
+import okhttp3.RequestBody.Companion.asRequestBody
 import okhttp3.RequestBody.Companion.toRequestBody
 import okio.BufferedSink
-import okio.source
 import org.cufy.http.*
 import org.cufy.http.body.BytesBody
+import org.cufy.http.body.FileBody
+import org.cufy.http.body.StreamBody
 import org.cufy.http.mime.Mime
 import org.jetbrains.annotations.Contract
 import okhttp3.Headers as OkHeaders
@@ -42,7 +43,10 @@ import okhttp3.internal.http.HttpMethod as OkMethod
 @Contract(pure = true)
 @JvmName("okHeaders")
 fun Headers.toOkHeaders(): OkHeaders =
-    values().toHeaders()
+    OkHeaders.Builder().also {
+        for (i in 0 until size())
+            it.add(nameAt(i), valueAt(i))
+    }.build()
 
 // Mime
 
@@ -59,11 +63,18 @@ fun Mime.toOkMediaType(): OkMediaType =
  */
 @Contract(pure = true)
 @JvmName("okRequestBody")
-fun Body.toOkRequestBody(): OkRequestBody = object : OkRequestBody() {
-    override fun contentType() = mime?.toOkMediaType()
+fun Body.toOkRequestBody(): OkRequestBody {
+    if (this is FileBody)
+        return file.asRequestBody(mime?.toOkMediaType())
 
-    override fun writeTo(sink: BufferedSink) {
-        sink.writeAll(openInputStream().source())
+    return object : OkRequestBody() {
+        override fun contentType() = mime?.toOkMediaType()
+
+        override fun contentLength() = this@toOkRequestBody.contentLength
+
+        override fun writeTo(sink: BufferedSink) {
+            this@toOkRequestBody.writeTo(sink.outputStream())
+        }
     }
 }
 
@@ -106,7 +117,10 @@ fun Request.toOkRequest(): OkRequest =
  */
 @Contract(pure = true)
 fun Headers(headers: OkHeaders): Headers =
-    Headers(headers.toMap())
+    Headers().also {
+        for (i in 0 until headers.size)
+            it.append(headers.name(i), headers.value(i))
+    }
 
 // Mime
 
@@ -125,6 +139,18 @@ fun BytesBody(body: OkResponseBody): BytesBody =
         body.bytes()
     )
 
+/**
+ * Wrap the given okhttp response body into a streaming body. Closing the returned body
+ * closes the given [body].
+ */
+@Contract(pure = true)
+fun StreamBody(body: OkResponseBody): StreamBody =
+    StreamBody(
+        body.contentType()?.let(::Mime),
+        body.contentLength(),
+        body.byteStream()
+    )
+
 // Response
 
 /**
@@ -0,0 +1,178 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.pipeline;
+
+import org.cufy.http.internal.util.Trampoline;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A pipe that invokes a flat array of pipes one after the other.
+ * <br>
+ * Compiling a pipe that is itself a compiled pipeline will inline its stages instead of
+ * nesting it. So, no matter how many times a pipeline gets extended, invoking it is done
+ * by a single index-based loop with a constant stack depth.
+ *
+ * @param <T> the type of the parameter of the pipe.
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.20
+ */
+public final class CompiledPipeline<T> implements Pipe<T> {
+	/**
+	 * The stages of this pipeline.
+	 *
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@NotNull
+	private final Pipe<T> @NotNull [] stages;
+
+	/**
+	 * Construct a new pipeline with the given {@code stages}.
+	 *
+	 * @param stages the flattened non-null stages.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private CompiledPipeline(@NotNull Pipe<T> @NotNull [] stages) {
+		this.stages = stages;
+	}
+
+	/**
+	 * Compile the given {@code pipes} into a single flat pipeline. Null pipes are
+	 * ignored and compiled pipelines are inlined.
+	 *
+	 * @param pipes the pipes to be compiled.
+	 * @param <T>   the type of the parameter of the pipes.
+	 * @return a pipeline invoking the given pipes.
+	 * @throws NullPointerException if the given {@code pipes} is null.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@NotNull
+	@Contract(value = "_->new", pure = true)
+	@SafeVarargs
+	public static <T> CompiledPipeline<T> compile(@Nullable Pipe<T> @NotNull ... pipes) {
+		Objects.requireNonNull(pipes, "pipes");
+		List<Pipe<T>> stages = new ArrayList<>(pipes.length);
+
+		for (Pipe<T> pipe : pipes)
+			if (pipe instanceof CompiledPipeline)
+				Collections.addAll(stages, ((CompiledPipeline<T>) pipe).stages);
+			else if (pipe != null)
+				stages.add(pipe);
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Pipe<T>[] array = stages.toArray(new Pipe[0]);
+		return new CompiledPipeline<>(array);
+	}
+
+	@Override
+	public void invoke(@NotNull T parameter, @NotNull Next<T> next) {
+		Objects.requireNonNull(parameter, "parameter");
+		Objects.requireNonNull(next, "next");
+
+		if (this.stages.length == 0) {
+			next.invoke();
+			return;
+		}
+
+		new Cursor<>(this.stages, parameter, next).invoke();
+	}
+
+	/**
+	 * Return an unmodifiable view of the stages of this pipeline.
+	 *
+	 * @return the stages of this pipeline.
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	@NotNull
+	@UnmodifiableView
+	@Contract(pure = true)
+	public List<@NotNull Pipe<T>> stages() {
+		return Collections.unmodifiableList(Arrays.asList(this.stages));
+	}
+
+	/**
+	 * The state of a single invocation of a compiled pipeline.
+	 *
+	 * @param <T> the type of the parameter.
+	 * @author LSafer
+	 * @version 1.0.0
+	 * @since 1.0.0 ~2022.01.20
+	 */
+	private static final class Cursor<T> extends Trampoline<T> {
+		@SuppressWarnings("JavaDoc")
+		private static final long serialVersionUID = -6210563418375525063L;
+
+		/**
+		 * The next function to be invoked after the stages.
+		 *
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		@NotNull
+		private final Next<T> next;
+		/**
+		 * The parameter.
+		 *
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		@NotNull
+		private final T parameter;
+		/**
+		 * The stages.
+		 *
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		@NotNull
+		private final Pipe<T> @NotNull [] stages;
+
+		/**
+		 * Construct a new cursor.
+		 *
+		 * @param stages    the stages.
+		 * @param parameter the parameter.
+		 * @param next      the next function to be invoked after the stages.
+		 * @since 1.0.0 ~2022.01.20
+		 */
+		private Cursor(@NotNull Pipe<T> @NotNull [] stages, @NotNull T parameter, @NotNull Next<T> next) {
+			this.stages = stages;
+			this.parameter = parameter;
+			this.next = next;
+		}
+
+		@Override
+		protected void complete(@Nullable Throwable error) {
+			this.next.invoke(error);
+		}
+
+		@Override
+		protected int size() {
+			return this.stages.length;
+		}
+
+		@Override
+		protected void stage(int index) throws Throwable {
+			this.stages[index].invoke(this.parameter, this);
+		}
+	}
+}
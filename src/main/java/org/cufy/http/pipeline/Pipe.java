@@ -19,8 +19,6 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -39,6 +37,9 @@ public interface Pipe<T> {
 	 * <br>
 	 * The pipes will be invoked in this form: the first pipe will be invoked with a next
 	 * function that invokes the next pipe with itself when invoked.
+	 * <br>
+	 * The returned pipe is a {@link CompiledPipeline}. So, combining an already combined
+	 * pipe flattens it instead of nesting it.
 	 *
 	 * @param pipes the pipes to be combined.
 	 * @param <T>   the type of the parameter of the pipes.
@@ -51,34 +52,7 @@ public interface Pipe<T> {
 	@SafeVarargs
 	static <T> Pipe<T> combine(@Nullable Pipe<T> @NotNull ... pipes) {
 		Objects.requireNonNull(pipes, "pipes");
-		return (parameter, next) -> {
-			Iterator<Pipe<T>> iterator = Arrays
-					.stream(pipes)
-					.filter(Objects::nonNull)
-					.iterator();
-
-			new Next<T>() {
-				@Override
-				public void invoke(@Nullable Throwable error) {
-					if (error != null) {
-						next.invoke(error);
-						return;
-					}
-					if (!iterator.hasNext()) {
-						next.invoke();
-						return;
-					}
-
-					Pipe<T> pipe = iterator.next();
-
-					try {
-						pipe.invoke(parameter, this);
-					} catch (Throwable e) {
-						next.invoke(e);
-					}
-				}
-			}.invoke();
-		};
+		return CompiledPipeline.compile(pipes);
 	}
 
 	/**
@@ -0,0 +1,581 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.server;
+
+import org.cufy.http.*;
+import org.cufy.http.pipeline.Next;
+import org.cufy.http.pipeline.Pipe;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A pipe dispatching each exchange to the pipe of the route matching the method and the
+ * path of its request.
+ * <br>
+ * A route is registered with a path template like {@code /data/v1/user/{id}} where a
+ * segment wrapped with braces matches any non-empty segment and captures it (decoded)
+ * into the {@link ServerExchange#getParameters() parameters} of the exchange. Static
+ * segments take precedence over variable segments.
+ * <br>
+ * The routes are compiled into a trie of path segments with a hash table of the static
+ * children at each node. So, a lookup walks the path once without creating substrings.
+ * <br>
+ * When a route is matched, its endpoint is set to the exchange, {@link
+ * Endpoint#accept(Request) accepts} the request and {@link Endpoint#prepare(Response)
+ * prepares} the response then the pipe of the route is invoked with the next function.
+ * Otherwise, the response is set to {@code 404 Not Found} (or {@code 405 Method Not
+ * Allowed} if the path has routes for other methods) and the next function is invoked.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.02.02
+ */
+public class Router implements Pipe<ServerExchange> {
+	/**
+	 * The registered routes. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	private final Entry root = new Entry();
+
+	/**
+	 * The compiled routes. (null when a route is registered after the last compilation)
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@Nullable
+	private volatile Node compiled;
+	/**
+	 * The maximum number of variables in a registered template. (guarded by this)
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	private int variables;
+
+	@Override
+	public void invoke(@NotNull ServerExchange exchange, @NotNull Next<ServerExchange> next) throws Throwable {
+		Objects.requireNonNull(exchange, "exchange");
+		Objects.requireNonNull(next, "next");
+		Node root = this.compile();
+		Request request = exchange.getRequest();
+		Response response = exchange.getResponse();
+		String path = request.getRequestLine().getUri().getPath();
+
+		if (path.isEmpty())
+			path = "/";
+
+		String method = request.getRequestLine().getMethod();
+		int[] offsets = root.variables == 0 ? null : new int[root.variables << 1];
+		Node node = path.charAt(0) == '/' ? Router.find(root, path, 1, offsets, 0, method) : null;
+
+		if (node == null) {
+			//the path might have routes for other methods
+			node = path.charAt(0) == '/' ? Router.find(root, path, 1, offsets, 0, null) : null;
+
+			if (node == null) {
+				response.getStatusLine().setStatusCode(StatusCode.NOT_FOUND);
+				response.getStatusLine().setReasonPhrase(ReasonPhrase.NOT_FOUND);
+				next.invoke(null);
+				return;
+			}
+
+			response.getStatusLine().setStatusCode(StatusCode.METHOD_NOT_ALLOWED);
+			response.getStatusLine().setReasonPhrase(ReasonPhrase.METHOD_NOT_ALLOWED);
+			response.getHeaders().put(Headers.ALLOW, node.allow);
+			next.invoke(null);
+			return;
+		}
+
+		Route route = Objects.requireNonNull(node.route(method), "route");
+		Map<String, String> parameters = exchange.getParameters();
+
+		for (int i = 0; i < route.names.length; i++)
+			parameters.put(route.names[i], Router.decode(path, offsets[i << 1], offsets[(i << 1) + 1]));
+
+		exchange.setEndpoint(route.endpoint);
+		route.endpoint.accept(request);
+		route.endpoint.prepare(response);
+		route.pipe.invoke(exchange, next);
+	}
+
+	/**
+	 * Register a route with the given components.
+	 *
+	 * @param method   the method of the route.
+	 * @param template the path template of the route. (e.g. {@code /user/{id}})
+	 * @param endpoint the endpoint of the route.
+	 * @param pipe     the pipe to be invoked for the exchanges matching the route.
+	 * @return this.
+	 * @throws NullPointerException     if the given {@code method} or {@code template} or
+	 *                                  {@code endpoint} or {@code pipe} is null.
+	 * @throws IllegalArgumentException if the given {@code method} or {@code template} is
+	 *                                  invalid or a route with the same method and the
+	 *                                  same template (regardless of the names of its
+	 *                                  variables) is already registered.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	@Contract(value = "_,_,_,_->this", mutates = "this")
+	public Router route(@NotNull String method, @NotNull String template, @NotNull Endpoint endpoint, @NotNull Pipe<ServerExchange> pipe) {
+		Objects.requireNonNull(method, "method");
+		Objects.requireNonNull(template, "template");
+		Objects.requireNonNull(endpoint, "endpoint");
+		Objects.requireNonNull(pipe, "pipe");
+		Method.parse(method);
+
+		if (template.isEmpty() || template.charAt(0) != '/')
+			throw new IllegalArgumentException("invalid template: " + template);
+
+		String[] segments = template.substring(1).split("/", -1);
+		String[] variables = new String[segments.length];
+		List<String> names = new ArrayList<>();
+
+		for (int i = 0; i < segments.length; i++) {
+			String segment = segments[i];
+			int open = segment.indexOf('{');
+			int close = segment.indexOf('}');
+
+			if (open < 0 && close < 0)
+				continue;
+
+			String name = segment.substring(1, Math.max(1, segment.length() - 1));
+
+			if (open != 0 || close != segment.length() - 1 || name.isEmpty() ||
+				name.indexOf('{') >= 0 || name.indexOf('}') >= 0)
+				throw new IllegalArgumentException("invalid template: " + template);
+			if (names.contains(name))
+				throw new IllegalArgumentException("duplicate variable: " + name);
+
+			names.add(name);
+			variables[i] = name;
+		}
+
+		synchronized (this) {
+			Entry entry = this.root;
+
+			for (int i = 0; i < segments.length; i++)
+				if (variables[i] == null)
+					entry = entry.statics.computeIfAbsent(segments[i], k -> new Entry());
+				else {
+					if (entry.variable == null)
+						entry.variable = new Entry();
+
+					entry = entry.variable;
+				}
+
+			if (entry.routes.containsKey(method))
+				throw new IllegalArgumentException("duplicate route: " + method + " " + template);
+
+			entry.routes.put(method, new Route(endpoint, pipe, names.toArray(new String[0])));
+			this.variables = Math.max(this.variables, names.size());
+			this.compiled = null;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Register a route with the given components and {@link Endpoint#UNSPECIFIED no
+	 * endpoint}.
+	 *
+	 * @param method   the method of the route.
+	 * @param template the path template of the route. (e.g. {@code /user/{id}})
+	 * @param pipe     the pipe to be invoked for the exchanges matching the route.
+	 * @return this.
+	 * @throws NullPointerException     if the given {@code method} or {@code template} or
+	 *                                  {@code pipe} is null.
+	 * @throws IllegalArgumentException if the given {@code method} or {@code template} is
+	 *                                  invalid or a route with the same method and the
+	 *                                  same template is already registered.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	@Contract(value = "_,_,_->this", mutates = "this")
+	public Router route(@NotNull String method, @NotNull String template, @NotNull Pipe<ServerExchange> pipe) {
+		return this.route(method, template, Endpoint.UNSPECIFIED, pipe);
+	}
+
+	/**
+	 * Percent-decode (utf-8) the given range of the given {@code path}. Malformed escapes
+	 * are left as is.
+	 *
+	 * @param path  the path.
+	 * @param start the start of the range.
+	 * @param end   the end of the range.
+	 * @return the decoded range.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	@Contract(pure = true)
+	private static String decode(@NotNull String path, int start, int end) {
+		int percent = path.indexOf('%', start);
+
+		if (percent < 0 || percent >= end)
+			return path.substring(start, end);
+
+		byte[] bytes = new byte[end - start];
+		int length = 0;
+
+		for (int i = start; i < end; i++) {
+			char c = path.charAt(i);
+
+			if (c == '%' && i + 2 < end) {
+				int high = Character.digit(path.charAt(i + 1), 16);
+				int low = Character.digit(path.charAt(i + 2), 16);
+
+				if (high >= 0 && low >= 0) {
+					bytes[length++] = (byte) (high << 4 | low);
+					i += 2;
+					continue;
+				}
+			}
+
+			bytes[length++] = (byte) c;
+		}
+
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Find the node matching the segments of the given {@code path} starting at the
+	 * given {@code start} under the given {@code node} that has a route for the given
+	 * {@code method}. The ranges of the variable segments are stored in the given {@code
+	 * offsets}. The static segments are tried first, then the variable segments.
+	 *
+	 * @param node    the node to look under.
+	 * @param path    the path.
+	 * @param start   the start of the current segment.
+	 * @param offsets the array to store the ranges of the variables at. (null if there
+	 *                are no variables)
+	 * @param depth   the number of variables before the current segment.
+	 * @param method  the method of the request. (null to match a node with any route)
+	 * @return the matching node. Or null if none.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@Nullable
+	@Contract(mutates = "param4")
+	private static Node find(@NotNull Node node, @NotNull String path, int start, int @Nullable [] offsets, int depth, @Nullable String method) {
+		int end = path.indexOf('/', start);
+		boolean last = end < 0;
+
+		if (last)
+			end = path.length();
+
+		Node child = node.child(path, start, end);
+
+		if (child != null) {
+			Node found = last ? child.matches(method) ? child : null :
+						 Router.find(child, path, end + 1, offsets, depth, method);
+
+			if (found != null)
+				return found;
+		}
+
+		Node variable = node.variable;
+
+		if (variable != null && end > start) {
+			Node found = last ? variable.matches(method) ? variable : null :
+						 Router.find(variable, path, end + 1, offsets, depth + 1, method);
+
+			if (found != null) {
+				//the offsets array is sized to the deepest template
+				offsets[depth << 1] = start;
+				offsets[(depth << 1) + 1] = end;
+				return found;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Return the compiled routes. Compiling them if a route was registered since the
+	 * last compilation.
+	 *
+	 * @return the compiled root node.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	private Node compile() {
+		Node compiled = this.compiled;
+
+		if (compiled == null)
+			synchronized (this) {
+				compiled = this.compiled;
+
+				if (compiled == null) {
+					compiled = new Node(this.root, this.variables);
+					this.compiled = compiled;
+				}
+			}
+
+		return compiled;
+	}
+
+	/**
+	 * A mutable node of the registered routes.
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	private static final class Entry {
+		/**
+		 * The routes ending at this entry mapped by their methods.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final Map<String, Route> routes = new LinkedHashMap<>();
+		/**
+		 * The static children of this entry mapped by their segments.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final Map<String, Entry> statics = new LinkedHashMap<>();
+		/**
+		 * The variable child of this entry.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Nullable
+		private Entry variable;
+	}
+
+	/**
+	 * An immutable compiled node.
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	private static final class Node {
+		/**
+		 * The value of the {@code Allow} header for the routes of this node.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final String allow;
+		/**
+		 * The children of this node. (at the indexes of their labels)
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Nullable
+		private final Node @NotNull [] children;
+		/**
+		 * The hashes of the labels.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		private final int @NotNull [] hashes;
+		/**
+		 * An open-addressing table of the segments of the static children.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Nullable
+		private final String @NotNull [] labels;
+		/**
+		 * The methods of the routes of this node.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final String @NotNull [] methods;
+		/**
+		 * The routes of this node. (at the indexes of their methods)
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final Route @NotNull [] routes;
+		/**
+		 * The variable child of this node.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Nullable
+		private final Node variable;
+		/**
+		 * The maximum number of variables in a template. (only set at the root)
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		private final int variables;
+
+		/**
+		 * Compile the given {@code entry}.
+		 *
+		 * @param entry     the entry to be compiled.
+		 * @param variables the maximum number of variables in a template.
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		private Node(@NotNull Entry entry, int variables) {
+			int size = 1;
+
+			//keep at least one empty slot to terminate the probing
+			while (size < entry.statics.size() << 1)
+				size <<= 1;
+
+			this.variables = variables;
+			this.labels = new String[size];
+			this.hashes = new int[size];
+			this.children = new Node[size];
+			this.variable = entry.variable == null ? null : new Node(entry.variable, 0);
+			this.methods = entry.routes.keySet().toArray(new String[0]);
+			this.routes = entry.routes.values().toArray(new Route[0]);
+
+			for (Map.Entry<String, Entry> child : entry.statics.entrySet()) {
+				String label = child.getKey();
+				int hash = label.hashCode();
+				int i = hash & size - 1;
+
+				while (this.labels[i] != null)
+					i = i + 1 & size - 1;
+
+				this.labels[i] = label;
+				this.hashes[i] = hash;
+				this.children[i] = new Node(child.getValue(), 0);
+			}
+
+			StringJoiner allow = new StringJoiner(", ");
+
+			for (String method : this.methods)
+				allow.add(method);
+			if (entry.routes.containsKey(Method.GET) && !entry.routes.containsKey(Method.HEAD))
+				allow.add(Method.HEAD);
+
+			this.allow = allow.toString();
+		}
+
+		/**
+		 * Return the static child with the given range of the given {@code path} as its
+		 * segment.
+		 *
+		 * @param path  the path.
+		 * @param start the start of the segment.
+		 * @param end   the end of the segment.
+		 * @return the child. Or null if none.
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Nullable
+		@Contract(pure = true)
+		private Node child(@NotNull String path, int start, int end) {
+			int length = end - start;
+			int hash = 0;
+
+			//same as String.hashCode() of the segment
+			for (int i = start; i < end; i++)
+				hash = 31 * hash + path.charAt(i);
+
+			int mask = this.labels.length - 1;
+
+			for (int i = hash & mask; ; i = i + 1 & mask) {
+				String label = this.labels[i];
+
+				if (label == null)
+					return null;
+				if (this.hashes[i] == hash && label.length() == length &&
+					path.regionMatches(start, label, 0, length))
+					return this.children[i];
+			}
+		}
+
+		/**
+		 * Return true if this node has a route for the given {@code method}.
+		 *
+		 * @param method the method. (null for any method)
+		 * @return true, if the method has a route at this node.
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Contract(pure = true)
+		private boolean matches(@Nullable String method) {
+			return method == null ? this.methods.length != 0 : this.route(method) != null;
+		}
+
+		/**
+		 * Return the route of this node with the given {@code method}. ({@code HEAD}
+		 * falls back to {@code GET})
+		 *
+		 * @param method the method.
+		 * @return the route. Or null if none.
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@Nullable
+		@Contract(pure = true)
+		private Route route(@NotNull String method) {
+			Route get = null;
+
+			for (int i = 0; i < this.methods.length; i++) {
+				String m = this.methods[i];
+
+				if (m.equals(method))
+					return this.routes[i];
+				if (m.equals(Method.GET))
+					get = this.routes[i];
+			}
+
+			return method.equals(Method.HEAD) ? get : null;
+		}
+	}
+
+	/**
+	 * A registered route.
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	private static final class Route {
+		/**
+		 * The endpoint of the route.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final Endpoint endpoint;
+		/**
+		 * The names of the variables of the template of the route. (in order)
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final String @NotNull [] names;
+		/**
+		 * The pipe of the route.
+		 *
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		@NotNull
+		private final Pipe<ServerExchange> pipe;
+
+		/**
+		 * Construct a new route with the given components.
+		 *
+		 * @param endpoint the endpoint of the route.
+		 * @param pipe     the pipe of the route.
+		 * @param names    the names of the variables of the template of the route.
+		 * @since 1.0.0 ~2022.02.02
+		 */
+		private Route(@NotNull Endpoint endpoint, @NotNull Pipe<ServerExchange> pipe, @NotNull String @NotNull [] names) {
+			this.endpoint = endpoint;
+			this.pipe = pipe;
+			this.names = names;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ *	Copyright 2021-2022 Cufy and ProgSpaceSA
+ *
+ *	Licensed under the Apache License, Version 2.0 (the "License");
+ *	you may not use this file except in compliance with the License.
+ *	You may obtain a copy of the License at
+ *
+ *	    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *	Unless required by applicable law or agreed to in writing, software
+ *	distributed under the License is distributed on an "AS IS" BASIS,
+ *	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *	See the License for the specific language governing permissions and
+ *	limitations under the License.
+ */
+package org.cufy.http.server;
+
+import org.cufy.http.Endpoint;
+import org.cufy.http.Request;
+import org.cufy.http.Response;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A single request received by a server engine and the response to be sent for it. The
+ * pipe of the server fills the {@link #getResponse() response} then invokes its next
+ * function to have the response sent.
+ *
+ * @author LSafer
+ * @version 1.0.0
+ * @since 1.0.0 ~2022.01.31
+ */
+public class ServerExchange {
+	/**
+	 * The path parameters captured by the {@link Router router}.
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	protected final Map<String, String> parameters;
+	/**
+	 * Extra values attached to this exchange by the pipe.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	protected final Map<String, Object> extras;
+	/**
+	 * The address of the client.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Nullable
+	protected final SocketAddress remoteAddress;
+	/**
+	 * The received request.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	protected final Request request;
+	/**
+	 * The response to be sent.
+	 *
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	protected final Response response;
+
+	/**
+	 * The endpoint the request was routed to.
+	 *
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	protected Endpoint endpoint;
+
+	/**
+	 * Construct a new exchange with the given components.
+	 *
+	 * @param request       the received request.
+	 * @param response      the response to be sent.
+	 * @param remoteAddress the address of the client. (null if unknown)
+	 * @throws NullPointerException if the given {@code request} or {@code response} is
+	 *                              null.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	public ServerExchange(@NotNull Request request, @NotNull Response response, @Nullable SocketAddress remoteAddress) {
+		Objects.requireNonNull(request, "request");
+		Objects.requireNonNull(response, "response");
+		this.request = request;
+		this.response = response;
+		this.remoteAddress = remoteAddress;
+		this.extras = new HashMap<>();
+		this.parameters = new HashMap<>();
+		this.endpoint = Endpoint.UNSPECIFIED;
+	}
+
+	/**
+	 * Return the endpoint the request was routed to.
+	 *
+	 * @return the endpoint of this. Or {@link Endpoint#UNSPECIFIED} if not routed.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Endpoint getEndpoint() {
+		return this.endpoint;
+	}
+
+	/**
+	 * Return the extras of this exchange.
+	 *
+	 * @return the extras of this.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Map<@NotNull String, @Nullable Object> getExtras() {
+		return this.extras;
+	}
+
+	/**
+	 * Return the path parameters of this exchange. (e.g. {@code id} of a request to
+	 * {@code /user/123} routed to {@code /user/{id}})
+	 *
+	 * @return the path parameters of this.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Map<@NotNull String, @NotNull String> getParameters() {
+		return this.parameters;
+	}
+
+	/**
+	 * Return the address of the client.
+	 *
+	 * @return the address of the client. Or null if unknown.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@Nullable
+	@Contract(pure = true)
+	public SocketAddress getRemoteAddress() {
+		return this.remoteAddress;
+	}
+
+	/**
+	 * Return the received request.
+	 *
+	 * @return the request of this.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Request getRequest() {
+		return this.request;
+	}
+
+	/**
+	 * Return the response to be sent.
+	 *
+	 * @return the response of this.
+	 * @since 1.0.0 ~2022.01.31
+	 */
+	@NotNull
+	@Contract(pure = true)
+	public Response getResponse() {
+		return this.response;
+	}
+
+	/**
+	 * Set the endpoint the request was routed to.
+	 *
+	 * @param endpoint the endpoint.
+	 * @throws NullPointerException if the given {@code endpoint} is null.
+	 * @since 1.0.0 ~2022.02.02
+	 */
+	@Contract(mutates = "this")
+	public void setEndpoint(@NotNull Endpoint endpoint) {
+		Objects.requireNonNull(endpoint, "endpoint");
+		this.endpoint = endpoint;
+	}
+}
@@ -15,9 +15,8 @@
  */
 package org.cufy.http.uri;
 
-import org.cufy.http.internal.syntax.UriParse;
-import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -26,7 +25,6 @@ import org.jetbrains.annotations.Nullable;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
 
 /**
  * <b>Components</b>
@@ -137,27 +135,40 @@ public class Authority implements Cloneable, Serializable {
 	public static Authority parse(@NotNull @Pattern(UriRegExp.AUTHORITY) String source) {
 		Objects.requireNonNull(source, "source");
 
-		if (!UriPattern.AUTHORITY.matcher(source).matches())
-			throw new IllegalArgumentException("invalid authority: " + source);
+		int[] marks = new int[UriScanner.MARKS];
 
-		Matcher matcher = UriParse.AUTHORITY.matcher(source);
+		if (!UriScanner.scanAuthority(source, 0, source.length(), marks))
+			throw new IllegalArgumentException("invalid authority: " + source);
 
-		if (!matcher.find())
-			throw new InternalError("invalid authority " + source);
+		return Authority.parse(source, marks);
+	}
 
-		String userInfoSrc = matcher.group("UserInfo");
-		String hostSrc = matcher.group("Host");
-		String portSrc = matcher.group("Port");
+	/**
+	 * Construct a new authority from the components of an already scanned {@code
+	 * source}.
+	 *
+	 * @param source the scanned source.
+	 * @param marks  the marks written by {@link UriScanner#scanAuthority(String, int, int,
+	 *               int[])}.
+	 * @return a new authority from the marked components of the given {@code source}.
+	 * @since 1.0.0 ~2022.01.21
+	 */
+	@NotNull
+	@Contract(value = "_,_->new", pure = true)
+	static Authority parse(@NotNull String source, int @NotNull [] marks) {
+		String userInfoSrc = UriScanner.group(source, marks, UriScanner.USERINFO);
+		String hostSrc = UriScanner.group(source, marks, UriScanner.HOST);
+		String portSrc = UriScanner.group(source, marks, UriScanner.PORT);
 
 		UserInfo userInfo =
 				userInfoSrc == null || userInfoSrc.isEmpty() ?
-				new UserInfo() : UserInfo.parse(userInfoSrc);
+				new UserInfo() : new UserInfo(UriScanner.splitUserInfo(userInfoSrc));
 		String host =
 				hostSrc == null || hostSrc.isEmpty() ?
-				Host.UNSPECIFIED : Host.parse(hostSrc);
+				Host.UNSPECIFIED : hostSrc;
 		String port =
 				portSrc == null || portSrc.isEmpty() ?
-				Port.UNSPECIFIED : Port.parse(portSrc);
+				Port.UNSPECIFIED : portSrc;
 
 		return new Authority(
 				userInfo,
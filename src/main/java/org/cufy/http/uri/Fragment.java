@@ -15,8 +15,8 @@
  */
 package org.cufy.http.uri;
 
-import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -65,7 +65,7 @@ public final class Fragment {
 	@Contract(value = "_->param1", pure = true)
 	public static String parse(@NotNull @Pattern(UriRegExp.FRAGMENT) String source) {
 		Objects.requireNonNull(source, "source");
-		if (!UriPattern.FRAGMENT.matcher(source).matches())
+		if (!UriScanner.isFragment(source, 0, source.length()))
 			throw new IllegalArgumentException("illegal fragment: " + source);
 		return source;
 	}
@@ -15,8 +15,8 @@
  */
 package org.cufy.http.uri;
 
-import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -163,7 +163,7 @@ public final class Port {
 	@Contract(value = "_->param1", pure = true)
 	public static String parse(@NotNull @Pattern(UriRegExp.PORT) String source) {
 		Objects.requireNonNull(source, "source");
-		if (!UriPattern.PORT.matcher(source).matches())
+		if (!UriScanner.isPort(source, 0, source.length()))
 			throw new IllegalArgumentException("invalid port: " + source);
 		return source;
 	}
@@ -17,6 +17,7 @@ package org.cufy.http.uri;
 
 import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -103,20 +104,10 @@ public class Query implements Cloneable, Serializable {
 	public static Query parse(@NotNull @Pattern(UriRegExp.QUERY) String source) {
 		Objects.requireNonNull(source, "source");
 
-		if (!UriPattern.QUERY.matcher(source).matches())
+		if (!UriScanner.isQuery(source, 0, source.length()))
 			throw new IllegalArgumentException("invalid query: " + source);
 
-		Map<String, String> values =
-				Arrays.stream(source.split("\\&"))
-					  .map(v -> v.split("\\=", 2))
-					  .collect(Collectors.toMap(
-							  v -> v[0],
-							  v -> v.length == 2 ? v[1] : "",
-							  (f, s) -> s,
-							  LinkedHashMap::new
-					  ));
-
-		return new Query(values);
+		return new Query(UriScanner.splitQuery(source));
 	}
 
 	/**
@@ -15,8 +15,8 @@
  */
 package org.cufy.http.uri;
 
-import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -121,7 +121,7 @@ public final class Scheme {
 	@Contract(value = "_->param1", pure = true)
 	public static String parse(@NotNull @Pattern(UriRegExp.SCHEME) String source) {
 		Objects.requireNonNull(source, "source");
-		if (!UriPattern.SCHEME.matcher(source).matches())
+		if (!UriScanner.isScheme(source, 0, source.length()))
 			throw new IllegalArgumentException("invalid scheme: " + source);
 		return source;
 	}
@@ -15,9 +15,8 @@
  */
 package org.cufy.http.uri;
 
-import org.cufy.http.internal.syntax.UriParse;
-import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -30,7 +29,6 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
 
 /**
  * <b>Components</b>
@@ -253,35 +251,29 @@ public class Uri implements Cloneable, Serializable {
 	@Contract(value = "_->new", pure = true)
 	public static Uri parse(@NotNull @Pattern(UriRegExp.URI_REFERENCE) String source) {
 		Objects.requireNonNull(source, "source");
-		if (!UriPattern.URI_REFERENCE.matcher(source).matches())
-			throw new IllegalArgumentException("invalid uri: " + source);
-
-		Matcher matcher = UriParse.URI.matcher(source);
+		int[] marks = new int[UriScanner.MARKS];
 
-		if (!matcher.find())
-			throw new InternalError("invalid uri " + source);
+		if (!UriScanner.scanUriReference(source, marks))
+			throw new IllegalArgumentException("invalid uri: " + source);
 
-		String schemeSrc = matcher.group("Scheme");
-		String authoritySrc = matcher.group("Authority");
-		String pathSrc = matcher.group("Path");
-		String querySrc = matcher.group("Query");
-		String fragmentSrc = matcher.group("Fragment");
+		int authorityStart = marks[UriScanner.AUTHORITY];
+		int authorityEnd = marks[UriScanner.AUTHORITY + 1];
 
 		String scheme =
-				schemeSrc == null || schemeSrc.isEmpty() ?
-				Scheme.HTTP : Scheme.parse(schemeSrc);
+				marks[UriScanner.SCHEME] < 0 ?
+				Scheme.HTTP : UriScanner.group(source, marks, UriScanner.SCHEME);
 		Authority authority =
-				authoritySrc == null || authoritySrc.isEmpty() ?
-				new Authority() : Authority.parse(authoritySrc);
+				authorityStart == authorityEnd ?
+				new Authority() : Authority.parse(source, marks);
 		String path =
-				pathSrc == null || pathSrc.isEmpty() ?
-				Path.UNSPECIFIED : Path.parse(pathSrc);
+				marks[UriScanner.PATH] == marks[UriScanner.PATH + 1] ?
+				Path.UNSPECIFIED : UriScanner.group(source, marks, UriScanner.PATH);
 		Query query =
-				querySrc == null || querySrc.isEmpty() ?
-				new Query() : Query.parse(querySrc);
+				marks[UriScanner.QUERY] == marks[UriScanner.QUERY + 1] ?
+				new Query() : new Query(UriScanner.splitQuery(UriScanner.group(source, marks, UriScanner.QUERY)));
 		String fragment =
-				fragmentSrc == null || fragmentSrc.isEmpty() ?
-				Fragment.UNSPECIFIED : Fragment.parse(fragmentSrc);
+				marks[UriScanner.FRAGMENT] == marks[UriScanner.FRAGMENT + 1] ?
+				Fragment.UNSPECIFIED : UriScanner.group(source, marks, UriScanner.FRAGMENT);
 
 		return new Uri(
 				scheme,
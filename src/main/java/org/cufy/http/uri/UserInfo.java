@@ -17,6 +17,7 @@ package org.cufy.http.uri;
 
 import org.cufy.http.internal.syntax.UriPattern;
 import org.cufy.http.internal.syntax.UriRegExp;
+import org.cufy.http.internal.syntax.UriScanner;
 import org.intellij.lang.annotations.Pattern;
 import org.jetbrains.annotations.*;
 
@@ -110,12 +111,10 @@ public class UserInfo implements Cloneable, Serializable {
 	public static UserInfo parse(@NotNull @Pattern(UriRegExp.USERINFO) String source) {
 		Objects.requireNonNull(source, "source");
 
-		if (!UriPattern.USERINFO.matcher(source).matches())
+		if (!UriScanner.isUserInfo(source, 0, source.length()))
 			throw new IllegalArgumentException("invalid user info: " + source);
 
-		List<String> values = new ArrayList<>(Arrays.asList(source.split("\\:")));
-
-		return new UserInfo(values);
+		return new UserInfo(UriScanner.splitUserInfo(source));
 	}
 
 	/**
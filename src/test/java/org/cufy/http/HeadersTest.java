@@ -0,0 +1,91 @@
+package org.cufy.http;
+
+import org.cufy.http.internal.syntax.HttpPattern;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadersTest {
+	@Test
+	public void multipleValues() {
+		Headers headers = Headers.parse("Set-Cookie: a=1\r\nContent-Type: text/plain\r\nset-cookie: b=2\r\n");
+
+		assertEquals(3, headers.size(), "Expected Size Mismatch");
+		assertEquals("b=2", headers.get("SET-COOKIE"), "Expected Last Value");
+		assertEquals(Arrays.asList("a=1", "b=2"), headers.getAll(Headers.SET_COOKIE), "Expected All Values");
+		assertEquals("set-cookie", headers.nameAt(2), "Expected Spelling Preserved");
+
+		headers.put("SET-COOKIE", "c=3");
+
+		assertEquals("SET-COOKIE: c=3\r\nContent-Type: text/plain\r\n", headers.toString(), "Expected Replaced In Place");
+
+		headers.add(Headers.SET_COOKIE, "d=4");
+		headers.remove("set-cookie");
+
+		assertEquals("Content-Type: text/plain\r\n", headers.toString(), "Expected All Removed");
+	}
+
+	@Test
+	public void equality() {
+		Headers headers = Headers.parse("A: 1\r\nB: 2\r\nA: 3\r\n");
+		Headers other = new Headers(h -> {
+			h.add("b", "2");
+			h.add("a", "1");
+			h.add("a", "3");
+		});
+		Headers clone = headers.clone();
+
+		clone.put("A", "4");
+
+		assertEquals(headers, other, "Expected Case-Insensitive Equality");
+		assertEquals(headers.hashCode(), other.hashCode(), "Expected Same Hash Code");
+		assertEquals("3", headers.get("a"), "Expected Clone Independent");
+	}
+
+	@Test
+	public void sameAsRegex() {
+		String[] sources = {
+				"", "A:\r\n", "A: b\r\n", "A: b", "A b\r\n", ": b\r\n", "A: b\r\n c\r\n",
+				"A: b\n\tc\n", "A: b\r\r\n", "A(: b\r\n", "A: \u0001\r\n", "A: \u00e9\r\n"
+		};
+
+		for (String source : sources) {
+			boolean expected = HttpPattern.HEADERS.matcher(source).matches();
+			boolean actual;
+
+			try {
+				Headers.parse(source);
+				actual = true;
+			} catch (IllegalArgumentException ignored) {
+				actual = false;
+			}
+
+			assertEquals(expected, actual, "Expected Acceptance Mismatch: " + source);
+		}
+
+		assertEquals("b c", Headers.parse("A: b\r\n  c\r\n").get("a"), "Expected Unfolded Value");
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		Headers headers = Headers.parse("Set-Cookie: a=1\r\nContent-Type: text/plain\r\nset-cookie: b=2\r\n");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+			stream.writeObject(headers);
+		}
+
+		try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			Headers read = (Headers) stream.readObject();
+
+			assertEquals(headers, read, "Expected Equal After Deserialization");
+			assertEquals(Arrays.asList("a=1", "b=2"), read.getAll("SET-COOKIE"), "Expected Lookup After Deserialization");
+		}
+	}
+}
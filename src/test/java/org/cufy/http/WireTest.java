@@ -0,0 +1,87 @@
+package org.cufy.http;
+
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.FileBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WireTest {
+	@Test
+	public void requestToStream() throws IOException {
+		Request request = new Request(h -> {
+			h.setRequestLine(RequestLine.parse("GET /a?b=c HTTP/1.1"));
+			h.getHeaders().add(Headers.HOST, "example.com");
+			h.getHeaders().add("X-A", "1");
+			h.getHeaders().add("x-a", "2");
+			h.setBody(new BytesBody(new byte[]{0, (byte) 0xFF, '\r', '\n'}));
+		});
+
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		request.writeTo(stream);
+
+		byte[] head = "GET /a?b=c HTTP/1.1\r\nHost: example.com\r\nX-A: 1\r\nx-a: 2\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+		byte[] expected = new byte[head.length + 4];
+		System.arraycopy(head, 0, expected, 0, head.length);
+		System.arraycopy(new byte[]{0, (byte) 0xFF, '\r', '\n'}, 0, expected, head.length, 4);
+
+		assertArrayEquals(expected, stream.toByteArray(), "Expected Wire Form Mismatch");
+	}
+
+	@Test
+	public void responseToChannel() throws IOException {
+		File file = File.createTempFile("wire", ".bin");
+		file.deleteOnExit();
+		Files.write(file.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+
+		Response response = new Response(h -> {
+			h.setStatusLine(StatusLine.parse("HTTP/1.1 200 OK"));
+			h.getHeaders().put(Headers.CONTENT_LENGTH, "7");
+			h.setBody(new FileBody(file));
+		});
+
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		response.writeTo(Channels.newChannel(stream));
+
+		assertEquals(
+				"HTTP/1.1 200 OK\r\nContent-Length: 7\r\n\r\ncontent",
+				new String(stream.toByteArray(), StandardCharsets.ISO_8859_1),
+				"Expected Wire Form Mismatch"
+		);
+	}
+
+	@Test
+	public void nestedWriters() throws IOException {
+		Response inner = new Response(h -> {
+			h.setStatusLine(StatusLine.parse("HTTP/1.1 202 Accepted"));
+			h.getHeaders().put("X-Inner", "1");
+		});
+		Response outer = new Response(h -> {
+			h.setStatusLine(StatusLine.parse("HTTP/1.1 200 OK"));
+			h.getHeaders().put("X-Outer", "1");
+			h.setBody(new BytesBody(new byte[0]) {
+				@Override
+				public void writeTo(OutputStream stream) throws IOException {
+					//a writer created on the same thread while the outer one is in use
+					inner.writeTo(stream);
+				}
+			});
+		});
+		String expected = "HTTP/1.1 200 OK\r\nX-Outer: 1\r\n\r\nHTTP/1.1 202 Accepted\r\nX-Inner: 1\r\n\r\n";
+
+		for (int i = 0; i < 2; i++) {
+			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			outer.writeTo(stream);
+
+			assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.ISO_8859_1), "Expected Wire Form Mismatch");
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package org.cufy.http.body;
+
+import org.cufy.http.Body;
+import org.cufy.http.Headers;
+import org.cufy.http.internal.util.StreamUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentLengthTest {
+	private static void assertLength(Body body, String name) throws IOException {
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		body.writeTo(written);
+
+		assertEquals(written.size(), body.getContentLength(), "Expected Length Of Written Bytes: " + name);
+
+		try (InputStream stream = body.openInputStream()) {
+			assertArrayEquals(written.toByteArray(), StreamUtil.readAllBytes(stream), "Expected Same Content: " + name);
+		}
+	}
+
+	private static MultipartBody multipart(MultipartBody body) throws IOException {
+		body.add(new BodyPart(new Headers(h -> h.put(Headers.CONTENT_DISPOSITION, "form-data; name=\"text\"")), new TextBody("héllo 漢 😀")));
+		body.add(new BodyPart(new Headers(), new BytesBody(new byte[]{0, -1, 127, -128})));
+		body.add(new BodyPart(new Headers(), new FileBody(FileBodyTest.file(20_000))));
+		body.add(new BodyPart(new Headers(), null));
+		return body;
+	}
+
+	@Test
+	public void knownLengths() throws IOException {
+		assertLength(new TextBody("héllo 漢 😀 \ud800 end"), "text");
+		assertLength(new TextBody(""), "empty text");
+		assertLength(ParametersBody.parse("name=%C3%A9&other=1+2"), "parameters");
+		assertLength(JsonBody.parse("{\"name\":\"漢😀\",\"list\":[1,2.5,true,null]}"), "json");
+		assertLength(new BytesBody(new byte[]{1, 2, 3}), "bytes");
+		assertLength(new FileBody(FileBodyTest.file(1000)), "file");
+		assertLength(multipart(new MultipartBody()), "multipart");
+		assertLength(multipart(new MultipartBody(null, new ArrayList<>())), "multipart without mime");
+	}
+
+	@Test
+	public void unknownLengths() throws IOException {
+		byte[] bytes = "content".getBytes(StandardCharsets.UTF_8);
+
+		assertEquals(Body.UNKNOWN_LENGTH, new StreamBody(new ByteArrayInputStream(bytes)).getContentLength(), "Expected Unknown Stream Length");
+		assertEquals(bytes.length, new StreamBody(null, bytes.length, new ByteArrayInputStream(bytes)).getContentLength(), "Expected Declared Stream Length");
+
+		MultipartBody multipart = new MultipartBody(Arrays.asList(
+				new BodyPart(new Headers(), new TextBody("text")),
+				new BodyPart(new Headers(), new StreamBody(new ByteArrayInputStream(bytes)))
+		));
+
+		assertEquals(Body.UNKNOWN_LENGTH, multipart.getContentLength(), "Expected Unknown Multipart Length");
+	}
+
+	@Test
+	public void stableBoundary() throws IOException {
+		MultipartBody body = new MultipartBody(null, new ArrayList<>());
+		body.add(new BodyPart(new Headers(), new TextBody("text")));
+
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		body.writeTo(first);
+		body.writeTo(second);
+
+		assertArrayEquals(first.toByteArray(), second.toByteArray(), "Expected Same Boundary On Each Write");
+	}
+}
@@ -0,0 +1,77 @@
+package org.cufy.http.body;
+
+import org.cufy.http.internal.util.StreamUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileBodyTest {
+	static File file(int size) throws IOException {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		File file = File.createTempFile("FileBodyTest", ".bin");
+		file.deleteOnExit();
+		Files.write(file.toPath(), bytes);
+		return file;
+	}
+
+	@Test
+	public void transfer() throws IOException {
+		File file = file(300_000);
+		byte[] expected = Files.readAllBytes(file.toPath());
+		FileBody body = new FileBody(file);
+
+		assertEquals(expected.length, body.getContentLength(), "Expected File Size");
+
+		ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+		long count = body.transferTo(Channels.newChannel(transferred));
+
+		assertEquals(expected.length, count, "Expected Transferred Count");
+		assertArrayEquals(expected, transferred.toByteArray(), "Expected Transferred Content");
+
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		body.writeTo(written);
+
+		assertArrayEquals(expected, written.toByteArray(), "Expected Written Content");
+
+		try (InputStream stream = body.openInputStream()) {
+			assertArrayEquals(expected, StreamUtil.readAllBytes(stream), "Expected Stream Content");
+		}
+	}
+
+	@Test
+	public void channel() throws IOException {
+		File file = file(10_000);
+		byte[] expected = Files.readAllBytes(file.toPath());
+		FileBody body = new FileBody(file);
+
+		try (FileChannel channel = body.openChannel()) {
+			ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+
+			assertEquals(expected.length, channel.size(), "Expected Channel Size");
+
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+				;
+
+			assertArrayEquals(expected, buffer.array(), "Expected Channel Content");
+		}
+
+		MappedByteBuffer map = body.map();
+		byte[] mapped = new byte[map.remaining()];
+		map.get(mapped);
+
+		assertTrue(map.isReadOnly(), "Expected Read-Only Map");
+		assertArrayEquals(expected, mapped, "Expected Mapped Content");
+	}
+}
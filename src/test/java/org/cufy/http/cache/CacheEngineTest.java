@@ -0,0 +1,225 @@
+package org.cufy.http.cache;
+
+import org.cufy.http.*;
+import org.cufy.http.body.TextBody;
+import org.cufy.http.client.ClientEngine;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientRequestContextImpl;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.uri.Uri;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOError;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheEngineTest {
+	private long now = 1_000_000;
+
+	private final List<Request> sent = new ArrayList<>();
+
+	private ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> origin(Consumer<ClientResponseContext<?>> responder) {
+		return (input, next) -> {
+			this.sent.add(input.request().clone());
+			responder.accept(input.res());
+			next.invoke();
+		};
+	}
+
+	private CacheEngine engine(Consumer<ClientResponseContext<?>> responder) {
+		return new CacheEngine(this.origin(responder), new MemoryCacheStore()) {
+			@Override
+			protected long currentTimeMillis() {
+				return CacheEngineTest.this.now;
+			}
+		};
+	}
+
+	private ClientResponseContext<?> fetch(CacheEngine engine, String method, Consumer<Headers> headers) throws Throwable {
+		ClientRequestContext<Endpoint> req = new ClientRequestContextImpl<>(Endpoint.UNSPECIFIED);
+		req.method(method);
+		req.uri(Uri.parse("http://example.com/data#fragment"));
+		headers.accept(req.request().getHeaders());
+		List<Throwable> errors = new ArrayList<>();
+
+		engine.connect(req, errors::add);
+
+		assertEquals(1, errors.size(), "Expected Next Invoked Once");
+		assertNull(errors.get(0), "Expected No Error");
+		return req.res();
+	}
+
+	@Test
+	public void freshHit() throws Throwable {
+		CacheEngine engine = this.engine(res -> res
+				.statusCode(StatusCode.OK)
+				.headers(h -> h.add(Headers.CACHE_CONTROL, "max-age=60"))
+				.body(new TextBody("value")));
+
+		assertEquals("value", this.fetch(engine, Method.GET, h -> {
+		}).body().toString(), "Expected Origin Body");
+
+		this.now += 30_000;
+		ClientResponseContext<?> hit = this.fetch(engine, Method.GET, h -> {
+		});
+
+		assertEquals(1, this.sent.size(), "Expected Served From Cache");
+		assertEquals("value", hit.body().toString(), "Expected Cached Body");
+		assertEquals("30", hit.headers().get(Headers.AGE), "Expected Age");
+
+		this.fetch(engine, Method.GET, h -> h.add(Headers.CACHE_CONTROL, "no-cache"));
+
+		assertEquals(2, this.sent.size(), "Expected no-cache Forwarded");
+
+		this.fetch(engine, Method.DELETE, h -> {
+		});
+		this.fetch(engine, Method.GET, h -> {
+		});
+
+		assertEquals(4, this.sent.size(), "Expected Invalidated By Unsafe Method");
+	}
+
+	@Test
+	public void revalidation() throws Throwable {
+		CacheEngine engine = this.engine(res -> {
+			if (this.sent.get(this.sent.size() - 1).getHeaders().get(Headers.IF_NONE_MATCH) != null)
+				res.statusCode(StatusCode.NOT_MODIFIED)
+				   .reasonPhrase(ReasonPhrase.NOT_MODIFIED)
+				   .headers(h -> h.add(Headers.CACHE_CONTROL, "max-age=10"))
+				   .body((Body) null);
+			else
+				res.statusCode(StatusCode.OK)
+				   .headers(h -> {
+					   h.add(Headers.ETAG, "\"v1\"");
+					   h.add(Headers.CACHE_CONTROL, "no-cache");
+				   })
+				   .body(new TextBody("value"));
+		});
+
+		this.fetch(engine, Method.GET, h -> {
+		});
+		ClientResponseContext<?> revalidated = this.fetch(engine, Method.GET, h -> {
+		});
+
+		assertEquals("\"v1\"", this.sent.get(1).getHeaders().get(Headers.IF_NONE_MATCH), "Expected Conditional Request");
+		assertEquals(StatusCode.OK, revalidated.statusCode(), "Expected 304 Turned Into Stored Response");
+		assertEquals("value", revalidated.body().toString(), "Expected Stored Body");
+		assertEquals("max-age=10", revalidated.headers().get(Headers.CACHE_CONTROL), "Expected Freshened Headers");
+
+		this.fetch(engine, Method.GET, h -> {
+		});
+
+		assertEquals(2, this.sent.size(), "Expected Fresh After Revalidation");
+	}
+
+	@Test
+	public void vary() throws Throwable {
+		CacheEngine engine = this.engine(res -> res
+				.statusCode(StatusCode.OK)
+				.headers(h -> {
+					h.add(Headers.CACHE_CONTROL, "max-age=60");
+					h.add(Headers.VARY, "Accept-Language");
+				})
+				.body(new TextBody("value")));
+
+		this.fetch(engine, Method.GET, h -> h.add("Accept-Language", "en"));
+		this.fetch(engine, Method.GET, h -> h.add("accept-language", "en"));
+
+		assertEquals(1, this.sent.size(), "Expected Same Variant Served");
+
+		this.fetch(engine, Method.GET, h -> h.add("Accept-Language", "ar"));
+
+		assertEquals(2, this.sent.size(), "Expected Other Variant Forwarded");
+
+		ClientResponseContext<?> miss = this.fetch(engine, Method.GET, h -> {
+			h.add("Accept-Language", "fr");
+			h.add(Headers.CACHE_CONTROL, "only-if-cached");
+		});
+
+		assertEquals(StatusCode.GATEWAY_TIMEOUT, miss.statusCode(), "Expected only-if-cached Miss");
+		assertEquals(2, this.sent.size(), "Expected only-if-cached Not Forwarded");
+	}
+
+	@Test
+	public void credentials() throws Throwable {
+		CacheEngine engine = this.engine(res -> res
+				.statusCode(StatusCode.OK)
+				.headers(h -> h.add(Headers.CACHE_CONTROL, "max-age=60"))
+				.body(new TextBody("user " + this.sent.get(this.sent.size() - 1).getHeaders().get(Headers.AUTHORIZATION))));
+
+		assertEquals("user Bearer a", this.fetch(engine, Method.GET, h -> h.add(Headers.AUTHORIZATION, "Bearer a")).body().toString(), "Expected Origin Body");
+		assertEquals("user Bearer a", this.fetch(engine, Method.GET, h -> h.add(Headers.AUTHORIZATION, "Bearer a")).body().toString(), "Expected Same Credentials Served");
+		assertEquals(1, this.sent.size(), "Expected Same Credentials Served From Cache");
+		assertEquals("user Bearer b", this.fetch(engine, Method.GET, h -> h.add(Headers.AUTHORIZATION, "Bearer b")).body().toString(), "Expected Other Credentials Not Served Another User's Response");
+		assertEquals(2, this.sent.size(), "Expected Other Credentials Forwarded");
+		assertEquals("user null", this.fetch(engine, Method.GET, h -> {
+		}).body().toString(), "Expected No Credentials Not Served A User's Response");
+
+		this.fetch(engine, Method.GET, h -> h.add(Headers.COOKIE, "session=1"));
+
+		assertEquals(4, this.sent.size(), "Expected Cookie Forwarded");
+
+		this.fetch(engine, Method.GET, h -> h.add(Headers.COOKIE, "session=2"));
+
+		assertEquals(5, this.sent.size(), "Expected Other Cookie Forwarded");
+
+		this.fetch(engine, Method.GET, h -> h.add(Headers.COOKIE, "session=2"));
+
+		assertEquals(5, this.sent.size(), "Expected Same Cookie Served From Cache");
+	}
+
+	@Test
+	public void failingStore() throws Throwable {
+		CacheStore store = new CacheStore() {
+			@Override
+			public CacheEntry get(String key) {
+				throw new UncheckedIOException(new IOException("get"));
+			}
+
+			@Override
+			public void put(String key, CacheEntry entry) {
+				throw new UncheckedIOException(new IOException("put"));
+			}
+
+			@Override
+			public void remove(String key) {
+				throw new IllegalStateException("remove");
+			}
+		};
+		CacheEngine engine = new CacheEngine(this.origin(res -> res
+				.statusCode(StatusCode.OK)
+				.headers(h -> h.add(Headers.CACHE_CONTROL, "max-age=60"))
+				.body(new TextBody("value"))), store);
+
+		assertEquals("value", this.fetch(engine, Method.GET, h -> {
+		}).body().toString(), "Expected Miss On Failing Store");
+		assertEquals("value", this.fetch(engine, Method.GET, h -> {
+		}).body().toString(), "Expected Miss On Failing Store");
+		this.fetch(engine, Method.DELETE, h -> {
+		});
+
+		assertEquals(3, this.sent.size(), "Expected Each Request Forwarded");
+	}
+
+	@Test
+	public void erroringStore() {
+		CacheStore store = new MemoryCacheStore() {
+			@Override
+			public CacheEntry get(String key) {
+				throw new IOError(new IOException("get"));
+			}
+		};
+		CacheEngine engine = new CacheEngine(this.origin(res -> res
+				.statusCode(StatusCode.OK)
+				.body(new TextBody("value"))), store);
+
+		assertThrows(IOError.class, () -> this.fetch(engine, Method.GET, h -> {
+		}), "Expected Error Propagated");
+		assertEquals(0, this.sent.size(), "Expected Nothing Forwarded");
+	}
+}
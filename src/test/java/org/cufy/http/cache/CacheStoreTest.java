@@ -0,0 +1,185 @@
+package org.cufy.http.cache;
+
+import org.cufy.http.*;
+import org.cufy.http.mime.Mime;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheStoreTest {
+	private static CacheEntry entry(String value, int length) {
+		Headers headers = new Headers();
+		headers.add(Headers.ETAG, "\"" + value + "\"");
+		Headers varying = new Headers();
+		varying.add("Accept-Language", "en");
+		byte[] body = new byte[length];
+		body[0] = (byte) value.charAt(0);
+		return new CacheEntry(
+				new StatusLine(HttpVersion.HTTP1_1, StatusCode.OK, ReasonPhrase.OK),
+				headers,
+				Mime.parse("application/json"),
+				body,
+				varying,
+				1000,
+				2000
+		);
+	}
+
+	private static void delete(File directory) {
+		File[] files = directory.listFiles();
+
+		if (files != null)
+			for (File file : files)
+				assertTrue(file.delete(), "Expected File Deleted");
+
+		assertTrue(directory.delete(), "Expected Directory Deleted");
+	}
+
+	@Test
+	public void memoryAdmission() {
+		MemoryCacheStore store = new MemoryCacheStore(4 * 1500);
+
+		store.put("a", entry("a", 1000));
+		store.put("b", entry("b", 1000));
+		store.put("c", entry("c", 1000));
+
+		for (int i = 0; i < 5; i++) {
+			store.get("a");
+			store.get("b");
+			store.get("c");
+		}
+
+		//a one-time key does not displace the hot keys
+		store.get("d");
+		store.put("d", entry("d", 2000));
+
+		assertNull(store.get("d"), "Expected Cold Entry Rejected");
+		assertNotNull(store.get("a"), "Expected Hot Entry Kept");
+
+		store.put("e", entry("e", 100_000));
+
+		assertNull(store.get("e"), "Expected Oversized Entry Dropped");
+	}
+
+	@Test
+	public void memoryAdmissionKeepsVictims() {
+		MemoryCacheStore store = new MemoryCacheStore(4 * 1500);
+
+		store.put("a", entry("a", 1000));
+		store.put("b", entry("b", 1000));
+		store.put("c", entry("c", 1000));
+
+		for (int i = 0; i < 5; i++) {
+			store.get("b");
+			store.get("c");
+		}
+
+		//needs the cold "a" and the hot "b" to be evicted
+		store.get("d");
+		store.put("d", entry("d", 3000));
+
+		assertNull(store.get("d"), "Expected Entry Rejected By A Hot Victim");
+		assertNotNull(store.get("a"), "Expected No Victim Evicted For A Rejected Entry");
+		assertNotNull(store.get("b"), "Expected Hot Entry Kept");
+	}
+
+	@Test
+	public void diskReopen() throws IOException {
+		File directory = Files.createTempDirectory("cache").toFile();
+
+		try {
+			DiskCacheStore store = new DiskCacheStore(directory, 1 << 20, 64 << 10);
+
+			store.put("a", entry("a", 100));
+			store.put("b", entry("b", 100));
+			store.put("a", entry("A", 200));
+			store.remove("b");
+			store.close();
+
+			DiskCacheStore reopened = new DiskCacheStore(directory, 1 << 20, 64 << 10);
+			CacheEntry entry = reopened.get("a");
+
+			assertNotNull(entry, "Expected Entry Survived");
+			assertEquals(200, entry.getBody().length, "Expected Latest Entry");
+			assertEquals('A', entry.getBody()[0], "Expected Body Bytes");
+			assertEquals("\"A\"", entry.getHeaders().get(Headers.ETAG), "Expected Headers");
+			assertEquals("en", entry.getVarying().get("accept-language"), "Expected Varying");
+			assertEquals("application/json", String.valueOf(entry.getMime()), "Expected Mime");
+			assertEquals(2000, entry.getResponseTime(), "Expected Times");
+			assertNull(reopened.get("b"), "Expected Removal Survived");
+			reopened.close();
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void diskCompactionAndBudget() throws IOException {
+		File directory = Files.createTempDirectory("cache").toFile();
+
+		try {
+			DiskCacheStore store = new DiskCacheStore(directory, 4 * 8192, 8192);
+
+			//overwriting a single key fills segments with garbage
+			for (int i = 0; i < 100; i++)
+				store.put("hot", entry("h", 1000));
+
+			store.put("cold", entry("c", 1000));
+
+			assertNotNull(store.get("hot"), "Expected Hot Entry");
+			assertNotNull(store.get("cold"), "Expected Cold Entry");
+			assertTrue(directory.listFiles().length <= 4, "Expected Budget Honoured");
+
+			store.compact();
+			store.close();
+
+			DiskCacheStore reopened = new DiskCacheStore(directory, 4 * 8192, 8192);
+
+			assertNotNull(reopened.get("hot"), "Expected Hot Entry After Compaction");
+			assertNotNull(reopened.get("cold"), "Expected Cold Entry After Compaction");
+			reopened.close();
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void diskTornRecord() throws IOException {
+		File directory = Files.createTempDirectory("cache").toFile();
+
+		try {
+			DiskCacheStore store = new DiskCacheStore(directory, 1 << 20, 64 << 10);
+
+			store.put("a", entry("a", 100));
+			store.put("b", entry("b", 100));
+			store.close();
+
+			//corrupt the payload of the second record
+			try (RandomAccessFile file = new RandomAccessFile(new File(directory, "0.segment"), "rw")) {
+				int length = file.readInt();
+				file.seek(8 + length + 8 + 20);
+				file.write(0x55);
+			}
+
+			DiskCacheStore reopened = new DiskCacheStore(directory, 1 << 20, 64 << 10);
+
+			assertNotNull(reopened.get("a"), "Expected Intact Record");
+			assertNull(reopened.get("b"), "Expected Torn Record Dropped");
+
+			reopened.put("c", entry("c", 100));
+			reopened.close();
+
+			DiskCacheStore again = new DiskCacheStore(directory, 1 << 20, 64 << 10);
+
+			assertNotNull(again.get("c"), "Expected Append After Torn Record");
+			again.close();
+		} finally {
+			delete(directory);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package org.cufy.http.client;
+
+import org.cufy.http.*;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientRequestContextImpl;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.internal.util.StreamUtil;
+import org.cufy.http.pipeline.Next;
+import org.cufy.http.uri.Uri;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoalescingEngineTest {
+	private final List<ClientRequestContext<? extends Endpoint>> sent = new ArrayList<>();
+	private final List<Next<ClientResponseContext<? extends Endpoint>>> pending = new ArrayList<>();
+
+	private final CoalescingEngine engine = new CoalescingEngine((input, next) -> {
+		this.sent.add(input);
+		this.pending.add(next);
+	}, Headers.AUTHORIZATION);
+
+	private ClientRequestContext<Endpoint> request(String method, String uri, String authorization) {
+		ClientRequestContext<Endpoint> req = new ClientRequestContextImpl<>(Endpoint.UNSPECIFIED);
+		req.method(method);
+		req.uri(Uri.parse(uri));
+		req.request().getHeaders().add(Headers.AUTHORIZATION, authorization);
+		return req;
+	}
+
+	private static String read(Body body) throws Exception {
+		try (InputStream stream = body.openInputStream()) {
+			return new String(StreamUtil.readAllBytes(stream), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void fanOut() throws Throwable {
+		List<ClientRequestContext<Endpoint>> requests = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+
+		for (int i = 0; i < 4; i++) {
+			ClientRequestContext<Endpoint> req = this.request(Method.GET, "http://example.com/data#" + i, "a");
+			this.engine.connect(req, errors::add);
+			requests.add(req);
+		}
+
+		this.engine.connect(this.request(Method.GET, "http://example.com/data", "b"), errors::add);
+		this.engine.connect(this.request(Method.GET, "http://example.com/other", "a"), errors::add);
+
+		assertEquals(3, this.sent.size(), "Expected One Upstream Call Per Distinct Request");
+		assertTrue(errors.isEmpty(), "Expected Nothing Completed Yet");
+
+		byte[] bytes = "value".getBytes(StandardCharsets.UTF_8);
+		this.sent.get(0).res()
+				 .statusCode(StatusCode.OK)
+				 .headers(h -> h.add(Headers.ETAG, "\"1\""))
+				 .body(new StreamBody(null, bytes.length, new ByteArrayInputStream(bytes)));
+		this.pending.get(0).invoke();
+
+		assertEquals(4, errors.size(), "Expected All Coalesced Completed");
+
+		for (ClientRequestContext<Endpoint> req : requests) {
+			assertNull(errors.get(requests.indexOf(req)), "Expected No Error");
+			assertEquals(StatusCode.OK, req.res().statusCode(), "Expected Shared Status");
+			assertEquals("\"1\"", req.res().headers().get(Headers.ETAG), "Expected Shared Headers");
+			assertEquals("value", read(req.res().body()), "Expected Shared Body");
+		}
+
+		assertNotSame(requests.get(1).res().headers(), requests.get(2).res().headers(), "Expected Independent Headers");
+		assertNotSame(requests.get(1).res().body(), requests.get(2).res().body(), "Expected Independent Bodies");
+
+		this.engine.connect(this.request(Method.GET, "http://example.com/data", "a"), errors::add);
+
+		assertEquals(4, this.sent.size(), "Expected New Flight After Landing");
+	}
+
+	@Test
+	public void errorAndPassThrough() throws Throwable {
+		List<Throwable> errors = new ArrayList<>();
+		Throwable failure = new Exception("failure");
+
+		this.engine.connect(this.request(Method.GET, "http://example.com/data", "a"), errors::add);
+		this.engine.connect(this.request(Method.GET, "http://example.com/data", "a"), errors::add);
+		this.engine.connect(this.request(Method.POST, "http://example.com/data", "a"), errors::add);
+		this.engine.connect(this.request(Method.POST, "http://example.com/data", "a"), errors::add);
+
+		assertEquals(3, this.sent.size(), "Expected Unsafe Methods Never Coalesced");
+
+		this.pending.get(0).invoke(failure);
+
+		assertEquals(2, errors.size(), "Expected Error Delivered To All");
+		assertSame(failure, errors.get(0), "Expected Same Error");
+		assertSame(failure, errors.get(1), "Expected Same Error");
+	}
+
+	@Test
+	public void credentials() throws Throwable {
+		CoalescingEngine engine = new CoalescingEngine((input, next) -> {
+			this.sent.add(input);
+			this.pending.add(next);
+		});
+
+		for (String authorization : new String[]{"a", "a", "b"})
+			engine.connect(this.request(Method.GET, "http://example.com/data", authorization), error -> {
+			});
+
+		assertEquals(2, this.sent.size(), "Expected Authorization Distinguishing Without Nomination");
+
+		for (String cookie : new String[]{"id=1", "id=2"}) {
+			ClientRequestContext<Endpoint> req = this.request(Method.GET, "http://example.com/data", "a");
+			req.request().getHeaders().add(Headers.COOKIE, cookie);
+			engine.connect(req, error -> {
+			});
+		}
+
+		assertEquals(4, this.sent.size(), "Expected Cookie Distinguishing Without Nomination");
+	}
+}
@@ -0,0 +1,73 @@
+package org.cufy.http.client;
+
+import org.cufy.http.Endpoint;
+import org.cufy.http.Method;
+import org.cufy.http.StatusCode;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.concurrent.Cancellation;
+import org.cufy.http.pipeline.Next;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchAsyncTest {
+	private final List<ClientRequestContext<? extends Endpoint>> sent = new ArrayList<>();
+	private final List<Next<ClientResponseContext<? extends Endpoint>>> pending = new ArrayList<>();
+	private final AtomicInteger cancelled = new AtomicInteger();
+
+	private final ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine = (input, next) -> {
+		Cancellation cancellation = Cancellation.of(input);
+
+		if (cancellation != null)
+			cancellation.register(this.cancelled::incrementAndGet);
+
+		this.sent.add(input);
+		this.pending.add(next);
+	};
+
+	@Test
+	public void complete() {
+		List<CompletableFuture<ClientResponseContext<Endpoint>>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++)
+			futures.add(Http.fetchAsync(this.engine, Method.GET, "http://example.com/" + i));
+
+		CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+
+		assertEquals(3, this.sent.size(), "Expected All Sent Without Blocking");
+		assertFalse(all.isDone(), "Expected Not Completed Yet");
+
+		for (int i = 0; i < 3; i++) {
+			this.sent.get(i).res().statusCode(StatusCode.OK);
+			this.pending.get(i).invoke();
+		}
+
+		assertTrue(all.isDone(), "Expected Completed By The Engine Callback");
+		assertEquals(StatusCode.OK, futures.get(0).join().statusCode(), "Expected Response");
+
+		CompletableFuture<ClientResponseContext<Endpoint>> failed = Http.fetchAsync(this.engine, Method.GET, "http://example.com/");
+		this.pending.get(3).invoke(new Exception("failure"));
+
+		assertTrue(failed.isCompletedExceptionally(), "Expected Failure Propagated");
+	}
+
+	@Test
+	public void cancel() {
+		CompletableFuture<ClientResponseContext<Endpoint>> future = Http.fetchAsync(this.engine, Method.GET, "http://example.com/");
+
+		assertTrue(future.cancel(true), "Expected Cancelled");
+		assertEquals(1, this.cancelled.get(), "Expected Cancellation Propagated To Engine");
+
+		future.cancel(true);
+		this.pending.get(0).invoke();
+
+		assertEquals(1, this.cancelled.get(), "Expected Hook Invoked Once");
+		assertTrue(future.isCancelled(), "Expected Late Response Ignored");
+	}
+}
@@ -0,0 +1,101 @@
+package org.cufy.http.client;
+
+import org.cufy.http.Endpoint;
+import org.cufy.http.Method;
+import org.cufy.http.StatusCode;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.internal.util.StreamUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FetchBodyTest {
+	private final AtomicInteger closed = new AtomicInteger();
+
+	private ClientEngine<ClientRequestContext<? extends Endpoint>, ClientResponseContext<? extends Endpoint>> engine(Throwable error) {
+		return (input, next) -> {
+			InputStream stream = new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)) {
+				@Override
+				public void close() {
+					FetchBodyTest.this.closed.incrementAndGet();
+				}
+			};
+
+			input.res()
+				 .statusCode(StatusCode.OK)
+				 .body(new StreamBody(stream));
+			next.invoke(error);
+		};
+	}
+
+	private static String read(ClientResponseContext<?> res) throws IOException {
+		try (InputStream stream = res.body().openInputStream()) {
+			return new String(StreamUtil.readAllBytes(stream), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void readAfterFetch() throws IOException {
+		ClientResponseContext<Endpoint> res = Http.fetch(this.engine(null), Method.GET, "http://example.com/");
+
+		assertEquals(1, this.closed.get(), "Expected Stream Detached");
+		assertEquals("content", read(res), "Expected Body Readable After Fetch");
+		assertEquals("content", res.body().toString(), "Expected Body Readable Twice");
+	}
+
+	@Test
+	public void consumedInPipeline() {
+		StringBuilder content = new StringBuilder();
+		ClientResponseContext<Endpoint> res = Http.fetch(this.engine(null), Method.GET, "http://example.com/", req ->
+				req.connected(r -> content.append(read(r)))
+		);
+
+		assertEquals("content", content.toString(), "Expected Body Consumed In Pipeline");
+		assertEquals(1, this.closed.get(), "Expected Stream Closed By Its Consumer");
+		assertNotNull(res.body(), "Expected Body Kept");
+	}
+
+	@Test
+	public void streamAfterFetchStream() throws IOException {
+		ClientResponseContext<Endpoint> res = Http.fetchStream(this.engine(null), Method.GET, "http://example.com/");
+
+		assertEquals(0, this.closed.get(), "Expected Stream Kept Attached");
+		assertEquals("content", read(res), "Expected Body Streamed After Fetch");
+		assertEquals(1, this.closed.get(), "Expected Stream Closed By Its Consumer");
+
+		res.release();
+
+		assertEquals(1, this.closed.get(), "Expected Stream Closed Once");
+	}
+
+	@Test
+	public void releasedAfterHandOver() throws IOException {
+		ClientResponseContext<Endpoint> res = Http.fetchStream(this.engine(null), Method.GET, "http://example.com/");
+		InputStream stream = res.body().openInputStream();
+
+		assertEquals('c', stream.read(), "Expected Stream Handed Over");
+
+		res.release();
+
+		assertEquals(1, this.closed.get(), "Expected Handed Over Stream Closed On Release");
+	}
+
+	@Test
+	public void releasedOnFailure() {
+		AtomicInteger failures = new AtomicInteger();
+		Http.fetch(this.engine(new IOException("failure")), Method.GET, "http://example.com/", req ->
+				req.failed(e -> failures.incrementAndGet())
+		);
+
+		assertEquals(1, failures.get(), "Expected Failure Handled");
+		assertEquals(1, this.closed.get(), "Expected Stream Released");
+	}
+}
@@ -0,0 +1,119 @@
+package org.cufy.http.codec;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.body.TextBody;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientRequestContextImpl;
+import org.cufy.http.client.wrapper.ClientResponseContext;
+import org.cufy.http.internal.util.StreamUtil;
+import org.cufy.http.uri.Uri;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EncodingEngineTest {
+	private static final String CONTENT = "{\"value\": \"compressible compressible compressible\"}";
+
+	private final List<Request> sent = new ArrayList<>();
+
+	private static byte[] encode(ContentCodec codec, String content) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (OutputStream stream = codec.encode(bytes)) {
+			stream.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private static String read(Body body) throws Exception {
+		try (InputStream stream = body.openInputStream()) {
+			return new String(StreamUtil.readAllBytes(stream), StandardCharsets.UTF_8);
+		}
+	}
+
+	private ClientResponseContext<?> fetch(EncodingEngine engine, Body body) throws Throwable {
+		ClientRequestContext<Endpoint> req = new ClientRequestContextImpl<>(Endpoint.UNSPECIFIED);
+		req.method(body == null ? Method.GET : Method.POST);
+		req.uri(Uri.parse("http://example.com/data"));
+		req.request().setBody(body);
+		List<Throwable> errors = new ArrayList<>();
+
+		engine.connect(req, errors::add);
+
+		assertEquals(1, errors.size(), "Expected Next Invoked Once");
+		assertNull(errors.get(0), "Expected No Error");
+		return req.res();
+	}
+
+	private EncodingEngine engine(String encoding, byte[] bytes, ContentCodec requestCodec, long threshold) {
+		return new EncodingEngine((input, next) -> {
+			this.sent.add(input.request());
+			input.res()
+				 .statusCode(StatusCode.OK)
+				 .headers(h -> {
+					 h.add(Headers.CONTENT_ENCODING, encoding);
+					 h.add(Headers.CONTENT_LENGTH, String.valueOf(bytes.length));
+				 })
+				 .body(new StreamBody(null, bytes.length, new ByteArrayInputStream(bytes)));
+			next.invoke();
+		}, requestCodec, threshold);
+	}
+
+	@Test
+	public void decodeResponse() throws Throwable {
+		ClientResponseContext<?> res = this.fetch(this.engine("gzip", encode(ContentCodecs.GZIP, CONTENT), null, 0), null);
+
+		assertTrue(this.sent.get(0).getHeaders().get(Headers.ACCEPT_ENCODING).contains("gzip"), "Expected Accept-Encoding Advertised");
+		assertNull(res.headers().get(Headers.CONTENT_ENCODING), "Expected Content-Encoding Removed");
+		assertNull(res.headers().get(Headers.CONTENT_LENGTH), "Expected Content-Length Removed");
+		assertEquals(Body.UNKNOWN_LENGTH, res.body().getContentLength(), "Expected Unknown Length");
+		assertEquals(CONTENT, read(res.body()), "Expected Decoded Body");
+
+		res = this.fetch(this.engine("deflate", encode(ContentCodecs.DEFLATE, CONTENT), null, 0), null);
+
+		assertEquals(CONTENT, read(res.body()), "Expected Decoded zlib Body");
+
+		ByteArrayOutputStream raw = new ByteArrayOutputStream();
+		try (OutputStream stream = new DeflaterOutputStream(raw, new Deflater(Deflater.DEFAULT_COMPRESSION, true))) {
+			stream.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+		}
+		res = this.fetch(this.engine("deflate", raw.toByteArray(), null, 0), null);
+
+		assertEquals(CONTENT, read(res.body()), "Expected Decoded Raw Deflate Body");
+
+		res = this.fetch(this.engine("gzip, compress", encode(ContentCodecs.GZIP, CONTENT), null, 0), null);
+
+		assertEquals("gzip, compress", res.headers().get(Headers.CONTENT_ENCODING), "Expected Unknown Coding Untouched");
+	}
+
+	@Test
+	public void encodeRequest() throws Throwable {
+		EncodingEngine engine = this.engine("identity", new byte[0], ContentCodecs.GZIP, 16);
+
+		this.fetch(engine, new TextBody("short"));
+		this.fetch(engine, new BytesBody(CONTENT.getBytes(StandardCharsets.UTF_8)));
+
+		assertNull(this.sent.get(0).getHeaders().get(Headers.CONTENT_ENCODING), "Expected Short Body Not Encoded");
+		assertEquals("gzip", this.sent.get(1).getHeaders().get(Headers.CONTENT_ENCODING), "Expected Content-Encoding");
+
+		Body body = this.sent.get(1).getBody();
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		body.writeTo(written);
+
+		assertEquals(Body.UNKNOWN_LENGTH, body.getContentLength(), "Expected Unknown Length");
+		assertEquals(CONTENT, new String(StreamUtil.readAllBytes(ContentCodecs.GZIP.decode(new ByteArrayInputStream(written.toByteArray()))), StandardCharsets.UTF_8), "Expected Encoded Body");
+	}
+}
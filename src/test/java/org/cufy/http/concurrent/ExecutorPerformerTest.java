@@ -0,0 +1,148 @@
+package org.cufy.http.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutorPerformerTest {
+	@Test
+	public void boundedConcurrency() {
+		ExecutorPerformer performer = new ExecutorPerformer(Runnable::run, 2, 1);
+		List<Runnable> callbacks = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++)
+			performer.execute(callbacks::add);
+
+		assertEquals(2, callbacks.size(), "Expected Two Running");
+		assertEquals(1, performer.getQueued(), "Expected One Queued");
+		assertThrows(RejectedExecutionException.class, () -> {
+			performer.execute(callbacks::add);
+		}, "Expected Fail Fast When Queue Full");
+
+		callbacks.get(0).run();
+		callbacks.get(0).run();
+
+		assertEquals(3, callbacks.size(), "Expected Queued Started Once");
+		assertEquals(0, performer.getQueued(), "Expected Queue Drained");
+
+		performer.execute(callbacks::add);
+
+		assertEquals(3, callbacks.size(), "Expected Queued While At Cap");
+	}
+
+	@Test
+	public void rejectedWhileQueued() {
+		boolean[] rejecting = {false};
+		ExecutorPerformer performer = new ExecutorPerformer(command -> {
+			if (rejecting[0])
+				throw new RejectedExecutionException("rejecting");
+
+			command.run();
+		}, 1, 2);
+		List<Runnable> callbacks = new ArrayList<>();
+
+		performer.execute(callbacks::add);
+		performer.execute(callbacks::add);
+		rejecting[0] = true;
+		callbacks.get(0).run();
+
+		assertEquals(2, callbacks.size(), "Expected Rejected Block Run On The Releasing Thread");
+		assertEquals(0, performer.getQueued(), "Expected Queue Drained");
+
+		callbacks.get(1).run();
+
+		assertThrows(RejectedExecutionException.class, () -> {
+			performer.execute(callbacks::add);
+		}, "Expected Rejection Thrown To The Submitter");
+
+		rejecting[0] = false;
+		performer.execute(callbacks::add);
+
+		assertEquals(3, callbacks.size(), "Expected Permits Of The Rejected Blocks Released");
+
+		performer.execute(callbacks::add);
+		performer.execute(callbacks::add);
+
+		assertEquals(2, performer.getQueued(), "Expected Permits Not Over Released");
+
+		callbacks.get(2).run();
+		callbacks.get(3).run();
+
+		assertEquals(5, callbacks.size(), "Expected Queue Drained");
+		assertEquals(0, performer.getQueued(), "Expected Queue Empty");
+	}
+
+	@Test
+	public void shutdownWhileQueued() throws InterruptedException {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		ExecutorPerformer performer = new ExecutorPerformer(executor, 1, 1000);
+		CountDownLatch started = new CountDownLatch(1);
+		Runnable[] first = new Runnable[1];
+		List<Integer> depths = new ArrayList<>();
+
+		performer.execute(callback -> {
+			first[0] = callback;
+			started.countDown();
+		});
+
+		assertTrue(started.await(10, TimeUnit.SECONDS), "Expected First Started");
+
+		for (int i = 0; i < 1000; i++)
+			performer.execute(callback -> {
+				depths.add(new Throwable().getStackTrace().length);
+				callback.run();
+			});
+
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Expected Executor Terminated");
+		assertEquals(1000, performer.getQueued(), "Expected Queued While At Cap");
+
+		first[0].run();
+
+		assertEquals(1000, depths.size(), "Expected Queued Blocks Run");
+		assertEquals(0, performer.getQueued(), "Expected Queue Drained");
+		assertEquals(
+				depths.stream().mapToInt(Integer::intValue).min().getAsInt(),
+				depths.stream().mapToInt(Integer::intValue).max().getAsInt(),
+				"Expected No Recursion"
+		);
+		assertThrows(RejectedExecutionException.class, () -> {
+			performer.execute(callback -> fail("Expected Not Run"));
+		}, "Expected Rejection Thrown To The Submitter");
+	}
+
+	@Test
+	public void virtualThreadFanOut() throws InterruptedException {
+		if (!VirtualThreadPerformer.isSupported()) {
+			assertThrows(UnsupportedOperationException.class, () -> {
+				new VirtualThreadPerformer(8, 1000);
+			}, "Expected No Fallback To Platform Threads");
+			return;
+		}
+
+		VirtualThreadPerformer performer = new VirtualThreadPerformer(8, 1000);
+		CountDownLatch latch = new CountDownLatch(500);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+
+		for (int i = 0; i < 500; i++)
+			performer.execute(callback -> {
+				peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+				running.decrementAndGet();
+				latch.countDown();
+				callback.run();
+			});
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS), "Expected All Completed");
+		assertTrue(peak.get() <= 8, "Expected Concurrency Cap Honoured");
+	}
+}
@@ -0,0 +1,74 @@
+package org.cufy.http.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParkPerformerTest {
+	@Test
+	public void defaultSpins() {
+		int expected = Runtime.getRuntime().availableProcessors() > 1 ? ParkPerformer.DEFAULT_SPINS : 0;
+
+		assertEquals(expected, new ParkPerformer().spins, "Expected Default Spins");
+		assertEquals(expected, ((ParkPerformer) Performer.PARK).spins, "Expected Default Spins Regardless Of Initialisation Order");
+	}
+
+	@Test
+	public void callback() {
+		AtomicInteger count = new AtomicInteger();
+
+		Performer.PARK.execute(callback -> {
+			count.incrementAndGet();
+			callback.run();
+			callback.run();
+		});
+
+		assertEquals(1, count.get(), "Expected Synchronous Callback");
+
+		Performer.PARK.execute(callback -> new Thread(() -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException ignored) {
+			}
+
+			count.incrementAndGet();
+			callback.run();
+		}).start());
+
+		assertEquals(2, count.get(), "Expected Waited For Asynchronous Callback");
+	}
+
+	@Test
+	public void timeout() {
+		Runnable[] late = new Runnable[1];
+		long start = System.nanoTime();
+
+		assertThrows(CancellationException.class, () -> {
+			new ParkPerformer(0, 50, TimeUnit.MILLISECONDS).execute(callback -> late[0] = callback);
+		}, "Expected Timeout");
+
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50), "Expected Waited Until Timeout");
+
+		late[0].run();
+	}
+
+	@Test
+	public void interrupt() {
+		Thread.currentThread().interrupt();
+
+		try {
+			assertThrows(CancellationException.class, () -> {
+				Performer.PARK.execute(callback -> {
+				});
+			}, "Expected Interrupted");
+
+			assertTrue(Thread.currentThread().isInterrupted(), "Expected Interrupt Status Kept");
+		} finally {
+			Thread.interrupted();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package org.cufy.http.internal.syntax;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpDecoderTest {
+	@Test
+	public void byteByByte() throws ProtocolException {
+		String source = "POST /a HTTP/1.1\r\nContent-Length: 3\r\n\r\nabc" +
+						"PUT /b HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n2\r\nde\r\n1;x=y\r\nf\r\n0\r\nT: 1\r\n\r\n";
+		byte[] bytes = source.getBytes(StandardCharsets.ISO_8859_1);
+		HttpDecoder decoder = new HttpDecoder(false);
+		StringBuilder builder = new StringBuilder();
+
+		for (byte b : bytes) {
+			ByteBuffer input = ByteBuffer.wrap(new byte[]{b});
+
+			while (true) {
+				int event = decoder.decode(input);
+
+				if (event == HttpDecoder.NEED_INPUT)
+					break;
+				if (event == HttpDecoder.HEAD)
+					builder.append('[').append(decoder.getRequestLine().getMethod()).append(']');
+				if (event == HttpDecoder.CONTENT)
+					builder.append((char) decoder.getContent().get());
+				if (event == HttpDecoder.END)
+					builder.append('[').append(decoder.getHeaders().size()).append(']');
+			}
+		}
+
+		assertEquals("[POST]abc[1][PUT]def[2]", builder.toString(), "Expected Events Mismatch");
+		assertEquals("1", decoder.getHeaders().get("t"), "Expected Trailer");
+	}
+
+	@Test
+	public void boundary() throws ProtocolException {
+		HttpDecoder decoder = new HttpDecoder(false);
+
+		assertTrue(decoder.isAtBoundary(), "Expected Boundary Before Any Input");
+		assertEquals(HttpDecoder.NEED_INPUT, decoder.decode(ByteBuffer.wrap(
+				"GET / HTTP/1.1\r\nHo".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Head Incomplete");
+		assertFalse(decoder.isAtBoundary(), "Expected No Boundary Mid-Head");
+
+		ByteBuffer input = ByteBuffer.wrap("st: x\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+		assertEquals(HttpDecoder.HEAD, decoder.decode(input), "Expected Head");
+		assertFalse(decoder.isAtBoundary(), "Expected No Boundary Before The End");
+		assertEquals(HttpDecoder.END, decoder.decode(input), "Expected End");
+		assertTrue(decoder.isAtBoundary(), "Expected Boundary After The End");
+	}
+
+	@Test
+	public void responses() throws ProtocolException {
+		HttpDecoder decoder = new HttpDecoder(true);
+		ByteBuffer input = ByteBuffer.wrap((
+				"HTTP/1.1 404 Not Found\r\nContent-Length: 2\r\nContent-Length: 2\r\n\r\nno" +
+				"HTTP/1.1 204 No Content\r\nContent-Length: 5\r\n\r\n" +
+				"HTTP/1.1 304 Not Modified\r\nContent-Length: 5\r\n\r\n" +
+				"HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\n" +
+				"HTTP/1.0 200 OK\r\n\r\nuntil closed"
+		).getBytes(StandardCharsets.ISO_8859_1));
+
+		assertEquals(HttpDecoder.HEAD, decoder.decode(input), "Expected Head");
+		assertEquals("404", decoder.getStatusLine().getStatusCode(), "Expected Status Code");
+		assertEquals("Not Found", decoder.getStatusLine().getReasonPhrase(), "Expected Reason Phrase");
+		assertEquals(2, decoder.getContentLength(), "Expected Same Content Lengths Accepted");
+		assertEquals(HttpDecoder.CONTENT, decoder.decode(input), "Expected Content");
+		assertEquals(HttpDecoder.END, decoder.decode(input), "Expected End");
+
+		for (String code : new String[]{"204", "304"}) {
+			assertEquals(HttpDecoder.HEAD, decoder.decode(input), "Expected Head");
+			assertEquals(code, decoder.getStatusLine().getStatusCode(), "Expected Status Code");
+			assertEquals(0, decoder.getContentLength(), "Expected No Content Regardless Of Content-Length");
+			assertEquals(HttpDecoder.END, decoder.decode(input), "Expected End Right After The Head");
+		}
+
+		//a response to a HEAD request
+		assertEquals(HttpDecoder.HEAD, decoder.decode(input), "Expected Head");
+		decoder.skipContent();
+		assertEquals(HttpDecoder.END, decoder.decode(input), "Expected Content Skipped");
+		assertThrows(IllegalStateException.class, decoder::skipContent, "Expected Skip Only At The Head");
+
+		assertEquals(HttpDecoder.HEAD, decoder.decode(input), "Expected Head");
+		assertEquals(-1, decoder.getContentLength(), "Expected Unknown Length");
+
+		StringBuilder content = new StringBuilder();
+		int event;
+
+		while ((event = decoder.decode(input)) == HttpDecoder.CONTENT)
+			content.append(StandardCharsets.ISO_8859_1.decode(decoder.getContent()));
+
+		assertEquals(HttpDecoder.NEED_INPUT, event, "Expected Content Until Closed");
+		assertEquals("until closed", content.toString(), "Expected Close Delimited Content");
+		assertEquals(HttpDecoder.END, decoder.finish(), "Expected End When Closed");
+		assertEquals(HttpDecoder.NEED_INPUT, decoder.finish(), "Expected Nothing Started");
+
+		HttpDecoder truncated = new HttpDecoder(true);
+		truncated.decode(ByteBuffer.wrap("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nab".getBytes(StandardCharsets.ISO_8859_1)));
+
+		assertThrows(ProtocolException.class, truncated::finish, "Expected Truncated Content Rejected");
+		assertThrows(ProtocolException.class, () -> new HttpDecoder(true).decode(ByteBuffer.wrap(
+				"HTTP/1.1 200 OK\r\nContent-Length: 1\r\nContent-Length: 2\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Conflicting Content Lengths Rejected");
+		assertThrows(ProtocolException.class, () -> new HttpDecoder(true).decode(ByteBuffer.wrap(
+				"HTTP/1.1 OK\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Invalid Status Line Rejected");
+	}
+
+	@Test
+	public void folding() throws ProtocolException {
+		HttpDecoder decoder = new HttpDecoder(true);
+
+		assertEquals(HttpDecoder.HEAD, decoder.decode(ByteBuffer.wrap(
+				"HTTP/1.1 200 OK\r\nX-A: ok\r\n \t more \r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Head");
+		assertEquals("ok more", decoder.getHeaders().get("x-a"), "Expected Folded Value Joined");
+
+		for (String line : new String[]{" \0bad", " bad\rCR", "\tbad\u007F"})
+			assertThrows(ProtocolException.class, () -> new HttpDecoder(true).decode(ByteBuffer.wrap(
+					("HTTP/1.1 200 OK\r\nX-A: ok\r\n" + line + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1)
+			)), "Expected Invalid Folded Value Rejected");
+
+		assertThrows(ProtocolException.class, () -> new HttpDecoder(false).decode(ByteBuffer.wrap(
+				"GET / HTTP/1.1\r\nX-A: bad\rCR\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Bare Carriage Return Rejected");
+		assertThrows(ProtocolException.class, () -> new HttpDecoder(false).decode(ByteBuffer.wrap(
+				"GET / HTTP/1.1\r\nX-A: ok\r\n more\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Folding Rejected In Requests");
+	}
+
+	@Test
+	public void limits() {
+		HttpDecoder decoder = new HttpDecoder(false, 64, 128, 4);
+
+		assertThrows(ProtocolException.class, () -> decoder.decode(ByteBuffer.wrap(
+				"POST / HTTP/1.1\r\nContent-Length: 5\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Content Too Long");
+		assertThrows(ProtocolException.class, () -> new HttpDecoder(true, 8, 128, 4).decode(ByteBuffer.wrap(
+				"HTTP/1.1 200 OK\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Line Too Long");
+		assertThrows(ProtocolException.class, () -> new HttpDecoder(false).decode(ByteBuffer.wrap(
+				"POST / HTTP/1.1\r\nContent-Length: 1\r\nTransfer-Encoding: chunked\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1)
+		)), "Expected Ambiguous Framing Rejected");
+	}
+}
@@ -0,0 +1,143 @@
+package org.cufy.http.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrampolineTest {
+	@Test
+	public void reentrancy() {
+		int[] depths = new int[2];
+		Run run = new Run(100_000, (index, next) -> {
+			if (index == 0)
+				depths[0] = Thread.currentThread().getStackTrace().length;
+			if (index == 99_999)
+				depths[1] = Thread.currentThread().getStackTrace().length;
+
+			next.invoke();
+		});
+
+		run.invoke();
+
+		assertEquals(1, run.completions.get(), "Expected Completed Once");
+		assertNull(run.error, "Expected No Error");
+		assertEquals(100_000, run.stages.size(), "Expected All Stages Invoked");
+		assertEquals(depths[0], depths[1], "Expected Constant Stack Depth");
+	}
+
+	@Test
+	public void failure() {
+		Exception error = new Exception("failure");
+		Run passed = new Run(5, (index, next) -> next.invoke(index == 2 ? error : null));
+		passed.invoke();
+
+		assertSame(error, passed.error, "Expected Passed Error");
+		assertEquals(3, passed.stages.size(), "Expected Stages After The Error Skipped");
+
+		Run thrown = new Run(5, (index, next) -> {
+			if (index == 1)
+				throw error;
+
+			next.invoke();
+		});
+		thrown.invoke();
+
+		assertSame(error, thrown.error, "Expected Thrown Error");
+		assertEquals(2, thrown.stages.size(), "Expected Stages After The Error Skipped");
+		assertEquals(1, thrown.completions.get(), "Expected Completed Once");
+	}
+
+	@Test
+	public void handOff() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try {
+			for (int i = 0; i < 1000; i++) {
+				CountDownLatch done = new CountDownLatch(1);
+				int seed = i;
+				Run run = new Run(20, (index, next) -> {
+					switch ((index + seed) % 3) {
+						case 0:
+							//synchronous
+							next.invoke();
+							break;
+						case 1:
+							//asynchronous, racing with the return of this stage
+							executor.execute(next::invoke);
+							break;
+						default:
+							//asynchronous, before this stage returns
+							CountDownLatch invoked = new CountDownLatch(1);
+							executor.execute(() -> {
+								next.invoke();
+								invoked.countDown();
+							});
+							assertTrue(invoked.await(5, TimeUnit.SECONDS), "Expected Invoked");
+					}
+				}) {
+					@Override
+					protected void complete(Throwable error) {
+						super.complete(error);
+						done.countDown();
+					}
+				};
+
+				run.invoke();
+
+				assertTrue(done.await(5, TimeUnit.SECONDS), "Expected Completed");
+				assertEquals(1, run.completions.get(), "Expected Completed Once");
+				assertNull(run.error, "Expected No Error");
+				assertEquals(20, run.stages.size(), "Expected Each Stage Invoked Once");
+
+				for (int j = 0; j < 20; j++)
+					assertEquals(j, (int) run.stages.get(j), "Expected Stages In Order");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Stage {
+		void invoke(int index, Trampoline<Object> next) throws Throwable;
+	}
+
+	private static class Run extends Trampoline<Object> {
+		private final AtomicInteger completions = new AtomicInteger();
+		private final List<Integer> stages = Collections.synchronizedList(new ArrayList<>());
+		private final int size;
+		private final Stage stage;
+		private volatile Throwable error;
+
+		private Run(int size, Stage stage) {
+			this.size = size;
+			this.stage = stage;
+		}
+
+		@Override
+		protected void complete(Throwable error) {
+			this.error = error;
+			this.completions.incrementAndGet();
+		}
+
+		@Override
+		protected int size() {
+			return this.size;
+		}
+
+		@Override
+		protected void stage(int index) throws Throwable {
+			this.stages.add(index);
+			this.stage.invoke(index, this);
+		}
+	}
+}
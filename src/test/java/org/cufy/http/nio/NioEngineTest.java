@@ -0,0 +1,343 @@
+package org.cufy.http.nio;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.FileBody;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.client.wrapper.ClientRequestContext;
+import org.cufy.http.client.wrapper.ClientRequestContextImpl;
+import org.cufy.http.internal.util.StreamUtil;
+import org.cufy.http.uri.Uri;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioEngineTest {
+	private static String body(ClientRequestContext<Endpoint> req) throws IOException {
+		try (InputStream stream = req.res().body().openInputStream()) {
+			return new String(StreamUtil.readAllBytes(stream), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static String readLine(InputStream stream) throws IOException {
+		StringBuilder line = new StringBuilder();
+
+		for (int b; (b = stream.read()) != '\n'; ) {
+			if (b < 0)
+				return null;
+
+			line.append((char) b);
+		}
+
+		return line.toString().trim();
+	}
+
+	private static String response(String content) {
+		return "HTTP/1.1 200 OK\r\nContent-Length: " + content.length() + "\r\n\r\n" + content;
+	}
+
+	private List<Throwable> send(NioEngine engine, ClientRequestContext<Endpoint> req) {
+		List<Throwable> errors = new ArrayList<>();
+		engine.connect(req, errors::add);
+		return errors;
+	}
+
+	private ClientRequestContext<Endpoint> request(Server server, String method, String path) {
+		ClientRequestContext<Endpoint> req = new ClientRequestContextImpl<>(Endpoint.UNSPECIFIED);
+		req.method(method);
+		req.uri(Uri.parse("http://127.0.0.1:" + server.socket.getLocalPort() + path));
+		return req;
+	}
+
+	@Test
+	public void keepAlive() throws Exception {
+		try (Server server = new Server((i, request) -> response("response" + i))) {
+			NioEngine engine = new NioEngine();
+
+			for (int i = 0; i < 3; i++) {
+				ClientRequestContext<Endpoint> req = this.request(server, Method.GET, "/" + i);
+
+				assertEquals(Collections.singletonList(null), this.send(engine, req), "Expected No Error");
+				assertEquals("response" + i, body(req), "Expected Length Delimited Body");
+			}
+
+			assertEquals(1, server.connections.get(), "Expected Connection Reused");
+			assertEquals(1, engine.getPool().idleConnectionCount(), "Expected Connection Pooled");
+			assertTrue(server.requests.get(2).startsWith("GET /2 HTTP/1.1"), "Expected Request Line");
+		}
+	}
+
+	@Test
+	public void chunked() throws Exception {
+		try (Server server = new Server((i, request) ->
+				"HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n" +
+				"5\r\nhello\r\n6;ext=1\r\n world\r\n0\r\nTrailer: x\r\n\r\n"
+		)) {
+			NioEngine engine = new NioEngine();
+			ClientRequestContext<Endpoint> req = this.request(server, Method.POST, "/");
+			req.request().getHeaders().put(Headers.TRANSFER_ENCODING, "chunked");
+			req.body(new BytesBody("abc".getBytes(StandardCharsets.UTF_8)));
+
+			assertEquals(Collections.singletonList(null), this.send(engine, req), "Expected No Error");
+			assertEquals("hello world", body(req), "Expected Chunked Body");
+			assertTrue(server.requests.get(0).endsWith("\r\n\r\n3\r\nabc\r\n0\r\n\r\n"), "Expected Chunked Request Body");
+			assertFalse(server.requests.get(0).contains(Headers.CONTENT_LENGTH), "Expected No Content-Length");
+
+			ClientRequestContext<Endpoint> reused = this.request(server, Method.GET, "/");
+
+			assertEquals(Collections.singletonList(null), this.send(engine, reused), "Expected No Error");
+			assertEquals(1, server.connections.get(), "Expected Connection Reused After Chunked Body");
+		}
+	}
+
+	@Test
+	public void fileBody() throws Exception {
+		try (Server server = new Server((i, request) -> response(""))) {
+			NioEngine engine = new NioEngine();
+			File file = File.createTempFile("NioEngineTest", ".bin");
+			file.deleteOnExit();
+			byte[] bytes = new byte[300_000];
+			new Random(1).nextBytes(bytes);
+			Files.write(file.toPath(), bytes);
+
+			ClientRequestContext<Endpoint> req = this.request(server, Method.PUT, "/");
+			req.body(new FileBody(file));
+
+			assertEquals(Collections.singletonList(null), this.send(engine, req), "Expected No Error");
+
+			String request = server.requests.get(0);
+
+			assertTrue(request.contains("Content-Length: 300000\r\n"), "Expected File Size");
+			assertTrue(request.endsWith("\r\n\r\n" + new String(bytes, StandardCharsets.ISO_8859_1)), "Expected File Transferred");
+		}
+	}
+
+	@Test
+	public void unknownLength() throws Exception {
+		try (Server server = new Server((i, request) -> response(""))) {
+			NioEngine engine = new NioEngine();
+			ClientRequestContext<Endpoint> req = this.request(server, Method.POST, "/");
+			req.body(new StreamBody(new ByteArrayInputStream("streamed".getBytes(StandardCharsets.UTF_8))));
+
+			assertEquals(Collections.singletonList(null), this.send(engine, req), "Expected No Error");
+
+			String request = server.requests.get(0);
+
+			assertTrue(request.contains("Transfer-Encoding: chunked\r\n"), "Expected Chunked Fallback");
+			assertFalse(request.contains(Headers.CONTENT_LENGTH), "Expected No Content-Length");
+			assertTrue(request.endsWith("\r\n\r\n8\r\nstreamed\r\n0\r\n\r\n"), "Expected Chunked Request Body");
+		}
+	}
+
+	@Test
+	public void timeout() throws Exception {
+		try (Server server = new Server((i, request) -> {
+			if (i == 1)
+				try {
+					Thread.sleep(1000);
+				} catch (InterruptedException ignored) {
+				}
+
+			return response("");
+		})) {
+			NioEngine engine = new NioEngine(new NioConnectionPool(5, 5, TimeUnit.MINUTES, 1000, 200));
+
+			assertEquals(Collections.singletonList(null), this.send(engine, this.request(server, Method.GET, "/")), "Expected No Error");
+
+			List<Throwable> errors = this.send(engine, this.request(server, Method.GET, "/"));
+
+			assertEquals(1, errors.size(), "Expected Completed");
+			assertTrue(errors.get(0) instanceof SocketTimeoutException, "Expected Timeout");
+			assertEquals(1, server.connections.get(), "Expected Timeout Not Retried");
+			assertEquals(0, engine.getPool().idleConnectionCount(), "Expected Connection Discarded");
+		}
+	}
+
+	@Test
+	public void staleRetry() throws Exception {
+		//the second request on each connection gets the connection closed without a response
+		try (Server server = new Server((i, request) -> i % 2 == 1 ? null : response("fresh" + i))) {
+			NioEngine engine = new NioEngine();
+			ClientRequestContext<Endpoint> first = this.request(server, Method.GET, "/");
+
+			assertEquals(Collections.singletonList(null), this.send(engine, first), "Expected No Error");
+			assertEquals("fresh0", body(first), "Expected Response");
+
+			ClientRequestContext<Endpoint> get = this.request(server, Method.GET, "/");
+
+			assertEquals(Collections.singletonList(null), this.send(engine, get), "Expected Idempotent Request Retried");
+			assertEquals("fresh2", body(get), "Expected Response Of The Retry");
+			assertEquals(2, server.connections.get(), "Expected New Connection");
+
+			ClientRequestContext<Endpoint> post = this.request(server, Method.POST, "/");
+			post.body(new BytesBody("abc".getBytes(StandardCharsets.UTF_8)));
+			List<Throwable> errors = this.send(engine, post);
+
+			assertEquals(1, errors.size(), "Expected Completed");
+			assertTrue(errors.get(0) instanceof IOException, "Expected Failure");
+			assertEquals(4, server.requests.size(), "Expected Non-Idempotent Request Sent Once");
+			assertEquals(2, server.connections.get(), "Expected No New Connection");
+		}
+	}
+
+	@Test
+	public void streaming() throws Exception {
+		try (Server server = new Server((i, request) -> i == 2 ?
+				"HTTP/1.1 200 OK\r\nConnection: close\r\n\r\nuntil close" :
+				response("response" + i)
+		)) {
+			NioEngine engine = new NioEngine();
+			ClientRequestContext<Endpoint> unread = this.request(server, Method.GET, "/");
+
+			assertEquals(Collections.singletonList(null), this.send(engine, unread), "Expected No Error");
+			assertTrue(unread.res().body() instanceof StreamBody, "Expected Streamed Body");
+			assertEquals(0, engine.getPool().idleConnectionCount(), "Expected Connection Held By The Body");
+
+			try (InputStream stream = unread.res().body().openInputStream()) {
+				assertEquals('r', stream.read(), "Expected First Byte");
+			}
+
+			assertEquals(0, engine.getPool().idleConnectionCount(), "Expected Connection Closed With The Unfinished Body");
+
+			ClientRequestContext<Endpoint> read = this.request(server, Method.GET, "/");
+
+			assertEquals(Collections.singletonList(null), this.send(engine, read), "Expected No Error");
+
+			InputStream stream = read.res().body().openInputStream();
+
+			assertEquals("response1", new String(StreamUtil.readAllBytes(stream), StandardCharsets.UTF_8), "Expected Streamed Body");
+			assertEquals(1, engine.getPool().idleConnectionCount(), "Expected Connection Released At The End Of The Body");
+
+			ClientRequestContext<Endpoint> delimited = this.request(server, Method.GET, "/");
+
+			assertEquals(Collections.singletonList(null), this.send(engine, delimited), "Expected No Error");
+			assertEquals("until close", body(delimited), "Expected Body Delimited By Close");
+			assertEquals(0, engine.getPool().idleConnectionCount(), "Expected Connection Not Reused After Close Delimited Body");
+			assertEquals(2, server.connections.get(), "Expected Connection Reused After Finished Body");
+		}
+	}
+
+	@Test
+	public void closedPool() throws Exception {
+		try (Server server = new Server((i, request) -> response("response" + i))) {
+			NioConnectionPool pool = new NioConnectionPool();
+			NioEngine engine = new NioEngine(pool);
+			NioConnection connection = pool.acquire("127.0.0.1", server.socket.getLocalPort());
+
+			pool.close();
+			pool.release(connection);
+
+			assertFalse(connection.channel.isOpen(), "Expected In-Use Connection Closed When Released");
+			assertEquals(0, pool.idleConnectionCount(), "Expected Connection Not Pooled");
+			assertThrows(IOException.class, () -> pool.acquire("127.0.0.1", server.socket.getLocalPort()), "Expected Acquire Failing");
+
+			List<Throwable> errors = this.send(engine, this.request(server, Method.GET, "/"));
+
+			assertEquals(1, errors.size(), "Expected Completed");
+			assertTrue(errors.get(0) instanceof IOException, "Expected Request Failing On Closed Pool");
+		}
+	}
+
+	private static final class Server implements Closeable {
+		private final AtomicInteger connections = new AtomicInteger();
+		private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+		private final ServerSocket socket;
+
+		private Server(BiFunction<Integer, String, String> handler) throws IOException {
+			this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+
+			Thread thread = new Thread(() -> {
+				while (true) {
+					Socket client;
+
+					try {
+						client = this.socket.accept();
+					} catch (IOException e) {
+						return;
+					}
+
+					this.connections.incrementAndGet();
+					Thread worker = new Thread(() -> this.serve(client, handler));
+					worker.setDaemon(true);
+					worker.start();
+				}
+			});
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.socket.close();
+		}
+
+		private void serve(Socket client, BiFunction<Integer, String, String> handler) {
+			try (Socket socket = client) {
+				InputStream input = new BufferedInputStream(socket.getInputStream());
+				OutputStream output = socket.getOutputStream();
+
+				while (true) {
+					StringBuilder request = new StringBuilder();
+					long length = 0;
+					boolean chunked = false;
+
+					for (String line; (line = readLine(input)) != null; ) {
+						request.append(line).append("\r\n");
+
+						if (line.isEmpty())
+							break;
+						if (line.toLowerCase().startsWith("content-length:"))
+							length = Long.parseLong(line.substring(15).trim());
+						if (line.toLowerCase().startsWith("transfer-encoding:"))
+							chunked = true;
+					}
+
+					if (request.length() == 0)
+						return;
+
+					if (chunked)
+						for (String line; (line = readLine(input)) != null; ) {
+							request.append(line).append("\r\n");
+
+							if (line.equals("0")) {
+								request.append(readLine(input)).append("\r\n");
+								break;
+							}
+						}
+					else
+						for (long i = 0; i < length; i++)
+							request.append((char) input.read());
+
+					int index = this.requests.size();
+					this.requests.add(request.toString());
+					String response = handler.apply(index, request.toString());
+
+					if (response == null)
+						return;
+
+					output.write(response.getBytes(StandardCharsets.ISO_8859_1));
+					output.flush();
+
+					if (response.contains("\r\nConnection: close\r\n"))
+						return;
+				}
+			} catch (IOException ignored) {
+			}
+		}
+	}
+}
@@ -0,0 +1,393 @@
+package org.cufy.http.nio;
+
+import org.cufy.http.*;
+import org.cufy.http.body.BytesBody;
+import org.cufy.http.body.FileBody;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.body.TextBody;
+import org.cufy.http.pipeline.Pipe;
+import org.cufy.http.server.ServerExchange;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioServerEngineTest {
+	static final SocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+	static Pipe<ServerExchange> echo() {
+		return (exchange, next) -> {
+			Request request = exchange.getRequest();
+			Body body = request.getBody();
+			String content = request.getRequestLine().getUri().getPath() + (body == null ? "" : ":" + body);
+
+			exchange.getResponse().setBody(new TextBody(content));
+			next.invoke();
+		};
+	}
+
+	static Socket connect(SocketAddress address) throws IOException {
+		Socket socket = new Socket();
+		socket.connect(address, 5000);
+		socket.setSoTimeout(5000);
+		return socket;
+	}
+
+	static void write(Socket socket, String data) throws IOException {
+		OutputStream stream = socket.getOutputStream();
+		stream.write(data.getBytes(StandardCharsets.ISO_8859_1));
+		stream.flush();
+	}
+
+	static String readLine(InputStream stream) throws IOException {
+		StringBuilder line = new StringBuilder();
+
+		for (int b; (b = stream.read()) != '\n'; ) {
+			if (b < 0)
+				return line.length() == 0 ? null : line.toString();
+
+			line.append((char) b);
+		}
+
+		return line.toString().trim();
+	}
+
+	static byte[] readFully(InputStream stream, int length) throws IOException {
+		byte[] bytes = new byte[length];
+
+		for (int offset = 0; offset < length; ) {
+			int read = stream.read(bytes, offset, length - offset);
+
+			if (read < 0)
+				throw new EOFException("Expected " + length + " bytes");
+
+			offset += read;
+		}
+
+		return bytes;
+	}
+
+	static Reply read(InputStream stream) throws IOException {
+		String statusLine = readLine(stream);
+
+		if (statusLine == null)
+			return null;
+
+		Reply reply = new Reply(statusLine);
+
+		for (String line; !(line = readLine(stream)).isEmpty(); ) {
+			int colon = line.indexOf(':');
+			reply.headers.append(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+		}
+
+		String contentLength = reply.headers.get(Headers.CONTENT_LENGTH);
+		String transferEncoding = reply.headers.get(Headers.TRANSFER_ENCODING);
+
+		if (contentLength != null)
+			reply.body = new String(readFully(stream, Integer.parseInt(contentLength)), StandardCharsets.ISO_8859_1);
+		else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).endsWith("chunked")) {
+			StringBuilder body = new StringBuilder();
+
+			for (int size; (size = Integer.parseInt(readLine(stream), 16)) > 0; ) {
+				body.append(new String(readFully(stream, size), StandardCharsets.ISO_8859_1));
+				readLine(stream);
+			}
+
+			readLine(stream);
+			reply.body = body.toString();
+		}
+
+		return reply;
+	}
+
+	static void assertClosed(Socket socket, String message) throws IOException {
+		try {
+			assertEquals(-1, socket.getInputStream().read(), message);
+		} catch (IOException e) {
+			//reset by the server
+		}
+	}
+
+	private static NioServerEngine serve(Pipe<ServerExchange> pipe, int idleTimeout, long maxContentLength) {
+		return serve(pipe, 2, idleTimeout, maxContentLength);
+	}
+
+	private static NioServerEngine serve(Pipe<ServerExchange> pipe, int loops, int idleTimeout, long maxContentLength) {
+		NioServerEngine engine = new NioServerEngine(LOOPBACK, pipe, loops, idleTimeout, maxContentLength);
+		engine.serve(error -> {
+		});
+		return engine;
+	}
+
+	@Test
+	public void keepAlive() throws IOException {
+		try (NioServerEngine engine = serve(echo(), 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			for (int i = 0; i < 3; i++) {
+				write(socket, "GET /" + i + " HTTP/1.1\r\nHost: localhost\r\n\r\n");
+				Reply reply = read(socket.getInputStream());
+
+				assertNotNull(reply, "Expected Response On Reused Connection");
+				assertEquals("HTTP/1.1 200 OK", reply.statusLine, "Expected Success");
+				assertEquals("/" + i, reply.body, "Expected Length Delimited Body");
+			}
+
+			write(socket, "GET /last HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+			assertEquals("/last", read(socket.getInputStream()).body, "Expected Last Response");
+			assertClosed(socket, "Expected Connection Closed When Asked");
+		}
+	}
+
+	@Test
+	public void pipelining() throws IOException {
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			String path = exchange.getRequest().getRequestLine().getUri().getPath();
+			exchange.getResponse().setBody(new TextBody(path));
+
+			//the first completes last
+			new Thread(() -> {
+				try {
+					Thread.sleep(path.equals("/0") ? 200 : 0);
+				} catch (InterruptedException ignored) {
+				}
+
+				next.invoke();
+			}).start();
+		};
+
+		try (NioServerEngine engine = serve(pipe, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket,
+					"GET /0 HTTP/1.1\r\n\r\n" +
+					"POST /1 HTTP/1.1\r\nContent-Length: 4\r\n\r\nbody" +
+					"GET /2 HTTP/1.1\r\n\r\n"
+			);
+
+			for (int i = 0; i < 3; i++)
+				assertEquals("/" + i, read(socket.getInputStream()).body, "Expected Responses In Order");
+		}
+	}
+
+	@Test
+	public void expectContinue() throws IOException {
+		try (NioServerEngine engine = serve(echo(), 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "POST /upload HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 4\r\n\r\n");
+
+			assertEquals("HTTP/1.1 100 Continue", read(socket.getInputStream()).statusLine, "Expected Interim Response");
+
+			write(socket, "body");
+			Reply reply = read(socket.getInputStream());
+
+			assertEquals("HTTP/1.1 200 OK", reply.statusLine, "Expected Final Response");
+			assertEquals("/upload:body", reply.body, "Expected Body Received After Continue");
+		}
+	}
+
+	@Test
+	public void malformed() throws IOException {
+		try (NioServerEngine engine = serve(echo(), 60_000, 16)) {
+			try (Socket socket = connect(engine.getLocalAddress())) {
+				write(socket, "NOT A REQUEST\r\n\r\n");
+
+				assertEquals("400", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Bad Request");
+				assertClosed(socket, "Expected Connection Closed After Bad Request");
+			}
+			try (Socket socket = connect(engine.getLocalAddress())) {
+				write(socket, "POST / HTTP/1.1\r\nContent-Length: 32\r\n\r\n01234567890123456789012345678901");
+
+				assertEquals("400", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Bad Request On Content Too Long");
+				assertClosed(socket, "Expected Connection Closed After Bad Request");
+			}
+		}
+	}
+
+	@Test
+	public void pipeError() throws IOException {
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			String path = exchange.getRequest().getRequestLine().getUri().getPath();
+
+			if (path.equals("/thrown"))
+				throw new IllegalStateException("thrown");
+
+			next.invoke(new IOException("passed"));
+		};
+
+		try (NioServerEngine engine = serve(pipe, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "GET /thrown HTTP/1.1\r\n\r\n");
+
+			assertEquals("500", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Internal Server Error On Thrown");
+
+			write(socket, "GET /passed HTTP/1.1\r\n\r\n");
+
+			assertEquals("500", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Internal Server Error On Passed");
+		}
+	}
+
+	@Test
+	public void idleSweep() throws IOException {
+		try (NioServerEngine engine = serve(echo(), 300, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "GET / HTTP/1.1\r\n\r\n");
+
+			assertEquals("/", read(socket.getInputStream()).body, "Expected Response");
+
+			long start = System.currentTimeMillis();
+			assertClosed(socket, "Expected Idle Connection Closed");
+			assertTrue(System.currentTimeMillis() - start < 4000, "Expected Idle Connection Closed By The Sweep");
+		}
+	}
+
+	@Test
+	public void fileBody() throws IOException {
+		byte[] bytes = new byte[300_000];
+		new Random(300_000).nextBytes(bytes);
+		File file = File.createTempFile("NioServerEngineTest", ".bin");
+		file.deleteOnExit();
+		Files.write(file.toPath(), bytes);
+
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			exchange.getResponse().setBody(new FileBody(file));
+			next.invoke();
+		};
+
+		try (NioServerEngine engine = serve(pipe, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			for (int i = 0; i < 2; i++) {
+				write(socket, "GET /file HTTP/1.1\r\n\r\n");
+				Reply reply = read(socket.getInputStream());
+
+				assertEquals(Integer.toString(bytes.length), reply.headers.get(Headers.CONTENT_LENGTH), "Expected File Length");
+				assertEquals(new String(bytes, StandardCharsets.ISO_8859_1), reply.body, "Expected File Transferred");
+			}
+
+			write(socket, "HEAD /file HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+			assertEquals("HTTP/1.1 200 OK", readLine(socket.getInputStream()), "Expected Head Response");
+
+			while (!readLine(socket.getInputStream()).isEmpty())
+				;
+
+			assertClosed(socket, "Expected No Body After Head Response");
+		}
+	}
+
+	@Test
+	public void framing() throws IOException {
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			Response response = exchange.getResponse();
+			String path = exchange.getRequest().getRequestLine().getUri().getPath();
+
+			if (path.equals("/chunked")) {
+				response.getHeaders().put(Headers.TRANSFER_ENCODING, "chunked");
+				response.setBody(new TextBody("chunked content"));
+			} else if (path.equals("/coded")) {
+				//a body the pipe encoded itself
+				response.getHeaders().put(Headers.TRANSFER_ENCODING, "gzip, chunked");
+				response.setBody(new TextBody("coded content"));
+			} else if (path.equals("/stream"))
+				response.setBody(new StreamBody(new ByteArrayInputStream("streamed content".getBytes(StandardCharsets.UTF_8))));
+			else
+				response.setBody(new BytesBody(new byte[0]));
+
+			next.invoke();
+		};
+
+		try (NioServerEngine engine = serve(pipe, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "GET /chunked HTTP/1.1\r\n\r\n");
+			Reply chunked = read(socket.getInputStream());
+
+			assertNull(chunked.headers.get(Headers.TRANSFER_ENCODING), "Expected Transfer Encoding Of The Pipe Replaced");
+			assertEquals("chunked content", chunked.body, "Expected Length Delimited Body");
+
+			write(socket, "GET /coded HTTP/1.1\r\n\r\n");
+			Reply coded = read(socket.getInputStream());
+
+			assertEquals(Arrays.asList("gzip", "chunked"), coded.headers.getAll(Headers.TRANSFER_ENCODING), "Expected Transfer Codings Of The Pipe Kept");
+			assertNull(coded.headers.get(Headers.CONTENT_LENGTH), "Expected No Length With Transfer Codings");
+			assertEquals("coded content", coded.body, "Expected Chunked Body");
+
+			write(socket, "GET /stream HTTP/1.1\r\n\r\n");
+			Reply stream = read(socket.getInputStream());
+
+			assertEquals("chunked", stream.headers.get(Headers.TRANSFER_ENCODING), "Expected Unknown Length Chunked");
+			assertEquals("streamed content", stream.body, "Expected Stream Chunked");
+
+			write(socket, "GET /empty HTTP/1.1\r\n\r\n");
+
+			assertEquals("", read(socket.getInputStream()).body, "Expected Empty Body");
+		}
+	}
+
+	@Test
+	public void streamBody() throws IOException, InterruptedException {
+		byte[] bytes = new byte[300_000];
+		new Random(300_000).nextBytes(bytes);
+		CountDownLatch latch = new CountDownLatch(1);
+
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			String path = exchange.getRequest().getRequestLine().getUri().getPath();
+
+			if (path.equals("/slow"))
+				exchange.getResponse().setBody(new StreamBody(new SequenceInputStream(
+						new ByteArrayInputStream(bytes, 0, 100_000),
+						new FilterInputStream(new ByteArrayInputStream(bytes, 100_000, 200_000)) {
+							@Override
+							public int read(byte[] b, int off, int len) throws IOException {
+								try {
+									latch.await();
+								} catch (InterruptedException e) {
+									throw new InterruptedIOException();
+								}
+
+								return super.read(b, off, len);
+							}
+						}
+				)));
+			else
+				exchange.getResponse().setBody(new TextBody("fast"));
+
+			next.invoke();
+		};
+
+		//a single loop, so a stalled loop would stall the fast connection too
+		try (NioServerEngine engine = serve(pipe, 1, 60_000, 1 << 20);
+			 Socket slow = connect(engine.getLocalAddress());
+			 Socket fast = connect(engine.getLocalAddress())) {
+			write(slow, "GET /slow HTTP/1.1\r\n\r\n");
+			write(fast, "GET /fast HTTP/1.1\r\n\r\n");
+
+			assertEquals("fast", read(fast.getInputStream()).body, "Expected Loop Not Stalled By A Slow Body");
+
+			latch.countDown();
+			Reply reply = read(slow.getInputStream());
+
+			assertEquals("chunked", reply.headers.get(Headers.TRANSFER_ENCODING), "Expected Unknown Length Chunked");
+			assertEquals(new String(bytes, StandardCharsets.ISO_8859_1), reply.body, "Expected Stream Transferred");
+		}
+	}
+
+	static final class Reply {
+		final Headers headers = new Headers();
+		final String statusLine;
+		String body;
+
+		Reply(String statusLine) {
+			this.statusLine = statusLine;
+		}
+	}
+}
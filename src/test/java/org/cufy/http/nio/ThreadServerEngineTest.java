@@ -0,0 +1,293 @@
+package org.cufy.http.nio;
+
+import org.cufy.http.Headers;
+import org.cufy.http.Response;
+import org.cufy.http.body.FileBody;
+import org.cufy.http.body.StreamBody;
+import org.cufy.http.body.TextBody;
+import org.cufy.http.concurrent.VirtualThreadPerformer;
+import org.cufy.http.pipeline.Pipe;
+import org.cufy.http.server.ServerExchange;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.cufy.http.nio.NioServerEngineTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreadServerEngineTest {
+	private static ThreadServerEngine serve(Pipe<ServerExchange> pipe, int maxThreads, int idleTimeout, long maxContentLength) {
+		return serve(pipe, maxThreads, idleTimeout, maxContentLength, true);
+	}
+
+	private static ThreadServerEngine serve(Pipe<ServerExchange> pipe, int maxThreads, int idleTimeout, long maxContentLength, boolean virtualThreads) {
+		ThreadServerEngine engine = new ThreadServerEngine(LOOPBACK, pipe, maxThreads, idleTimeout, maxContentLength, virtualThreads);
+		engine.serve(error -> {
+		});
+		return engine;
+	}
+
+	@Test
+	public void keepAlive() throws IOException {
+		try (ThreadServerEngine engine = serve(echo(), 4, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			for (int i = 0; i < 3; i++) {
+				write(socket, "GET /" + i + " HTTP/1.1\r\n\r\n");
+
+				assertEquals("/" + i, read(socket.getInputStream()).body, "Expected Response On Reused Connection");
+			}
+
+			write(socket,
+					"GET /3 HTTP/1.1\r\n\r\n" +
+					"POST /4 HTTP/1.1\r\nContent-Length: 4\r\n\r\nbody" +
+					"GET /5 HTTP/1.1\r\nConnection: close\r\n\r\n"
+			);
+
+			assertEquals("/3", read(socket.getInputStream()).body, "Expected Pipelined Responses In Order");
+			assertEquals("/4:body", read(socket.getInputStream()).body, "Expected Pipelined Responses In Order");
+			assertEquals("/5", read(socket.getInputStream()).body, "Expected Pipelined Responses In Order");
+			assertClosed(socket, "Expected Connection Closed When Asked");
+		}
+	}
+
+	@Test
+	public void expectContinue() throws IOException {
+		try (ThreadServerEngine engine = serve(echo(), 4, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "POST /upload HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 4\r\n\r\n");
+
+			assertEquals("HTTP/1.1 100 Continue", read(socket.getInputStream()).statusLine, "Expected Interim Response");
+
+			write(socket, "body");
+
+			assertEquals("/upload:body", read(socket.getInputStream()).body, "Expected Body Received After Continue");
+		}
+	}
+
+	@Test
+	public void errors() throws IOException {
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			throw new IllegalStateException("thrown");
+		};
+
+		try (ThreadServerEngine engine = serve(pipe, 4, 60_000, 16)) {
+			try (Socket socket = connect(engine.getLocalAddress())) {
+				write(socket, "GET / HTTP/1.1\r\n\r\n");
+
+				assertEquals("500", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Internal Server Error");
+			}
+			try (Socket socket = connect(engine.getLocalAddress())) {
+				write(socket, "NOT A REQUEST\r\n\r\n");
+
+				assertEquals("400", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Bad Request");
+				assertClosed(socket, "Expected Connection Closed After Bad Request");
+			}
+			try (Socket socket = connect(engine.getLocalAddress())) {
+				write(socket, "POST / HTTP/1.1\r\nContent-Length: 32\r\n\r\n01234567890123456789012345678901");
+
+				assertEquals("400", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Bad Request On Content Too Long");
+			}
+		}
+	}
+
+	@Test
+	public void idleTimeout() throws IOException {
+		try (ThreadServerEngine engine = serve(echo(), 4, 300, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "GET / HTTP/1.1\r\n\r\n");
+
+			assertEquals("/", read(socket.getInputStream()).body, "Expected Response");
+
+			long start = System.currentTimeMillis();
+			assertClosed(socket, "Expected Idle Connection Closed");
+			assertTrue(System.currentTimeMillis() - start < 4000, "Expected Idle Connection Closed After The Timeout");
+		}
+	}
+
+	@Test
+	public void bodies() throws IOException {
+		byte[] bytes = new byte[300_000];
+		new Random(300_000).nextBytes(bytes);
+		File file = File.createTempFile("ThreadServerEngineTest", ".bin");
+		file.deleteOnExit();
+		Files.write(file.toPath(), bytes);
+
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			Response response = exchange.getResponse();
+			String path = exchange.getRequest().getRequestLine().getUri().getPath();
+
+			if (path.equals("/file"))
+				response.setBody(new FileBody(file));
+			else if (path.equals("/chunked")) {
+				response.getHeaders().put(Headers.TRANSFER_ENCODING, "chunked");
+				response.setBody(new TextBody("chunked content"));
+			} else if (path.equals("/coded")) {
+				//a body the pipe encoded itself
+				response.getHeaders().put(Headers.TRANSFER_ENCODING, "gzip, chunked");
+				response.setBody(new TextBody("coded content"));
+			} else
+				response.setBody(new StreamBody(new ByteArrayInputStream("streamed content".getBytes(StandardCharsets.UTF_8))));
+
+			next.invoke();
+		};
+
+		try (ThreadServerEngine engine = serve(pipe, 4, 60_000, 1 << 20);
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(socket, "GET /file HTTP/1.1\r\n\r\n");
+
+			assertEquals(new String(bytes, StandardCharsets.ISO_8859_1), read(socket.getInputStream()).body, "Expected File Transferred");
+
+			write(socket, "GET /stream HTTP/1.1\r\n\r\n");
+			Reply reply = read(socket.getInputStream());
+
+			assertEquals("chunked", reply.headers.get(Headers.TRANSFER_ENCODING), "Expected Unknown Length Chunked");
+			assertEquals("streamed content", reply.body, "Expected Chunked Body");
+
+			write(socket, "GET /chunked HTTP/1.1\r\n\r\n");
+			reply = read(socket.getInputStream());
+
+			assertNull(reply.headers.get(Headers.TRANSFER_ENCODING), "Expected Transfer Encoding Of The Pipe Replaced");
+			assertEquals("chunked content", reply.body, "Expected Length Delimited Body");
+
+			write(socket, "GET /coded HTTP/1.1\r\n\r\n");
+			Reply coded = read(socket.getInputStream());
+
+			assertEquals(Arrays.asList("gzip", "chunked"), coded.headers.getAll(Headers.TRANSFER_ENCODING), "Expected Transfer Codings Of The Pipe Kept");
+			assertNull(coded.headers.get(Headers.CONTENT_LENGTH), "Expected No Length With Transfer Codings");
+			assertEquals("coded content", coded.body, "Expected Chunked Body");
+		}
+	}
+
+	@Test
+	public void unlimitedOnVirtualThreads() throws IOException {
+		if (!VirtualThreadPerformer.isSupported())
+			//platform threads are always limited
+			return;
+
+		List<Socket> sockets = new ArrayList<>();
+
+		try (ThreadServerEngine engine = serve(echo(), 2, 60_000, 1 << 20)) {
+			//more connections than maxThreads
+			for (int i = 0; i < 3; i++) {
+				Socket socket = connect(engine.getLocalAddress());
+				sockets.add(socket);
+				write(socket, "GET /idle" + i + " HTTP/1.1\r\n\r\n");
+
+				assertEquals("/idle" + i, read(socket.getInputStream()).body, "Expected Response");
+			}
+			for (Socket socket : sockets) {
+				write(socket, "GET /again HTTP/1.1\r\n\r\n");
+
+				assertEquals("/again", read(socket.getInputStream()).body, "Expected Connections Not Limited");
+			}
+		} finally {
+			for (Socket socket : sockets)
+				socket.close();
+		}
+	}
+
+	@Test
+	public void saturatedByIdle() throws IOException, InterruptedException {
+		List<Socket> idle = new ArrayList<>();
+
+		try (ThreadServerEngine engine = serve(echo(), 2, 60_000, 1 << 20, false)) {
+			//more idle connections than threads
+			for (int i = 0; i < 3; i++) {
+				Socket socket = connect(engine.getLocalAddress());
+				idle.add(socket);
+
+				if (i < 2) {
+					write(socket, "GET /idle" + i + " HTTP/1.1\r\n\r\n");
+
+					assertEquals("/idle" + i, read(socket.getInputStream()).body, "Expected Response");
+				}
+			}
+
+			long start = System.currentTimeMillis();
+			Reply reply = read(idle.get(2).getInputStream());
+
+			assertEquals("503", reply.statusLine.split(" ")[1], "Expected Service Unavailable");
+			assertTrue(System.currentTimeMillis() - start < 1000, "Expected Rejected Without Waiting");
+			assertClosed(idle.get(0), "Expected Idle Connection Closed To Make Room");
+			assertClosed(idle.get(1), "Expected Idle Connection Closed To Make Room");
+
+			String body = null;
+
+			//the permits are released right after the connections are closed
+			for (int i = 0; i < 20 && body == null; i++)
+				try (Socket socket = connect(engine.getLocalAddress())) {
+					write(socket, "GET /new HTTP/1.1\r\n\r\n");
+					reply = read(socket.getInputStream());
+
+					if (reply != null && reply.statusLine.contains(" 200 "))
+						body = reply.body;
+					else
+						Thread.sleep(50);
+				} catch (IOException e) {
+					//reset by the rejection
+					Thread.sleep(50);
+				}
+
+			assertEquals("/new", body, "Expected Room Made By Idle Connections");
+		} finally {
+			for (Socket socket : idle)
+				socket.close();
+		}
+	}
+
+	@Test
+	public void saturatedByPartialHead() throws IOException, InterruptedException {
+		try (ThreadServerEngine engine = serve(echo(), 1, 60_000, 1 << 20, false);
+			 Socket partial = connect(engine.getLocalAddress())) {
+			write(partial, "GET /partial HTTP/1.1\r\nHost: loc");
+			Thread.sleep(100);
+
+			try (Socket socket = connect(engine.getLocalAddress())) {
+				assertEquals("503", read(socket.getInputStream()).statusLine.split(" ")[1], "Expected Service Unavailable");
+			}
+
+			//longer than the slices the evicted connections wait
+			Thread.sleep(1500);
+			write(partial, "alhost\r\n\r\n");
+
+			assertEquals("/partial", read(partial.getInputStream()).body, "Expected Connection Mid-Request Not Evicted");
+		}
+	}
+
+	@Test
+	public void saturatedByBusy() throws IOException, InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		Pipe<ServerExchange> pipe = (exchange, next) -> {
+			release.await(10, TimeUnit.SECONDS);
+			exchange.getResponse().setBody(new TextBody("busy"));
+			next.invoke();
+		};
+
+		try (ThreadServerEngine engine = serve(pipe, 1, 60_000, 1 << 20, false);
+			 Socket busy = connect(engine.getLocalAddress());
+			 Socket socket = connect(engine.getLocalAddress())) {
+			write(busy, "GET /busy HTTP/1.1\r\n\r\n");
+			Thread.sleep(100);
+
+			Reply reply = read(socket.getInputStream());
+
+			assertEquals("503", reply.statusLine.split(" ")[1], "Expected Service Unavailable");
+			assertClosed(socket, "Expected Rejected Connection Closed");
+
+			release.countDown();
+
+			assertEquals("busy", read(busy.getInputStream()).body, "Expected Busy Connection Answered");
+		}
+	}
+}
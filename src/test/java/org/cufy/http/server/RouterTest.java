@@ -0,0 +1,126 @@
+package org.cufy.http.server;
+
+import org.cufy.http.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouterTest {
+	private static ServerExchange exchange(Router router, String method, String path) throws Throwable {
+		Request request = new Request(r -> {
+			r.getRequestLine().setMethod(method);
+			r.getRequestLine().getUri().setPath(path);
+		});
+		ServerExchange exchange = new ServerExchange(request, new Response(), null);
+		List<Throwable> errors = new ArrayList<>();
+
+		router.invoke(exchange, errors::add);
+
+		assertEquals(Collections.singletonList(null), errors, "Expected Next Invoked Once");
+		return exchange;
+	}
+
+	@Test
+	public void dispatch() throws Throwable {
+		Endpoint endpoint = new Endpoint() {
+		};
+		Router router = new Router()
+				.route(Method.GET, "/data/v1/user/{id}", endpoint, (e, n) -> {
+					e.getExtras().put("route", "get");
+					n.invoke(null);
+				})
+				.route(Method.DELETE, "/data/v1/user/{userId}", (e, n) -> {
+					e.getExtras().put("route", "delete");
+					n.invoke(null);
+				})
+				.route(Method.GET, "/data/v1/user/me", (e, n) -> {
+					e.getExtras().put("route", "me");
+					n.invoke(null);
+				})
+				.route(Method.GET, "/data/v1/{kind}/{id}/posts", (e, n) -> {
+					e.getExtras().put("route", "posts");
+					n.invoke(null);
+				})
+				.route(Method.GET, "/", (e, n) -> {
+					e.getExtras().put("route", "root");
+					n.invoke(null);
+				});
+
+		ServerExchange get = exchange(router, Method.GET, "/data/v1/user/a%20b");
+
+		assertEquals("get", get.getExtras().get("route"), "Expected Variable Route");
+		assertEquals("a b", get.getParameters().get("id"), "Expected Decoded Parameter");
+		assertSame(endpoint, get.getEndpoint(), "Expected Endpoint Set");
+
+		ServerExchange delete = exchange(router, Method.DELETE, "/data/v1/user/7");
+
+		assertEquals("7", delete.getParameters().get("userId"), "Expected Per-Route Names");
+		assertEquals("me", exchange(router, Method.GET, "/data/v1/user/me").getExtras().get("route"), "Expected Static Precedence");
+
+		//static branch fails deeper then the variable branch matches
+		ServerExchange posts = exchange(router, Method.GET, "/data/v1/user/3/posts");
+
+		assertEquals("posts", posts.getExtras().get("route"), "Expected Backtracking");
+		assertEquals("user", posts.getParameters().get("kind"), "Expected First Parameter");
+		assertEquals("3", posts.getParameters().get("id"), "Expected Second Parameter");
+
+		assertEquals("root", exchange(router, Method.GET, "").getExtras().get("route"), "Expected Root Route");
+		assertEquals("get", exchange(router, Method.HEAD, "/data/v1/user/1").getExtras().get("route"), "Expected HEAD Fallback");
+	}
+
+	@Test
+	public void mismatch() throws Throwable {
+		Router router = new Router()
+				.route(Method.GET, "/user/{id}", (e, n) -> n.invoke(null))
+				.route(Method.PUT, "/user/{id}", (e, n) -> n.invoke(null));
+
+		ServerExchange missing = exchange(router, Method.GET, "/user/");
+
+		assertEquals(StatusCode.NOT_FOUND, missing.getResponse().getStatusLine().getStatusCode(), "Expected Empty Segment Unmatched");
+		assertEquals(StatusCode.NOT_FOUND, exchange(router, Method.GET, "/user/1/x").getResponse().getStatusLine().getStatusCode(), "Expected Not Found");
+
+		ServerExchange post = exchange(router, Method.POST, "/user/1");
+
+		assertEquals(StatusCode.METHOD_NOT_ALLOWED, post.getResponse().getStatusLine().getStatusCode(), "Expected Method Not Allowed");
+		assertEquals("GET, PUT, HEAD", post.getResponse().getHeaders().get(Headers.ALLOW), "Expected Allowed Methods");
+	}
+
+	@Test
+	public void methodBacktracking() throws Throwable {
+		Router router = new Router()
+				.route(Method.GET, "/users/{id}", (e, n) -> {
+					e.getExtras().put("route", "get");
+					n.invoke(null);
+				})
+				.route(Method.POST, "/users/new", (e, n) -> {
+					e.getExtras().put("route", "new");
+					n.invoke(null);
+				});
+
+		ServerExchange get = exchange(router, Method.GET, "/users/new");
+
+		assertEquals("get", get.getExtras().get("route"), "Expected Variable Route For Other Method");
+		assertEquals("new", get.getParameters().get("id"), "Expected Parameter Of Variable Route");
+		assertEquals("get", exchange(router, Method.HEAD, "/users/new").getExtras().get("route"), "Expected HEAD Fallback Through Variable Route");
+		assertEquals("new", exchange(router, Method.POST, "/users/new").getExtras().get("route"), "Expected Static Route For Its Method");
+
+		ServerExchange delete = exchange(router, Method.DELETE, "/users/new");
+
+		assertEquals(StatusCode.METHOD_NOT_ALLOWED, delete.getResponse().getStatusLine().getStatusCode(), "Expected Method Not Allowed");
+		assertEquals("POST", delete.getResponse().getHeaders().get(Headers.ALLOW), "Expected Allowed Methods Of Static Route");
+	}
+
+	@Test
+	public void registration() {
+		Router router = new Router().route(Method.GET, "/user/{id}", (e, n) -> n.invoke(null));
+
+		assertThrows(IllegalArgumentException.class, () -> router.route(Method.GET, "/user/{name}", (e, n) -> n.invoke(null)), "Expected Duplicate Route");
+		assertThrows(IllegalArgumentException.class, () -> router.route(Method.GET, "/a/{id}/{id}", (e, n) -> n.invoke(null)), "Expected Duplicate Variable");
+		assertThrows(IllegalArgumentException.class, () -> router.route(Method.GET, "/a/x{id}", (e, n) -> n.invoke(null)), "Expected Partial Variable Rejected");
+		assertThrows(IllegalArgumentException.class, () -> router.route(Method.GET, "a", (e, n) -> n.invoke(null)), "Expected Relative Template Rejected");
+	}
+}
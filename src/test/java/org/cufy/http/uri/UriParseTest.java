@@ -0,0 +1,46 @@
+package org.cufy.http.uri;
+
+import org.cufy.http.internal.syntax.UriPattern;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UriParseTest {
+	@Test
+	public void parseComponents() {
+		Uri uri = Uri.parse("https://user:pw@[::1]:8443/a/b?x=1&y=2=3&x=4#top");
+
+		assertEquals("https", uri.getScheme(), "Expected Scheme Mismatch");
+		assertEquals("user:pw", uri.getAuthority().getUserInfo().toString(), "Expected UserInfo Mismatch");
+		assertEquals("[::1]", uri.getAuthority().getHost(), "Expected Host Mismatch");
+		assertEquals("8443", uri.getAuthority().getPort(), "Expected Port Mismatch");
+		assertEquals("/a/b", uri.getPath(), "Expected Path Mismatch");
+		assertEquals("4", uri.getQuery().get("x"), "Expected Query Mismatch");
+		assertEquals("2=3", uri.getQuery().get("y"), "Expected Query Mismatch");
+		assertEquals("top", uri.getFragment(), "Expected Fragment Mismatch");
+	}
+
+	@Test
+	public void sameAsRegex() {
+		String[] sources = {
+				"", "/", "//", "a:b", "a:b:c", "b:c/d", "1a:b", "./a:b", "?q#f", "#",
+				"http://h:80x/", "http://a@b@c/", "http://[::1", "http://[v1.x]/",
+				"http://[1:2:3:4:5:6:7:8]", "http://[1::2::3]", "http://[1:2:3:4:5:6::1.2.3.4]",
+				"http://%zz/", "http://h/%2f%", "http://h/ /", "a,b+c.d-e:x", "http://ü/"
+		};
+
+		for (String source : sources) {
+			boolean expected = UriPattern.URI_REFERENCE.matcher(source).matches();
+			boolean actual;
+
+			try {
+				Uri.parse(source);
+				actual = true;
+			} catch (IllegalArgumentException ignored) {
+				actual = false;
+			}
+
+			assertEquals(expected, actual, "Expected Validation Mismatch: " + source);
+		}
+	}
+}
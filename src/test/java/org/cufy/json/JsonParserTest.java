@@ -0,0 +1,86 @@
+package org.cufy.json;
+
+import org.cufy.http.json.JsonElement;
+import org.cufy.http.json.JsonNumber;
+import org.cufy.http.json.JsonParser;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonParserTest {
+	@Test
+	public void parseBytes() {
+		@Language("json")
+		String source = " {\"name\": \"\\u0057orld é漢😀\", \"list\": [1, -2.5, 3e2, true, null, {}, []]} ";
+		byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+
+		JsonElement element = JsonParser.parse(bytes);
+
+		assertEquals(
+				"{\"name\":\"World é漢😀\",\"list\":[1,-2.5,3E+2,true,null,{},[]]}",
+				element.json(),
+				"Expected Json Mismatch"
+		);
+		assertEquals(
+				element,
+				JsonParser.parse(ByteBuffer.wrap(bytes)),
+				"Expected Buffer Result Mismatch"
+		);
+	}
+
+	@Test
+	public void parseNumbers() {
+		String[] sources = {"0", "-12", "9223372036854775807", "-9223372036854775808", "1.50", "-0.001", "25e-3", "1e400", "0.12345678901234567890", "1e19", "-1e19", "10000000000000000000"};
+
+		for (String source : sources) {
+			JsonNumber number = (JsonNumber) JsonParser.parse(source.getBytes(StandardCharsets.UTF_8));
+			BigDecimal expected = new BigDecimal(source);
+
+			assertEquals(expected, number.value(), "Expected Value Mismatch: " + source);
+			assertEquals(expected.doubleValue(), number.doubleValue(), "Expected Double Mismatch: " + source);
+			assertEquals(expected.longValue(), number.longValue(), "Expected Long Mismatch: " + source);
+			assertEquals(new JsonNumber(expected), number, "Expected Equality: " + source);
+			assertEquals(new JsonNumber(expected).hashCode(), number.hashCode(), "Expected Hash Mismatch: " + source);
+		}
+
+		assertEquals(
+				new JsonNumber(new BigDecimal("10000000000000000000")).longValue(),
+				new JsonNumber(1e19).longValue(),
+				"Expected Consistent Overflow"
+		);
+	}
+
+	@Test
+	public void numberHashes() {
+		JsonNumber[][] groups = {
+				{new JsonNumber(1), new JsonNumber(1.0), new JsonNumber(new BigDecimal("1.00")), JsonNumber.parse("1.0"), JsonNumber.parse("10e-1")},
+				{new JsonNumber(-300), new JsonNumber(-3e2), new JsonNumber(new BigDecimal("-3E+2")), JsonNumber.parse("-3e2")},
+				{new JsonNumber(Long.MAX_VALUE), new JsonNumber(new BigDecimal("9223372036854775807.0"))},
+				{new JsonNumber(0.5), new JsonNumber(new BigDecimal("0.50")), JsonNumber.parse("5e-1")}
+		};
+
+		for (JsonNumber[] group : groups)
+			for (JsonNumber number : group) {
+				assertEquals(group[0], number, "Expected Equality: " + number);
+				assertEquals(group[0].hashCode(), number.hashCode(), "Expected Hash Mismatch: " + number);
+			}
+	}
+
+	@Test
+	public void reportInvalid() {
+		String[] sources = {"", "[1 2]", "{\"a\" 1}", "{1:2}", "01", "1.", "\"abc", "[1]x", "tru"};
+
+		for (String source : sources)
+			assertThrows(
+					IllegalArgumentException.class,
+					() -> JsonParser.parse(source.getBytes(StandardCharsets.UTF_8)),
+					"Expected Exception: " + source
+			);
+	}
+}
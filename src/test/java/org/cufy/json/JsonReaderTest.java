@@ -0,0 +1,70 @@
+package org.cufy.json;
+
+import org.cufy.http.json.JsonParser;
+import org.cufy.http.json.JsonReader;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonReaderTest {
+	@Test
+	public void pull() throws IOException {
+		@Language("json")
+		String source = "{\"skip\": {\"a\": [1, \"]\", {\"b\": null}]}, \"id\": 9007199254740993, \"name\": \"\\u0057orld\", \"ok\": true}";
+
+		try (JsonReader reader = reader(source)) {
+			reader.beginObject();
+			assertEquals("skip", reader.nextName(), "Expected Name Mismatch");
+			reader.skipValue();
+			assertEquals("id", reader.nextName(), "Expected Name Mismatch");
+			assertEquals(9007199254740993L, reader.nextLong(), "Expected Long Mismatch");
+			reader.skipValue();
+			assertEquals(JsonReader.NAME, reader.peek(), "Expected Token Mismatch");
+			assertEquals("ok", reader.nextName(), "Expected Name Mismatch");
+			assertTrue(reader.nextBoolean(), "Expected Boolean Mismatch");
+			assertFalse(reader.hasNext(), "Expected No More Members");
+			reader.endObject();
+			assertEquals(JsonReader.END_DOCUMENT, reader.peek(), "Expected Token Mismatch");
+		}
+	}
+
+	@Test
+	public void elements() throws IOException {
+		@Language("json")
+		String source = " [1, -2.5, \"é漢😀\", {\"x\": [true, null]}, []] ";
+
+		try (JsonReader reader = reader(source)) {
+			assertEquals(
+					JsonParser.parse(source.getBytes(StandardCharsets.UTF_8)),
+					reader.nextElement(),
+					"Expected Element Mismatch"
+			);
+		}
+	}
+
+	@Test
+	public void errors() throws IOException {
+		try (JsonReader reader = reader("[1.5, 1e30]")) {
+			reader.beginArray();
+			assertThrows(IllegalArgumentException.class, reader::nextLong, "Expected Fraction To Be Rejected");
+		}
+		try (JsonReader reader = reader("{\"a\" 1}")) {
+			reader.beginObject();
+			reader.nextName();
+			assertThrows(IllegalArgumentException.class, reader::peek, "Expected Missing Colon To Be Rejected");
+		}
+		try (JsonReader reader = reader("[1] 2")) {
+			reader.skipValue();
+			assertThrows(IllegalArgumentException.class, reader::peek, "Expected Trailing Token To Be Rejected");
+		}
+	}
+
+	private static JsonReader reader(String source) {
+		return new JsonReader(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+	}
+}
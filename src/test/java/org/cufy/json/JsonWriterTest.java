@@ -0,0 +1,49 @@
+package org.cufy.json;
+
+import org.cufy.http.json.Json;
+import org.cufy.http.json.JsonElement;
+import org.cufy.http.json.JsonString;
+import org.cufy.http.json.JsonWriter;
+import org.intellij.lang.annotations.Language;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonWriterTest {
+	@Test
+	public void write() throws IOException {
+		@Language("json")
+		String source = "{\"name\": \"W\\\"orld é漢😀\\n\", \"list\": [1, -9223372036854775808, -2.5, 3e2, true, null, {}, []]}";
+		JsonElement element = Json.parse(source);
+		byte[] expected = element.json().getBytes(StandardCharsets.UTF_8);
+
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		JsonWriter writer = new JsonWriter(stream);
+		writer.write(element);
+		writer.flush();
+
+		assertArrayEquals(expected, stream.toByteArray(), "Expected Stream Bytes Mismatch");
+		assertEquals(expected.length, JsonWriter.length(element), "Expected Length Mismatch");
+
+		ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+		JsonWriter.write(element, buffer);
+
+		assertArrayEquals(expected, buffer.array(), "Expected Buffer Bytes Mismatch");
+	}
+
+	@Test
+	public void escapeControlCharacters() throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		JsonWriter writer = new JsonWriter(stream);
+		writer.write(new JsonString("a\u0001\u001fb"));
+		writer.flush();
+
+		assertEquals("\"a\\u0001\\u001fb\"", stream.toString("UTF-8"), "Expected Escaped Json Mismatch");
+	}
+}
@@ -0,0 +1,68 @@
+package org.cufy.http.client
+
+import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.cufy.http.Endpoint
+import org.cufy.http.Method
+import org.cufy.http.StatusCode
+import org.cufy.http.body.StreamBody
+import org.cufy.http.client.wrapper.*
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.io.ByteArrayInputStream
+import java.util.concurrent.atomic.AtomicBoolean
+
+class BodyFlowTest {
+    private val closed = AtomicBoolean()
+
+    private fun engine(content: String) =
+        ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> { input, next ->
+            val stream = object : ByteArrayInputStream(content.toByteArray()) {
+                override fun close() = closed.set(true)
+            }
+
+            input.res()
+                .statusCode(StatusCode.OK)
+                .body(StreamBody(stream))
+            next.invoke()
+        }
+
+    @Test
+    fun bodyFlow() {
+        runBlocking {
+            val res = Http.open(Method.GET, "http://example.com/")
+                .engine(engine("0123456789"))
+                .connectAwait(release = false)
+                .res()
+
+            val chunks = res.bodyFlow(4).map { String(it.array(), it.position(), it.remaining()) }.toList()
+
+            assertEquals(listOf("0123", "4567", "89"), chunks, "Expected Chunked Body")
+            assertTrue(closed.get(), "Expected Body Closed")
+        }
+    }
+
+    @Test
+    fun decodeFlow() {
+        runBlocking {
+            val ndjson = Http.open(Method.GET, "http://example.com/")
+                .engine(engine("1\n2\n3\n"))
+                .connectAwait(release = false)
+                .res()
+
+            assertEquals(listOf(1, 2, 3), ndjson.decodeFlow<Int>().toList(), "Expected NDJSON Elements")
+
+            val array = Http.open(Method.GET, "http://example.com/")
+                .engine(engine("[1, 2, 3]"))
+                .connectAwait(release = false)
+                .res()
+
+            closed.set(false)
+            assertEquals(listOf(1), array.decodeFlow<Int>().take(1).toList(), "Expected Array Elements")
+            assertTrue(closed.get(), "Expected Body Closed On Cancellation")
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.cufy.http.client
+
+import kotlinx.coroutines.*
+import org.cufy.http.Endpoint
+import org.cufy.http.Method
+import org.cufy.http.StatusCode
+import org.cufy.http.client.SuspendHttp.fetchSuspend
+import org.cufy.http.client.wrapper.ClientRequestContext
+import org.cufy.http.client.wrapper.ClientResponseContext
+import org.cufy.http.client.wrapper.connectAwait
+import org.cufy.http.concurrent.Cancellation
+import org.cufy.http.pipeline.Next
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ConnectAwaitTest {
+    private val cancelled = AtomicInteger()
+
+    private val suspendEngine =
+        object : SuspendClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> {
+            override suspend fun connectSuspend(input: ClientRequestContext<out Endpoint>) {
+                try {
+                    delay(100)
+                } catch (e: CancellationException) {
+                    cancelled.incrementAndGet()
+                    throw e
+                }
+
+                input.res().statusCode(StatusCode.OK)
+            }
+
+            override fun connect(
+                input: ClientRequestContext<out Endpoint>,
+                next: Next<ClientResponseContext<out Endpoint>>
+            ) = error("Expected connectSuspend")
+        }
+
+    @Test
+    fun suspendEngine() {
+        // 1000 concurrent calls on a single thread
+        val dispatcher = Executors.newSingleThreadExecutor().asCoroutineDispatcher()
+
+        runBlocking(dispatcher) {
+            val responses = List(1000) {
+                async { fetchSuspend(suspendEngine, Method.GET, "http://example.com/$it") }
+            }.awaitAll()
+
+            assertTrue(responses.all { it.statusCode() == StatusCode.OK }, "Expected All Completed")
+
+            val job = launch { fetchSuspend(suspendEngine, Method.GET, "http://example.com/") }
+            delay(10)
+            job.cancelAndJoin()
+
+            assertEquals(1, cancelled.get(), "Expected Cancellation Propagated")
+        }
+
+        dispatcher.close()
+    }
+
+    @Test
+    fun callbackEngine() {
+        val scheduler = Executors.newSingleThreadScheduledExecutor()
+        val engine = ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> { input, next ->
+            val future = scheduler.schedule({
+                input.res().statusCode(StatusCode.OK)
+                next.invoke()
+            }, 100, TimeUnit.MILLISECONDS)
+
+            Cancellation.of(input)?.register {
+                future.cancel(false)
+                cancelled.incrementAndGet()
+            }
+        }
+
+        runBlocking {
+            val res = fetchSuspend(engine, Method.GET, "http://example.com/")
+
+            assertEquals(StatusCode.OK, res.statusCode(), "Expected Response")
+
+            val job = launch { fetchSuspend(engine, Method.GET, "http://example.com/") }
+            delay(10)
+            job.cancelAndJoin()
+
+            assertEquals(1, cancelled.get(), "Expected Cancellation Propagated")
+        }
+
+        scheduler.shutdown()
+    }
+
+    @Test
+    fun engineCancellationException() {
+        // e.g. ParkPerformer timing out inside the engine
+        val engine = ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> { _, next ->
+            next.invoke(java.util.concurrent.CancellationException("timed out"))
+        }
+        val caught = AtomicInteger()
+
+        runBlocking {
+            Http.open(Method.GET, "http://example.com/")
+                .engine(engine)
+                .failed { if (it is java.util.concurrent.CancellationException) caught.incrementAndGet() }
+                .connectAwait()
+
+            assertTrue(isActive, "Expected Coroutine Not Cancelled")
+        }
+
+        assertEquals(1, caught.get(), "Expected Engine Failure Routed To The Catchers")
+    }
+}
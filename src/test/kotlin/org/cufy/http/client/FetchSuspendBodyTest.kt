@@ -0,0 +1,95 @@
+package org.cufy.http.client
+
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.cufy.http.Endpoint
+import org.cufy.http.Method
+import org.cufy.http.StatusCode
+import org.cufy.http.body.StreamBody
+import org.cufy.http.client.SuspendHttp.fetchStream
+import org.cufy.http.client.SuspendHttp.fetchSuspend
+import org.cufy.http.client.wrapper.ClientRequestContext
+import org.cufy.http.client.wrapper.ClientResponseContext
+import org.cufy.http.client.wrapper.bodyFlow
+import org.cufy.http.concurrent.CoroutinePerformer
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import java.io.ByteArrayInputStream
+import java.nio.ByteBuffer
+import java.util.concurrent.atomic.AtomicInteger
+
+class FetchSuspendBodyTest {
+    private val engine =
+        ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> { input, next ->
+            input.res()
+                .statusCode(StatusCode.OK)
+                .body(StreamBody(ByteArrayInputStream("content".toByteArray())))
+            next.invoke()
+        }
+
+    @Test
+    fun readAfterFetchSuspend() {
+        runBlocking {
+            val res = fetchSuspend(engine, Method.GET, "http://example.com/")
+
+            assertEquals("content", res.body().toString(), "Expected Body Readable After Fetch")
+        }
+    }
+
+    @Test
+    fun readAfterPerformedFetchSuspend() {
+        runBlocking {
+            val res = fetchSuspend(engine, CoroutinePerformer, Method.GET, "http://example.com/")
+
+            assertEquals("content", res.body().toString(), "Expected Body Readable After Fetch")
+        }
+    }
+
+    @Test
+    fun bodyFlowAfterFetchSuspend() {
+        runBlocking {
+            val res = fetchSuspend(engine, Method.GET, "http://example.com/")
+
+            assertEquals("content", string(res.bodyFlow(3).toList()), "Expected Detached Body Flowing")
+            assertEquals("content", string(res.bodyFlow().toList()), "Expected Detached Body Flowing Twice")
+        }
+    }
+
+    @Test
+    fun bodyFlowAfterFetchStream() {
+        val reads = AtomicInteger()
+        val closed = AtomicInteger()
+        val engine =
+            ClientEngine<ClientRequestContext<out Endpoint>, ClientResponseContext<out Endpoint>> { input, next ->
+                val stream = object : ByteArrayInputStream("content".toByteArray()) {
+                    override fun read(b: ByteArray, off: Int, len: Int): Int {
+                        reads.incrementAndGet()
+                        return super.read(b, off, len)
+                    }
+
+                    override fun close() {
+                        closed.incrementAndGet()
+                    }
+                }
+
+                input.res()
+                    .statusCode(StatusCode.OK)
+                    .body(StreamBody(stream))
+                next.invoke()
+            }
+
+        runBlocking {
+            val res = fetchStream(engine, Method.GET, "http://example.com/")
+
+            assertTrue(res.body() is StreamBody, "Expected Body Kept Attached")
+            assertEquals(0, reads.get(), "Expected Body Not Buffered")
+            assertEquals(0, closed.get(), "Expected Body Not Closed")
+            assertEquals("content", string(res.bodyFlow(3).toList()), "Expected Live Body Flowing")
+            assertEquals(1, closed.get(), "Expected Body Closed After Collecting")
+        }
+    }
+
+    private fun string(buffers: List<ByteBuffer>) =
+        buffers.joinToString("") { String(it.array(), it.arrayOffset() + it.position(), it.remaining()) }
+}